@@ -17,6 +17,7 @@ import org.hatemile.AccessibleAssociation;
 import org.hatemile.util.CommonFunctions;
 import org.hatemile.util.Configure;
 import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMNode;
 import org.hatemile.util.html.HTMLDOMParser;
 
 import java.util.ArrayList;
@@ -24,7 +25,16 @@ import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import org.hatemile.util.AttributeWrites;
 import org.hatemile.util.IDGenerator;
+import org.hatemile.util.LabelIndex;
+import org.hatemile.util.TableModel;
+import org.hatemile.util.TokenList;
+import org.hatemile.util.ValidElementIndex;
+import org.hatemile.util.html.HTMLTag;
 
 /**
  * The AccessibleAssociationImplementation class is official implementation of
@@ -43,6 +53,12 @@ public class AccessibleAssociationImplementation
      */
     protected final IDGenerator idGenerator;
 
+    /**
+     * The pool that associate the cells of tables in parallel or null to
+     * associate the cells of tables in the current thread.
+     */
+    protected final ForkJoinPool forkJoinPool;
+
     /**
      * Initializes a new object that improve the accessibility of associations
      * of parser.
@@ -51,26 +67,98 @@ public class AccessibleAssociationImplementation
      */
     public AccessibleAssociationImplementation(final HTMLDOMParser htmlParser,
             final Configure configure) {
+        this(htmlParser, configure, null);
+    }
+
+    /**
+     * Initializes a new object that improve the accessibility of associations
+     * of parser.
+     * @param htmlParser The HTML parser.
+     * @param configure The configuration of HaTeMiLe.
+     * @param pool The pool that associate the cells of tables in parallel or
+     * null to associate the cells of tables in the current thread.
+     */
+    public AccessibleAssociationImplementation(final HTMLDOMParser htmlParser,
+            final Configure configure, final ForkJoinPool pool) {
         parser = Objects.requireNonNull(htmlParser);
-        idGenerator = new IDGenerator("association");
+        idGenerator = IDGenerator.getIDGenerator("association", parser,
+                configure);
+        forkJoinPool = pool;
+    }
+
+    /**
+     * Returns the children of a element with a tag.
+     * @param element The element.
+     * @param tag The tag of children.
+     * @return The children of element with the tag.
+     */
+    protected static List<HTMLDOMElement> getChildren(
+            final HTMLDOMElement element, final HTMLTag tag) {
+        final List<HTMLDOMElement> children = new ArrayList<HTMLDOMElement>();
+        element.forEachChild(new Consumer<HTMLDOMNode>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final HTMLDOMNode child) {
+                if ((child instanceof HTMLDOMElement)
+                        && (((HTMLDOMElement) child).getTag() == tag)) {
+                    children.add((HTMLDOMElement) child);
+                }
+            }
+        });
+        return children;
+    }
+
+    /**
+     * Returns the first child of a element with a tag.
+     * @param element The element.
+     * @param tag The tag of child.
+     * @return The first child of element with the tag or null if the element
+     * not has this child.
+     */
+    protected static HTMLDOMElement getFirstChild(final HTMLDOMElement element,
+            final HTMLTag tag) {
+        for (HTMLDOMElement child : element.getChildrenElements()) {
+            if (child.getTag() == tag) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the model of table.
+     * @param part The table header, table body or table footer.
+     * @return The model of table.
+     */
+    protected TableModel getTableModel(final HTMLDOMElement part) {
+        return new TableModel(part);
     }
 
     /**
      * Returns a list that represents the table.
      * @param part The table header, table footer or table body.
      * @return The list that represents the table.
+     * @deprecated Prefer use {@link #getTableModel(HTMLDOMElement)} instead
+     * this method.
      */
+    @Deprecated
     protected List<List<HTMLDOMElement>> getModelTable(
             final HTMLDOMElement part) {
-        List<HTMLDOMElement> rows = parser.find(part).findChildren("tr")
-                .listResults();
+        TableModel model = getTableModel(part);
         List<List<HTMLDOMElement>> table =
                 new ArrayList<List<HTMLDOMElement>>();
-        for (HTMLDOMElement row : rows) {
-            table.add(getModelRow(parser.find(row).findChildren("td,th")
-                    .listResults()));
+        for (int i = 0, rowCount = model.getRowCount(); i < rowCount; i++) {
+            List<HTMLDOMElement> row = new ArrayList<HTMLDOMElement>();
+            for (int j = 0, rowLength = model.getRowLength(i); j < rowLength;
+                    j++) {
+                row.add(model.getCell(i, j));
+            }
+            table.add(row);
         }
-        return getValidModelTable(table);
+        return table;
     }
 
     /**
@@ -78,7 +166,10 @@ public class AccessibleAssociationImplementation
      * @param originalTable The list that represents the table without the
      * rowspans.
      * @return The list that represents the table with the rowspans.
+     * @deprecated Prefer use {@link #getTableModel(HTMLDOMElement)} instead
+     * this method.
      */
+    @Deprecated
     protected List<List<HTMLDOMElement>> getValidModelTable(
             final List<List<HTMLDOMElement>> originalTable) {
         int cellsAdded;
@@ -137,7 +228,10 @@ public class AccessibleAssociationImplementation
      * @param originalRow The list that represents the line of table without the
      * colspans.
      * @return The list that represents the line of table with the colspans.
+     * @deprecated Prefer use {@link #getTableModel(HTMLDOMElement)} instead
+     * this method.
      */
+    @Deprecated
     protected List<HTMLDOMElement> getModelRow(
             final List<HTMLDOMElement> originalRow) {
         List<HTMLDOMElement> newRow =
@@ -161,12 +255,35 @@ public class AccessibleAssociationImplementation
         return newRow;
     }
 
+    /**
+     * Validate the model of table header.
+     * @param header The model of table header.
+     * @return True if the table header is valid or false if the table header is
+     * not valid.
+     */
+    protected boolean validateHeader(final TableModel header) {
+        if (header.getRowCount() == 0) {
+            return false;
+        }
+        int length = header.getRowLength(0);
+        for (int i = 0, rowCount = header.getRowCount(); i < rowCount; i++) {
+            if ((header.getRowLength(i) == 0)
+                    || (header.getRowLength(i) != length)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Validate the list that represents the table header.
      * @param header The list that represents the table header.
      * @return True if the table header is valid or false if the table header is
      * not valid.
+     * @deprecated Prefer use {@link #validateHeader(TableModel)} instead this
+     * method.
      */
+    @Deprecated
     protected boolean validateHeader(final List<List<HTMLDOMElement>> header) {
         if (header.isEmpty()) {
             return false;
@@ -184,12 +301,35 @@ public class AccessibleAssociationImplementation
         return true;
     }
 
+    /**
+     * Returns a list with ids of rows of same column.
+     * @param header The model of table header.
+     * @param index The index of columns.
+     * @param writes The changes of attributes of table not applied yet.
+     * @return The list with ids of rows of same column.
+     */
+    protected Collection<String> getCellsHeadersIds(final TableModel header,
+            final int index, final AttributeWrites writes) {
+        Collection<String> ids = new LinkedHashSet<String>();
+        for (int i = 0, rowCount = header.getRowCount(); i < rowCount; i++) {
+            HTMLDOMElement cell = header.getCell(i, index);
+            if ((cell != null) && (cell.getTag() == HTMLTag.TH)
+                    && (writes.getAttribute(cell, "scope").equals("col"))) {
+                ids.add(writes.getAttribute(cell, "id"));
+            }
+        }
+        return ids;
+    }
+
     /**
      * Returns a list with ids of rows of same column.
      * @param header The list that represents the table header.
      * @param index The index of columns.
      * @return The list with ids of rows of same column.
+     * @deprecated Prefer use {@link #getCellsHeadersIds(TableModel, int,
+     * AttributeWrites)} instead this method.
      */
+    @Deprecated
     protected Collection<String> getCellsHeadersIds(
             final List<List<HTMLDOMElement>> header, final int index) {
         Collection<String> ids = new LinkedHashSet<String>();
@@ -209,30 +349,98 @@ public class AccessibleAssociationImplementation
      */
     protected void associateDataCellsWithHeaderCellsOfRow(
             final HTMLDOMElement element) {
-        List<List<HTMLDOMElement>> table = getModelTable(element);
+        AttributeWrites writes = new AttributeWrites();
+        associateDataCellsWithHeaderCellsOfRow(element, idGenerator, writes);
+        writes.apply();
+    }
+
+    /**
+     * Associate the data cell with header cell of row, without change the
+     * cells.
+     * @param element The table body or table footer.
+     * @param tableIdGenerator The id generator of table.
+     * @param writes The changes of attributes of table not applied yet.
+     */
+    protected void associateDataCellsWithHeaderCellsOfRow(
+            final HTMLDOMElement element, final IDGenerator tableIdGenerator,
+            final AttributeWrites writes) {
+        TableModel table = getTableModel(element);
         Collection<String> headersIds = new LinkedHashSet<String>();
-        for (List<HTMLDOMElement> row : table) {
+        for (int i = 0, rowCount = table.getRowCount(); i < rowCount; i++) {
+            int rowLength = table.getRowLength(i);
             headersIds.clear();
-            for (HTMLDOMElement cell : row) {
-                if (cell.getTagName().equals("TH")) {
-                    idGenerator.generateId(cell);
-                    headersIds.add(cell.getAttribute("id"));
+            for (int j = 0; j < rowLength; j++) {
+                HTMLDOMElement cell = table.getCell(i, j);
+                if ((cell != null) && (cell.getTag() == HTMLTag.TH)) {
+                    generateId(cell, tableIdGenerator, writes);
+                    headersIds.add(writes.getAttribute(cell, "id"));
 
-                    cell.setAttribute("scope", "row");
+                    writes.setAttribute(cell, "scope", "row");
                 }
             }
             if (!headersIds.isEmpty()) {
-                for (HTMLDOMElement cell : row) {
-                    if (cell.getTagName().equals("TD")) {
-                        String headers = cell.getAttribute("headers");
-                        for (String headerId : headersIds) {
-                            headers = CommonFunctions.increaseInList(headers,
-                                    headerId);
-                        }
-                        headers = headers.trim();
-                        if (!headers.isEmpty()) {
-                            cell.setAttribute("headers", headers);
-                        }
+                for (int j = 0; j < rowLength; j++) {
+                    HTMLDOMElement cell = table.getCell(i, j);
+                    if ((cell != null) && (cell.getTag() == HTMLTag.TD)) {
+                        TokenList headers = new TokenList(
+                                writes.getAttribute(cell, "headers"));
+                        headers.addAll(headersIds);
+                        setHeaders(cell, headers, writes);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Record a id for a cell, if the cell not has id.
+     * @param cell The cell.
+     * @param tableIdGenerator The id generator of table.
+     * @param writes The changes of attributes of table not applied yet.
+     */
+    protected static void generateId(final HTMLDOMElement cell,
+            final IDGenerator tableIdGenerator, final AttributeWrites writes) {
+        if (!writes.hasAttribute(cell, "id")) {
+            writes.setAttribute(cell, "id", tableIdGenerator.createId(cell));
+        }
+    }
+
+    /**
+     * Record the headers attribute of a cell, if the list of headers is not
+     * empty.
+     * @param cell The cell.
+     * @param headers The list of ids of headers of cell.
+     * @param writes The changes of attributes of table not applied yet.
+     */
+    protected static void setHeaders(final HTMLDOMElement cell,
+            final TokenList headers, final AttributeWrites writes) {
+        String value = headers.toString().trim();
+        if (!value.isEmpty()) {
+            writes.setAttribute(cell, "headers", value);
+        }
+    }
+
+    /**
+     * Associate the data cell with header cells of column, without change the
+     * cells.
+     * @param table The model of table body or table footer.
+     * @param columnsHeadersIds The ids of header cells of each column.
+     * @param writes The changes of attributes of table not applied yet.
+     */
+    protected void associateDataCellsWithHeaderCellsOfColumn(
+            final TableModel table,
+            final List<Collection<String>> columnsHeadersIds,
+            final AttributeWrites writes) {
+        int lengthHeader = columnsHeadersIds.size();
+        for (int i = 0, rowCount = table.getRowCount(); i < rowCount; i++) {
+            if (table.getRowLength(i) == lengthHeader) {
+                for (int j = 0; j < lengthHeader; j++) {
+                    HTMLDOMElement cell = table.getCell(i, j);
+                    if (cell != null) {
+                        TokenList headers = new TokenList(
+                                writes.getAttribute(cell, "headers"));
+                        headers.addAll(columnsHeadersIds.get(j));
+                        setHeaders(cell, headers, writes);
                     }
                 }
             }
@@ -244,12 +452,26 @@ public class AccessibleAssociationImplementation
      * @param tableHeader The table header.
      */
     protected void prepareHeaderCells(final HTMLDOMElement tableHeader) {
-        Collection<HTMLDOMElement> cells = parser.find(tableHeader)
-                .findChildren("tr").findChildren("th").listResults();
-        for (HTMLDOMElement cell : cells) {
-            idGenerator.generateId(cell);
+        AttributeWrites writes = new AttributeWrites();
+        prepareHeaderCells(tableHeader, idGenerator, writes);
+        writes.apply();
+    }
 
-            cell.setAttribute("scope", "col");
+    /**
+     * Set the scope of header cells of table header, without change the
+     * cells.
+     * @param tableHeader The table header.
+     * @param tableIdGenerator The id generator of table.
+     * @param writes The changes of attributes of table not applied yet.
+     */
+    protected void prepareHeaderCells(final HTMLDOMElement tableHeader,
+            final IDGenerator tableIdGenerator, final AttributeWrites writes) {
+        for (HTMLDOMElement row : getChildren(tableHeader, HTMLTag.TR)) {
+            for (HTMLDOMElement cell : getChildren(row, HTMLTag.TH)) {
+                generateId(cell, tableIdGenerator, writes);
+
+                writes.setAttribute(cell, "scope", "col");
+            }
         }
     }
 
@@ -257,49 +479,52 @@ public class AccessibleAssociationImplementation
      * {@inheritDoc}
      */
     public void associateDataCellsWithHeaderCells(final HTMLDOMElement table) {
-        HTMLDOMElement header = parser.find(Objects.requireNonNull(table))
-                .findChildren("thead").firstResult();
-        HTMLDOMElement body = parser.find(table).findChildren("tbody")
-                .firstResult();
-        HTMLDOMElement footer = parser.find(table).findChildren("tfoot")
-                .firstResult();
+        AttributeWrites writes = new AttributeWrites();
+        associateDataCellsWithHeaderCells(table, idGenerator, writes);
+        writes.apply();
+    }
+
+    /**
+     * Associate the data cells with header cells of a table, recording the
+     * changes of cells instead of change the cells, so that independent
+     * tables can be associated at the same time without change the document.
+     * @param table The table.
+     * @param tableIdGenerator The id generator of table.
+     * @param writes The changes of attributes of table not applied yet.
+     */
+    protected void associateDataCellsWithHeaderCells(final HTMLDOMElement table,
+            final IDGenerator tableIdGenerator, final AttributeWrites writes) {
+        HTMLDOMElement header = getFirstChild(Objects.requireNonNull(table),
+                HTMLTag.THEAD);
+        HTMLDOMElement body = getFirstChild(table, HTMLTag.TBODY);
+        HTMLDOMElement footer = getFirstChild(table, HTMLTag.TFOOT);
         if (header != null) {
-            prepareHeaderCells(header);
+            prepareHeaderCells(header, tableIdGenerator, writes);
 
-            List<List<HTMLDOMElement>> headerRows = getModelTable(header);
+            TableModel headerRows = getTableModel(header);
             if ((body != null) && (validateHeader(headerRows))) {
-                int lengthHeader = headerRows.get(0).size();
-                List<List<HTMLDOMElement>> fakeTable = getModelTable(body);
-                if (footer != null) {
-                    fakeTable.addAll(getModelTable(footer));
+                int lengthHeader = headerRows.getRowLength(0);
+                List<Collection<String>> columnsHeadersIds =
+                        new ArrayList<Collection<String>>(lengthHeader);
+                for (int j = 0; j < lengthHeader; j++) {
+                    columnsHeadersIds.add(getCellsHeadersIds(headerRows, j,
+                            writes));
                 }
-                int i;
-                for (List<HTMLDOMElement> row : fakeTable) {
-                    if (row.size() == lengthHeader) {
-                        i = 0;
-                        for (HTMLDOMElement cell : row) {
-                            Collection<String> headersIds =
-                                    getCellsHeadersIds(headerRows, i);
-                            String headers = cell.getAttribute("headers");
-                            for (String headersId : headersIds) {
-                                headers = CommonFunctions
-                                        .increaseInList(headers, headersId);
-                            }
-                            headers = headers.trim();
-                            if (!headers.isEmpty()) {
-                                cell.setAttribute("headers", headers);
-                            }
-                            i++;
-                        }
-                    }
+                associateDataCellsWithHeaderCellsOfColumn(
+                        getTableModel(body), columnsHeadersIds, writes);
+                if (footer != null) {
+                    associateDataCellsWithHeaderCellsOfColumn(
+                            getTableModel(footer), columnsHeadersIds, writes);
                 }
             }
         }
         if (body != null) {
-            associateDataCellsWithHeaderCellsOfRow(body);
+            associateDataCellsWithHeaderCellsOfRow(body, tableIdGenerator,
+                    writes);
         }
         if (footer != null) {
-            associateDataCellsWithHeaderCellsOfRow(footer);
+            associateDataCellsWithHeaderCellsOfRow(footer, tableIdGenerator,
+                    writes);
         }
     }
 
@@ -307,10 +532,39 @@ public class AccessibleAssociationImplementation
      * {@inheritDoc}
      */
     public void associateAllDataCellsWithHeaderCells() {
-        Collection<HTMLDOMElement> tables = parser.find("table").listResults();
-        for (HTMLDOMElement table : tables) {
-            if (CommonFunctions.isValidElement(table)) {
-                associateDataCellsWithHeaderCells(table);
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> tables = parser.find("table").iterateResults();
+        if (forkJoinPool == null) {
+            for (HTMLDOMElement table : tables) {
+                if (validElements.isValidElement(table)) {
+                    associateDataCellsWithHeaderCells(table);
+                }
+            }
+        } else {
+            List<Callable<AttributeWrites>> tasks =
+                    new ArrayList<Callable<AttributeWrites>>();
+            for (final HTMLDOMElement table : tables) {
+                if (validElements.isValidElement(table)) {
+                    final IDGenerator tableIdGenerator = new IDGenerator(
+                            idGenerator, "table" + tasks.size());
+                    tasks.add(new Callable<AttributeWrites>() {
+
+                        /**
+                         * {@inheritDoc}
+                         */
+                        @Override
+                        public AttributeWrites call() {
+                            AttributeWrites writes = new AttributeWrites();
+                            associateDataCellsWithHeaderCells(table,
+                                    tableIdGenerator, writes);
+                            return writes;
+                        }
+                    });
+                }
+            }
+            for (AttributeWrites writes
+                    : CommonFunctions.invokeAll(forkJoinPool, tasks)) {
+                writes.apply();
             }
         }
     }
@@ -319,18 +573,38 @@ public class AccessibleAssociationImplementation
      * {@inheritDoc}
      */
     public void associateLabelWithField(final HTMLDOMElement label) {
-        if (label.getTagName().equals("LABEL")) {
+        associateLabelWithField(label, null);
+    }
+
+    /**
+     * Associate a label with its field, finding the field inside the label by
+     * an index of the labels of document.
+     * @param label The label.
+     * @param labelIndex The index of labels of document or null to search the
+     * field in document.
+     */
+    protected void associateLabelWithField(final HTMLDOMElement label,
+            final LabelIndex labelIndex) {
+        if (label.getTag() == HTMLTag.LABEL) {
             HTMLDOMElement field;
             if (label.hasAttribute("for")) {
                 field = parser.find("#" + label.getAttribute("for"))
                         .firstResult();
             } else {
-                field = parser.find(label)
-                        .findDescendants("input,select,textarea").firstResult();
+                if ((labelIndex != null) && (labelIndex.hasLabel(label))) {
+                    field = labelIndex.getWrappedField(label);
+                } else {
+                    field = parser.find(label)
+                            .findDescendants("input,select,textarea")
+                            .firstResult();
+                }
 
                 if (field != null) {
                     idGenerator.generateId(field);
                     label.setAttribute("for", field.getAttribute("id"));
+                    if (labelIndex != null) {
+                        labelIndex.updateLabel(label);
+                    }
                 }
             }
             if (field != null) {
@@ -340,10 +614,10 @@ public class AccessibleAssociationImplementation
                 }
 
                 idGenerator.generateId(label);
-                field.setAttribute("aria-labelledby",
-                        CommonFunctions.increaseInList(field
-                            .getAttribute("aria-labelledby"),
-                        label.getAttribute("id")));
+                TokenList labelledBy = new TokenList(field
+                        .getAttribute("aria-labelledby"));
+                labelledBy.add(label.getAttribute("id"));
+                field.setAttribute("aria-labelledby", labelledBy.toString());
             }
         }
     }
@@ -352,10 +626,12 @@ public class AccessibleAssociationImplementation
      * {@inheritDoc}
      */
     public void associateAllLabelsWithFields() {
-        Collection<HTMLDOMElement> labels = parser.find("label").listResults();
+        ValidElementIndex validElements = new ValidElementIndex();
+        LabelIndex labelIndex = new LabelIndex(parser);
+        Iterable<HTMLDOMElement> labels = parser.find("label").iterateResults();
         for (HTMLDOMElement label : labels) {
-            if (CommonFunctions.isValidElement(label)) {
-                associateLabelWithField(label);
+            if (validElements.isValidElement(label)) {
+                associateLabelWithField(label, labelIndex);
             }
         }
     }
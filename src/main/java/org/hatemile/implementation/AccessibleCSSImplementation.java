@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -33,6 +34,7 @@ import org.hatemile.AccessibleCSS;
 import org.hatemile.AccessibleDisplay;
 import org.hatemile.util.CommonFunctions;
 import org.hatemile.util.Configure;
+import org.hatemile.util.ValidElementIndex;
 import org.hatemile.util.css.StyleSheetDeclaration;
 import org.hatemile.util.css.StyleSheetParser;
 import org.hatemile.util.css.StyleSheetRule;
@@ -40,6 +42,7 @@ import org.hatemile.util.html.HTMLDOMElement;
 import org.hatemile.util.html.HTMLDOMNode;
 import org.hatemile.util.html.HTMLDOMParser;
 import org.hatemile.util.html.HTMLDOMTextNode;
+import org.hatemile.util.html.HTMLTag;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -108,6 +111,20 @@ public class AccessibleCSSImplementation implements AccessibleCSS {
                 "SECTION", "HEADER", "NAV", "ARTICLE", "FOOTER", "CAPTION",
                 "SUMMARY", "DETAILS", "TD", "TH"));
 
+    /**
+     * The valid element tags for inherit the speak and speak-as properties, as
+     * a set of tags.
+     */
+    protected static final Set<HTMLTag> VALID_INHERIT_TAG_SET = Collections
+            .unmodifiableSet(HTMLTag.setOf(VALID_INHERIT_TAGS));
+
+    /**
+     * The valid element tags for speak and speak-as properties, as a set of
+     * tags.
+     */
+    protected static final Set<HTMLTag> VALID_TAG_SET = Collections
+            .unmodifiableSet(HTMLTag.setOf(VALID_TAGS));
+
     /**
      * The regular expression to validate speak-as property.
      */
@@ -318,7 +335,7 @@ public class AccessibleCSSImplementation implements AccessibleCSS {
      * to apply the CSS properties.
      */
     protected boolean isValidInheritElement(final HTMLDOMElement element) {
-        return (VALID_INHERIT_TAGS.contains(element.getTagName()))
+        return (VALID_INHERIT_TAG_SET.contains(element.getTag()))
                 && (!element.hasAttribute(CommonFunctions.DATA_IGNORE));
     }
 
@@ -330,7 +347,7 @@ public class AccessibleCSSImplementation implements AccessibleCSS {
      * properties.
      */
     protected boolean isValidElement(final HTMLDOMElement element) {
-        return VALID_TAGS.contains(element.getTagName());
+        return VALID_TAG_SET.contains(element.getTag());
     }
 
     /**
@@ -911,6 +928,7 @@ public class AccessibleCSSImplementation implements AccessibleCSS {
      * {@inheritDoc}
      */
     public void provideAllSpeakProperties() {
+        ValidElementIndex validElements = new ValidElementIndex();
         String selector = null;
         List<StyleSheetRule> rules = cssParser.getRules(Arrays.asList("speak",
                 "speak-punctuation", "speak-numeral", "speak-header",
@@ -926,7 +944,7 @@ public class AccessibleCSSImplementation implements AccessibleCSS {
             List<HTMLDOMElement> elements = htmlParser.find(selector)
                     .listResults();
             for (HTMLDOMElement element : elements) {
-                if (CommonFunctions.isValidElement(element)) {
+                if (validElements.isValidElement(element)) {
                     provideSpeakProperties(element);
                 }
             }
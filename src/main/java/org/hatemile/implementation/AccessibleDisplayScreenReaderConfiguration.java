@@ -0,0 +1,369 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.implementation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.hatemile.util.BrowserFamily;
+import org.hatemile.util.Configure;
+import org.hatemile.util.ConfigureSnapshot;
+import org.hatemile.util.LRUCache;
+import org.hatemile.util.WAIARIAState;
+import org.hatemile.util.WAIARIAStateTable;
+
+/**
+ * The AccessibleDisplayScreenReaderConfiguration class contains the
+ * configuration of {@link AccessibleDisplayScreenReaderImplementation} for a
+ * family of browsers, shared by all documents.
+ */
+public final class AccessibleDisplayScreenReaderConfiguration {
+
+    /**
+     * The maximum number of configurations of HaTeMiLe in cache.
+     */
+    public static final int MAXIMUM_CACHED_CONFIGURATIONS = 32;
+
+    /**
+     * The maximum number of templates in cache of each configuration.
+     */
+    public static final int MAXIMUM_CACHED_TEMPLATES = 1024;
+
+    /**
+     * The name of parameter that enables the templates of the descendants of
+     * headers, footers, navigations and forms.
+     */
+    public static final String TEMPLATES_PARAMETER = "display-templates";
+
+    /**
+     * The names of parameters of configuration read by display that are
+     * settings, not texts.
+     */
+    public static final List<String> SETTING_PARAMETERS =
+            Collections.singletonList(TEMPLATES_PARAMETER);
+
+    /**
+     * The states of WAI-ARIA displayed by
+     * {@link AccessibleDisplayScreenReaderImplementation}, in the order that
+     * are displayed.
+     */
+    public static final List<WAIARIAState> WAI_ARIA_STATES = Collections
+            .unmodifiableList(Arrays.asList(
+                new WAIARIAState("aria-busy", "true", "aria-busy-true",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_BUSY_OF),
+                new WAIARIAState("aria-checked", "true", "aria-checked-true",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_CHECKED_OF),
+                new WAIARIAState("aria-checked", "false", "aria-checked-false",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_CHECKED_OF),
+                new WAIARIAState("aria-checked", "mixed", "aria-checked-mixed",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_CHECKED_OF),
+                new WAIARIAState("aria-expanded", "true", "aria-expanded-true",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_EXPANDED_OF),
+                new WAIARIAState("aria-expanded", "false",
+                    "aria-expanded-false",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_EXPANDED_OF),
+                new WAIARIAState("aria-haspopup", "true", "aria-haspopup-true",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_HASPOPUP_OF),
+                new WAIARIAState("aria-level", null, "aria-level",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_LEVEL_OF),
+                new WAIARIAState("aria-orientation", "vertical",
+                    "aria-orientation-vertical",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_ORIENTATION_OF),
+                new WAIARIAState("aria-orientation", "horizontal",
+                    "aria-orientation-horizontal",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_ORIENTATION_OF),
+                new WAIARIAState("aria-pressed", "true", "aria-pressed-true",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_PRESSED_OF),
+                new WAIARIAState("aria-pressed", "false", "aria-pressed-false",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_PRESSED_OF),
+                new WAIARIAState("aria-pressed", "mixed", "aria-pressed-mixed",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_PRESSED_OF),
+                new WAIARIAState("aria-selected", "true", "aria-selected-true",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_SELECTED_OF),
+                new WAIARIAState("aria-selected", "false",
+                    "aria-selected-false",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_SELECTED_OF),
+                new WAIARIAState("aria-sort", "ascending",
+                    "aria-sort-ascending",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_SORT_OF),
+                new WAIARIAState("aria-sort", "descending",
+                    "aria-sort-descending",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_SORT_OF),
+                new WAIARIAState("aria-sort", "other", "aria-sort-other",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_SORT_OF),
+                new WAIARIAState("aria-required", "true", "aria-required-true",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_REQUIRED_OF),
+                new WAIARIAState("aria-valuemin", null, "aria-value-minimum",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_RANGE_MIN_OF),
+                new WAIARIAState("aria-valuemax", null, "aria-value-maximum",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_RANGE_MAX_OF),
+                new WAIARIAState("aria-autocomplete", "both",
+                    "aria-autocomplete-both",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_AUTOCOMPLETE_OF),
+                new WAIARIAState("aria-autocomplete", "inline",
+                    "aria-autocomplete-inline",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_AUTOCOMPLETE_OF),
+                new WAIARIAState("aria-autocomplete", "list",
+                    "aria-autocomplete-list",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_AUTOCOMPLETE_OF),
+                new WAIARIAState("aria-dropeffect", "copy",
+                    "aria-dropeffect-copy",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_DROPEFFECT_OF),
+                new WAIARIAState("aria-dropeffect", "move",
+                    "aria-dropeffect-move",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_DROPEFFECT_OF),
+                new WAIARIAState("aria-dropeffect", "link",
+                    "aria-dropeffect-link",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_DROPEFFECT_OF),
+                new WAIARIAState("aria-dropeffect", "execute",
+                    "aria-dropeffect-execute",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_DROPEFFECT_OF),
+                new WAIARIAState("aria-dropeffect", "popup",
+                    "aria-dropeffect-popup",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_DROPEFFECT_OF),
+                new WAIARIAState("aria-grabbed", "true", "aria-grabbed-true",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_GRABBED_OF),
+                new WAIARIAState("aria-grabbed", "false", "aria-grabbed-false",
+                    AccessibleDisplayScreenReaderImplementation
+                        .DATA_ARIA_GRABBED_OF)));
+
+    /**
+     * The configurations of each browser family, indexed by parameters of
+     * configuration of HaTeMiLe.
+     */
+    private static final LRUCache<ConfigureSnapshot, AtomicReferenceArray<
+            AccessibleDisplayScreenReaderConfiguration>> CONFIGURATIONS =
+                new LRUCache<ConfigureSnapshot, AtomicReferenceArray<
+                    AccessibleDisplayScreenReaderConfiguration>>(
+                        MAXIMUM_CACHED_CONFIGURATIONS);
+
+    /**
+     * The configuration of HaTeMiLe, with the fixed parameters of
+     * configuration.
+     */
+    private final Configure configure;
+
+    /**
+     * The parameters of configuration of HaTeMiLe.
+     */
+    private final ConfigureSnapshot parameters;
+
+    /**
+     * The browser family.
+     */
+    private final BrowserFamily browserFamily;
+
+    /**
+     * The browser shortcut prefix.
+     */
+    private final String shortcutPrefix;
+
+    /**
+     * The descriptions of roles, indexed by role.
+     */
+    private final Map<String, String> roleDescriptions;
+
+    /**
+     * The descriptions of languages, indexed by language code.
+     */
+    private final Map<String, String> languageDescriptions;
+
+    /**
+     * The states of WAI-ARIA displayed, with the texts of configuration.
+     */
+    private final WAIARIAStateTable waiAriaStates;
+
+    /**
+     * The templates of the changes made in descendants of elements, indexed
+     * by method and fingerprint of element, or null if the templates are
+     * disabled.
+     */
+    private final LRUCache<String, AccessibleDisplayTemplate> templates;
+
+    /**
+     * Initializes a new configuration of display for a browser family.
+     * @param configurationParameters The parameters of configuration of
+     * HaTeMiLe.
+     * @param family The browser family.
+     */
+    private AccessibleDisplayScreenReaderConfiguration(
+            final ConfigureSnapshot configurationParameters,
+            final BrowserFamily family) {
+        configure = new Configure(configurationParameters);
+        parameters = configurationParameters;
+        browserFamily = family;
+        shortcutPrefix = family.getShortcutPrefix(
+                parameters.getParameter("attribute-accesskey-default"));
+        waiAriaStates = new WAIARIAStateTable(WAI_ARIA_STATES, parameters);
+        roleDescriptions = parameters.getParametersByPrefix(
+                AccessibleDisplayScreenReaderImplementation
+                    .ROLE_PARAMETER_PREFIX);
+        languageDescriptions = parameters.getParametersByPrefix(
+                AccessibleDisplayScreenReaderImplementation
+                    .LANGUAGE_PARAMETER_PREFIX);
+        if ((parameters.hasParameter(TEMPLATES_PARAMETER))
+                && (parameters.getParameter(TEMPLATES_PARAMETER)
+                    .equals("true"))) {
+            templates = new LRUCache<String, AccessibleDisplayTemplate>(
+                    MAXIMUM_CACHED_TEMPLATES);
+        } else {
+            templates = null;
+        }
+    }
+
+    /**
+     * Returns the shared configuration of display for the browser of a user
+     * agent.
+     * @param configure The configuration of HaTeMiLe.
+     * @param userAgent The user agent of browser.
+     * @return The configuration of display.
+     */
+    public static AccessibleDisplayScreenReaderConfiguration getConfiguration(
+            final Configure configure, final String userAgent) {
+        return getConfiguration(configure,
+                BrowserFamily.fromUserAgent(userAgent));
+    }
+
+    /**
+     * Returns the shared configuration of display for a browser family. The
+     * configurations are shared by the configurations of HaTeMiLe with equal
+     * parameters.
+     * @param configure The configuration of HaTeMiLe.
+     * @param family The browser family.
+     * @return The configuration of display.
+     */
+    public static AccessibleDisplayScreenReaderConfiguration getConfiguration(
+            final Configure configure, final BrowserFamily family) {
+        ConfigureSnapshot parameters = configure.getSnapshot();
+        AtomicReferenceArray<AccessibleDisplayScreenReaderConfiguration>
+                configurations = CONFIGURATIONS.get(parameters);
+        if (configurations == null) {
+            configurations = CONFIGURATIONS.putIfAbsent(parameters,
+                    new AtomicReferenceArray<
+                        AccessibleDisplayScreenReaderConfiguration>(
+                            BrowserFamily.values().length));
+        }
+        int index = Objects.requireNonNull(family).ordinal();
+        AccessibleDisplayScreenReaderConfiguration configuration =
+                configurations.get(index);
+        if (configuration == null) {
+            configuration = new AccessibleDisplayScreenReaderConfiguration(
+                    parameters, family);
+            if (!configurations.compareAndSet(index, null, configuration)) {
+                configuration = configurations.get(index);
+            }
+        }
+        return configuration;
+    }
+
+    /**
+     * Returns the configuration of HaTeMiLe.
+     * @return The configuration of HaTeMiLe, with the fixed parameters of
+     * configuration.
+     */
+    public Configure getConfigure() {
+        return configure;
+    }
+
+    /**
+     * Returns the parameters of configuration of HaTeMiLe.
+     * @return The parameters of configuration of HaTeMiLe.
+     */
+    public ConfigureSnapshot getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the browser family.
+     * @return The browser family.
+     */
+    public BrowserFamily getBrowserFamily() {
+        return browserFamily;
+    }
+
+    /**
+     * Returns the browser shortcut prefix.
+     * @return The browser shortcut prefix.
+     */
+    public String getShortcutPrefix() {
+        return shortcutPrefix;
+    }
+
+    /**
+     * Returns the descriptions of roles.
+     * @return The descriptions of roles, indexed by role.
+     */
+    public Map<String, String> getRoleDescriptions() {
+        return roleDescriptions;
+    }
+
+    /**
+     * Returns the descriptions of languages.
+     * @return The descriptions of languages, indexed by language code.
+     */
+    public Map<String, String> getLanguageDescriptions() {
+        return languageDescriptions;
+    }
+
+    /**
+     * Returns the states of WAI-ARIA displayed, with the texts of
+     * configuration.
+     * @return The states of WAI-ARIA displayed.
+     */
+    public WAIARIAStateTable getWAIARIAStates() {
+        return waiAriaStates;
+    }
+
+    /**
+     * Returns the templates of the changes made in descendants of elements.
+     * @return The templates, indexed by method and fingerprint of element, or
+     * null if the templates are disabled.
+     */
+    public LRUCache<String, AccessibleDisplayTemplate> getTemplates() {
+        return templates;
+    }
+}
@@ -14,22 +14,39 @@ limitations under the License.
 package org.hatemile.implementation;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import org.hatemile.AccessibleDisplay;
-import org.hatemile.util.CommonFunctions;
+import org.hatemile.util.BrowserFamily;
 import org.hatemile.util.Configure;
 import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMNode;
 import org.hatemile.util.html.HTMLDOMParser;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.hatemile.util.ConfigureSnapshot;
 import org.hatemile.util.IDGenerator;
+import org.hatemile.util.LabelIndex;
+import org.hatemile.util.TokenList;
+import org.hatemile.util.ValidElementIndex;
+import org.hatemile.util.WAIARIAState;
+import org.hatemile.util.WAIARIAStateTable;
+import org.hatemile.util.html.HTMLTag;
 
 /**
  * The AccessibleDisplayScreenReaderImplementation class is official
  * implementation of {@link org.hatemile.AccessibleDisplay} for screen readers.
  */
 public class AccessibleDisplayScreenReaderImplementation
+        extends AccessibleDisplayScreenReaderStateTexts
         implements AccessibleDisplay {
 
     /**
@@ -194,6 +211,34 @@ public class AccessibleDisplayScreenReaderImplementation
      */
     public static final String DATA_ROLE_OF = "data-roleof";
 
+    /**
+     * The prefix of name of parameters of configuration that describe the
+     * roles.
+     */
+    protected static final String ROLE_PARAMETER_PREFIX = "role-";
+
+    /**
+     * The prefix of name of parameters of configuration that describe the
+     * languages.
+     */
+    protected static final String LANGUAGE_PARAMETER_PREFIX = "language-";
+
+    /**
+     * The tags of elements that receive the inserted elements as children.
+     */
+    protected static final Set<HTMLTag> APPEND_TAGS = Collections
+            .unmodifiableSet(EnumSet.of(HTMLTag.BODY, HTMLTag.A,
+                HTMLTag.FIGCAPTION, HTMLTag.LI, HTMLTag.DT, HTMLTag.DD,
+                HTMLTag.LABEL, HTMLTag.OPTION, HTMLTag.TD, HTMLTag.TH));
+
+    /**
+     * The tags of form controls, that receive the inserted elements in their
+     * labels.
+     */
+    protected static final Set<HTMLTag> CONTROL_TAGS = Collections
+            .unmodifiableSet(EnumSet.of(HTMLTag.INPUT, HTMLTag.SELECT,
+                HTMLTag.TEXTAREA));
+
     /**
      * The browser shortcut prefix.
      */
@@ -330,374 +375,97 @@ public class AccessibleDisplayScreenReaderImplementation
     protected final String attributeTitleSuffixAfter;
 
     /**
-     * The content of autocomplete inline and list state of field, before it.
-     */
-    protected final String ariaAutoCompleteBothBefore;
-
-    /**
-     * The content of autocomplete inline and list state of field, after it.
-     */
-    protected final String ariaAutoCompleteBothAfter;
-
-    /**
-     * The content of autocomplete inline state of field, before it.
-     */
-    protected final String ariaAutoCompleteInlineBefore;
-
-    /**
-     * The content of autocomplete inline state of field, after it.
-     */
-    protected final String ariaAutoCompleteInlineAfter;
-
-    /**
-     * The content of autocomplete list state of field, before it.
-     */
-    protected final String ariaAutoCompleteListBefore;
-
-    /**
-     * The content of autocomplete list state of field, after it.
-     */
-    protected final String ariaAutoCompleteListAfter;
-
-    /**
-     * The content of busy state of element, before it.
-     */
-    protected final String ariaBusyTrueBefore;
-
-    /**
-     * The content of busy state of element, after it.
-     */
-    protected final String ariaBusyTrueAfter;
-
-    /**
-     * The content of unchecked state field, before it.
-     */
-    protected final String ariaCheckedFalseBefore;
-
-    /**
-     * The content of unchecked state field, after it.
-     */
-    protected final String ariaCheckedFalseAfter;
-
-    /**
-     * The content of mixed checked state field, before it.
-     */
-    protected final String ariaCheckedMixedBefore;
-
-    /**
-     * The content of mixed checked state field, after it.
-     */
-    protected final String ariaCheckedMixedAfter;
-
-    /**
-     * The content of checked state field, before it.
+     * The states of WAI-ARIA displayed, with the texts of configuration.
      */
-    protected final String ariaCheckedTrueBefore;
+    protected final WAIARIAStateTable waiAriaStates;
 
     /**
-     * The content of checked state field, after it.
-     */
-    protected final String ariaCheckedTrueAfter;
-
-    /**
-     * The content of drop with copy effect state of element, before it.
-     */
-    protected final String ariaDropeffectCopyBefore;
-
-    /**
-     * The content of drop with copy effect state of element, after it.
-     */
-    protected final String ariaDropeffectCopyAfter;
-
-    /**
-     * The content of drop with execute effect state of element, before it.
-     */
-    protected final String ariaDropeffectExecuteBefore;
-
-    /**
-     * The content of drop with execute effect state of element, after it.
-     */
-    protected final String ariaDropeffectExecuteAfter;
-
-    /**
-     * The content of drop with link effect state of element, before it.
-     */
-    protected final String ariaDropeffectLinkBefore;
-
-    /**
-     * The content of drop with link effect state of element, after it.
-     */
-    protected final String ariaDropeffectLinkAfter;
-
-    /**
-     * The content of drop with move effect state of element, before it.
-     */
-    protected final String ariaDropeffectMoveBefore;
-
-    /**
-     * The content of drop with move effect state of element, after it.
-     */
-    protected final String ariaDropeffectMoveAfter;
-
-    /**
-     * The content of drop with popup effect state of element, before it.
-     */
-    protected final String ariaDropeffectPopupBefore;
-
-    /**
-     * The content of drop with popup effect state of element, after it.
-     */
-    protected final String ariaDropeffectPopupAfter;
-
-    /**
-     * The content of collapsed state of element, before it.
-     */
-    protected final String ariaExpandedFalseBefore;
-
-    /**
-     * The content of collapsed state of element, after it.
-     */
-    protected final String ariaExpandedFalseAfter;
-
-    /**
-     * The content of expanded state of element, before it.
-     */
-    protected final String ariaExpandedTrueBefore;
-
-    /**
-     * The content of expanded state of element, after it.
-     */
-    protected final String ariaExpandedTrueAfter;
-
-    /**
-     * The content of ungrabbed state of element, before it.
-     */
-    protected final String ariaGrabbedFalseBefore;
-
-    /**
-     * The content of ungrabbed state of element, after it.
-     */
-    protected final String ariaGrabbedFalseAfter;
-
-    /**
-     * The content of grabbed state of element, before it.
-     */
-    protected final String ariaGrabbedTrueBefore;
-
-    /**
-     * The content of grabbed state of element, after it.
-     */
-    protected final String ariaGrabbedTrueAfter;
-
-    /**
-     * The content that show if the field has popup, before it.
-     */
-    protected final String ariaHaspopupTrueBefore;
-
-    /**
-     * The content that show if the field has popup, after it.
-     */
-    protected final String ariaHaspopupTrueAfter;
-
-    /**
-     * The prefix content of level state of element, before it.
-     */
-    protected final String ariaLevelPrefixBefore;
-
-    /**
-     * The suffix content of level state of element, before it.
-     */
-    protected final String ariaLevelSuffixBefore;
-
-    /**
-     * The prefix content of level state of element, after it.
-     */
-    protected final String ariaLevelPrefixAfter;
-
-    /**
-     * The suffix content of level state of element, after it.
-     */
-    protected final String ariaLevelSuffixAfter;
-
-    /**
-     * The prefix content of maximum range state of field, before it.
-     */
-    protected final String ariaValueMaximumPrefixBefore;
-
-    /**
-     * The suffix content of maximum range state of field, before it.
-     */
-    protected final String ariaValueMaximumSuffixBefore;
-
-    /**
-     * The prefix content of maximum range state of field, after it.
-     */
-    protected final String ariaValueMaximumPrefixAfter;
-
-    /**
-     * The suffix content of maximum range state of field, after it.
-     */
-    protected final String ariaValueMaximumSuffixAfter;
-
-    /**
-     * The prefix content of minimum range state of field, before it.
-     */
-    protected final String ariaValueMinimumPrefixBefore;
-
-    /**
-     * The suffix content of minimum range state of field, before it.
-     */
-    protected final String ariaValueMinimumSuffixBefore;
-
-    /**
-     * The prefix content of minimum range state of field, after it.
-     */
-    protected final String ariaValueMinimumPrefixAfter;
-
-    /**
-     * The suffix content of minimum range state of field, after it.
-     */
-    protected final String ariaValueMinimumSuffixAfter;
-
-    /**
-     * The content of horizontal orientation state of element, before it.
-     */
-    protected final String ariaOrientationHorizontalBefore;
-
-    /**
-     * The content of horizontal orientation state of element, after it.
-     */
-    protected final String ariaOrientationHorizontalAfter;
-
-    /**
-     * The content of vertical orientation state of element, before it.
-     */
-    protected final String ariaOrientationVerticalBefore;
-
-    /**
-     * The content of vertical orientation state of element, after it.
-     */
-    protected final String ariaOrientationVerticalAfter;
-
-    /**
-     * The content of unpressed state of field, before it.
-     */
-    protected final String ariaPressedFalseBefore;
-
-    /**
-     * The content of unpressed state of field, after it.
-     */
-    protected final String ariaPressedFalseAfter;
-
-    /**
-     * The content of mixed pressed state of field, before it.
-     */
-    protected final String ariaPressedMixedBefore;
-
-    /**
-     * The content of mixed pressed state of field, after it.
-     */
-    protected final String ariaPressedMixedAfter;
-
-    /**
-     * The content of pressed state of field, before it.
-     */
-    protected final String ariaPressedTrueBefore;
-
-    /**
-     * The content of pressed state of field, after it.
-     */
-    protected final String ariaPressedTrueAfter;
-
-    /**
-     * The content of required state of field, before it.
-     */
-    protected final String ariaRequiredTrueBefore;
-
-    /**
-     * The content of required state of field, after it.
-     */
-    protected final String ariaRequiredTrueAfter;
-
-    /**
-     * The content of unselected state of field, before it.
+     * The HTML parser.
      */
-    protected final String ariaSelectedFalseBefore;
+    protected final HTMLDOMParser parser;
 
     /**
-     * The content of unselected state of field, after it.
+     * The id generator.
      */
-    protected final String ariaSelectedFalseAfter;
+    protected final IDGenerator idGenerator;
 
     /**
-     * The content of selected state of field, before it.
+     * The configuration of HaTeMiLe.
      */
-    protected final String ariaSelectedTrueBefore;
+    protected final Configure configure;
 
     /**
-     * The content of selected state of field, after it.
+     * The descriptions of roles, indexed by role in lowercase letters.
      */
-    protected final String ariaSelectedTrueAfter;
+    protected final Map<String, String> roleDescriptions;
 
     /**
-     * The content of ascending sort state of element, before it.
+     * The descriptions of languages, indexed by language code in lowercase
+     * letters.
      */
-    protected final String ariaSortAscendingBefore;
+    protected final Map<String, String> languageDescriptions;
 
     /**
-     * The content of ascending sort state of element, after it.
+     * The list element of shortcuts, before the whole content of page.
      */
-    protected final String ariaSortAscendingAfter;
+    protected HTMLDOMElement listShortcutsBefore;
 
     /**
-     * The content of descending sort state of element, before it.
+     * The list element of shortcuts, after the whole content of page.
      */
-    protected final String ariaSortDescendingBefore;
+    protected HTMLDOMElement listShortcutsAfter;
 
     /**
-     * The content of descending sort state of element, after it.
+     * The state that indicates if the list of shortcuts of page was added.
      */
-    protected final String ariaSortDescendingAfter;
+    protected boolean listShortcutsAdded;
 
     /**
-     * The content of sorted state of element, before it.
+     * The state that indicates if the inserted elements are collected to be
+     * inserted later, by {@link #applyInsertions()}.
      */
-    protected final String ariaSortOtherBefore;
+    protected boolean collectingInsertions;
 
     /**
-     * The content of sorted state of element, after it.
+     * The index of labels of document, created by the methods that display
+     * all elements, or null.
      */
-    protected final String ariaSortOtherAfter;
+    protected LabelIndex labelIndex;
 
     /**
-     * The HTML parser.
+     * The parents of elements with pending insertions, indexed by data of
+     * parent.
      */
-    protected final HTMLDOMParser parser;
+    protected final Map<Object, HTMLDOMElement> pendingParents;
 
     /**
-     * The id generator.
+     * The pending insertions before the children of each parent, indexed by
+     * data of parent and data of child. The insertions indexed by the data of
+     * parent itself are inserted at the start of parent.
      */
-    protected final IDGenerator idGenerator;
+    protected final Map<Object, Map<Object, List<HTMLDOMNode>>>
+            pendingInsertionsBefore;
 
     /**
-     * The configuration of HaTeMiLe.
+     * The pending insertions after the children of each parent, indexed by
+     * data of parent and data of child. The insertions indexed by the data of
+     * parent itself are inserted at the end of parent.
      */
-    protected final Configure configure;
+    protected final Map<Object, Map<Object, List<HTMLDOMNode>>>
+            pendingInsertionsAfter;
 
     /**
-     * The list element of shortcuts, before the whole content of page.
+     * The list of pending insertions that contains each inserted element,
+     * indexed by data of inserted element.
      */
-    protected HTMLDOMElement listShortcutsBefore;
+    protected final Map<Object, List<HTMLDOMNode>> pendingInsertedElements;
 
     /**
-     * The list element of shortcuts, after the whole content of page.
+     * The state of the templates of the changes made in descendants of
+     * elements.
      */
-    protected HTMLDOMElement listShortcutsAfter;
+    protected final AccessibleDisplayTemplateContext templateContext;
 
-    /**
-     * The state that indicates if the list of shortcuts of page was added.
-     */
-    protected boolean listShortcutsAdded;
 
     /**
      * Initializes a new object that manipulate the display for screen readers
@@ -722,203 +490,99 @@ public class AccessibleDisplayScreenReaderImplementation
             final HTMLDOMParser htmlParser,
             final Configure hatemileConfiguration,
             final String userAgent) {
-        parser = Objects.requireNonNull(htmlParser);
-        idGenerator = new IDGenerator("display");
-        configure = hatemileConfiguration;
-        shortcutPrefix = getShortcutPrefix(userAgent,
-                configure.getParameter("attribute-accesskey-default"));
+        this(htmlParser, AccessibleDisplayScreenReaderConfiguration
+                .getConfiguration(hatemileConfiguration, userAgent));
+    }
 
-        attributeAccesskeyBefore = configure
+    /**
+     * Initializes a new object that manipulate the display for screen readers
+     * of parser.
+     * @param htmlParser The HTML parser.
+     * @param displayConfiguration The shared configuration of display.
+     */
+    public AccessibleDisplayScreenReaderImplementation(
+            final HTMLDOMParser htmlParser,
+            final AccessibleDisplayScreenReaderConfiguration
+                displayConfiguration) {
+        super(displayConfiguration.getParameters());
+        parser = Objects.requireNonNull(htmlParser);
+        configure = displayConfiguration.getConfigure();
+        idGenerator = IDGenerator.getIDGenerator("display", parser,
+                configure);
+        ConfigureSnapshot parameters = displayConfiguration.getParameters();
+        roleDescriptions = displayConfiguration.getRoleDescriptions();
+        languageDescriptions = displayConfiguration.getLanguageDescriptions();
+        shortcutPrefix = displayConfiguration.getShortcutPrefix();
+        waiAriaStates = displayConfiguration.getWAIARIAStates();
+
+        attributeAccesskeyBefore = parameters
                 .getParameter("attribute-accesskey-before");
-        attributeAccesskeyAfter = configure
+        attributeAccesskeyAfter = parameters
                 .getParameter("attribute-accesskey-after");
-        attributeAccesskeyPrefixBefore = configure
+        attributeAccesskeyPrefixBefore = parameters
                 .getParameter("attribute-accesskey-prefix-before");
-        attributeAccesskeySuffixBefore = configure
+        attributeAccesskeySuffixBefore = parameters
                 .getParameter("attribute-accesskey-suffix-before");
-        attributeAccesskeyPrefixAfter = configure
+        attributeAccesskeyPrefixAfter = parameters
                 .getParameter("attribute-accesskey-prefix-after");
-        attributeAccesskeySuffixAfter = configure
+        attributeAccesskeySuffixAfter = parameters
                 .getParameter("attribute-accesskey-suffix-after");
-        attributeDownloadBefore = configure
+        attributeDownloadBefore = parameters
                 .getParameter("attribute-download-before");
-        attributeDownloadAfter = configure
+        attributeDownloadAfter = parameters
                 .getParameter("attribute-download-after");
-        attributeHeadersPrefixBefore = configure
+        attributeHeadersPrefixBefore = parameters
                 .getParameter("attribute-headers-prefix-before");
-        attributeHeadersSuffixBefore = configure
+        attributeHeadersSuffixBefore = parameters
                 .getParameter("attribute-headers-suffix-before");
-        attributeHeadersPrefixAfter = configure
+        attributeHeadersPrefixAfter = parameters
                 .getParameter("attribute-headers-prefix-after");
-        attributeHeadersSuffixAfter = configure
+        attributeHeadersSuffixAfter = parameters
                 .getParameter("attribute-headers-suffix-after");
-        attributeLanguagePrefixBefore = configure
+        attributeLanguagePrefixBefore = parameters
                 .getParameter("attribute-language-prefix-before");
-        attributeLanguageSuffixBefore = configure
+        attributeLanguageSuffixBefore = parameters
                 .getParameter("attribute-language-suffix-before");
-        attributeLanguagePrefixAfter = configure
+        attributeLanguagePrefixAfter = parameters
                 .getParameter("attribute-language-prefix-after");
-        attributeLanguageSuffixAfter = configure
+        attributeLanguageSuffixAfter = parameters
                 .getParameter("attribute-language-suffix-after");
-        attributeRolePrefixBefore = configure
+        attributeRolePrefixBefore = parameters
                 .getParameter("attribute-role-prefix-before");
-        attributeRoleSuffixBefore = configure
+        attributeRoleSuffixBefore = parameters
                 .getParameter("attribute-role-suffix-before");
-        attributeRolePrefixAfter = configure
+        attributeRolePrefixAfter = parameters
                 .getParameter("attribute-role-prefix-after");
-        attributeRoleSuffixAfter = configure
+        attributeRoleSuffixAfter = parameters
                 .getParameter("attribute-role-suffix-after");
-        attributeTargetBlankBefore = configure
+        attributeTargetBlankBefore = parameters
                 .getParameter("attribute-target-blank-before");
-        attributeTargetBlankAfter = configure
+        attributeTargetBlankAfter = parameters
                 .getParameter("attribute-target-blank-after");
-        attributeTitlePrefixBefore = configure
+        attributeTitlePrefixBefore = parameters
                 .getParameter("attribute-title-prefix-before");
-        attributeTitleSuffixBefore = configure
+        attributeTitleSuffixBefore = parameters
                 .getParameter("attribute-title-suffix-before");
-        attributeTitlePrefixAfter = configure
+        attributeTitlePrefixAfter = parameters
                 .getParameter("attribute-title-prefix-after");
-        attributeTitleSuffixAfter = configure
+        attributeTitleSuffixAfter = parameters
                 .getParameter("attribute-title-suffix-after");
 
-        ariaAutoCompleteBothBefore = configure
-                .getParameter("aria-autocomplete-both-before");
-        ariaAutoCompleteBothAfter = configure
-                .getParameter("aria-autocomplete-both-after");
-        ariaAutoCompleteInlineBefore = configure
-                .getParameter("aria-autocomplete-inline-before");
-        ariaAutoCompleteInlineAfter = configure
-                .getParameter("aria-autocomplete-inline-after");
-        ariaAutoCompleteListBefore = configure
-                .getParameter("aria-autocomplete-list-before");
-        ariaAutoCompleteListAfter = configure
-                .getParameter("aria-autocomplete-list-after");
-        ariaBusyTrueBefore = configure
-                .getParameter("aria-busy-true-before");
-        ariaBusyTrueAfter = configure
-                .getParameter("aria-busy-true-after");
-        ariaCheckedFalseBefore = configure
-                .getParameter("aria-checked-false-before");
-        ariaCheckedFalseAfter = configure
-                .getParameter("aria-checked-false-after");
-        ariaCheckedMixedBefore = configure
-                .getParameter("aria-checked-mixed-before");
-        ariaCheckedMixedAfter = configure
-                .getParameter("aria-checked-mixed-after");
-        ariaCheckedTrueBefore = configure
-                .getParameter("aria-checked-true-before");
-        ariaCheckedTrueAfter = configure
-                .getParameter("aria-checked-true-after");
-        ariaDropeffectCopyBefore = configure
-                .getParameter("aria-dropeffect-copy-before");
-        ariaDropeffectCopyAfter = configure
-                .getParameter("aria-dropeffect-copy-after");
-        ariaDropeffectExecuteBefore = configure
-                .getParameter("aria-dropeffect-execute-before");
-        ariaDropeffectExecuteAfter = configure
-                .getParameter("aria-dropeffect-execute-after");
-        ariaDropeffectLinkBefore = configure
-                .getParameter("aria-dropeffect-link-before");
-        ariaDropeffectLinkAfter = configure
-                .getParameter("aria-dropeffect-link-after");
-        ariaDropeffectMoveBefore = configure
-                .getParameter("aria-dropeffect-move-before");
-        ariaDropeffectMoveAfter = configure
-                .getParameter("aria-dropeffect-move-after");
-        ariaDropeffectPopupBefore = configure
-                .getParameter("aria-dropeffect-popup-before");
-        ariaDropeffectPopupAfter = configure
-                .getParameter("aria-dropeffect-popup-after");
-        ariaExpandedFalseBefore = configure
-                .getParameter("aria-expanded-false-before");
-        ariaExpandedFalseAfter = configure
-                .getParameter("aria-expanded-false-after");
-        ariaExpandedTrueBefore = configure
-                .getParameter("aria-expanded-true-before");
-        ariaExpandedTrueAfter = configure
-                .getParameter("aria-expanded-true-after");
-        ariaGrabbedFalseBefore = configure
-                .getParameter("aria-grabbed-false-before");
-        ariaGrabbedFalseAfter = configure
-                .getParameter("aria-grabbed-false-after");
-        ariaGrabbedTrueBefore = configure
-                .getParameter("aria-grabbed-true-before");
-        ariaGrabbedTrueAfter = configure
-                .getParameter("aria-grabbed-true-after");
-        ariaHaspopupTrueBefore = configure
-                .getParameter("aria-haspopup-true-before");
-        ariaHaspopupTrueAfter = configure
-                .getParameter("aria-haspopup-true-after");
-        ariaLevelPrefixBefore = configure
-                .getParameter("aria-level-prefix-before");
-        ariaLevelSuffixBefore = configure
-                .getParameter("aria-level-suffix-before");
-        ariaLevelPrefixAfter = configure
-                .getParameter("aria-level-prefix-after");
-        ariaLevelSuffixAfter = configure
-                .getParameter("aria-level-suffix-after");
-        ariaValueMaximumPrefixBefore = configure
-                .getParameter("aria-value-maximum-prefix-before");
-        ariaValueMaximumSuffixBefore = configure
-                .getParameter("aria-value-maximum-suffix-before");
-        ariaValueMaximumPrefixAfter = configure
-                .getParameter("aria-value-maximum-prefix-after");
-        ariaValueMaximumSuffixAfter = configure
-                .getParameter("aria-value-maximum-suffix-after");
-        ariaValueMinimumPrefixBefore = configure
-                .getParameter("aria-value-minimum-prefix-before");
-        ariaValueMinimumSuffixBefore = configure
-                .getParameter("aria-value-minimum-suffix-before");
-        ariaValueMinimumPrefixAfter = configure
-                .getParameter("aria-value-minimum-prefix-after");
-        ariaValueMinimumSuffixAfter = configure
-                .getParameter("aria-value-minimum-suffix-after");
-        ariaOrientationHorizontalBefore = configure
-                .getParameter("aria-orientation-horizontal-before");
-        ariaOrientationHorizontalAfter = configure
-                .getParameter("aria-orientation-horizontal-after");
-        ariaOrientationVerticalBefore = configure
-                .getParameter("aria-orientation-vertical-before");
-        ariaOrientationVerticalAfter = configure
-                .getParameter("aria-orientation-vertical-after");
-        ariaPressedFalseBefore = configure
-                .getParameter("aria-pressed-false-before");
-        ariaPressedFalseAfter = configure
-                .getParameter("aria-pressed-false-after");
-        ariaPressedMixedBefore = configure
-                .getParameter("aria-pressed-mixed-before");
-        ariaPressedMixedAfter = configure
-                .getParameter("aria-pressed-mixed-after");
-        ariaPressedTrueBefore = configure
-                .getParameter("aria-pressed-true-before");
-        ariaPressedTrueAfter = configure
-                .getParameter("aria-pressed-true-after");
-        ariaRequiredTrueBefore = configure
-                .getParameter("aria-required-true-before");
-        ariaRequiredTrueAfter = configure
-                .getParameter("aria-required-true-after");
-        ariaSelectedFalseBefore = configure
-                .getParameter("aria-selected-false-before");
-        ariaSelectedFalseAfter = configure
-                .getParameter("aria-selected-false-after");
-        ariaSelectedTrueBefore = configure
-                .getParameter("aria-selected-true-before");
-        ariaSelectedTrueAfter = configure
-                .getParameter("aria-selected-true-after");
-        ariaSortAscendingBefore = configure
-                .getParameter("aria-sort-ascending-before");
-        ariaSortAscendingAfter = configure
-                .getParameter("aria-sort-ascending-after");
-        ariaSortDescendingBefore = configure
-                .getParameter("aria-sort-descending-before");
-        ariaSortDescendingAfter = configure
-                .getParameter("aria-sort-descending-after");
-        ariaSortOtherBefore = configure.getParameter("aria-sort-other-before");
-        ariaSortOtherAfter = configure.getParameter("aria-sort-other-after");
-
         listShortcutsAdded = false;
         listShortcutsBefore = null;
         listShortcutsAfter = null;
+
+        collectingInsertions = false;
+        pendingParents = new IdentityHashMap<Object, HTMLDOMElement>();
+        pendingInsertionsBefore =
+                new IdentityHashMap<Object, Map<Object, List<HTMLDOMNode>>>();
+        pendingInsertionsAfter =
+                new IdentityHashMap<Object, Map<Object, List<HTMLDOMNode>>>();
+        pendingInsertedElements =
+                new IdentityHashMap<Object, List<HTMLDOMNode>>();
+
+        templateContext = new AccessibleDisplayTemplateContext(
+                displayConfiguration.getTemplates());
     }
 
     /**
@@ -929,38 +593,8 @@ public class AccessibleDisplayScreenReaderImplementation
      */
     protected final String getShortcutPrefix(final String userAgent,
             final String standartPrefix) {
-        if (userAgent != null) {
-            String lowerUserAgent = userAgent.toLowerCase();
-            boolean opera = lowerUserAgent.contains("opera");
-            boolean mac = lowerUserAgent.contains("mac");
-            boolean konqueror = lowerUserAgent.contains("konqueror");
-            boolean spoofer = lowerUserAgent.contains("spoofer");
-            boolean safari = lowerUserAgent.contains("applewebkit");
-            boolean windows = lowerUserAgent.contains("windows");
-            boolean chrome = lowerUserAgent.contains("chrome");
-            boolean firefox = lowerUserAgent.contains("firefox")
-                    || lowerUserAgent.contains("minefield");
-            boolean ie = lowerUserAgent.contains("msie")
-                    || lowerUserAgent.contains("trident");
-
-            if (opera) {
-                return "SHIFT + ESC";
-            } else if (chrome && mac && !spoofer) {
-                return "CTRL + OPTION";
-            } else if (safari && !windows && !spoofer) {
-                return "CTRL + ALT";
-            } else if (!windows && (safari || mac || konqueror)) {
-                return "CTRL";
-            } else if (firefox) {
-                return "ALT + SHIFT";
-            } else if (chrome || ie) {
-                return "ALT";
-            } else {
-                return standartPrefix;
-            }
-        } else {
-            return standartPrefix;
-        }
+        return BrowserFamily.fromUserAgent(userAgent)
+                .getShortcutPrefix(standartPrefix);
     }
 
     /**
@@ -969,12 +603,7 @@ public class AccessibleDisplayScreenReaderImplementation
      * @return The description of role.
      */
     protected String getRoleDescription(final String role) {
-        String parameter = "role-" + role.toLowerCase();
-        if (configure.hasParameter(parameter)) {
-            return configure.getParameter(parameter);
-        } else {
-            return null;
-        }
+        return findDescription(roleDescriptions, role);
     }
 
     /**
@@ -983,17 +612,37 @@ public class AccessibleDisplayScreenReaderImplementation
      * @return The description of language.
      */
     protected String getLanguageDescription(final String languageCode) {
-        String language = languageCode.toLowerCase();
-        String parameter = "language-" + language;
-        if (configure.hasParameter(parameter)) {
-            return configure.getParameter(parameter);
-        } else if (language.contains("-")) {
-            parameter = "language-" + language.split("-")[0];
-            if (configure.hasParameter(parameter)) {
-                return configure.getParameter(parameter);
+        String description = findDescription(languageDescriptions,
+                languageCode);
+        if (description == null) {
+            int indexRegion = languageCode.indexOf('-');
+            if (indexRegion != -1) {
+                description = findDescription(languageDescriptions,
+                        languageCode.substring(0, indexRegion));
             }
         }
-        return null;
+        return description;
+    }
+
+    /**
+     * Returns the description of a value in a table of descriptions.
+     * @param descriptions The table of descriptions, indexed by values in
+     * lowercase letters.
+     * @param value The value.
+     * @return The description of value or null if the table not has the
+     * value.
+     */
+    protected static String findDescription(
+            final Map<String, String> descriptions, final String value) {
+        String key = value.replace('.', '-');
+        String description = descriptions.get(key);
+        if (description == null) {
+            String lowerKey = key.toLowerCase();
+            if (!lowerKey.equals(key)) {
+                description = descriptions.get(lowerKey);
+            }
+        }
+        return description;
     }
 
     /**
@@ -1013,23 +662,24 @@ public class AccessibleDisplayScreenReaderImplementation
             description = element.getAttribute("label");
         } else if ((element.hasAttribute("aria-labelledby"))
                 || (element.hasAttribute("aria-describedby"))) {
-            String[] descriptionIds;
+            templateContext.invalidate();
+            List<String> descriptionIds;
             if (element.hasAttribute("aria-labelledby")) {
-                descriptionIds = element.getAttribute("aria-labelledby")
-                        .split("[ \n\t\r]+");
+                descriptionIds = TokenList.getTokens(element
+                        .getAttribute("aria-labelledby"));
             } else {
-                descriptionIds = element.getAttribute("aria-describedby")
-                        .split("[ \n\t\r]+");
+                descriptionIds = TokenList.getTokens(element
+                        .getAttribute("aria-describedby"));
             }
-            for (int i = 0, length = descriptionIds.length; i < length; i++) {
+            for (String descriptionId : descriptionIds) {
                 HTMLDOMElement elementDescription = parser
-                        .find("#" + descriptionIds[i]).firstResult();
+                        .find("#" + descriptionId).firstResult();
                 if (elementDescription != null) {
                     description = elementDescription.getTextContent();
                     break;
                 }
             }
-        } else if ((element.getTagName().equals("INPUT"))
+        } else if ((element.getTag() == HTMLTag.INPUT)
                 && (element.hasAttribute("type"))) {
             String type = element.getAttribute("type").toLowerCase();
             if (((type.equals("button")) || (type.equals("submit"))
@@ -1111,35 +761,42 @@ public class AccessibleDisplayScreenReaderImplementation
      */
     protected void insert(final HTMLDOMElement element,
             final HTMLDOMElement insertedElement, final boolean before) {
-        String tagName = element.getTagName();
-        Collection<String> appendTags = Arrays.asList("BODY", "A", "FIGCAPTION",
-                "LI", "DT", "DD", "LABEL", "OPTION", "TD", "TH");
-        Collection<String> controls = Arrays.asList("INPUT", "SELECT",
-                "TEXTAREA");
-        if (tagName.equals("HTML")) {
+        HTMLTag tag = element.getTag();
+        if (tag == HTMLTag.HTML) {
             HTMLDOMElement body = parser.find("body").firstResult();
             if (body != null) {
                 insert(body, insertedElement, before);
             }
-        } else if (appendTags.contains(tagName)) {
-            if (before) {
+        } else if (APPEND_TAGS.contains(tag)) {
+            if (collectingInsertions) {
+                collectInsertion(element, element, insertedElement, before);
+            } else if (before) {
                 element.prependElement(insertedElement);
             } else {
                 element.appendElement(insertedElement);
             }
-        } else if (controls.contains(tagName)) {
+        } else if (CONTROL_TAGS.contains(tag)) {
             Collection<HTMLDOMElement> labels = new ArrayList<HTMLDOMElement>();
-            if (element.hasAttribute("id")) {
-                labels = parser.find("label[for=\"" + element.getAttribute("id")
-                        + "\"]").listResults();
-            }
-            if (labels.isEmpty()) {
-                labels = parser.find(element).findAncestors("label")
-                        .listResults();
+            if ((labelIndex != null) && (labelIndex.hasField(element))) {
+                labels = labelIndex.getLabels(element);
+            } else {
+                if (element.hasAttribute("id")) {
+                    labels = parser.find("label[for=\""
+                            + element.getAttribute("id") + "\"]")
+                            .listResults();
+                }
+                if (labels.isEmpty()) {
+                    labels = parser.find(element).findAncestors("label")
+                            .listResults();
+                }
             }
             for (HTMLDOMElement label : labels) {
                 insert(label, insertedElement, before);
             }
+        } else if ((collectingInsertions)
+                && (element.getParentElement() != null)) {
+            collectInsertion(element.getParentElement(), element,
+                    insertedElement, before);
         } else if (before) {
             element.insertBefore(insertedElement);
         } else {
@@ -1147,6 +804,236 @@ public class AccessibleDisplayScreenReaderImplementation
         }
     }
 
+    /**
+     * Collect a element to be inserted later, in the same position that it was
+     * inserted before or after other element.
+     * @param parent The parent of the reference element, or the reference
+     * element to insert the element in its start or end.
+     * @param element The reference element.
+     * @param insertedElement The element that be inserted.
+     * @param before To insert the element before the other element.
+     */
+    protected void collectInsertion(final HTMLDOMElement parent,
+            final HTMLDOMElement element, final HTMLDOMElement insertedElement,
+            final boolean before) {
+        Object parentData = parent.getData();
+        Map<Object, Map<Object, List<HTMLDOMNode>>> pendingInsertions;
+        if (before) {
+            pendingInsertions = pendingInsertionsBefore;
+        } else {
+            pendingInsertions = pendingInsertionsAfter;
+        }
+        Map<Object, List<HTMLDOMNode>> insertions =
+                pendingInsertions.get(parentData);
+        if (insertions == null) {
+            insertions = new IdentityHashMap<Object, List<HTMLDOMNode>>();
+            pendingInsertions.put(parentData, insertions);
+            pendingParents.put(parentData, parent);
+        }
+        List<HTMLDOMNode> nodes = insertions.get(element.getData());
+        if (nodes == null) {
+            nodes = new ArrayList<HTMLDOMNode>();
+            insertions.put(element.getData(), nodes);
+        }
+
+        List<HTMLDOMNode> previousNodes = pendingInsertedElements
+                .put(insertedElement.getData(), nodes);
+        if (previousNodes != null) {
+            previousNodes.remove(insertedElement);
+        }
+        if ((parentData == element.getData()) == before) {
+            nodes.add(0, insertedElement);
+        } else {
+            nodes.add(insertedElement);
+        }
+    }
+
+    /**
+     * Start to collect the inserted elements, instead of insert each element
+     * immediately, and index the labels of document.
+     */
+    protected void collectInsertions() {
+        collectingInsertions = true;
+        labelIndex = new LabelIndex(parser);
+    }
+
+    /**
+     * Insert the collected elements, rebuilding the children of each parent
+     * once.
+     */
+    protected void applyInsertions() {
+        Map<Object, List<HTMLDOMNode>> emptyInsertions =
+                new IdentityHashMap<Object, List<HTMLDOMNode>>();
+        for (Map.Entry<Object, HTMLDOMElement> entry
+                : pendingParents.entrySet()) {
+            Map<Object, List<HTMLDOMNode>> insertionsBefore =
+                    pendingInsertionsBefore.get(entry.getKey());
+            Map<Object, List<HTMLDOMNode>> insertionsAfter =
+                    pendingInsertionsAfter.get(entry.getKey());
+            if (insertionsBefore == null) {
+                insertionsBefore = emptyInsertions;
+            }
+            if (insertionsAfter == null) {
+                insertionsAfter = emptyInsertions;
+            }
+            entry.getValue().insertNodes(insertionsBefore, insertionsAfter);
+        }
+        pendingParents.clear();
+        pendingInsertionsBefore.clear();
+        pendingInsertionsAfter.clear();
+        pendingInsertedElements.clear();
+        collectingInsertions = false;
+        labelIndex = null;
+    }
+
+    /**
+     * Generate an id for element, if it not has an id.
+     * @param element The element.
+     */
+    protected void generateId(final HTMLDOMElement element) {
+        int position = templateContext.getRecordedPosition(element);
+        if (position != -1) {
+            templateContext.getRecorder().generateId(position);
+        }
+        idGenerator.generateId(element);
+    }
+
+    /**
+     * Create or modify an attribute of element.
+     * @param element The element.
+     * @param name The name of attribute.
+     * @param value The value of attribute.
+     */
+    protected void setAttribute(final HTMLDOMElement element,
+            final String name, final String value) {
+        int position = templateContext.getRecordedPosition(element);
+        if (position != -1) {
+            templateContext.getRecorder().setAttribute(position, name, value);
+        }
+        element.setAttribute(name, value);
+    }
+
+    /**
+     * Create or modify an attribute of element with the id of element.
+     * @param element The element.
+     * @param name The name of attribute.
+     */
+    protected void setIdAttribute(final HTMLDOMElement element,
+            final String name) {
+        int position = templateContext.getRecordedPosition(element);
+        if (position != -1) {
+            templateContext.getRecorder().setIdAttribute(position, name);
+        }
+        element.setAttribute(name, element.getAttribute("id"));
+    }
+
+    /**
+     * Replay the changes of a template in the descendants of the element of
+     * current fingerprint, generating new ids.
+     * @param template The template.
+     */
+    protected void applyTemplate(final AccessibleDisplayTemplate template) {
+        List<HTMLDOMElement> elements = templateContext.getElements();
+        for (AccessibleDisplayTemplate.Operation operation
+                : template.getOperations()) {
+            HTMLDOMElement element = null;
+            if (operation.getPosition() != -1) {
+                element = elements.get(operation.getPosition());
+            }
+            switch (operation.getType()) {
+                case GENERATE_ID:
+                    idGenerator.generateId(element);
+                    break;
+                case SET_ATTRIBUTE:
+                    element.setAttribute(operation.getName(),
+                            operation.getValue());
+                    break;
+                case SET_ID_ATTRIBUTE:
+                    element.setAttribute(operation.getName(),
+                            element.getAttribute("id"));
+                    break;
+                case FORCE_READ:
+                    if (!operation.getValue().isEmpty()) {
+                        insertForceRead(element, element.getAttribute("id"),
+                                operation.getValue(), operation.getName(),
+                                true);
+                    }
+                    if (!operation.getSecondValue().isEmpty()) {
+                        insertForceRead(element, element.getAttribute("id"),
+                                operation.getSecondValue(),
+                                operation.getName(), false);
+                    }
+                    break;
+                default:
+                    appendShortcut(operation.getName(), operation.getValue());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Display the informations of the elements of a selector. When the
+     * templates are enabled, the changes in the descendants of headers,
+     * footers, navigations and forms are recorded and replayed in the next
+     * elements with the same fingerprint.
+     * @param selector The selector of elements.
+     * @param method The name of method, that identifies its templates.
+     * @param dataOfs The names of attributes that link the contents with
+     * elements, used by method.
+     * @param display The action that displays the informations of an
+     * element.
+     */
+    protected void displayAllElements(final String selector,
+            final String method, final Collection<String> dataOfs,
+            final Consumer<HTMLDOMElement> display) {
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> elements = parser.find(selector)
+                .iterateResults();
+        if (!templateContext.isEnabled()) {
+            for (HTMLDOMElement element : elements) {
+                if (validElements.isValidElement(element)) {
+                    display.accept(element);
+                }
+            }
+            return;
+        }
+
+        templateContext.collectReferences(parser, dataOfs);
+        HTMLDOMElement root = null;
+        boolean replayed = false;
+        for (HTMLDOMElement element : elements) {
+            int position = templateContext.getPosition(element);
+            if (position == -1) {
+                HTMLDOMElement elementRoot = AccessibleDisplayTemplateContext
+                        .getRoot(element);
+                if ((root != null) && (elementRoot != null)
+                        && (root.getData() == elementRoot.getData())) {
+                    templateContext.invalidate();
+                } else {
+                    templateContext.finish(method);
+                    root = elementRoot;
+                    replayed = false;
+                    if ((root != null)
+                            && (validElements.isValidElement(root))) {
+                        AccessibleDisplayTemplate template =
+                                templateContext.start(root, method);
+                        if (template != null) {
+                            applyTemplate(template);
+                            replayed = true;
+                        }
+                        position = templateContext.getPosition(element);
+                    }
+                }
+            }
+            if (((!replayed) || (position == -1))
+                    && (validElements.isValidElement(element))) {
+                display.accept(element);
+            }
+        }
+        templateContext.finish(method);
+        templateContext.clearReferences();
+    }
+
     /**
      * Force the screen reader display an information of element.
      * @param element The reference element.
@@ -1157,7 +1044,7 @@ public class AccessibleDisplayScreenReaderImplementation
     protected void forceReadSimple(final HTMLDOMElement element,
             final String textBefore, final String textAfter,
             final String dataOf) {
-        idGenerator.generateId(element);
+        generateId(element);
         String identifier = element.getAttribute("id");
         String selector = "[" + dataOf + "=\"" + identifier + "\"]";
 
@@ -1171,31 +1058,57 @@ public class AccessibleDisplayScreenReaderImplementation
         references.remove(referenceAfter);
 
         if (references.isEmpty()) {
+            if (templateContext.getRecorder() != null) {
+                HTMLTag tag = element.getTag();
+                int position = templateContext.getRecordedPosition(element);
+                if ((referenceBefore != null) || (referenceAfter != null)
+                        || (tag == HTMLTag.HTML)
+                        || (CONTROL_TAGS.contains(tag))) {
+                    templateContext.invalidate();
+                } else if (position != -1) {
+                    templateContext.getRecorder().forceRead(position, dataOf,
+                            textBefore, textAfter);
+                }
+            }
             if (!textBefore.isEmpty()) {
                 if (referenceBefore != null) {
                     referenceBefore.removeNode();
                 }
-
-                HTMLDOMElement span = parser.createElement("span");
-                span.setAttribute("class", CLASS_FORCE_READ_BEFORE);
-                span.setAttribute(dataOf, identifier);
-                span.appendText(textBefore);
-                insert(element, span, true);
+                insertForceRead(element, identifier, textBefore, dataOf, true);
             }
             if (!textAfter.isEmpty()) {
                 if (referenceAfter != null) {
                     referenceAfter.removeNode();
                 }
-
-                HTMLDOMElement span = parser.createElement("span");
-                span.setAttribute("class", CLASS_FORCE_READ_AFTER);
-                span.setAttribute(dataOf, identifier);
-                span.appendText(textAfter);
-                insert(element, span, false);
+                insertForceRead(element, identifier, textAfter, dataOf, false);
             }
         }
     }
 
+    /**
+     * Insert the element that force the screen reader display an information
+     * of element.
+     * @param element The reference element.
+     * @param identifier The id of reference element.
+     * @param text The text content to show.
+     * @param dataOf The name of attribute that links the content with element.
+     * @param before To show the content before the element.
+     */
+    protected void insertForceRead(final HTMLDOMElement element,
+            final String identifier, final String text, final String dataOf,
+            final boolean before) {
+        HTMLDOMElement span = parser.createElement("span");
+        if (before) {
+            span.setAttribute("class", CLASS_FORCE_READ_BEFORE);
+        } else {
+            span.setAttribute("class", CLASS_FORCE_READ_AFTER);
+        }
+        span.setAttribute(dataOf, identifier);
+        span.appendText(text);
+        insert(element, span, before);
+        templateContext.addReference(identifier, span);
+    }
+
     /**
      * Force the screen reader display an information of element with prefixes
      * or suffixes.
@@ -1229,10 +1142,9 @@ public class AccessibleDisplayScreenReaderImplementation
         if (element.hasAttribute("accesskey")) {
             String description = getDescription(element);
             if (!element.hasAttribute("title")) {
-                idGenerator.generateId(element);
-                element.setAttribute(DATA_ATTRIBUTE_TITLE_OF,
-                        element.getAttribute("id"));
-                element.setAttribute("title", description);
+                generateId(element);
+                setIdAttribute(element, DATA_ATTRIBUTE_TITLE_OF);
+                setAttribute(element, "title", description);
             }
 
             if (!listShortcutsAdded) {
@@ -1242,43 +1154,66 @@ public class AccessibleDisplayScreenReaderImplementation
             String[] keys = element.getAttribute("accesskey").toUpperCase()
                     .split("[ \n\t\r]+");
             for (String key : keys) {
-                String selector = "[" + DATA_ATTRIBUTE_ACCESSKEY_OF + "=\""
-                        + key + "\"]";
-
                 String shortcut = shortcutPrefix + " + " + key;
                 forceRead(element, shortcut, attributeAccesskeyPrefixBefore,
                         attributeAccesskeySuffixBefore,
                         attributeAccesskeyPrefixAfter,
                         attributeAccesskeySuffixAfter,
                         DATA_ATTRIBUTE_ACCESSKEY_OF);
-
-                HTMLDOMElement item = parser.createElement("li");
-                item.setAttribute(DATA_ATTRIBUTE_ACCESSKEY_OF, key);
-                item.appendText(shortcut + ": " + description);
-                if ((listShortcutsBefore != null) && (parser
-                        .find(listShortcutsBefore).findChildren(selector)
-                        .firstResult() == null)) {
-                    listShortcutsBefore.appendElement(item.cloneElement());
-                }
-                if ((listShortcutsAfter != null) && (parser
-                        .find(listShortcutsAfter).findChildren(selector)
-                        .firstResult() == null)) {
-                    listShortcutsAfter.appendElement(item.cloneElement());
-                }
+                appendShortcut(key, shortcut + ": " + description);
             }
         }
     }
 
+    /**
+     * Add a shortcut in the lists of shortcuts of page, if the lists not have
+     * the key.
+     * @param key The key of shortcut.
+     * @param text The text of shortcut.
+     */
+    protected void appendShortcut(final String key, final String text) {
+        if (templateContext.getRecorder() != null) {
+            templateContext.getRecorder().shortcut(key, text);
+        }
+        if (!listShortcutsAdded) {
+            generateListShortcuts();
+        }
+        String selector = "[" + DATA_ATTRIBUTE_ACCESSKEY_OF + "=\"" + key
+                + "\"]";
+
+        HTMLDOMElement item = parser.createElement("li");
+        item.setAttribute(DATA_ATTRIBUTE_ACCESSKEY_OF, key);
+        item.appendText(text);
+        if ((listShortcutsBefore != null) && (parser
+                .find(listShortcutsBefore).findChildren(selector)
+                .firstResult() == null)) {
+            listShortcutsBefore.appendElement(item.cloneElement());
+        }
+        if ((listShortcutsAfter != null) && (parser
+                .find(listShortcutsAfter).findChildren(selector)
+                .firstResult() == null)) {
+            listShortcutsAfter.appendElement(item.cloneElement());
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     public void displayAllShortcuts() {
-        Collection<HTMLDOMElement> elements = parser.find("[accesskey]")
-                .listResults();
-        for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
-                displayShortcut(element);
-            }
+        labelIndex = new LabelIndex(parser);
+        try {
+            displayAllElements("[accesskey]", "shortcut",
+                    Collections.singleton(DATA_ATTRIBUTE_ACCESSKEY_OF),
+                    new Consumer<HTMLDOMElement>() {
+                        /**
+                         * {@inheritDoc}
+                         */
+                        public void accept(final HTMLDOMElement element) {
+                            displayShortcut(element);
+                        }
+                    });
+        } finally {
+            labelIndex = null;
         }
     }
 
@@ -1301,40 +1236,76 @@ public class AccessibleDisplayScreenReaderImplementation
      * {@inheritDoc}
      */
     public void displayAllRoles() {
-        Collection<HTMLDOMElement> elements = parser.find("[role]")
-                .listResults();
-        for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
-                displayRole(element);
-            }
-        }
+        collectInsertions();
+        displayAllElements("[role]", "role",
+                Collections.singleton(DATA_ROLE_OF),
+                new Consumer<HTMLDOMElement>() {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public void accept(final HTMLDOMElement element) {
+                        displayRole(element);
+                    }
+                });
+        applyInsertions();
     }
 
     /**
      * {@inheritDoc}
      */
     public void displayCellHeader(final HTMLDOMElement tableCell) {
+        displayCellHeader(tableCell, new HashMap<String, String>(),
+                new HashMap<String, String>());
+    }
+
+    /**
+     * Display the headers of a table cell, using the texts of headers
+     * resolved by the previous cells.
+     * @param tableCell The table cell.
+     * @param headerTexts The texts of headers, indexed by id of header.
+     * @param cellHeaderTexts The texts of the headers of cells, indexed by the
+     * headers attribute of cell.
+     */
+    protected void displayCellHeader(final HTMLDOMElement tableCell,
+            final Map<String, String> headerTexts,
+            final Map<String, String> cellHeaderTexts) {
         if (tableCell.hasAttribute("headers")) {
-            String textHeader = "";
-            List<String> idsHeaders = Arrays.asList(tableCell
-                    .getAttribute("headers").split("[ \n\t\r]+"));
-            for (String idHeader : idsHeaders) {
-                HTMLDOMElement header = parser.find("#" + idHeader)
-                        .firstResult();
-                if (header != null) {
-                    if (textHeader.equals("")) {
-                        textHeader = header.getTextContent().trim();
-                    } else {
-                        textHeader = textHeader + " "
-                                + header.getTextContent().trim();
+            String headers = tableCell.getAttribute("headers");
+            String textHeader = cellHeaderTexts.get(headers);
+            if (textHeader == null) {
+                textHeader = "";
+                for (String idHeader : TokenList.getTokens(headers)) {
+                    if (!headerTexts.containsKey(idHeader)) {
+                        HTMLDOMElement header = parser.find("#" + idHeader)
+                                .firstResult();
+                        if (header == null) {
+                            headerTexts.put(idHeader, null);
+                        } else {
+                            headerTexts.put(idHeader,
+                                    header.getTextContent().trim());
+                        }
+                    }
+                    String text = headerTexts.get(idHeader);
+                    if (text != null) {
+                        if (textHeader.equals("")) {
+                            textHeader = text;
+                        } else {
+                            textHeader = textHeader + " " + text;
+                        }
                     }
                 }
+                cellHeaderTexts.put(headers, textHeader);
             }
             if (!textHeader.trim().isEmpty()) {
                 forceRead(tableCell, textHeader, attributeHeadersPrefixBefore,
                         attributeHeadersSuffixBefore,
                         attributeHeadersPrefixAfter,
                         attributeHeadersSuffixAfter, DATA_ATTRIBUTE_HEADERS_OF);
+
+                // The text of cell changed, if it is the header of other cells.
+                if (headerTexts.remove(tableCell.getAttribute("id")) != null) {
+                    cellHeaderTexts.clear();
+                }
             }
         }
     }
@@ -1343,11 +1314,14 @@ public class AccessibleDisplayScreenReaderImplementation
      * {@inheritDoc}
      */
     public void displayAllCellHeaders() {
-        Collection<HTMLDOMElement> elements = parser
-                .find("td[headers],th[headers]").listResults();
+        ValidElementIndex validElements = new ValidElementIndex();
+        Map<String, String> headerTexts = new HashMap<String, String>();
+        Map<String, String> cellHeaderTexts = new HashMap<String, String>();
+        Iterable<HTMLDOMElement> elements = parser
+                .find("td[headers],th[headers]").iterateResults();
         for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
-                displayCellHeader(element);
+            if (validElements.isValidElement(element)) {
+                displayCellHeader(element, headerTexts, cellHeaderTexts);
             }
         }
     }
@@ -1356,149 +1330,25 @@ public class AccessibleDisplayScreenReaderImplementation
      * {@inheritDoc}
      */
     public void displayWAIARIAStates(final HTMLDOMElement element) {
-        if ((element.hasAttribute("aria-busy"))
-                && (element.getAttribute("aria-busy").equals("true"))) {
-            forceReadSimple(element, ariaBusyTrueBefore, ariaBusyTrueAfter,
-                    DATA_ARIA_BUSY_OF);
-        }
-        if (element.hasAttribute("aria-checked")) {
-            String attributeValue = element.getAttribute("aria-checked");
-            if (attributeValue.equals("true")) {
-                forceReadSimple(element, ariaCheckedTrueBefore,
-                        ariaCheckedTrueAfter, DATA_ARIA_CHECKED_OF);
-            } else if (attributeValue.equals("false")) {
-                forceReadSimple(element, ariaCheckedFalseBefore,
-                        ariaCheckedFalseAfter, DATA_ARIA_CHECKED_OF);
-            } else if (attributeValue.equals("mixed")) {
-                forceReadSimple(element, ariaCheckedMixedBefore,
-                        ariaCheckedMixedAfter, DATA_ARIA_CHECKED_OF);
-            }
-        }
-        if (element.hasAttribute("aria-expanded")) {
-            String attributeValue = element.getAttribute("aria-expanded");
-            if (attributeValue.equals("true")) {
-                forceReadSimple(element, ariaExpandedTrueBefore,
-                        ariaExpandedTrueAfter, DATA_ARIA_EXPANDED_OF);
-            } else if (attributeValue.equals("false")) {
-                forceReadSimple(element, ariaExpandedFalseBefore,
-                        ariaExpandedFalseAfter, DATA_ARIA_EXPANDED_OF);
-            }
-        }
-        if ((element.hasAttribute("aria-haspopup"))
-                && (element.getAttribute("aria-haspopup").equals("true"))) {
-            forceReadSimple(element, ariaHaspopupTrueBefore,
-                    ariaHaspopupTrueAfter, DATA_ARIA_HASPOPUP_OF);
-        }
-        if (element.hasAttribute("aria-level")) {
-            forceRead(element, element.getAttribute("aria-level"),
-                    ariaLevelPrefixBefore, ariaLevelSuffixBefore,
-                    ariaLevelPrefixAfter, ariaLevelSuffixAfter,
-                    DATA_ARIA_LEVEL_OF);
-        }
-        if (element.hasAttribute("aria-orientation")) {
-            String attributeValue = element.getAttribute("aria-orientation");
-            if (attributeValue.equals("vertical")) {
-                forceReadSimple(element, ariaOrientationVerticalBefore,
-                        ariaOrientationVerticalAfter, DATA_ARIA_ORIENTATION_OF);
-            } else if (attributeValue.equals("horizontal")) {
-                forceReadSimple(element, ariaOrientationHorizontalBefore,
-                        ariaOrientationHorizontalAfter,
-                        DATA_ARIA_ORIENTATION_OF);
-            }
-        }
-        if (element.hasAttribute("aria-pressed")) {
-            String attributeValue = element.getAttribute("aria-pressed");
-            if (attributeValue.equals("true")) {
-                forceReadSimple(element, ariaPressedTrueBefore,
-                        ariaPressedTrueAfter, DATA_ARIA_PRESSED_OF);
-            } else if (attributeValue.equals("false")) {
-                forceReadSimple(element, ariaPressedFalseBefore,
-                        ariaPressedFalseAfter, DATA_ARIA_PRESSED_OF);
-            } else if (attributeValue.equals("mixed")) {
-                forceReadSimple(element, ariaPressedMixedBefore,
-                        ariaPressedMixedAfter, DATA_ARIA_PRESSED_OF);
-            }
-        }
-        if (element.hasAttribute("aria-selected")) {
-            String attributeValue = element.getAttribute("aria-selected");
-            if (attributeValue.equals("true")) {
-                forceReadSimple(element, ariaSelectedTrueBefore,
-                        ariaSelectedTrueAfter, DATA_ARIA_SELECTED_OF);
-            } else if (attributeValue.equals("false")) {
-                forceReadSimple(element, ariaSelectedFalseBefore,
-                        ariaSelectedFalseAfter, DATA_ARIA_SELECTED_OF);
-            }
-        }
-        if (element.hasAttribute("aria-sort")) {
-            String attributeValue = element.getAttribute("aria-sort");
-            if (attributeValue.equals("ascending")) {
-                forceReadSimple(element, ariaSortAscendingBefore,
-                        ariaSortAscendingAfter, DATA_ARIA_SORT_OF);
-            } else if (attributeValue.equals("descending")) {
-                forceReadSimple(element, ariaSortDescendingBefore,
-                        ariaSortDescendingAfter, DATA_ARIA_SORT_OF);
-            } else if (attributeValue.equals("other")) {
-                forceReadSimple(element, ariaSortOtherBefore,
-                        ariaSortOtherAfter, DATA_ARIA_SORT_OF);
-            }
-        }
-        if ((element.hasAttribute("aria-required"))
-                && (element.getAttribute("aria-required").equals("true"))) {
-            forceReadSimple(element, ariaRequiredTrueBefore,
-                    ariaRequiredTrueAfter, DATA_ARIA_REQUIRED_OF);
-        }
-        if (element.hasAttribute("aria-valuemin")) {
-            forceRead(element, element.getAttribute("aria-valuemin"),
-                    ariaValueMinimumPrefixBefore, ariaValueMinimumSuffixBefore,
-                    ariaValueMinimumPrefixAfter, ariaValueMinimumSuffixAfter,
-                    DATA_ARIA_RANGE_MIN_OF);
-        }
-        if (element.hasAttribute("aria-valuemax")) {
-            forceRead(element, element.getAttribute("aria-valuemax"),
-                    ariaValueMaximumPrefixBefore, ariaValueMaximumSuffixBefore,
-                    ariaValueMaximumPrefixAfter, ariaValueMaximumSuffixAfter,
-                    DATA_ARIA_RANGE_MAX_OF);
-        }
-        if (element.hasAttribute("aria-autocomplete")) {
-            String attributeValue = element.getAttribute("aria-autocomplete");
-            if (attributeValue.equals("both")) {
-                forceReadSimple(element, ariaAutoCompleteBothBefore,
-                        ariaAutoCompleteBothAfter, DATA_ARIA_AUTOCOMPLETE_OF);
-            } else if (attributeValue.equals("inline")) {
-                forceReadSimple(element, ariaAutoCompleteListBefore,
-                        ariaAutoCompleteListAfter, DATA_ARIA_AUTOCOMPLETE_OF);
-            } else if (attributeValue.equals("list")) {
-                forceReadSimple(element, ariaAutoCompleteInlineBefore,
-                        ariaAutoCompleteInlineAfter, DATA_ARIA_AUTOCOMPLETE_OF);
-            }
-        }
-        if (element.hasAttribute("aria-dropeffect")) {
-            String attributeValue = element.getAttribute("aria-dropeffect");
-            if (attributeValue.equals("copy")) {
-                forceReadSimple(element, ariaDropeffectCopyBefore,
-                        ariaDropeffectCopyAfter, DATA_ARIA_DROPEFFECT_OF);
-            } else if (attributeValue.equals("move")) {
-                forceReadSimple(element, ariaDropeffectMoveBefore,
-                        ariaDropeffectMoveAfter, DATA_ARIA_DROPEFFECT_OF);
-            } else if (attributeValue.equals("link")) {
-                forceReadSimple(element, ariaDropeffectLinkBefore,
-                        ariaDropeffectLinkAfter, DATA_ARIA_DROPEFFECT_OF);
-            } else if (attributeValue.equals("execute")) {
-                forceReadSimple(element, ariaDropeffectExecuteBefore,
-                        ariaDropeffectExecuteAfter, DATA_ARIA_DROPEFFECT_OF);
-            } else if (attributeValue.equals("popup")) {
-                forceReadSimple(element, ariaDropeffectPopupBefore,
-                        ariaDropeffectPopupAfter, DATA_ARIA_DROPEFFECT_OF);
+        final WAIARIAState[] states = new WAIARIAState[waiAriaStates.size()];
+        final String[] values = new String[states.length];
+        element.forEachAttribute(new BiConsumer<String, String>() {
+            /**
+             * {@inheritDoc}
+             */
+            public void accept(final String name, final String value) {
+                int position = waiAriaStates.getPosition(name);
+                if (position != -1) {
+                    states[position] = waiAriaStates.getState(position, value);
+                    values[position] = value;
+                }
             }
-        }
-        if (element.hasAttribute("aria-grabbed")) {
-            String attributeValue = element.getAttribute("aria-grabbed");
-            if (attributeValue.equals("true")) {
-                forceReadSimple(element, ariaGrabbedTrueBefore,
-                        ariaGrabbedTrueAfter, DATA_ARIA_GRABBED_OF);
-            } else if (attributeValue.equals("false")) {
-                forceReadSimple(element, ariaGrabbedFalseBefore,
-                        ariaGrabbedFalseAfter, DATA_ARIA_GRABBED_OF);
+        });
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] != null) {
+                forceReadSimple(element, states[i].getTextBefore(values[i]),
+                        states[i].getTextAfter(values[i]),
+                        states[i].getDataOf());
             }
         }
     }
@@ -1507,18 +1357,27 @@ public class AccessibleDisplayScreenReaderImplementation
      * {@inheritDoc}
      */
     public void displayAllWAIARIAStates() {
-        Collection<HTMLDOMElement> elements = parser
-                .find("[aria-busy=true],[aria-checked],[aria-dropeffect],"
-                    + "[aria-expanded],[aria-grabbed],[aria-haspopup],"
-                    + "[aria-level],[aria-orientation],[aria-pressed],"
-                    + "[aria-selected],[aria-sort],[aria-required=true],"
-                    + "[aria-valuemin],[aria-valuemax],[aria-autocomplete]")
-                .listResults();
-        for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
-                displayWAIARIAStates(element);
-            }
+        Set<String> dataOfs = new LinkedHashSet<String>();
+        for (WAIARIAState state
+                : AccessibleDisplayScreenReaderConfiguration.WAI_ARIA_STATES) {
+            dataOfs.add(state.getDataOf());
         }
+        collectInsertions();
+        displayAllElements("[aria-busy=true],[aria-checked],[aria-dropeffect],"
+                + "[aria-expanded],[aria-grabbed],[aria-haspopup],"
+                + "[aria-level],[aria-orientation],[aria-pressed],"
+                + "[aria-selected],[aria-sort],[aria-required=true],"
+                + "[aria-valuemin],[aria-valuemax],[aria-autocomplete]",
+                "wai-aria", dataOfs,
+                new Consumer<HTMLDOMElement>() {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public void accept(final HTMLDOMElement element) {
+                        displayWAIARIAStates(element);
+                    }
+                });
+        applyInsertions();
     }
 
     /**
@@ -1540,20 +1399,23 @@ public class AccessibleDisplayScreenReaderImplementation
      * {@inheritDoc}
      */
     public void displayAllLinksAttributes() {
-        Collection<HTMLDOMElement> elements = parser
-                .find("a[download],a[target=\"_blank\"]").listResults();
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> elements = parser
+                .find("a[download],a[target=\"_blank\"]").iterateResults();
+        collectInsertions();
         for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
+            if (validElements.isValidElement(element)) {
                 displayLinkAttributes(element);
             }
         }
+        applyInsertions();
     }
 
     /**
      * {@inheritDoc}
      */
     public void displayTitle(final HTMLDOMElement element) {
-        if (element.getTagName().equals("IMG")) {
+        if (element.getTag() == HTMLTag.IMG) {
             displayAlternativeTextImage(element);
         } else if ((element.hasAttribute("title"))
                 && (!element.getAttribute("title").isEmpty())) {
@@ -1568,13 +1430,18 @@ public class AccessibleDisplayScreenReaderImplementation
      * {@inheritDoc}
      */
     public void displayAllTitles() {
-        Collection<HTMLDOMElement> elements = parser.find("body [title]")
-                .listResults();
-        for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
-                displayTitle(element);
-            }
-        }
+        collectInsertions();
+        displayAllElements("body [title]", "title",
+                Collections.singleton(DATA_ATTRIBUTE_TITLE_OF),
+                new Consumer<HTMLDOMElement>() {
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public void accept(final HTMLDOMElement element) {
+                        displayTitle(element);
+                    }
+                });
+        applyInsertions();
     }
 
     /**
@@ -1599,14 +1466,17 @@ public class AccessibleDisplayScreenReaderImplementation
      * {@inheritDoc}
      */
     public void displayAllLanguages() {
-        Collection<HTMLDOMElement> elements = parser
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> elements = parser
                 .find("html[lang],body[lang],body [lang],body [hreflang]")
-                .listResults();
+                .iterateResults();
+        collectInsertions();
         for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
+            if (validElements.isValidElement(element)) {
                 displayLanguage(element);
             }
         }
+        applyInsertions();
     }
 
     /**
@@ -1615,18 +1485,17 @@ public class AccessibleDisplayScreenReaderImplementation
     public void displayAlternativeTextImage(final HTMLDOMElement image) {
         if ((image.hasAttribute("alt")) || (image.hasAttribute("title"))) {
             if ((image.hasAttribute("alt")) && (!image.hasAttribute("title"))) {
-                image.setAttribute("title", image.getAttribute("alt"));
+                setAttribute(image, "title", image.getAttribute("alt"));
             } else if ((image.hasAttribute("title"))
                     && (!image.hasAttribute("alt"))) {
-                image.setAttribute("alt", image.getAttribute("title"));
+                setAttribute(image, "alt", image.getAttribute("title"));
             }
-            idGenerator.generateId(image);
-            image.setAttribute(DATA_ATTRIBUTE_TITLE_OF,
-                    image.getAttribute("id"));
+            generateId(image);
+            setIdAttribute(image, DATA_ATTRIBUTE_TITLE_OF);
         } else {
-            image.setAttribute("alt", "");
-            image.setAttribute("role", "presentation");
-            image.setAttribute("aria-hidden", "true");
+            setAttribute(image, "alt", "");
+            setAttribute(image, "role", "presentation");
+            setAttribute(image, "aria-hidden", "true");
         }
     }
 
@@ -1634,9 +1503,10 @@ public class AccessibleDisplayScreenReaderImplementation
      * {@inheritDoc}
      */
     public void displayAllAlternativeTextImages() {
-        Collection<HTMLDOMElement> images = parser.find("img").listResults();
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> images = parser.find("img").iterateResults();
         for (HTMLDOMElement image : images) {
-            if (CommonFunctions.isValidElement(image)) {
+            if (validElements.isValidElement(image)) {
                 displayAlternativeTextImage(image);
             }
         }
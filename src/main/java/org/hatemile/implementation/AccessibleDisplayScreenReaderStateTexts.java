@@ -0,0 +1,782 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.implementation;
+
+import org.hatemile.util.ConfigureSnapshot;
+
+/**
+ * The AccessibleDisplayScreenReaderStateTexts class contains the texts of
+ * each state of WAI-ARIA displayed by
+ * {@link AccessibleDisplayScreenReaderImplementation}, kept for the
+ * subclasses that read them. The states are displayed with the texts of
+ * {@link AccessibleDisplayScreenReaderConfiguration#getWAIARIAStates()}, not
+ * with these fields.
+ */
+public abstract class AccessibleDisplayScreenReaderStateTexts {
+
+    /**
+     * The content of autocomplete inline and list state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaAutoCompleteBothBefore;
+
+    /**
+     * The content of autocomplete inline and list state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaAutoCompleteBothAfter;
+
+    /**
+     * The content of autocomplete inline state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaAutoCompleteInlineBefore;
+
+    /**
+     * The content of autocomplete inline state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaAutoCompleteInlineAfter;
+
+    /**
+     * The content of autocomplete list state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaAutoCompleteListBefore;
+
+    /**
+     * The content of autocomplete list state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaAutoCompleteListAfter;
+
+    /**
+     * The content of busy state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaBusyTrueBefore;
+
+    /**
+     * The content of busy state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaBusyTrueAfter;
+
+    /**
+     * The content of unchecked state field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaCheckedFalseBefore;
+
+    /**
+     * The content of unchecked state field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaCheckedFalseAfter;
+
+    /**
+     * The content of mixed checked state field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaCheckedMixedBefore;
+
+    /**
+     * The content of mixed checked state field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaCheckedMixedAfter;
+
+    /**
+     * The content of checked state field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaCheckedTrueBefore;
+
+    /**
+     * The content of checked state field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaCheckedTrueAfter;
+
+    /**
+     * The content of drop with copy effect state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectCopyBefore;
+
+    /**
+     * The content of drop with copy effect state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectCopyAfter;
+
+    /**
+     * The content of drop with execute effect state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectExecuteBefore;
+
+    /**
+     * The content of drop with execute effect state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectExecuteAfter;
+
+    /**
+     * The content of drop with link effect state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectLinkBefore;
+
+    /**
+     * The content of drop with link effect state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectLinkAfter;
+
+    /**
+     * The content of drop with move effect state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectMoveBefore;
+
+    /**
+     * The content of drop with move effect state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectMoveAfter;
+
+    /**
+     * The content of drop with popup effect state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectPopupBefore;
+
+    /**
+     * The content of drop with popup effect state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaDropeffectPopupAfter;
+
+    /**
+     * The content of collapsed state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaExpandedFalseBefore;
+
+    /**
+     * The content of collapsed state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaExpandedFalseAfter;
+
+    /**
+     * The content of expanded state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaExpandedTrueBefore;
+
+    /**
+     * The content of expanded state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaExpandedTrueAfter;
+
+    /**
+     * The content of ungrabbed state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaGrabbedFalseBefore;
+
+    /**
+     * The content of ungrabbed state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaGrabbedFalseAfter;
+
+    /**
+     * The content of grabbed state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaGrabbedTrueBefore;
+
+    /**
+     * The content of grabbed state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaGrabbedTrueAfter;
+
+    /**
+     * The content that show if the field has popup, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaHaspopupTrueBefore;
+
+    /**
+     * The content that show if the field has popup, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaHaspopupTrueAfter;
+
+    /**
+     * The prefix content of level state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaLevelPrefixBefore;
+
+    /**
+     * The suffix content of level state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaLevelSuffixBefore;
+
+    /**
+     * The prefix content of level state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaLevelPrefixAfter;
+
+    /**
+     * The suffix content of level state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaLevelSuffixAfter;
+
+    /**
+     * The prefix content of maximum range state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaValueMaximumPrefixBefore;
+
+    /**
+     * The suffix content of maximum range state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaValueMaximumSuffixBefore;
+
+    /**
+     * The prefix content of maximum range state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaValueMaximumPrefixAfter;
+
+    /**
+     * The suffix content of maximum range state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaValueMaximumSuffixAfter;
+
+    /**
+     * The prefix content of minimum range state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaValueMinimumPrefixBefore;
+
+    /**
+     * The suffix content of minimum range state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaValueMinimumSuffixBefore;
+
+    /**
+     * The prefix content of minimum range state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaValueMinimumPrefixAfter;
+
+    /**
+     * The suffix content of minimum range state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaValueMinimumSuffixAfter;
+
+    /**
+     * The content of horizontal orientation state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaOrientationHorizontalBefore;
+
+    /**
+     * The content of horizontal orientation state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaOrientationHorizontalAfter;
+
+    /**
+     * The content of vertical orientation state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaOrientationVerticalBefore;
+
+    /**
+     * The content of vertical orientation state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaOrientationVerticalAfter;
+
+    /**
+     * The content of unpressed state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaPressedFalseBefore;
+
+    /**
+     * The content of unpressed state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaPressedFalseAfter;
+
+    /**
+     * The content of mixed pressed state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaPressedMixedBefore;
+
+    /**
+     * The content of mixed pressed state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaPressedMixedAfter;
+
+    /**
+     * The content of pressed state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaPressedTrueBefore;
+
+    /**
+     * The content of pressed state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaPressedTrueAfter;
+
+    /**
+     * The content of required state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaRequiredTrueBefore;
+
+    /**
+     * The content of required state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaRequiredTrueAfter;
+
+    /**
+     * The content of unselected state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSelectedFalseBefore;
+
+    /**
+     * The content of unselected state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSelectedFalseAfter;
+
+    /**
+     * The content of selected state of field, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSelectedTrueBefore;
+
+    /**
+     * The content of selected state of field, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSelectedTrueAfter;
+
+    /**
+     * The content of ascending sort state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSortAscendingBefore;
+
+    /**
+     * The content of ascending sort state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSortAscendingAfter;
+
+    /**
+     * The content of descending sort state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSortDescendingBefore;
+
+    /**
+     * The content of descending sort state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSortDescendingAfter;
+
+    /**
+     * The content of sorted state of element, before it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSortOtherBefore;
+
+    /**
+     * The content of sorted state of element, after it.
+     * @deprecated Prefer use the states of
+     * {@link AccessibleDisplayScreenReaderImplementation#waiAriaStates}
+     * instead this field.
+     */
+    @Deprecated
+    protected final String ariaSortOtherAfter;
+
+    /**
+     * Initializes a new object with the texts of states of WAI-ARIA of a
+     * configuration.
+     * @param parameters The parameters of configuration of HaTeMiLe.
+     */
+    protected AccessibleDisplayScreenReaderStateTexts(
+            final ConfigureSnapshot parameters) {
+        ariaAutoCompleteBothBefore = parameters
+                .getParameter("aria-autocomplete-both-before");
+        ariaAutoCompleteBothAfter = parameters
+                .getParameter("aria-autocomplete-both-after");
+        ariaAutoCompleteInlineBefore = parameters
+                .getParameter("aria-autocomplete-inline-before");
+        ariaAutoCompleteInlineAfter = parameters
+                .getParameter("aria-autocomplete-inline-after");
+        ariaAutoCompleteListBefore = parameters
+                .getParameter("aria-autocomplete-list-before");
+        ariaAutoCompleteListAfter = parameters
+                .getParameter("aria-autocomplete-list-after");
+        ariaBusyTrueBefore = parameters
+                .getParameter("aria-busy-true-before");
+        ariaBusyTrueAfter = parameters
+                .getParameter("aria-busy-true-after");
+        ariaCheckedFalseBefore = parameters
+                .getParameter("aria-checked-false-before");
+        ariaCheckedFalseAfter = parameters
+                .getParameter("aria-checked-false-after");
+        ariaCheckedMixedBefore = parameters
+                .getParameter("aria-checked-mixed-before");
+        ariaCheckedMixedAfter = parameters
+                .getParameter("aria-checked-mixed-after");
+        ariaCheckedTrueBefore = parameters
+                .getParameter("aria-checked-true-before");
+        ariaCheckedTrueAfter = parameters
+                .getParameter("aria-checked-true-after");
+        ariaDropeffectCopyBefore = parameters
+                .getParameter("aria-dropeffect-copy-before");
+        ariaDropeffectCopyAfter = parameters
+                .getParameter("aria-dropeffect-copy-after");
+        ariaDropeffectExecuteBefore = parameters
+                .getParameter("aria-dropeffect-execute-before");
+        ariaDropeffectExecuteAfter = parameters
+                .getParameter("aria-dropeffect-execute-after");
+        ariaDropeffectLinkBefore = parameters
+                .getParameter("aria-dropeffect-link-before");
+        ariaDropeffectLinkAfter = parameters
+                .getParameter("aria-dropeffect-link-after");
+        ariaDropeffectMoveBefore = parameters
+                .getParameter("aria-dropeffect-move-before");
+        ariaDropeffectMoveAfter = parameters
+                .getParameter("aria-dropeffect-move-after");
+        ariaDropeffectPopupBefore = parameters
+                .getParameter("aria-dropeffect-popup-before");
+        ariaDropeffectPopupAfter = parameters
+                .getParameter("aria-dropeffect-popup-after");
+        ariaExpandedFalseBefore = parameters
+                .getParameter("aria-expanded-false-before");
+        ariaExpandedFalseAfter = parameters
+                .getParameter("aria-expanded-false-after");
+        ariaExpandedTrueBefore = parameters
+                .getParameter("aria-expanded-true-before");
+        ariaExpandedTrueAfter = parameters
+                .getParameter("aria-expanded-true-after");
+        ariaGrabbedFalseBefore = parameters
+                .getParameter("aria-grabbed-false-before");
+        ariaGrabbedFalseAfter = parameters
+                .getParameter("aria-grabbed-false-after");
+        ariaGrabbedTrueBefore = parameters
+                .getParameter("aria-grabbed-true-before");
+        ariaGrabbedTrueAfter = parameters
+                .getParameter("aria-grabbed-true-after");
+        ariaHaspopupTrueBefore = parameters
+                .getParameter("aria-haspopup-true-before");
+        ariaHaspopupTrueAfter = parameters
+                .getParameter("aria-haspopup-true-after");
+        ariaLevelPrefixBefore = parameters
+                .getParameter("aria-level-prefix-before");
+        ariaLevelSuffixBefore = parameters
+                .getParameter("aria-level-suffix-before");
+        ariaLevelPrefixAfter = parameters
+                .getParameter("aria-level-prefix-after");
+        ariaLevelSuffixAfter = parameters
+                .getParameter("aria-level-suffix-after");
+        ariaValueMaximumPrefixBefore = parameters
+                .getParameter("aria-value-maximum-prefix-before");
+        ariaValueMaximumSuffixBefore = parameters
+                .getParameter("aria-value-maximum-suffix-before");
+        ariaValueMaximumPrefixAfter = parameters
+                .getParameter("aria-value-maximum-prefix-after");
+        ariaValueMaximumSuffixAfter = parameters
+                .getParameter("aria-value-maximum-suffix-after");
+        ariaValueMinimumPrefixBefore = parameters
+                .getParameter("aria-value-minimum-prefix-before");
+        ariaValueMinimumSuffixBefore = parameters
+                .getParameter("aria-value-minimum-suffix-before");
+        ariaValueMinimumPrefixAfter = parameters
+                .getParameter("aria-value-minimum-prefix-after");
+        ariaValueMinimumSuffixAfter = parameters
+                .getParameter("aria-value-minimum-suffix-after");
+        ariaOrientationHorizontalBefore = parameters
+                .getParameter("aria-orientation-horizontal-before");
+        ariaOrientationHorizontalAfter = parameters
+                .getParameter("aria-orientation-horizontal-after");
+        ariaOrientationVerticalBefore = parameters
+                .getParameter("aria-orientation-vertical-before");
+        ariaOrientationVerticalAfter = parameters
+                .getParameter("aria-orientation-vertical-after");
+        ariaPressedFalseBefore = parameters
+                .getParameter("aria-pressed-false-before");
+        ariaPressedFalseAfter = parameters
+                .getParameter("aria-pressed-false-after");
+        ariaPressedMixedBefore = parameters
+                .getParameter("aria-pressed-mixed-before");
+        ariaPressedMixedAfter = parameters
+                .getParameter("aria-pressed-mixed-after");
+        ariaPressedTrueBefore = parameters
+                .getParameter("aria-pressed-true-before");
+        ariaPressedTrueAfter = parameters
+                .getParameter("aria-pressed-true-after");
+        ariaRequiredTrueBefore = parameters
+                .getParameter("aria-required-true-before");
+        ariaRequiredTrueAfter = parameters
+                .getParameter("aria-required-true-after");
+        ariaSelectedFalseBefore = parameters
+                .getParameter("aria-selected-false-before");
+        ariaSelectedFalseAfter = parameters
+                .getParameter("aria-selected-false-after");
+        ariaSelectedTrueBefore = parameters
+                .getParameter("aria-selected-true-before");
+        ariaSelectedTrueAfter = parameters
+                .getParameter("aria-selected-true-after");
+        ariaSortAscendingBefore = parameters
+                .getParameter("aria-sort-ascending-before");
+        ariaSortAscendingAfter = parameters
+                .getParameter("aria-sort-ascending-after");
+        ariaSortDescendingBefore = parameters
+                .getParameter("aria-sort-descending-before");
+        ariaSortDescendingAfter = parameters
+                .getParameter("aria-sort-descending-after");
+        ariaSortOtherBefore = parameters.getParameter("aria-sort-other-before");
+        ariaSortOtherAfter = parameters.getParameter("aria-sort-other-after");
+    }
+}
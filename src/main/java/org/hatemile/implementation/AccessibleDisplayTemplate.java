@@ -0,0 +1,287 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.implementation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The AccessibleDisplayTemplate class is an immutable list of the changes
+ * that a method of {@link AccessibleDisplayScreenReaderImplementation} made in
+ * the descendants of an element. The descendants are referenced by its
+ * position in the document order and the ids are not recorded, so the
+ * template can be replayed in other element with the same
+ * {@link org.hatemile.util.SubtreeFingerprint}, generating new ids.
+ */
+public final class AccessibleDisplayTemplate {
+
+    /**
+     * The AccessibleDisplayTemplate.Type enum contains the types of
+     * operations.
+     */
+    public enum Type {
+
+        /**
+         * Generate an id for the element, if it not has an id.
+         */
+        GENERATE_ID,
+
+        /**
+         * Create or modify an attribute of element.
+         */
+        SET_ATTRIBUTE,
+
+        /**
+         * Create or modify an attribute of element with the id of element.
+         */
+        SET_ID_ATTRIBUTE,
+
+        /**
+         * Force the screen reader display an information of element.
+         */
+        FORCE_READ,
+
+        /**
+         * Add a shortcut in the lists of shortcuts of page.
+         */
+        SHORTCUT
+    }
+
+    /**
+     * The AccessibleDisplayTemplate.Operation class is an immutable change of
+     * a template.
+     */
+    public static final class Operation {
+
+        /**
+         * The type of operation.
+         */
+        private final Type type;
+
+        /**
+         * The position of element in the descendants of root element or -1.
+         */
+        private final int position;
+
+        /**
+         * The name of attribute, the name of attribute that links the content
+         * with element, the key of shortcut or null.
+         */
+        private final String name;
+
+        /**
+         * The value of attribute, the text before the element, the text of
+         * shortcut or null.
+         */
+        private final String value;
+
+        /**
+         * The text after the element or null.
+         */
+        private final String secondValue;
+
+        /**
+         * Initializes a new operation.
+         * @param operationType The type of operation.
+         * @param elementPosition The position of element in the descendants of
+         * root element or -1.
+         * @param operationName The name of operation.
+         * @param operationValue The value of operation.
+         * @param operationSecondValue The second value of operation.
+         */
+        private Operation(final Type operationType, final int elementPosition,
+                final String operationName, final String operationValue,
+                final String operationSecondValue) {
+            type = operationType;
+            position = elementPosition;
+            name = operationName;
+            value = operationValue;
+            secondValue = operationSecondValue;
+        }
+
+        /**
+         * Returns the type of operation.
+         * @return The type of operation.
+         */
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Returns the position of element.
+         * @return The position of element in the descendants of root element
+         * or -1 if the operation not changes an element.
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        /**
+         * Returns the name of operation.
+         * @return The name of attribute, the name of attribute that links the
+         * content with element, the key of shortcut or null.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the value of operation.
+         * @return The value of attribute, the text before the element, the
+         * text of shortcut or null.
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Returns the second value of operation.
+         * @return The text after the element or null.
+         */
+        public String getSecondValue() {
+            return secondValue;
+        }
+    }
+
+    /**
+     * The AccessibleDisplayTemplate.Recorder class records the operations of a
+     * template, while the method changes the descendants of an element.
+     */
+    public static final class Recorder {
+
+        /**
+         * The operations recorded.
+         */
+        private final List<Operation> operations;
+
+        /**
+         * The recorder can create a template.
+         */
+        private boolean valid;
+
+        /**
+         * Initializes a new recorder.
+         */
+        public Recorder() {
+            operations = new ArrayList<Operation>();
+            valid = true;
+        }
+
+        /**
+         * Record that an id was generated for an element.
+         * @param position The position of element.
+         */
+        public void generateId(final int position) {
+            operations.add(new Operation(Type.GENERATE_ID, position, null,
+                    null, null));
+        }
+
+        /**
+         * Record that an attribute of element was created or modified.
+         * @param position The position of element.
+         * @param name The name of attribute.
+         * @param value The value of attribute.
+         */
+        public void setAttribute(final int position, final String name,
+                final String value) {
+            operations.add(new Operation(Type.SET_ATTRIBUTE, position, name,
+                    value, null));
+        }
+
+        /**
+         * Record that an attribute of element was created or modified with the
+         * id of element.
+         * @param position The position of element.
+         * @param name The name of attribute.
+         */
+        public void setIdAttribute(final int position, final String name) {
+            operations.add(new Operation(Type.SET_ID_ATTRIBUTE, position,
+                    name, null, null));
+        }
+
+        /**
+         * Record that the screen reader was forced to display an information
+         * of element.
+         * @param position The position of element.
+         * @param dataOf The name of attribute that links the content with
+         * element.
+         * @param textBefore The text content to show before the element.
+         * @param textAfter The text content to show after the element.
+         */
+        public void forceRead(final int position, final String dataOf,
+                final String textBefore, final String textAfter) {
+            operations.add(new Operation(Type.FORCE_READ, position, dataOf,
+                    textBefore, textAfter));
+        }
+
+        /**
+         * Record that a shortcut was added in the lists of shortcuts of page.
+         * @param key The key of shortcut.
+         * @param text The text of shortcut.
+         */
+        public void shortcut(final String key, final String text) {
+            operations.add(new Operation(Type.SHORTCUT, -1, key, text, null));
+        }
+
+        /**
+         * Record that the method made a change that depends of elements out
+         * of the root element, so the changes cannot create a template.
+         */
+        public void invalidate() {
+            valid = false;
+        }
+
+        /**
+         * Check that the changes recorded can create a template.
+         * @return True if the changes can create a template or false if the
+         * changes depends of elements out of the root element.
+         */
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * Returns the template with the operations recorded.
+         * @return The template with the operations recorded.
+         */
+        public AccessibleDisplayTemplate build() {
+            return new AccessibleDisplayTemplate(operations);
+        }
+    }
+
+    /**
+     * The operations of template, in the order that are applied.
+     */
+    private final List<Operation> operations;
+
+    /**
+     * Initializes a new template.
+     * @param templateOperations The operations of template, in the order that
+     * are applied.
+     */
+    private AccessibleDisplayTemplate(
+            final List<Operation> templateOperations) {
+        operations = Collections.unmodifiableList(
+                new ArrayList<Operation>(templateOperations));
+    }
+
+    /**
+     * Returns the operations of template.
+     * @return The operations of template, in the order that are applied.
+     */
+    public List<Operation> getOperations() {
+        return operations;
+    }
+}
@@ -0,0 +1,290 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.implementation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hatemile.util.LRUCache;
+import org.hatemile.util.SubtreeFingerprint;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMParser;
+import org.hatemile.util.html.HTMLTag;
+
+/**
+ * The AccessibleDisplayTemplateContext class keeps the state of the templates
+ * of a {@link AccessibleDisplayScreenReaderImplementation}: the element of
+ * which the descendants are changed, the recorder of its changes and the
+ * elements that link contents with other elements.
+ */
+public final class AccessibleDisplayTemplateContext {
+
+    /**
+     * The tags of elements that are repeated in pages, of which the changes in
+     * descendants are recorded in templates.
+     */
+    public static final Set<HTMLTag> TEMPLATE_TAGS = Collections
+            .unmodifiableSet(EnumSet.of(HTMLTag.HEADER, HTMLTag.FOOTER,
+                HTMLTag.NAV, HTMLTag.ASIDE, HTMLTag.FORM));
+
+    /**
+     * The roles of elements that are repeated in pages, of which the changes
+     * in descendants are recorded in templates.
+     */
+    public static final Set<String> TEMPLATE_ROLES = Collections
+            .unmodifiableSet(new HashSet<String>(Arrays.asList("banner",
+                "complementary", "contentinfo", "form", "menu", "menubar",
+                "navigation", "search")));
+
+    /**
+     * The templates of the changes made in descendants of elements, indexed
+     * by method and fingerprint of element, or null if the templates are
+     * disabled.
+     */
+    private final LRUCache<String, AccessibleDisplayTemplate> templates;
+
+    /**
+     * The elements that link contents with other elements, indexed by id of
+     * the element linked, in lowercase letters.
+     */
+    private final Map<String, List<HTMLDOMElement>> references;
+
+    /**
+     * The fingerprint of the element of which the descendants are changed, or
+     * null if the changes are not recorded or replayed.
+     */
+    private SubtreeFingerprint fingerprint;
+
+    /**
+     * The recorder of the changes made in the descendants of element, or null
+     * if the changes are not recorded.
+     */
+    private AccessibleDisplayTemplate.Recorder recorder;
+
+    /**
+     * Initializes a new context of templates.
+     * @param cache The templates of the changes made in descendants of
+     * elements or null to disable the templates.
+     */
+    public AccessibleDisplayTemplateContext(
+            final LRUCache<String, AccessibleDisplayTemplate> cache) {
+        templates = cache;
+        references = new HashMap<String, List<HTMLDOMElement>>();
+        fingerprint = null;
+        recorder = null;
+    }
+
+    /**
+     * Check that the templates are enabled.
+     * @return True if the templates are enabled or false if the templates are
+     * disabled.
+     */
+    public boolean isEnabled() {
+        return templates != null;
+    }
+
+    /**
+     * Returns the recorder of the changes made in the descendants of element.
+     * @return The recorder or null if the changes are not recorded.
+     */
+    public AccessibleDisplayTemplate.Recorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Returns the position of an element in the descendants of the element of
+     * which the descendants are changed.
+     * @param element The element.
+     * @return The position of element or -1 if no element is changed or if
+     * the element is not a descendant.
+     */
+    public int getPosition(final HTMLDOMElement element) {
+        if (fingerprint == null) {
+            return -1;
+        }
+        return fingerprint.getPosition(element);
+    }
+
+    /**
+     * Returns the position of an element in the descendants of the element of
+     * which the changes are recorded, discarding the changes if the element is
+     * not a descendant.
+     * @param element The element.
+     * @return The position of element or -1 if the changes are not recorded
+     * or if the element is not a descendant, in this case the changes cannot
+     * create a template.
+     */
+    public int getRecordedPosition(final HTMLDOMElement element) {
+        if (recorder == null) {
+            return -1;
+        }
+        int position = fingerprint.getPosition(element);
+        if (position == -1) {
+            recorder.invalidate();
+        }
+        return position;
+    }
+
+    /**
+     * Discard the changes recorded, because a change depends of elements out
+     * of the element of which the changes are recorded.
+     */
+    public void invalidate() {
+        if (recorder != null) {
+            recorder.invalidate();
+        }
+    }
+
+    /**
+     * Returns the descendants of the element of which the descendants are
+     * changed, in the order of positions.
+     * @return The descendants of element.
+     */
+    public List<HTMLDOMElement> getElements() {
+        return fingerprint.getElements();
+    }
+
+    /**
+     * Add an element that links a content with other element in the
+     * references checked by templates, if the templates are enabled.
+     * @param identifier The id of element linked.
+     * @param reference The element that links the content.
+     */
+    public void addReference(final String identifier,
+            final HTMLDOMElement reference) {
+        if (templates == null) {
+            return;
+        }
+        String key = identifier.toLowerCase();
+        List<HTMLDOMElement> elements = references.get(key);
+        if (elements == null) {
+            elements = new ArrayList<HTMLDOMElement>();
+            references.put(key, elements);
+        }
+        elements.add(reference);
+    }
+
+    /**
+     * Replace the references checked by templates by the elements of document
+     * that link contents with other elements.
+     * @param parser The HTML parser.
+     * @param dataOfs The names of attributes that link the contents with
+     * elements.
+     */
+    public void collectReferences(final HTMLDOMParser parser,
+            final Collection<String> dataOfs) {
+        references.clear();
+        StringBuilder selector = new StringBuilder();
+        for (String dataOf : dataOfs) {
+            if (selector.length() > 0) {
+                selector.append(',');
+            }
+            selector.append('[').append(dataOf).append(']');
+        }
+        for (HTMLDOMElement reference : parser.find(selector.toString())
+                .listResults()) {
+            for (String dataOf : dataOfs) {
+                if (reference.hasAttribute(dataOf)) {
+                    addReference(reference.getAttribute(dataOf), reference);
+                }
+            }
+        }
+    }
+
+    /**
+     * Discard the references checked by templates.
+     */
+    public void clearReferences() {
+        references.clear();
+    }
+
+    /**
+     * Returns the element repeated in pages, of which the changes in
+     * descendants are recorded in templates, that contains an element.
+     * @param element The element.
+     * @return The outermost ancestor of element, in body, that is a header, a
+     * footer, a navigation or a form, or null if the element is not in this
+     * elements.
+     */
+    public static HTMLDOMElement getRoot(final HTMLDOMElement element) {
+        HTMLDOMElement root = null;
+        HTMLDOMElement ancestor = element.getParentElement();
+        while (ancestor != null) {
+            HTMLTag tag = ancestor.getTag();
+            if (tag == HTMLTag.BODY) {
+                return root;
+            }
+            if ((TEMPLATE_TAGS.contains(tag))
+                    || ((ancestor.hasAttribute("role"))
+                    && (TEMPLATE_ROLES.contains(ancestor.getAttribute("role")
+                        .toLowerCase())))) {
+                root = ancestor;
+            }
+            ancestor = ancestor.getParentElement();
+        }
+        return null;
+    }
+
+    /**
+     * Start to change the descendants of an element repeated in pages,
+     * returning the template of method, if the cache has a template for the
+     * element, or recording a new template.
+     * @param root The element repeated in pages.
+     * @param method The name of method.
+     * @return The template to replay or null if the descendants must be
+     * changed by method.
+     */
+    public AccessibleDisplayTemplate start(final HTMLDOMElement root,
+            final String method) {
+        fingerprint = new SubtreeFingerprint(root);
+        for (String id : fingerprint.getIds()) {
+            List<HTMLDOMElement> elements = references.get(id);
+            if (elements != null) {
+                for (HTMLDOMElement reference : elements) {
+                    if (fingerprint.getPosition(reference) == -1) {
+                        return null;
+                    }
+                }
+            }
+        }
+        AccessibleDisplayTemplate template = templates.get(method + ":"
+                + fingerprint.getHash());
+        if (template == null) {
+            recorder = new AccessibleDisplayTemplate.Recorder();
+        }
+        return template;
+    }
+
+    /**
+     * Finish to change the descendants of an element repeated in pages,
+     * keeping the template recorded, if the changes not depends of elements
+     * out of the element.
+     * @param method The name of method.
+     */
+    public void finish(final String method) {
+        if ((recorder != null) && (recorder.isValid())) {
+            templates.put(method + ":" + fingerprint.getHash(),
+                    recorder.build());
+        }
+        fingerprint = null;
+        recorder = null;
+    }
+}
@@ -14,15 +14,23 @@ limitations under the License.
 package org.hatemile.implementation;
 
 import org.hatemile.AccessibleEvent;
-import org.hatemile.util.CommonFunctions;
 import org.hatemile.util.Configure;
 import org.hatemile.util.html.HTMLDOMElement;
 import org.hatemile.util.html.HTMLDOMParser;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Scanner;
+import java.util.Set;
 import org.hatemile.util.IDGenerator;
+import org.hatemile.util.IDListScript;
+import org.hatemile.util.ScriptResource;
+import org.hatemile.util.ValidElementIndex;
+import org.hatemile.util.html.HTMLTag;
 
 /**
  * The AccessibleEventImplementation class is official implementation of
@@ -42,6 +50,14 @@ public class AccessibleEventImplementation implements AccessibleEvent {
      */
     public static final String ID_LIST_IDS_SCRIPT = "list-ids-script";
 
+    /**
+     * The declarations of the lists of script element that contains the list
+     * of elements that has inaccessible events.
+     */
+    public static final String LIST_IDS_DECLARATIONS =
+            "var activeElements = [];var hoverElements = [];"
+            + "var dragElements = [];var dropElements = [];";
+
     /**
      * The id of script element that modify the events of elements.
      */
@@ -54,6 +70,13 @@ public class AccessibleEventImplementation implements AccessibleEvent {
     public static final String ID_SCRIPT_COMMON_FUNCTIONS =
             "hatemile-common-functions";
 
+    /**
+     * The tags of elements that have keyboard access.
+     */
+    protected static final Set<HTMLTag> FOCUSABLE_TAGS = Collections
+            .unmodifiableSet(EnumSet.of(HTMLTag.A, HTMLTag.INPUT,
+                HTMLTag.BUTTON, HTMLTag.SELECT, HTMLTag.TEXTAREA));
+
     /**
      * The HTML parser.
      */
@@ -76,6 +99,24 @@ public class AccessibleEventImplementation implements AccessibleEvent {
      */
     protected HTMLDOMElement scriptList;
 
+    /**
+     * The ids of elements not written in script list yet, indexed by type of
+     * event.
+     */
+    protected final Map<String, List<String>> pendingIds;
+
+    /**
+     * The state that indicates if the ids of elements are collected to be
+     * written in script list by {@link #writeIds()}.
+     */
+    protected boolean collectingIds;
+
+    /**
+     * The URL of directory of script files or null to include the content of
+     * scripts.
+     */
+    protected final String scriptURL;
+
     /**
      * Initializes a new object that manipulate the accessibility of the
      * Javascript events of elements of parser.
@@ -85,9 +126,13 @@ public class AccessibleEventImplementation implements AccessibleEvent {
     public AccessibleEventImplementation(final HTMLDOMParser htmlParser,
             final Configure configure) {
         parser = Objects.requireNonNull(htmlParser);
-        idGenerator = new IDGenerator("event");
+        idGenerator = IDGenerator.getIDGenerator("event", parser,
+                configure);
         mainScriptAdded = false;
         scriptList = null;
+        pendingIds = new LinkedHashMap<String, List<String>>();
+        collectingIds = false;
+        scriptURL = ScriptResource.getScriptURL(configure);
     }
 
     /**
@@ -96,13 +141,18 @@ public class AccessibleEventImplementation implements AccessibleEvent {
      * @return The content of file.
      */
     protected String getContentFromFile(final String file) {
-        StringBuilder stringBuilder = new StringBuilder();
-        Scanner scanner = new Scanner(getClass().getResourceAsStream(file));
-        while (scanner.hasNextLine()) {
-            stringBuilder.append(scanner.nextLine()).append("\n");
-        }
+        return ScriptResource.getScriptResource(file).getContent();
+    }
 
-        return stringBuilder.toString();
+    /**
+     * Create a script element with a script used by solutions.
+     * @param id The id of script element.
+     * @param file The name of script file.
+     * @return The script element.
+     */
+    protected HTMLDOMElement createScript(final String id, final String file) {
+        return ScriptResource.getScriptResource(file).createElement(parser, id,
+                scriptURL);
     }
 
     /**
@@ -111,12 +161,10 @@ public class AccessibleEventImplementation implements AccessibleEvent {
      */
     protected void keyboardAccess(final HTMLDOMElement element) {
         if (!element.hasAttribute("tabindex")) {
-            String tag = element.getTagName();
-            if ((tag.equals("A")) && (!element.hasAttribute("href"))) {
+            HTMLTag tag = element.getTag();
+            if ((tag == HTMLTag.A) && (!element.hasAttribute("href"))) {
                 element.setAttribute("tabindex", "0");
-            } else if ((!tag.equals("A")) && (!tag.equals("INPUT"))
-                    && (!tag.equals("BUTTON")) && (!tag.equals("SELECT"))
-                    && (!tag.equals("TEXTAREA"))) {
+            } else if (!FOCUSABLE_TAGS.contains(tag)) {
                 element.setAttribute("tabindex", "0");
             }
         }
@@ -131,20 +179,14 @@ public class AccessibleEventImplementation implements AccessibleEvent {
             HTMLDOMElement commonFunctionsScript = parser
                     .find("#" + ID_SCRIPT_COMMON_FUNCTIONS).firstResult();
             if (commonFunctionsScript == null) {
-                commonFunctionsScript = parser.createElement("script");
-                commonFunctionsScript
-                        .setAttribute("id", ID_SCRIPT_COMMON_FUNCTIONS);
-                commonFunctionsScript.setAttribute("type", "text/javascript");
-                commonFunctionsScript
-                        .appendText(getContentFromFile("/js/common.js"));
+                commonFunctionsScript = createScript(
+                        ID_SCRIPT_COMMON_FUNCTIONS, "/js/common.js");
                 head.prependElement(commonFunctionsScript);
             }
             if (parser.find("#" + ID_SCRIPT_EVENT_LISTENER).firstResult()
                     == null) {
-                HTMLDOMElement script = parser.createElement("script");
-                script.setAttribute("id", ID_SCRIPT_EVENT_LISTENER);
-                script.setAttribute("type", "text/javascript");
-                script.appendText(getContentFromFile("/js/eventlistener.js"));
+                HTMLDOMElement script = createScript(ID_SCRIPT_EVENT_LISTENER,
+                        "/js/eventlistener.js");
                 commonFunctionsScript.insertAfter(script);
             }
         }
@@ -155,19 +197,13 @@ public class AccessibleEventImplementation implements AccessibleEvent {
                 scriptList = parser.createElement("script");
                 scriptList.setAttribute("id", ID_LIST_IDS_SCRIPT);
                 scriptList.setAttribute("type", "text/javascript");
-                scriptList.appendText("var activeElements = [];");
-                scriptList.appendText("var hoverElements = [];");
-                scriptList.appendText("var dragElements = [];");
-                scriptList.appendText("var dropElements = [];");
+                scriptList.appendText(LIST_IDS_DECLARATIONS);
                 local.appendElement(scriptList);
             }
             if (parser.find("#" + ID_FUNCTION_SCRIPT_FIX).firstResult()
                     == null) {
-                HTMLDOMElement scriptFunction = parser.createElement("script");
-                scriptFunction.setAttribute("id", ID_FUNCTION_SCRIPT_FIX);
-                scriptFunction.setAttribute("type", "text/javascript");
-                scriptFunction.appendText(getContentFromFile("/js/include.js"));
-
+                HTMLDOMElement scriptFunction = createScript(
+                        ID_FUNCTION_SCRIPT_FIX, "/js/include.js");
                 local.appendElement(scriptFunction);
             }
         }
@@ -187,9 +223,42 @@ public class AccessibleEventImplementation implements AccessibleEvent {
 
         if (scriptList != null) {
             idGenerator.generateId(element);
-            scriptList.appendText(event + "Elements.push('"
-                    + element.getAttribute("id") + "');");
+            List<String> ids = pendingIds.get(event);
+            if (ids == null) {
+                ids = new ArrayList<String>();
+                pendingIds.put(event, ids);
+            }
+            ids.add(element.getAttribute("id"));
+            if (!collectingIds) {
+                writeIds();
+            }
+        }
+    }
+
+    /**
+     * Start to collect the ids of elements with events, to write them in
+     * script list at once by {@link #writeIds()}.
+     */
+    protected void collectIds() {
+        collectingIds = true;
+    }
+
+    /**
+     * Write the collected ids of elements in script list, with one assignment
+     * of a JSON array by type of event, and stop to collect the ids.
+     */
+    protected void writeIds() {
+        collectingIds = false;
+        if (pendingIds.isEmpty()) {
+            return;
         }
+        StringBuilder script = new StringBuilder();
+        for (Map.Entry<String, List<String>> entry : pendingIds.entrySet()) {
+            script.append(IDListScript.getAssignment(entry.getKey()
+                    + "Elements", entry.getValue()));
+        }
+        pendingIds.clear();
+        scriptList.appendText(script.toString());
     }
 
     /**
@@ -216,20 +285,26 @@ public class AccessibleEventImplementation implements AccessibleEvent {
      * {@inheritDoc}
      */
     public void makeAccessibleAllDragandDropEvents() {
-        Collection<HTMLDOMElement> draggableElements = parser
-                .find("[ondrag],[ondragstart],[ondragend]").listResults();
-        for (HTMLDOMElement draggableElement : draggableElements) {
-            if (CommonFunctions.isValidElement(draggableElement)) {
-                makeAccessibleDragEvents(draggableElement);
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> draggableElements = parser
+                .find("[ondrag],[ondragstart],[ondragend]").iterateResults();
+        collectIds();
+        try {
+            for (HTMLDOMElement draggableElement : draggableElements) {
+                if (validElements.isValidElement(draggableElement)) {
+                    makeAccessibleDragEvents(draggableElement);
+                }
             }
-        }
-        Collection<HTMLDOMElement> droppableElements = parser
-                .find("[ondrop],[ondragenter],[ondragleave],[ondragover]")
-                .listResults();
-        for (HTMLDOMElement droppableElement : droppableElements) {
-            if (CommonFunctions.isValidElement(droppableElement)) {
-                makeAccessibleDropEvents(droppableElement);
+            Iterable<HTMLDOMElement> droppableElements = parser
+                    .find("[ondrop],[ondragenter],[ondragleave],[ondragover]")
+                    .iterateResults();
+            for (HTMLDOMElement droppableElement : droppableElements) {
+                if (validElements.isValidElement(droppableElement)) {
+                    makeAccessibleDropEvents(droppableElement);
+                }
             }
+        } finally {
+            writeIds();
         }
     }
 
@@ -246,12 +321,18 @@ public class AccessibleEventImplementation implements AccessibleEvent {
      * {@inheritDoc}
      */
     public void makeAccessibleAllHoverEvents() {
-        Collection<HTMLDOMElement> elements = parser
-                .find("[onmouseover],[onmouseout]").listResults();
-        for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
-                makeAccessibleHoverEvents(element);
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> elements = parser
+                .find("[onmouseover],[onmouseout]").iterateResults();
+        collectIds();
+        try {
+            for (HTMLDOMElement element : elements) {
+                if (validElements.isValidElement(element)) {
+                    makeAccessibleHoverEvents(element);
+                }
             }
+        } finally {
+            writeIds();
         }
     }
 
@@ -268,13 +349,19 @@ public class AccessibleEventImplementation implements AccessibleEvent {
      * {@inheritDoc}
      */
     public void makeAccessibleAllClickEvents() {
-        Collection<HTMLDOMElement> elements = parser
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> elements = parser
                 .find("[onclick],[onmousedown],[onmouseup],[ondblclick]")
-                .listResults();
-        for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
-                makeAccessibleClickEvents(element);
+                .iterateResults();
+        collectIds();
+        try {
+            for (HTMLDOMElement element : elements) {
+                if (validElements.isValidElement(element)) {
+                    makeAccessibleClickEvents(element);
+                }
             }
+        } finally {
+            writeIds();
         }
     }
 }
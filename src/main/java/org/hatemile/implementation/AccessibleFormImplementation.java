@@ -14,15 +14,21 @@ limitations under the License.
 package org.hatemile.implementation;
 
 import org.hatemile.AccessibleForm;
-import org.hatemile.util.CommonFunctions;
 import org.hatemile.util.Configure;
 import org.hatemile.util.html.HTMLDOMElement;
 import org.hatemile.util.html.HTMLDOMParser;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Scanner;
+import org.hatemile.util.FormIndex;
 import org.hatemile.util.IDGenerator;
+import org.hatemile.util.IDListScript;
+import org.hatemile.util.ScriptResource;
+import org.hatemile.util.ValidElementIndex;
+import org.hatemile.util.html.HTMLTag;
 
 /**
  * The AccessibleFormImplementation class is official implementation of
@@ -98,6 +104,25 @@ public class AccessibleFormImplementation implements AccessibleForm {
      */
     public static final String URL_FIELDS_LIST = "url_fields";
 
+    /**
+     * The declarations of the lists of script element that contains the list
+     * of IDs of fields with validation.
+     */
+    public static final String VALIDATION_LIST_DECLARATIONS =
+            "var hatemileValidationList = {"
+            + "\"" + REQUIRED_FIELDS_LIST + "\": [],"
+            + "\"" + PATTERN_FIELDS_LIST + "\": [],"
+            + "\"" + LIMITED_FIELDS_LIST + "\": [],"
+            + "\"" + RANGE_FIELDS_LIST + "\": [],"
+            + "\"" + WEEK_FIELDS_LIST + "\": [],"
+            + "\"" + MONTH_FIELDS_LIST + "\": [],"
+            + "\"" + DATETIME_FIELDS_LIST + "\": [],"
+            + "\"" + TIME_FIELDS_LIST + "\": [],"
+            + "\"" + DATE_FIELDS_LIST + "\": [],"
+            + "\"" + EMAIL_FIELDS_LIST + "\": [],"
+            + "\"" + URL_FIELDS_LIST + "\": []"
+            + "};";
+
     /**
      * The HTML parser.
      */
@@ -120,6 +145,24 @@ public class AccessibleFormImplementation implements AccessibleForm {
      */
     protected HTMLDOMElement scriptListFieldsWithValidation;
 
+    /**
+     * The ids of fields not written in script list yet, indexed by list
+     * attribute.
+     */
+    protected final Map<String, List<String>> pendingIds;
+
+    /**
+     * The state that indicates if the ids of fields are collected to be
+     * written in script list by {@link #writeIds()}.
+     */
+    protected boolean collectingIds;
+
+    /**
+     * The URL of directory of script files or null to include the content of
+     * scripts.
+     */
+    protected final String scriptURL;
+
     /**
      * Initializes a new object that manipulate the accessibility of the forms
      * of parser.
@@ -129,7 +172,11 @@ public class AccessibleFormImplementation implements AccessibleForm {
     public AccessibleFormImplementation(final HTMLDOMParser htmlParser,
             final Configure configure) {
         parser = Objects.requireNonNull(htmlParser);
-        idGenerator = new IDGenerator("form");
+        idGenerator = IDGenerator.getIDGenerator("form", parser,
+                configure);
+        pendingIds = new LinkedHashMap<String, List<String>>();
+        collectingIds = false;
+        scriptURL = ScriptResource.getScriptURL(configure);
     }
 
     /**
@@ -138,12 +185,70 @@ public class AccessibleFormImplementation implements AccessibleForm {
      * @return The ARIA value of field.
      */
     protected String getARIAAutoComplete(final HTMLDOMElement field) {
-        String tagName = field.getTagName();
+        return getARIAAutoComplete(field, null);
+    }
+
+    /**
+     * Returns the form of a field, the outermost form that contains the field
+     * or, if the field is not inside a form, the element with id equals to
+     * the form attribute of field.
+     * @param field The field.
+     * @param formIndex The index of forms and datalists of document or null
+     * to search the form in document.
+     * @return The form of field or null if the field not has form.
+     */
+    protected HTMLDOMElement getForm(final HTMLDOMElement field,
+            final FormIndex formIndex) {
+        if (formIndex != null) {
+            return formIndex.getForm(field);
+        }
+        HTMLDOMElement form = null;
+        HTMLDOMElement parent = field.getParentElement();
+        while (parent != null) {
+            if (parent.getTag() == HTMLTag.FORM) {
+                form = parent;
+            }
+            parent = parent.getParentElement();
+        }
+        if ((form == null) && (field.hasAttribute("form"))) {
+            form = parser.find("[id=\"" + field.getAttribute("form") + "\"]")
+                    .firstResult();
+        }
+        return form;
+    }
+
+    /**
+     * Check that the list attribute of a field references a datalist.
+     * @param field The field.
+     * @param formIndex The index of forms and datalists of document or null
+     * to search the datalist in document.
+     * @return True if the document has a datalist with id equals to the list
+     * attribute of field or false if the field not has datalist.
+     */
+    protected boolean hasDataList(final HTMLDOMElement field,
+            final FormIndex formIndex) {
+        if (formIndex != null) {
+            return formIndex.hasDataList(field);
+        }
+        return (field.hasAttribute("list")) && (parser.find("datalist[id=\""
+                + field.getAttribute("list") + "\"]").firstResult() != null);
+    }
+
+    /**
+     * Returns the appropriate value for attribute aria-autocomplete of field.
+     * @param field The field.
+     * @param formIndex The index of forms and datalists of document or null
+     * to search the form and the datalist of field in document.
+     * @return The ARIA value of field.
+     */
+    protected String getARIAAutoComplete(final HTMLDOMElement field,
+            final FormIndex formIndex) {
+        HTMLTag tag = field.getTag();
         String type = null;
         if (field.hasAttribute("type")) {
             type = field.getAttribute("type").toLowerCase();
         }
-        if ((tagName.equals("TEXTAREA")) || ((tagName.equals("INPUT"))
+        if ((tag == HTMLTag.TEXTAREA) || ((tag == HTMLTag.INPUT)
                 && (!(("button".equals(type)) || ("submit".equals(type))
                     || ("reset".equals(type)) || ("image".equals(type))
                     || ("file".equals(type)) || ("checkbox".equals(type))
@@ -152,21 +257,14 @@ public class AccessibleFormImplementation implements AccessibleForm {
             if (field.hasAttribute("autocomplete")) {
                 value = field.getAttribute("autocomplete").toLowerCase();
             } else {
-                HTMLDOMElement form = parser.find(field).findAncestors("form")
-                        .firstResult();
-                if ((form == null) && (field.hasAttribute("form"))) {
-                    form = parser.find("#" + field.getAttribute("form"))
-                            .firstResult();
-                }
+                HTMLDOMElement form = getForm(field, formIndex);
                 if ((form != null) && (form.hasAttribute("autocomplete"))) {
                     value = form.getAttribute("autocomplete").toLowerCase();
                 }
             }
             if ("on".equals(value)) {
                 return "both";
-            } else if ((field.hasAttribute("list")) && (parser
-                    .find("datalist[id=\"" + field.getAttribute("list") + "\"]")
-                    .firstResult() != null)) {
+            } else if (hasDataList(field, formIndex)) {
                 return "list";
             } else if ("off".equals(value)) {
                 return "none";
@@ -181,13 +279,18 @@ public class AccessibleFormImplementation implements AccessibleForm {
      * @return The content of file.
      */
     protected String getContentFromFile(final String file) {
-        StringBuilder stringBuilder = new StringBuilder();
-        Scanner scanner = new Scanner(getClass().getResourceAsStream(file));
-        while (scanner.hasNextLine()) {
-            stringBuilder.append(scanner.nextLine()).append("\n");
-        }
+        return ScriptResource.getScriptResource(file).getContent();
+    }
 
-        return stringBuilder.toString();
+    /**
+     * Create a script element with a script used by solutions.
+     * @param id The id of script element.
+     * @param file The name of script file.
+     * @return The script element.
+     */
+    protected HTMLDOMElement createScript(final String id, final String file) {
+        return ScriptResource.getScriptResource(file).createElement(parser, id,
+                scriptURL);
     }
 
     /**
@@ -198,14 +301,9 @@ public class AccessibleFormImplementation implements AccessibleForm {
         if (local != null) {
             if (parser.find("#" + AccessibleEventImplementation
                     .ID_SCRIPT_COMMON_FUNCTIONS).firstResult() == null) {
-                HTMLDOMElement commonFunctionsScript =
-                        parser.createElement("script");
-                commonFunctionsScript.setAttribute("id",
+                HTMLDOMElement commonFunctionsScript = createScript(
                         AccessibleEventImplementation
-                            .ID_SCRIPT_COMMON_FUNCTIONS);
-                commonFunctionsScript.setAttribute("type", "text/javascript");
-                commonFunctionsScript
-                        .appendText(getContentFromFile("/js/common.js"));
+                            .ID_SCRIPT_COMMON_FUNCTIONS, "/js/common.js");
                 local.prependElement(commonFunctionsScript);
             }
             scriptListFieldsWithValidation = parser
@@ -217,29 +315,13 @@ public class AccessibleFormImplementation implements AccessibleForm {
                 scriptListFieldsWithValidation
                         .setAttribute("type", "text/javascript");
                 scriptListFieldsWithValidation
-                        .appendText("var hatemileValidationList = {")
-                        .appendText("\"" + REQUIRED_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + PATTERN_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + LIMITED_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + RANGE_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + WEEK_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + MONTH_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + DATETIME_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + TIME_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + DATE_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + EMAIL_FIELDS_LIST + "\": [],")
-                        .appendText("\"" + URL_FIELDS_LIST + "\": []")
-                        .appendText("};");
+                        .appendText(VALIDATION_LIST_DECLARATIONS);
                 local.appendElement(scriptListFieldsWithValidation);
             }
             if (parser.find("#" + ID_SCRIPT_EXECUTE_VALIDATION).firstResult()
                     == null) {
-                HTMLDOMElement scriptFunction = parser.createElement("script");
-                scriptFunction.setAttribute("id", ID_SCRIPT_EXECUTE_VALIDATION);
-                scriptFunction.setAttribute("type", "text/javascript");
-                scriptFunction
-                        .appendText(getContentFromFile("/js/validation.js"));
-
+                HTMLDOMElement scriptFunction = createScript(
+                        ID_SCRIPT_EXECUTE_VALIDATION, "/js/validation.js");
                 parser.find("body").firstResult().appendElement(scriptFunction);
             }
         }
@@ -257,8 +339,41 @@ public class AccessibleFormImplementation implements AccessibleForm {
             generateValidationScripts();
         }
         idGenerator.generateId(field);
-        scriptListFieldsWithValidation.appendText("hatemileValidationList."
-                + listAttribute + ".push('" + field.getAttribute("id") + "');");
+        List<String> ids = pendingIds.get(listAttribute);
+        if (ids == null) {
+            ids = new ArrayList<String>();
+            pendingIds.put(listAttribute, ids);
+        }
+        ids.add(field.getAttribute("id"));
+        if (!collectingIds) {
+            writeIds();
+        }
+    }
+
+    /**
+     * Start to collect the ids of fields with validation, to write them in
+     * script list at once by {@link #writeIds()}.
+     */
+    protected void collectIds() {
+        collectingIds = true;
+    }
+
+    /**
+     * Write the collected ids of fields in script list, with one assignment
+     * of a JSON array by list attribute, and stop to collect the ids.
+     */
+    protected void writeIds() {
+        collectingIds = false;
+        if (pendingIds.isEmpty()) {
+            return;
+        }
+        StringBuilder script = new StringBuilder();
+        for (Map.Entry<String, List<String>> entry : pendingIds.entrySet()) {
+            script.append(IDListScript.getAssignment("hatemileValidationList."
+                    + entry.getKey(), entry.getValue()));
+        }
+        pendingIds.clear();
+        scriptListFieldsWithValidation.appendText(script.toString());
     }
 
     /**
@@ -274,10 +389,11 @@ public class AccessibleFormImplementation implements AccessibleForm {
      * {@inheritDoc}
      */
     public void markAllRequiredFields() {
-        Collection<HTMLDOMElement> requiredFields = parser.find("[required]")
-                .listResults();
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> requiredFields = parser.find("[required]")
+                .iterateResults();
         for (HTMLDOMElement requiredField : requiredFields) {
-            if (CommonFunctions.isValidElement(requiredField)) {
+            if (validElements.isValidElement(requiredField)) {
                 markRequiredField(requiredField);
             }
         }
@@ -301,10 +417,11 @@ public class AccessibleFormImplementation implements AccessibleForm {
      * {@inheritDoc}
      */
     public void markAllRangeFields() {
-        Collection<HTMLDOMElement> rangeFields = parser.find("[min],[max]")
-                .listResults();
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> rangeFields = parser.find("[min],[max]")
+                .iterateResults();
         for (HTMLDOMElement rangeField : rangeFields) {
-            if (CommonFunctions.isValidElement(rangeField)) {
+            if (validElements.isValidElement(rangeField)) {
                 markRangeField(rangeField);
             }
         }
@@ -314,7 +431,19 @@ public class AccessibleFormImplementation implements AccessibleForm {
      * {@inheritDoc}
      */
     public void markAutoCompleteField(final HTMLDOMElement autoCompleteField) {
-        String ariaAutoComplete = getARIAAutoComplete(autoCompleteField);
+        markAutoCompleteField(autoCompleteField, null);
+    }
+
+    /**
+     * Mark that the field can have autocomplete.
+     * @param autoCompleteField The field that can have autocomplete.
+     * @param formIndex The index of forms and datalists of document or null
+     * to search the form and the datalist of field in document.
+     */
+    protected void markAutoCompleteField(
+            final HTMLDOMElement autoCompleteField, final FormIndex formIndex) {
+        String ariaAutoComplete = getARIAAutoComplete(autoCompleteField,
+                formIndex);
         if (ariaAutoComplete != null) {
             autoCompleteField.setAttribute("aria-autocomplete",
                     ariaAutoComplete);
@@ -325,77 +454,96 @@ public class AccessibleFormImplementation implements AccessibleForm {
      * {@inheritDoc}
      */
     public void markAllAutoCompleteFields() {
-        Collection<HTMLDOMElement> autoCompleteFields = parser.find(
-                "input[autocomplete],textarea[autocomplete],"
-                + "form[autocomplete] input,form[autocomplete] textarea,[list],"
-                + "[form]").listResults();
+        ValidElementIndex validElements = new ValidElementIndex();
+        FormIndex formIndex = new FormIndex(parser);
+        Iterable<HTMLDOMElement> autoCompleteFields = parser
+                .find("input,textarea").iterateResults();
         for (HTMLDOMElement autoCompleteField : autoCompleteFields) {
-            if (CommonFunctions.isValidElement(autoCompleteField)) {
-                markAutoCompleteField(autoCompleteField);
+            if (validElements.isValidElement(autoCompleteField)) {
+                markAutoCompleteField(autoCompleteField, formIndex);
             }
         }
     }
 
     /**
-     * {@inheritDoc}
+     * Returns the lists of fields with validation that contains the field.
+     * @param field The field.
+     * @return The lists attributes of field with validation.
      */
-    public void markInvalidField(final HTMLDOMElement field) {
+    protected List<String> getValidationLists(final HTMLDOMElement field) {
+        List<String> validationLists = new ArrayList<String>();
         if ((field.hasAttribute("required"))
                 || ((field.hasAttribute("aria-required"))
                     && (field.getAttribute("aria-required")
                         .equalsIgnoreCase("true")))) {
-            validate(field, REQUIRED_FIELDS_LIST);
+            validationLists.add(REQUIRED_FIELDS_LIST);
         }
         if (field.hasAttribute("pattern")) {
-            validate(field, PATTERN_FIELDS_LIST);
+            validationLists.add(PATTERN_FIELDS_LIST);
         }
         if ((field.hasAttribute("minlength"))
                 || (field.hasAttribute("maxlength"))) {
-            validate(field, LIMITED_FIELDS_LIST);
+            validationLists.add(LIMITED_FIELDS_LIST);
         }
         if ((field.hasAttribute("aria-valuemin"))
                 || (field.hasAttribute("aria-valuemax"))) {
-            validate(field, RANGE_FIELDS_LIST);
+            validationLists.add(RANGE_FIELDS_LIST);
         }
         if (field.hasAttribute("type")) {
             String type = field.getAttribute("type").toLowerCase();
             if (type.equals("week")) {
-                validate(field, WEEK_FIELDS_LIST);
+                validationLists.add(WEEK_FIELDS_LIST);
             } else if (type.equals("month")) {
-                validate(field, MONTH_FIELDS_LIST);
+                validationLists.add(MONTH_FIELDS_LIST);
             } else if ((type.equals("datetime-local"))
                     || (type.equals("datetime"))) {
-                validate(field, DATETIME_FIELDS_LIST);
+                validationLists.add(DATETIME_FIELDS_LIST);
             } else if (type.equals("time")) {
-                validate(field, TIME_FIELDS_LIST);
+                validationLists.add(TIME_FIELDS_LIST);
             } else if (type.equals("date")) {
-                validate(field, DATE_FIELDS_LIST);
+                validationLists.add(DATE_FIELDS_LIST);
             } else if ((type.equals("number")) || (type.equals("range"))) {
-                validate(field, RANGE_FIELDS_LIST);
+                validationLists.add(RANGE_FIELDS_LIST);
             } else if (type.equals("email")) {
-                validate(field, EMAIL_FIELDS_LIST);
+                validationLists.add(EMAIL_FIELDS_LIST);
             } else if (type.equals("url")) {
-                validate(field, URL_FIELDS_LIST);
+                validationLists.add(URL_FIELDS_LIST);
             }
         }
+        return validationLists;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void markInvalidField(final HTMLDOMElement field) {
+        for (String validationList : getValidationLists(field)) {
+            validate(field, validationList);
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     public void markAllInvalidFields() {
-        Collection<HTMLDOMElement> fields = parser.find("[required],"
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> fields = parser.find("[required],"
                 + "input[pattern],input[minlength],input[maxlength],"
                 + "textarea[minlength],textarea[maxlength],input[type=week],"
                 + "input[type=month],input[type=datetime-local],"
                 + "input[type=datetime],input[type=time],input[type=date],"
                 + "input[type=number],input[type=range],input[type=email],"
                 + "input[type=url],[aria-required=true],input[aria-valuemin],"
-                + "input[aria-valuemax]").listResults();
-        for (HTMLDOMElement field : fields) {
-            if (CommonFunctions.isValidElement(field)) {
-                markInvalidField(field);
+                + "input[aria-valuemax]").iterateResults();
+        collectIds();
+        try {
+            for (HTMLDOMElement field : fields) {
+                if (validElements.isValidElement(field)) {
+                    markInvalidField(field);
+                }
             }
+        } finally {
+            writeIds();
         }
     }
 }
@@ -14,7 +14,6 @@ limitations under the License.
 package org.hatemile.implementation;
 
 import org.hatemile.AccessibleNavigation;
-import org.hatemile.util.CommonFunctions;
 import org.hatemile.util.Configure;
 import org.hatemile.util.html.HTMLDOMElement;
 import org.hatemile.util.html.HTMLDOMParser;
@@ -34,6 +33,9 @@ import java.util.logging.Logger;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import org.hatemile.util.IDGenerator;
+import org.hatemile.util.TokenList;
+import org.hatemile.util.ValidElementIndex;
+import org.hatemile.util.html.HTMLTag;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -251,7 +253,8 @@ public class AccessibleNavigationImplementation
     public AccessibleNavigationImplementation(final HTMLDOMParser htmlParser,
             final Configure configure, final String skipperFileName) {
         parser = Objects.requireNonNull(htmlParser);
-        idGenerator = new IDGenerator("navigation");
+        idGenerator = IDGenerator.getIDGenerator("navigation", parser,
+                configure);
         elementsHeadingBefore = configure
                 .getParameter("elements-heading-before");
         elementsHeadingAfter = configure.getParameter("elements-heading-after");
@@ -425,21 +428,21 @@ public class AccessibleNavigationImplementation
      * @return The level of heading.
      */
     protected int getHeadingLevel(final HTMLDOMElement element) {
-        String tag = element.getTagName();
-        if (tag.equals("H1")) {
-            return HEADING_LEVEL_1;
-        } else if (tag.equals("H2")) {
-            return HEADING_LEVEL_2;
-        } else if (tag.equals("H3")) {
-            return HEADING_LEVEL_3;
-        } else if (tag.equals("H4")) {
-            return HEADING_LEVEL_4;
-        } else if (tag.equals("H5")) {
-            return HEADING_LEVEL_5;
-        } else if (tag.equals("H6")) {
-            return HEADING_LEVEL_6;
-        } else {
-            return HEADING_LEVEL_INVALID;
+        switch (element.getTag()) {
+            case H1:
+                return HEADING_LEVEL_1;
+            case H2:
+                return HEADING_LEVEL_2;
+            case H3:
+                return HEADING_LEVEL_3;
+            case H4:
+                return HEADING_LEVEL_4;
+            case H5:
+                return HEADING_LEVEL_5;
+            case H6:
+                return HEADING_LEVEL_6;
+            default:
+                return HEADING_LEVEL_INVALID;
         }
     }
 
@@ -449,8 +452,8 @@ public class AccessibleNavigationImplementation
      * not.
      */
     protected boolean isValidHeading() {
-        Collection<HTMLDOMElement> elements = parser.find("h1,h2,h3,h4,h5,h6")
-                .listResults();
+        Iterable<HTMLDOMElement> elements = parser.find("h1,h2,h3,h4,h5,h6")
+                .iterateResults();
         int lastLevel = 0;
         int countMainHeading = 0;
         int level;
@@ -486,7 +489,7 @@ public class AccessibleNavigationImplementation
         HTMLDOMElement anchor = null;
         if (parser.find("[" + dataAttribute + "=\"" + element
                 .getAttribute("id") + "\"]").firstResult() == null) {
-            if (element.getTagName().equals("A")) {
+            if (element.getTag() == HTMLTag.A) {
                 anchor = element;
             } else {
                 anchor = parser.createElement("a");
@@ -511,11 +514,11 @@ public class AccessibleNavigationImplementation
         String key;
         boolean found = false;
         String alphaNumbers = "1234567890abcdefghijklmnopqrstuvwxyz";
-        Collection<HTMLDOMElement> elements = parser.find("[accesskey]")
-                .listResults();
+        Iterable<HTMLDOMElement> elements = parser.find("[accesskey]")
+                .iterateResults();
         for (HTMLDOMElement element : elements) {
             elementShortcut = element.getAttribute("accesskey").toLowerCase();
-            if (CommonFunctions.inList(elementShortcut, shortcut)) {
+            if (TokenList.contains(elementShortcut, shortcut)) {
                 for (int i = 0, length = alphaNumbers.length(); i < length;
                         i++) {
                     key = Character.toString(alphaNumbers.charAt(i));
@@ -523,7 +526,7 @@ public class AccessibleNavigationImplementation
                     for (HTMLDOMElement elementWithShortcuts : elements) {
                         elementShortcut = elementWithShortcuts
                                 .getAttribute("accesskey").toLowerCase();
-                        if (CommonFunctions.inList(elementShortcut, key)) {
+                        if (TokenList.contains(elementShortcut, key)) {
                             found = false;
                             break;
                         }
@@ -546,9 +549,14 @@ public class AccessibleNavigationImplementation
     public void provideNavigationBySkipper(final HTMLDOMElement element) {
         Map<String, String> skipper = null;
         for (Map<String, String> auxiliarSkipper : skippers) {
-            if (parser.find(auxiliarSkipper.get("selector")).listResults()
-                    .contains(element)) {
-                skipper = auxiliarSkipper;
+            for (HTMLDOMElement result : parser.find(auxiliarSkipper
+                    .get("selector")).iterateResults()) {
+                if (result.equals(element)) {
+                    skipper = auxiliarSkipper;
+                    break;
+                }
+            }
+            if (skipper != null) {
                 break;
             }
         }
@@ -589,11 +597,12 @@ public class AccessibleNavigationImplementation
      * {@inheritDoc}
      */
     public void provideNavigationByAllSkippers() {
-        Collection<HTMLDOMElement> elements;
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> elements;
         for (Map<String, String> skipper : skippers) {
-            elements = parser.find(skipper.get("selector")).listResults();
+            elements = parser.find(skipper.get("selector")).iterateResults();
             for (HTMLDOMElement element : elements) {
-                if (CommonFunctions.isValidElement(element)) {
+                if (validElements.isValidElement(element)) {
                     provideNavigationBySkipper(element);
                 }
             }
@@ -671,10 +680,11 @@ public class AccessibleNavigationImplementation
      * {@inheritDoc}
      */
     public void provideNavigationByAllHeadings() {
-        Collection<HTMLDOMElement> elements = parser.find("h1,h2,h3,h4,h5,h6")
-                .listResults();
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> elements = parser.find("h1,h2,h3,h4,h5,h6")
+                .iterateResults();
         for (HTMLDOMElement element : elements) {
-            if (CommonFunctions.isValidElement(element)) {
+            if (validElements.isValidElement(element)) {
                 provideNavigationByHeading(element);
             }
         }
@@ -732,10 +742,11 @@ public class AccessibleNavigationImplementation
      * {@inheritDoc}
      */
     public void provideNavigationToAllLongDescriptions() {
-        Collection<HTMLDOMElement> images = parser.find("[longdesc]")
-                .listResults();
+        ValidElementIndex validElements = new ValidElementIndex();
+        Iterable<HTMLDOMElement> images = parser.find("[longdesc]")
+                .iterateResults();
         for (HTMLDOMElement image : images) {
-            if (CommonFunctions.isValidElement(image)) {
+            if (validElements.isValidElement(image)) {
                 provideNavigationToLongDescription(image);
             }
         }
@@ -0,0 +1,907 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.implementation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.hatemile.util.CommonFunctions;
+import org.hatemile.util.IDListScript;
+import org.hatemile.util.SourceTree;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMParser;
+import org.hatemile.util.html.HTMLTag;
+
+/**
+ * The IncrementalProcessor class executes the solutions in successive versions
+ * of a document, like the saves of a page in edition. The source of each
+ * version is compared with the source of previous version by
+ * {@link SourceTree} and only the changed elements of body are replaced in
+ * the previous result: the changes of HaTeMiLe that link elements out of the
+ * changed elements with them are removed, the solutions are executed again
+ * with the unchanged elements ignored and the lists of headings, of skippers
+ * and of shortcuts are patched. A version with changes in head, with changes
+ * in the structure of headings or with many changes is processed entirely.
+ */
+public class IncrementalProcessor {
+
+    /**
+     * The maximum number of changed elements of a version processed
+     * incrementally.
+     */
+    public static final int MAXIMUM_CHANGED_ELEMENTS = 16;
+
+    /**
+     * The attributes that link the elements created by HaTeMiLe with the id
+     * of an element.
+     */
+    protected static final List<String> REFERENCE_ATTRIBUTES =
+            Collections.unmodifiableList(Arrays.asList(
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ATTRIBUTE_ACCESSKEY_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ATTRIBUTE_DOWNLOAD_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ATTRIBUTE_HEADERS_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ATTRIBUTE_LANGUAGE_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ATTRIBUTE_TARGET_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ATTRIBUTE_TITLE_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_AUTOCOMPLETE_OF,
+                AccessibleDisplayScreenReaderImplementation.DATA_ARIA_BUSY_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_CHECKED_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_DROPEFFECT_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_EXPANDED_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_GRABBED_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_HASPOPUP_OF,
+                AccessibleDisplayScreenReaderImplementation.DATA_ARIA_LEVEL_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_ORIENTATION_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_PRESSED_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_RANGE_MIN_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_RANGE_MAX_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_REQUIRED_OF,
+                AccessibleDisplayScreenReaderImplementation
+                    .DATA_ARIA_SELECTED_OF,
+                AccessibleDisplayScreenReaderImplementation.DATA_ARIA_SORT_OF,
+                AccessibleDisplayScreenReaderImplementation.DATA_ROLE_OF,
+                AccessibleNavigationImplementation.DATA_ANCHOR_FOR,
+                AccessibleNavigationImplementation.DATA_HEADING_ANCHOR_FOR,
+                AccessibleNavigationImplementation
+                    .DATA_ATTRIBUTE_LONG_DESCRIPTION_OF));
+
+    /**
+     * The attributes that link the anchors of lists of page with the id of an
+     * element.
+     */
+    protected static final List<String> ANCHOR_ATTRIBUTES =
+            Collections.unmodifiableList(Arrays.asList(
+                AccessibleNavigationImplementation.DATA_ANCHOR_FOR,
+                AccessibleNavigationImplementation.DATA_HEADING_ANCHOR_FOR));
+
+    /**
+     * The attributes of source that link an element with the ids of other
+     * elements.
+     */
+    protected static final List<String> ID_ATTRIBUTES =
+            Collections.unmodifiableList(Arrays.asList("for", "form", "list",
+                "headers", "aria-labelledby", "aria-describedby",
+                "aria-controls", "aria-owns", "aria-activedescendant"));
+
+    /**
+     * The ids of the containers of the lists of shortcuts of page.
+     */
+    protected static final List<String> SHORTCUT_CONTAINERS =
+            Collections.unmodifiableList(Arrays.asList(
+                AccessibleDisplayScreenReaderImplementation
+                    .ID_CONTAINER_SHORTCUTS_BEFORE,
+                AccessibleDisplayScreenReaderImplementation
+                    .ID_CONTAINER_SHORTCUTS_AFTER));
+
+    /**
+     * The declarations of lists of the scripts with lists of ids of elements,
+     * that the scripts of HaTeMiLe use to change the elements, like the fields
+     * with validation and the elements with events, indexed by id of script.
+     */
+    protected static final Map<String, String> LIST_SCRIPTS =
+            getListScripts();
+
+    /**
+     * The attribute of the items of the lists of shortcuts with the key of
+     * shortcut.
+     */
+    protected static final String DATA_SHORTCUT_KEY =
+            AccessibleDisplayScreenReaderImplementation
+                .DATA_ATTRIBUTE_ACCESSKEY_OF;
+
+    /**
+     * The heading tags.
+     */
+    protected static final Set<HTMLTag> HEADING_TAGS =
+            Collections.unmodifiableSet(new HashSet<HTMLTag>(Arrays.asList(
+                HTMLTag.H1, HTMLTag.H2, HTMLTag.H3, HTMLTag.H4, HTMLTag.H5,
+                HTMLTag.H6)));
+
+    /**
+     * The solutions executed in the documents.
+     */
+    protected final Consumer<? super HTMLDOMParser> solutions;
+
+    /**
+     * The HTML parser of the result of previous version or null.
+     */
+    protected HTMLDOMParser parser;
+
+    /**
+     * The source of previous version, linked with the elements of result, or
+     * null.
+     */
+    protected SourceTree source;
+
+    /**
+     * The number of versions processed entirely.
+     */
+    protected int fullProcessings;
+
+    /**
+     * The number of versions processed incrementally.
+     */
+    protected int incrementalProcessings;
+
+    /**
+     * Initializes a new object that process successive versions of a
+     * document.
+     * @param documentSolutions The solutions executed in the documents, that
+     * change the HTML parser passed.
+     */
+    public IncrementalProcessor(
+            final Consumer<? super HTMLDOMParser> documentSolutions) {
+        solutions = documentSolutions;
+        fullProcessings = 0;
+        incrementalProcessings = 0;
+    }
+
+    /**
+     * Execute the solutions in a new version of document. The HTML parser
+     * passed is used to store the result, if the version is processed
+     * entirely, and should not be changed after.
+     * @param newParser The HTML parser of new version.
+     * @return The HTML code of new version with the changes of solutions.
+     */
+    public synchronized String process(final HTMLDOMParser newParser) {
+        HTMLDOMElement root = newParser.find("html").firstResult();
+        if (root == null) {
+            parser = null;
+            source = null;
+            solutions.accept(newParser);
+            fullProcessings++;
+            return newParser.getHTML();
+        }
+        SourceTree tree = new SourceTree(root);
+        if ((source == null) || (!processChanges(newParser, tree))) {
+            tree.bind(root);
+            solutions.accept(newParser);
+            parser = newParser;
+            fullProcessings++;
+        } else {
+            incrementalProcessings++;
+        }
+        source = tree;
+        return parser.getHTML();
+    }
+
+    /**
+     * Discard the previous version, so the next version is processed
+     * entirely.
+     */
+    public synchronized void clear() {
+        parser = null;
+        source = null;
+    }
+
+    /**
+     * Returns the number of versions processed entirely.
+     * @return The number of versions processed entirely.
+     */
+    public synchronized int getFullProcessings() {
+        return fullProcessings;
+    }
+
+    /**
+     * Returns the number of versions processed incrementally.
+     * @return The number of versions processed incrementally.
+     */
+    public synchronized int getIncrementalProcessings() {
+        return incrementalProcessings;
+    }
+
+    /**
+     * Apply the changes of a new version in the result of previous version.
+     * @param newParser The HTML parser of new version.
+     * @param tree The source of new version.
+     * @return True if the changes were applied or false if the new version
+     * must be processed entirely.
+     */
+    protected boolean processChanges(final HTMLDOMParser newParser,
+            final SourceTree tree) {
+        List<SourceTree.Change> changes = tree.compare(source);
+        if (changes.size() > MAXIMUM_CHANGED_ELEMENTS) {
+            return false;
+        }
+        int changedSize = 0;
+        for (SourceTree.Change change : changes) {
+            if ((!isBodyDescendant(change.getPrevious().getElement()))
+                    || (!getHeadingTags(change.getPrevious()).equals(
+                            getHeadingTags(change.getCurrent())))) {
+                return false;
+            }
+            changedSize += change.getCurrent().getSize();
+        }
+        if (((changedSize * 2) > tree.getSize())
+                || (hasExternalReferences(newParser, changes))) {
+            return false;
+        }
+        if (changes.isEmpty()) {
+            return true;
+        }
+
+        Set<Object> oldElements = newIdentitySet();
+        Set<String> oldKeys = new HashSet<String>();
+        List<String> oldIds = new ArrayList<String>();
+        List<Map<String, List<List<HTMLDOMElement>>>> oldLinks =
+                new ArrayList<Map<String, List<List<HTMLDOMElement>>>>();
+        for (SourceTree.Change change : changes) {
+            HTMLDOMElement element = change.getPrevious().getElement();
+            List<HTMLDOMElement> descendants = getSubtree(element);
+            Set<String> ids = getIds(descendants);
+            for (HTMLDOMElement descendant : descendants) {
+                oldElements.add(descendant.getData());
+                if (descendant.hasAttribute("id")) {
+                    oldIds.add(descendant.getAttribute("id"));
+                }
+                if (descendant.hasAttribute("accesskey")) {
+                    oldKeys.addAll(Arrays.asList(descendant
+                            .getAttribute("accesskey").toUpperCase()
+                            .split("[ \n\t\r]+")));
+                }
+            }
+            oldLinks.add(getAnchorLinks(ids, null));
+            removeReferences(element, ids);
+        }
+        Map<HTMLDOMElement, String> shortcutPlaceholders =
+                removeShortcuts(oldKeys, oldElements);
+
+        List<HTMLDOMElement> clones = new ArrayList<HTMLDOMElement>();
+        for (SourceTree.Change change : changes) {
+            HTMLDOMElement clone = change.getCurrent().getElement()
+                    .cloneElement();
+            change.getPrevious().getElement().replaceNode(clone);
+            change.getCurrent().bind(clone);
+            clones.add(clone);
+        }
+        removeListIds(oldIds, clones);
+
+        Set<Object> knownLinks = newIdentitySet();
+        for (Map<String, List<List<HTMLDOMElement>>> anchorLinks
+                : oldLinks) {
+            for (List<List<HTMLDOMElement>> attributeLinks
+                    : anchorLinks.values()) {
+                for (List<HTMLDOMElement> links : attributeLinks) {
+                    for (HTMLDOMElement link : links) {
+                        knownLinks.add(link.getData());
+                    }
+                }
+            }
+        }
+        executeSolutions(clones);
+        for (Map.Entry<HTMLDOMElement, String> entry
+                : shortcutPlaceholders.entrySet()) {
+            restoreShortcut(entry.getKey(), entry.getValue());
+        }
+        for (int i = 0; i < clones.size(); i++) {
+            patchLinks(oldLinks.get(i), getAnchorLinks(
+                    getIds(getSubtree(clones.get(i))), knownLinks));
+        }
+        return true;
+    }
+
+    /**
+     * Check that an element changed and an element out of it are linked by
+     * the ids of attributes of {@link #ID_ATTRIBUTES}, like a label and its
+     * field, so the element out of changed element must be processed again.
+     * @param newParser The HTML parser of new version.
+     * @param changes The changes of new version.
+     * @return True if a changed element is linked with other element or
+     * false if the changed elements are independent.
+     */
+    protected boolean hasExternalReferences(final HTMLDOMParser newParser,
+            final List<SourceTree.Change> changes) {
+        Map<Object, Integer> elementChanges =
+                new IdentityHashMap<Object, Integer>();
+        Map<String, Integer> idChanges = new HashMap<String, Integer>();
+        for (int i = 0; i < changes.size(); i++) {
+            for (HTMLDOMElement element : getSubtree(changes.get(i)
+                    .getCurrent().getElement())) {
+                elementChanges.put(element.getData(), i);
+            }
+            for (String id : getIds(getSubtree(changes.get(i).getCurrent()
+                    .getElement()))) {
+                idChanges.put(id, i);
+            }
+        }
+        for (int i = 0; i < changes.size(); i++) {
+            for (String id : getIds(getSubtree(changes.get(i).getPrevious()
+                    .getElement()))) {
+                if (!idChanges.containsKey(id)) {
+                    idChanges.put(id, i);
+                }
+            }
+        }
+        StringBuilder selector = new StringBuilder();
+        for (String attribute : ID_ATTRIBUTES) {
+            if (selector.length() > 0) {
+                selector.append(',');
+            }
+            selector.append('[').append(attribute).append(']');
+        }
+        for (HTMLDOMElement element : newParser.find(selector.toString())
+                .iterateResults()) {
+            Integer elementChange = elementChanges.get(element.getData());
+            for (String attribute : ID_ATTRIBUTES) {
+                if (element.hasAttribute(attribute)) {
+                    for (String id : element.getAttribute(attribute)
+                            .toLowerCase().split("[ \n\t\r]+")) {
+                        Integer idChange = idChanges.get(id);
+                        if ((!id.isEmpty()) && (((idChange == null)
+                                && (elementChange != null))
+                                || ((idChange != null)
+                                && (!idChange.equals(elementChange))))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the declarations of lists of the scripts with lists of ids,
+     * indexed by id of script.
+     * @return The declarations of lists of the scripts.
+     */
+    private static Map<String, String> getListScripts() {
+        Map<String, String> listScripts = new LinkedHashMap<String, String>();
+        listScripts.put(
+                AccessibleFormImplementation.ID_SCRIPT_LIST_VALIDATION_FIELDS,
+                AccessibleFormImplementation.VALIDATION_LIST_DECLARATIONS);
+        listScripts.put(AccessibleEventImplementation.ID_LIST_IDS_SCRIPT,
+                AccessibleEventImplementation.LIST_IDS_DECLARATIONS);
+        return Collections.unmodifiableMap(listScripts);
+    }
+
+    /**
+     * Returns a new set that compares the objects by identity.
+     * @return The new set.
+     */
+    protected static Set<Object> newIdentitySet() {
+        return Collections.newSetFromMap(
+                new IdentityHashMap<Object, Boolean>());
+    }
+
+    /**
+     * Check that the element is a descendant of body and is not in head.
+     * @param element The element.
+     * @return True if the element is a descendant of body or false if not.
+     */
+    protected boolean isBodyDescendant(final HTMLDOMElement element) {
+        if ((element.getTag() == HTMLTag.BODY)
+                || (element.getTag() == HTMLTag.HEAD)) {
+            return false;
+        }
+        HTMLDOMElement parentElement = element.getParentElement();
+        while (parentElement != null) {
+            if (parentElement.getTag() == HTMLTag.BODY) {
+                return true;
+            } else if (parentElement.getTag() == HTMLTag.HEAD) {
+                return false;
+            }
+            parentElement = parentElement.getParentElement();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the heading tags of a node and its descendants.
+     * @param node The node.
+     * @return The heading tags, in the order of document.
+     */
+    protected List<HTMLTag> getHeadingTags(final SourceTree node) {
+        List<HTMLTag> headingTags = new ArrayList<HTMLTag>();
+        List<SourceTree> nodes = new ArrayList<SourceTree>();
+        nodes.add(node);
+        while (!nodes.isEmpty()) {
+            SourceTree current = nodes.remove(nodes.size() - 1);
+            if (HEADING_TAGS.contains(current.getTag())) {
+                headingTags.add(current.getTag());
+            }
+            List<SourceTree> children = current.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                nodes.add(children.get(i));
+            }
+        }
+        return headingTags;
+    }
+
+    /**
+     * Returns an element and its descendants.
+     * @param element The element.
+     * @return The element and its descendants, in the order of document.
+     */
+    protected List<HTMLDOMElement> getSubtree(final HTMLDOMElement element) {
+        List<HTMLDOMElement> subtree = new ArrayList<HTMLDOMElement>();
+        List<HTMLDOMElement> elements = new ArrayList<HTMLDOMElement>();
+        elements.add(element);
+        while (!elements.isEmpty()) {
+            HTMLDOMElement current = elements.remove(elements.size() - 1);
+            subtree.add(current);
+            List<HTMLDOMElement> children = current.getChildrenElements();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                elements.add(children.get(i));
+            }
+        }
+        return subtree;
+    }
+
+    /**
+     * Returns the ids of elements.
+     * @param elements The elements.
+     * @return The ids of elements, in lowercase letters.
+     */
+    protected Set<String> getIds(final List<HTMLDOMElement> elements) {
+        Set<String> ids = new HashSet<String>();
+        for (HTMLDOMElement element : elements) {
+            if (element.hasAttribute("id")) {
+                ids.add(element.getAttribute("id").toLowerCase());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the links of the lists of page to the anchors of elements.
+     * @param ids The ids of elements.
+     * @param ignoredLinks The data of links that are not returned or null.
+     * @return The links of each anchor, in the order of document, by
+     * attribute of anchor.
+     */
+    protected Map<String, List<List<HTMLDOMElement>>> getAnchorLinks(
+            final Set<String> ids, final Set<Object> ignoredLinks) {
+        Map<String, List<List<HTMLDOMElement>>> anchorLinks =
+                new HashMap<String, List<List<HTMLDOMElement>>>();
+        for (String attribute : ANCHOR_ATTRIBUTES) {
+            List<List<HTMLDOMElement>> attributeLinks =
+                    new ArrayList<List<HTMLDOMElement>>();
+            for (HTMLDOMElement anchor : parser.find("[" + attribute + "]")
+                    .iterateResults()) {
+                if ((ids.contains(anchor.getAttribute(attribute)
+                        .toLowerCase())) && (anchor.hasAttribute("name"))) {
+                    List<HTMLDOMElement> links =
+                            new ArrayList<HTMLDOMElement>();
+                    for (HTMLDOMElement link : parser.find("a[href=\"#"
+                            + anchor.getAttribute("name") + "\"]")
+                            .iterateResults()) {
+                        if ((ignoredLinks == null)
+                                || (!ignoredLinks.contains(link.getData()))) {
+                            links.add(link);
+                        }
+                    }
+                    attributeLinks.add(links);
+                }
+            }
+            anchorLinks.put(attribute, attributeLinks);
+        }
+        return anchorLinks;
+    }
+
+    /**
+     * Remove the elements created by HaTeMiLe, out of an element, that are
+     * linked with the element or its descendants.
+     * @param element The element.
+     * @param ids The ids of element and its descendants, in lowercase letters.
+     */
+    protected void removeReferences(final HTMLDOMElement element,
+            final Set<String> ids) {
+        StringBuilder selector = new StringBuilder();
+        for (String attribute : REFERENCE_ATTRIBUTES) {
+            if (selector.length() > 0) {
+                selector.append(',');
+            }
+            selector.append('[').append(attribute).append(']');
+        }
+        for (HTMLDOMElement reference : parser.find(selector.toString())
+                .listResults()) {
+            if ((reference.getTag() != HTMLTag.LI)
+                    && (isReference(reference, ids))
+                    && (!isInside(reference, element))) {
+                reference.removeNode();
+            }
+        }
+    }
+
+    /**
+     * Check that an element created by HaTeMiLe is linked with an element of
+     * the ids passed.
+     * @param reference The element created by HaTeMiLe.
+     * @param ids The ids, in lowercase letters.
+     * @return True if the element is linked with an id or false if not.
+     */
+    protected boolean isReference(final HTMLDOMElement reference,
+            final Set<String> ids) {
+        for (String attribute : REFERENCE_ATTRIBUTES) {
+            if ((reference.hasAttribute(attribute)) && (ids.contains(
+                    reference.getAttribute(attribute).toLowerCase()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check that an element is the container or a descendant of container.
+     * @param element The element.
+     * @param container The container.
+     * @return True if the element is the container or a descendant of
+     * container or false if not.
+     */
+    protected boolean isInside(final HTMLDOMElement element,
+            final HTMLDOMElement container) {
+        HTMLDOMElement current = element;
+        while (current != null) {
+            if (current.getData() == container.getData()) {
+                return true;
+            }
+            current = current.getParentElement();
+        }
+        return false;
+    }
+
+    /**
+     * Replace the items of the lists of shortcuts of the keys that are used
+     * only by the removed elements by placeholders.
+     * @param keys The keys of removed elements, in uppercase letters.
+     * @param removedElements The data of removed elements.
+     * @return The keys of items, indexed by placeholder.
+     */
+    protected Map<HTMLDOMElement, String> removeShortcuts(
+            final Set<String> keys, final Set<Object> removedElements) {
+        Map<HTMLDOMElement, String> placeholders =
+                new LinkedHashMap<HTMLDOMElement, String>();
+        Set<String> usedKeys = new HashSet<String>();
+        for (HTMLDOMElement element : parser.find("[accesskey]")
+                .iterateResults()) {
+            if (!removedElements.contains(element.getData())) {
+                usedKeys.addAll(Arrays.asList(element
+                        .getAttribute("accesskey").toUpperCase()
+                        .split("[ \n\t\r]+")));
+            }
+        }
+        for (String key : keys) {
+            if ((!key.isEmpty()) && (!usedKeys.contains(key))) {
+                for (String containerId : SHORTCUT_CONTAINERS) {
+                    for (HTMLDOMElement item : parser.find("#" + containerId)
+                            .findDescendants("li[" + DATA_SHORTCUT_KEY
+                                + "=\"" + key + "\"]").listResults()) {
+                        HTMLDOMElement placeholder =
+                                parser.createElement("li");
+                        placeholder.setAttribute(CommonFunctions.DATA_IGNORE,
+                                "true");
+                        item.replaceNode(placeholder);
+                        placeholders.put(placeholder, key);
+                    }
+                }
+            }
+        }
+        return placeholders;
+    }
+
+    /**
+     * Move the new item of a list of shortcuts to the position of the
+     * removed item with the same key, marked by a placeholder, and remove the
+     * placeholder.
+     * @param placeholder The placeholder of removed item.
+     * @param key The key of removed item.
+     */
+    protected void restoreShortcut(final HTMLDOMElement placeholder,
+            final String key) {
+        HTMLDOMElement item = parser.find(placeholder.getParentElement())
+                .findChildren("li[" + DATA_SHORTCUT_KEY + "=\"" + key
+                    + "\"]").firstResult();
+        if (item != null) {
+            placeholder.insertBefore(item);
+        }
+        placeholder.removeNode();
+    }
+
+    /**
+     * Remove the ids of removed elements of the scripts with lists of ids,
+     * before the execution of solutions in the new elements, that add the ids
+     * of new elements again. The scripts of HaTeMiLe fail with the ids of
+     * elements that the document not has.
+     * @param ids The ids of removed elements.
+     * @param newElements The new elements, that replaced the removed
+     * elements.
+     */
+    protected void removeListIds(final List<String> ids,
+            final List<HTMLDOMElement> newElements) {
+        Set<Object> newSubtrees = newIdentitySet();
+        for (HTMLDOMElement newElement : newElements) {
+            for (HTMLDOMElement element : getSubtree(newElement)) {
+                newSubtrees.add(element.getData());
+            }
+        }
+        List<String> removedIds = new ArrayList<String>();
+        for (String id : ids) {
+            boolean removed = true;
+            for (HTMLDOMElement element : parser.find("[id=\"" + id + "\"]")
+                    .iterateResults()) {
+                if (!newSubtrees.contains(element.getData())) {
+                    removed = false;
+                    break;
+                }
+            }
+            if (removed) {
+                removedIds.add(id);
+            }
+        }
+        if (removedIds.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, String> listScript
+                : LIST_SCRIPTS.entrySet()) {
+            HTMLDOMElement script = parser.find("#" + listScript.getKey())
+                    .firstResult();
+            if (script != null) {
+                removeListIds(script, listScript.getValue(), removedIds);
+            }
+        }
+    }
+
+    /**
+     * Remove ids of the lists of a script with lists of ids, and the
+     * assignments of lists that become empty. The script is not changed if its
+     * content was not written by {@link IDListScript}.
+     * @param script The script.
+     * @param declarations The declarations of lists of script.
+     * @param ids The ids removed.
+     */
+    protected void removeListIds(final HTMLDOMElement script,
+            final String declarations, final List<String> ids) {
+        IDListScript content = IDListScript.parse(script.getTextContent(),
+                declarations);
+        if ((content != null)
+                && (content.removeIds(new HashSet<String>(ids)))) {
+            while (script.hasChildren()) {
+                script.getFirstNodeChild().removeNode();
+            }
+            script.appendText(content.toString());
+        }
+    }
+
+    /**
+     * Execute the solutions only in the new elements, ignoring the elements
+     * out of them that are not ancestors of them.
+     * @param newElements The new elements.
+     */
+    protected void executeSolutions(final List<HTMLDOMElement> newElements) {
+        Set<Object> chain = newIdentitySet();
+        List<HTMLDOMElement> ancestors = new ArrayList<HTMLDOMElement>();
+        for (HTMLDOMElement element : newElements) {
+            chain.add(element.getData());
+        }
+        for (HTMLDOMElement element : newElements) {
+            HTMLDOMElement parentElement = element.getParentElement();
+            while ((parentElement != null)
+                    && (!chain.contains(parentElement.getData()))) {
+                chain.add(parentElement.getData());
+                ancestors.add(parentElement);
+                parentElement = parentElement.getParentElement();
+            }
+        }
+        List<HTMLDOMElement> ignoredElements = new ArrayList<HTMLDOMElement>();
+        for (HTMLDOMElement ancestor : ancestors) {
+            for (HTMLDOMElement child : ancestor.getChildrenElements()) {
+                if ((!chain.contains(child.getData()))
+                        && (!child.hasAttribute(CommonFunctions.DATA_IGNORE))) {
+                    child.setAttribute(CommonFunctions.DATA_IGNORE, "true");
+                    ignoredElements.add(child);
+                }
+            }
+        }
+        List<HTMLDOMElement> references = getForceReadReferences(ancestors);
+        List<HTMLDOMElement> placeholders = new ArrayList<HTMLDOMElement>();
+        for (HTMLDOMElement reference : references) {
+            HTMLDOMElement placeholder = parser.createElement("span");
+            placeholder.setAttribute(CommonFunctions.DATA_IGNORE, "true");
+            reference.insertBefore(placeholder);
+            placeholders.add(placeholder);
+        }
+        try {
+            solutions.accept(parser);
+        } finally {
+            for (HTMLDOMElement element : ignoredElements) {
+                element.removeAttribute(CommonFunctions.DATA_IGNORE);
+            }
+            for (int i = 0; i < references.size(); i++) {
+                restoreForceRead(references.get(i), placeholders.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the elements created by HaTeMiLe, that force the screen reader
+     * display an information of the elements passed.
+     * @param elements The elements.
+     * @return The elements that force the screen reader display an
+     * information of the elements passed.
+     */
+    protected List<HTMLDOMElement> getForceReadReferences(
+            final List<HTMLDOMElement> elements) {
+        List<HTMLDOMElement> references = new ArrayList<HTMLDOMElement>();
+        Set<String> ids = getIds(elements);
+        if (ids.isEmpty()) {
+            return references;
+        }
+        for (HTMLDOMElement element : parser.find("."
+                + AccessibleDisplayScreenReaderImplementation
+                    .CLASS_FORCE_READ_BEFORE + ",."
+                + AccessibleDisplayScreenReaderImplementation
+                    .CLASS_FORCE_READ_AFTER).iterateResults()) {
+            if (isReference(element, ids)) {
+                references.add(element);
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Move the element that replaced an element that force the screen reader
+     * display an information to the position of replaced element, marked by
+     * a placeholder, and remove the placeholder. The solutions replace these
+     * elements of the ancestors of new elements at each execution, in other
+     * positions.
+     * @param reference The element that force the screen reader display an
+     * information, before the execution of solutions.
+     * @param placeholder The placeholder of element.
+     */
+    protected void restoreForceRead(final HTMLDOMElement reference,
+            final HTMLDOMElement placeholder) {
+        if (reference.getParentElement() == null) {
+            for (String attribute : REFERENCE_ATTRIBUTES) {
+                if (reference.hasAttribute(attribute)) {
+                    HTMLDOMElement newReference = parser.find("."
+                            + reference.getAttribute("class") + "["
+                            + attribute + "=\""
+                            + reference.getAttribute(attribute) + "\"]")
+                            .firstResult();
+                    if (newReference != null) {
+                        placeholder.insertBefore(newReference);
+                    }
+                    break;
+                }
+            }
+        }
+        placeholder.removeNode();
+    }
+
+    /**
+     * Replace the links of the lists of page to the anchors of removed
+     * elements by the links to the anchors of new elements.
+     * @param oldLinks The links to the anchors of removed elements.
+     * @param newLinks The links to the anchors of new elements.
+     */
+    protected void patchLinks(
+            final Map<String, List<List<HTMLDOMElement>>> oldLinks,
+            final Map<String, List<List<HTMLDOMElement>>> newLinks) {
+        List<HTMLDOMElement> removedLinks = new ArrayList<HTMLDOMElement>();
+        for (String attribute : ANCHOR_ATTRIBUTES) {
+            List<List<HTMLDOMElement>> oldAttributeLinks =
+                    oldLinks.get(attribute);
+            List<List<HTMLDOMElement>> newAttributeLinks =
+                    newLinks.get(attribute);
+            for (int i = 0; i < oldAttributeLinks.size(); i++) {
+                List<HTMLDOMElement> oldAnchorLinks = oldAttributeLinks.get(i);
+                if ((i < newAttributeLinks.size()) && (newAttributeLinks.get(i)
+                        .size() == oldAnchorLinks.size())) {
+                    List<HTMLDOMElement> newAnchorLinks =
+                            newAttributeLinks.get(i);
+                    for (int j = 0; j < oldAnchorLinks.size(); j++) {
+                        copyLink(newAnchorLinks.get(j), oldAnchorLinks.get(j));
+                    }
+                    removedLinks.addAll(newAnchorLinks);
+                } else {
+                    removedLinks.addAll(oldAnchorLinks);
+                }
+            }
+        }
+        for (HTMLDOMElement link : removedLinks) {
+            removeLink(link);
+        }
+    }
+
+    /**
+     * Copy the text, the target and the shortcut of a link to other link.
+     * @param link The link copied.
+     * @param target The link changed.
+     */
+    protected void copyLink(final HTMLDOMElement link,
+            final HTMLDOMElement target) {
+        while (target.hasChildren()) {
+            target.getFirstNodeChild().removeNode();
+        }
+        target.appendText(link.getTextContent());
+        target.setAttribute("href", link.getAttribute("href"));
+        if (link.hasAttribute("accesskey")) {
+            target.setAttribute("accesskey", link.getAttribute("accesskey"));
+        } else if (target.hasAttribute("accesskey")) {
+            target.removeAttribute("accesskey");
+        }
+    }
+
+    /**
+     * Remove a link of a list of page, with its item and with its list, if
+     * the list has no other item.
+     * @param link The link.
+     */
+    protected void removeLink(final HTMLDOMElement link) {
+        HTMLDOMElement element = link;
+        HTMLDOMElement parentElement = element.getParentElement();
+        if ((parentElement != null)
+                && (parentElement.getTag() == HTMLTag.LI)) {
+            element = parentElement;
+            parentElement = element.getParentElement();
+        }
+        if (parentElement != null) {
+            element.removeNode();
+            if (((parentElement.getTag() == HTMLTag.OL)
+                    || (parentElement.getTag() == HTMLTag.UL))
+                    && (!parentElement.hasChildrenElements())
+                    && (parentElement.getParentElement() != null)
+                    && (parentElement.getParentElement().getTag()
+                        == HTMLTag.LI)) {
+                parentElement.removeNode();
+            }
+        }
+    }
+}
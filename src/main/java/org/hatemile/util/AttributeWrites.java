@@ -0,0 +1,127 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hatemile.util.html.HTMLDOMElement;
+
+/**
+ * The AttributeWrites class records changes of attributes of elements without
+ * change the elements, so that the changes can be computed by other thread and
+ * applied later, in the order that were recorded. The recorded values are
+ * returned by the reads of the same object.
+ */
+public class AttributeWrites {
+
+    /**
+     * The elements of recorded changes, in the order of changes.
+     */
+    protected final List<HTMLDOMElement> elements;
+
+    /**
+     * The names of attributes of recorded changes, in the order of changes.
+     */
+    protected final List<String> names;
+
+    /**
+     * The values of attributes of recorded changes, in the order of changes.
+     */
+    protected final List<String> values;
+
+    /**
+     * The last recorded value of each attribute, indexed by data of element
+     * and by name of attribute.
+     */
+    protected final Map<Object, Map<String, String>> lastValues;
+
+    /**
+     * Initializes a new object that records changes of attributes.
+     */
+    public AttributeWrites() {
+        elements = new ArrayList<HTMLDOMElement>();
+        names = new ArrayList<String>();
+        values = new ArrayList<String>();
+        lastValues = new IdentityHashMap<Object, Map<String, String>>();
+    }
+
+    /**
+     * Check that the element has an attribute, considering the recorded
+     * changes.
+     * @param element The element.
+     * @param name The name of attribute.
+     * @return True if the element has the attribute or false if the element
+     * not has the attribute.
+     */
+    public boolean hasAttribute(final HTMLDOMElement element,
+            final String name) {
+        Map<String, String> attributes = lastValues.get(element.getData());
+        if ((attributes != null) && (attributes.containsKey(name))) {
+            return true;
+        }
+        return element.hasAttribute(name);
+    }
+
+    /**
+     * Returns the value of an attribute of element, considering the recorded
+     * changes.
+     * @param element The element.
+     * @param name The name of attribute.
+     * @return The value of attribute.
+     */
+    public String getAttribute(final HTMLDOMElement element,
+            final String name) {
+        Map<String, String> attributes = lastValues.get(element.getData());
+        if ((attributes != null) && (attributes.containsKey(name))) {
+            return attributes.get(name);
+        }
+        return element.getAttribute(name);
+    }
+
+    /**
+     * Record a change of an attribute of element.
+     * @param element The element.
+     * @param name The name of attribute.
+     * @param value The value of attribute.
+     */
+    public void setAttribute(final HTMLDOMElement element, final String name,
+            final String value) {
+        Map<String, String> attributes = lastValues.get(element.getData());
+        if (attributes == null) {
+            attributes = new HashMap<String, String>();
+            lastValues.put(element.getData(), attributes);
+        }
+        attributes.put(name, value);
+        elements.add(element);
+        names.add(name);
+        values.add(value);
+    }
+
+    /**
+     * Change the attributes of elements, in the order that the changes were
+     * recorded, and discard the recorded changes.
+     */
+    public void apply() {
+        for (int i = 0, size = elements.size(); i < size; i++) {
+            elements.get(i).setAttribute(names.get(i), values.get(i));
+        }
+        elements.clear();
+        names.clear();
+        values.clear();
+        lastValues.clear();
+    }
+}
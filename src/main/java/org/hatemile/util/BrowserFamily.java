@@ -0,0 +1,146 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+/**
+ * The BrowserFamily enum contains the families of browsers that have the same
+ * keyboard shortcut prefix.
+ */
+public enum BrowserFamily {
+
+    /**
+     * The Opera browser.
+     */
+    OPERA("SHIFT + ESC"),
+
+    /**
+     * The Chrome browser on Mac.
+     */
+    CHROME_MAC("CTRL + OPTION"),
+
+    /**
+     * The Safari and other WebKit browsers out of Windows.
+     */
+    SAFARI("CTRL + ALT"),
+
+    /**
+     * The other browsers on Mac and the Konqueror browser.
+     */
+    MAC_OR_KONQUEROR("CTRL"),
+
+    /**
+     * The Firefox browser.
+     */
+    FIREFOX("ALT + SHIFT"),
+
+    /**
+     * The Chrome and Internet Explorer browsers.
+     */
+    CHROME_OR_IE("ALT"),
+
+    /**
+     * The unknown browsers.
+     */
+    UNKNOWN(null);
+
+    /**
+     * The maximum number of user agents classified in cache.
+     */
+    public static final int MAXIMUM_CACHED_USER_AGENTS = 1024;
+
+    /**
+     * The families of classified user agents.
+     */
+    private static final LRUCache<String, BrowserFamily> USER_AGENTS =
+            new LRUCache<String, BrowserFamily>(MAXIMUM_CACHED_USER_AGENTS);
+
+    /**
+     * The shortcut prefix of browser family.
+     */
+    private final String shortcutPrefix;
+
+    /**
+     * Initializes a new browser family.
+     * @param prefix The shortcut prefix of browser family.
+     */
+    BrowserFamily(final String prefix) {
+        shortcutPrefix = prefix;
+    }
+
+    /**
+     * Returns the shortcut prefix of browser family.
+     * @param standartPrefix The default prefix.
+     * @return The shortcut prefix of browser family or the default prefix if
+     * the family is unknown.
+     */
+    public String getShortcutPrefix(final String standartPrefix) {
+        if (shortcutPrefix == null) {
+            return standartPrefix;
+        }
+        return shortcutPrefix;
+    }
+
+    /**
+     * Returns the family of browser of a user agent.
+     * @param userAgent The user agent of browser.
+     * @return The family of browser.
+     */
+    public static BrowserFamily fromUserAgent(final String userAgent) {
+        if (userAgent == null) {
+            return UNKNOWN;
+        }
+        BrowserFamily family = USER_AGENTS.get(userAgent);
+        if (family == null) {
+            family = classify(userAgent);
+            USER_AGENTS.put(userAgent, family);
+        }
+        return family;
+    }
+
+    /**
+     * Classify the user agent of browser.
+     * @param userAgent The user agent of browser.
+     * @return The family of browser.
+     */
+    private static BrowserFamily classify(final String userAgent) {
+        String lowerUserAgent = userAgent.toLowerCase();
+        boolean opera = lowerUserAgent.contains("opera");
+        boolean mac = lowerUserAgent.contains("mac");
+        boolean konqueror = lowerUserAgent.contains("konqueror");
+        boolean spoofer = lowerUserAgent.contains("spoofer");
+        boolean safari = lowerUserAgent.contains("applewebkit");
+        boolean windows = lowerUserAgent.contains("windows");
+        boolean chrome = lowerUserAgent.contains("chrome");
+        boolean firefox = lowerUserAgent.contains("firefox")
+                || lowerUserAgent.contains("minefield");
+        boolean ie = lowerUserAgent.contains("msie")
+                || lowerUserAgent.contains("trident");
+
+        if (opera) {
+            return OPERA;
+        } else if (chrome && mac && !spoofer) {
+            return CHROME_MAC;
+        } else if (safari && !windows && !spoofer) {
+            return SAFARI;
+        } else if (!windows && (safari || mac || konqueror)) {
+            return MAC_OR_KONQUEROR;
+        } else if (firefox) {
+            return FIREFOX;
+        } else if (chrome || ie) {
+            return CHROME_OR_IE;
+        } else {
+            return UNKNOWN;
+        }
+    }
+}
@@ -13,6 +13,14 @@ limitations under the License.
  */
 package org.hatemile.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hatemile.util.html.HTMLDOMElement;
 
 /**
@@ -28,7 +36,27 @@ public final class CommonFunctions {
     /**
      * Count the number of ids created.
      */
-    private static int count = 0;
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    /**
+     * The hexadecimal digits, used to escape characters of JSON strings.
+     */
+    private static final String HEXADECIMAL_DIGITS = "0123456789abcdef";
+
+    /**
+     * The number of bits of a hexadecimal digit.
+     */
+    private static final int HEXADECIMAL_DIGIT_BITS = 4;
+
+    /**
+     * The mask of the bits of a hexadecimal digit.
+     */
+    private static final int HEXADECIMAL_DIGIT_MASK = 0xf;
+
+    /**
+     * The number of hexadecimal digits of an unicode escape.
+     */
+    private static final int UNICODE_ESCAPE_DIGITS = 4;
 
     /**
      * The private constructor prevents that the class not can be initialized.
@@ -47,8 +75,8 @@ public final class CommonFunctions {
     public static void generateId(final HTMLDOMElement element,
             final String prefix) {
         if (!element.hasAttribute("id")) {
-            element.setAttribute("id", prefix + Integer.toString(count));
-            count++;
+            element.setAttribute("id", prefix
+                    + Integer.toString(COUNT.getAndIncrement()));
         }
     }
 
@@ -56,7 +84,7 @@ public final class CommonFunctions {
      * Reset the count number of ids.
      */
     public static void resetCount() {
-        count = 0;
+        COUNT.set(0);
     }
 
     /**
@@ -84,18 +112,30 @@ public final class CommonFunctions {
      */
     public static String increaseInList(final String list,
             final String stringToIncrease) {
-        if ((list != null) && (!list.isEmpty()) && (stringToIncrease != null)
-                && (!stringToIncrease.isEmpty())) {
-            if (inList(list, stringToIncrease)) {
-                return list;
-            } else {
-                return list + " " + stringToIncrease;
-            }
-        } else if ((list != null) && (!list.isEmpty())) {
-            return list;
-        } else {
+        if ((list == null) || (list.isEmpty())) {
             return stringToIncrease;
         }
+        TokenList tokenList = new TokenList(list);
+        if (!tokenList.add(stringToIncrease)) {
+            return list;
+        }
+        return tokenList.toString();
+    }
+
+    /**
+     * Increase a collection of items in a HTML list, reading the list once.
+     * @param list The list.
+     * @param stringsToIncrease The values of items.
+     * @return The HTML list with the items added, if the items not were
+     * contained in list.
+     */
+    public static String increaseInList(final String list,
+            final Collection<String> stringsToIncrease) {
+        TokenList tokenList = new TokenList(list);
+        if (!tokenList.addAll(stringsToIncrease)) {
+            return list;
+        }
+        return tokenList.toString();
     }
 
     /**
@@ -106,17 +146,37 @@ public final class CommonFunctions {
      */
     public static boolean inList(final String list,
             final String stringToSearch) {
-        if ((list != null) && (!list.isEmpty()) && (stringToSearch != null)
-                && (!stringToSearch.isEmpty())) {
-            String[] elements = list.split("[ \n\t\r]+");
-            for (int i = 0, length = elements.length; i < length; i++) {
-                String element = elements[i];
-                if (element.equals(stringToSearch)) {
-                    return true;
-                }
+        return TokenList.contains(list, stringToSearch);
+    }
+
+    /**
+     * Execute tasks in a pool and returns its results in the order of tasks.
+     * @param <T> The type of results.
+     * @param pool The pool that execute the tasks.
+     * @param tasks The tasks.
+     * @return The results of tasks, in the order of tasks.
+     * @throws IllegalStateException If the current thread was interrupted
+     * while waiting the tasks.
+     */
+    public static <T> List<T> invokeAll(final ForkJoinPool pool,
+            final Collection<? extends Callable<T>> tasks) {
+        List<T> results = new ArrayList<T>(tasks.size());
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
             }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            } else if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
         }
-        return false;
+        return results;
     }
 
     /**
@@ -126,20 +186,42 @@ public final class CommonFunctions {
      * manipulated.
      */
     public static boolean isValidElement(final HTMLDOMElement element) {
-        if (element.hasAttribute(DATA_IGNORE)) {
-            return false;
-        } else {
-            HTMLDOMElement parentElement = element.getParentElement();
-            if (parentElement != null) {
-                String tagName = parentElement.getTagName();
-                if ((!tagName.equals("BODY")) && (!tagName.equals("HTML"))) {
-                    return CommonFunctions.isValidElement(parentElement);
+        return new ValidElementIndex().isValidElement(element);
+    }
+
+    /**
+     * Returns a JSON array of strings, that can be included in a script
+     * element of HTML.
+     * @param values The strings.
+     * @return The JSON array.
+     */
+    public static String toJSONArray(final Collection<String> values) {
+        StringBuilder builder = new StringBuilder("[");
+        for (String value : values) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append('"');
+            for (int i = 0, length = value.length(); i < length; i++) {
+                char character = value.charAt(i);
+                if ((character == '"') || (character == '\\')) {
+                    builder.append('\\').append(character);
+                } else if ((character < ' ') || (character == '<')
+                        || (character == '>') || (character == '&')
+                        || (character == '\u2028')
+                        || (character == '\u2029')) {
+                    builder.append("\\u");
+                    for (int j = UNICODE_ESCAPE_DIGITS - 1; j >= 0; j--) {
+                        builder.append(HEXADECIMAL_DIGITS.charAt((character
+                                >> (j * HEXADECIMAL_DIGIT_BITS))
+                                & HEXADECIMAL_DIGIT_MASK));
+                    }
                 } else {
-                    return true;
+                    builder.append(character);
                 }
-            } else {
-                return true;
             }
+            builder.append('"');
         }
+        return builder.append(']').toString();
     }
 }
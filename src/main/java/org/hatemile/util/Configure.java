@@ -17,24 +17,61 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.util.Collections;
-import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * The Configure class contains the configuration of HaTeMiLe.
+ * The Configure class contains the configuration of HaTeMiLe. Two
+ * configurations are equal if they have equal parameters. The parameters of a
+ * configuration change when it is reloaded, so a configuration must not be
+ * used as a key while it can be reloaded; {@link #getSnapshot()} is immutable.
  */
 public class Configure {
 
     /**
-     * The parameters of configuration of HaTeMiLe.
+     * The name of default configuration file.
+     */
+    private static final String DEFAULT_BUNDLE_NAME = "hatemile-configure";
+
+    /**
+     * The class loaders of configuration directories, shared by all
+     * configurations loaded from the same directory.
+     */
+    private static final ConcurrentMap<File, ClassLoader> CLASS_LOADERS =
+            new ConcurrentHashMap<File, ClassLoader>();
+
+    /**
+     * The parameters of configuration of HaTeMiLe, when the configuration was
+     * created, or null if the parameters are fixed.
      */
     protected final ResourceBundle resourceBundle;
 
+    /**
+     * The configuration file or null if the configuration is loaded of
+     * classpath.
+     */
+    protected final File file;
+
+    /**
+     * The locale of configuration or null if the parameters are fixed.
+     */
+    private final Locale locale;
+
+    /**
+     * The class loader of configuration file or null if the configuration is
+     * loaded of classpath.
+     */
+    private final ClassLoader loader;
+
+    /**
+     * The current parameters of configuration.
+     */
+    private volatile ConfigureSnapshot snapshot;
+
     /**
      * Initializes a new object that contains the configuration of HaTeMiLe.
      */
@@ -52,29 +89,102 @@ public class Configure {
 
     /**
      * Initializes a new object that contains the configuration of HaTeMiLe.
-     * @param locale The locale of configuration.
+     * @param configurationLocale The locale of configuration.
      */
-    public Configure(final Locale locale) {
-        resourceBundle = ResourceBundle.getBundle("hatemile-configure",
-                Objects.requireNonNull(locale));
+    public Configure(final Locale configurationLocale) {
+        file = null;
+        locale = Objects.requireNonNull(configurationLocale);
+        loader = null;
+        resourceBundle = loadBundle();
+        snapshot = new ConfigureSnapshot(resourceBundle);
     }
 
     /**
      * Initializes a new object that contains the configuration of HaTeMiLe.
      * @param fileName The full path of file.
-     * @param locale The locale of configuration.
-     */
-    public Configure(final String fileName, final Locale locale) {
-        try {
-            File file = new File(fileName);
-            URL[] urls = {file.getParentFile().toURI().toURL()};
-            ClassLoader loader = new URLClassLoader(urls);
-            resourceBundle = ResourceBundle
-                    .getBundle(Objects.requireNonNull(file.getName()),
-                        Objects.requireNonNull(locale), loader);
-        } catch (IOException ex) {
-            throw new RuntimeException(ex);
+     * @param configurationLocale The locale of configuration.
+     */
+    public Configure(final String fileName,
+            final Locale configurationLocale) {
+        file = new File(fileName);
+        locale = Objects.requireNonNull(configurationLocale);
+        loader = getClassLoader(file.getParentFile());
+        resourceBundle = loadBundle();
+        snapshot = new ConfigureSnapshot(resourceBundle);
+    }
+
+    /**
+     * Initializes a new object that contains the configuration of HaTeMiLe,
+     * with fixed parameters that are not reloaded.
+     * @param parameters The parameters of configuration.
+     */
+    public Configure(final ConfigureSnapshot parameters) {
+        file = null;
+        locale = null;
+        loader = null;
+        resourceBundle = null;
+        snapshot = Objects.requireNonNull(parameters);
+    }
+
+    /**
+     * Returns the class loader of a configuration directory.
+     * @param directory The configuration directory.
+     * @return The class loader of configuration directory.
+     */
+    private static ClassLoader getClassLoader(final File directory) {
+        ClassLoader classLoader = CLASS_LOADERS.get(directory);
+        if (classLoader == null) {
+            try {
+                URL[] urls = {directory.toURI().toURL()};
+                classLoader = new URLClassLoader(urls);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+            ClassLoader previousClassLoader = CLASS_LOADERS
+                    .putIfAbsent(directory, classLoader);
+            if (previousClassLoader != null) {
+                classLoader = previousClassLoader;
+            }
+        }
+        return classLoader;
+    }
+
+    /**
+     * Load the parameters of configuration.
+     * @return The resource bundle with the parameters of configuration.
+     */
+    private ResourceBundle loadBundle() {
+        if (loader == null) {
+            return ResourceBundle.getBundle(DEFAULT_BUNDLE_NAME, locale);
         }
+        return ResourceBundle.getBundle(
+                Objects.requireNonNull(file.getName()), locale, loader);
+    }
+
+    /**
+     * Read again the parameters of configuration and replace the current
+     * parameters atomically. The solutions that are running keep using the
+     * parameters that they have read before. The configurations created with
+     * fixed parameters are not modified.
+     */
+    public void reload() {
+        if (locale == null) {
+            return;
+        }
+        if (loader == null) {
+            ResourceBundle.clearCache();
+        } else {
+            ResourceBundle.clearCache(loader);
+        }
+        snapshot = new ConfigureSnapshot(loadBundle());
+    }
+
+    /**
+     * Returns the current parameters of configuration.
+     * @return The current parameters of configuration.
+     */
+    public ConfigureSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -82,14 +192,7 @@ public class Configure {
      * @return The parameters of configuration.
      */
     public Map<String, String> getParameters() {
-        Enumeration<String> keys;
-        String key;
-        Map<String, String> map = new HashMap<String, String>();
-        for (keys = resourceBundle.getKeys(); keys.hasMoreElements();) {
-            key = keys.nextElement().replace('.', '-');
-            map.put(key, resourceBundle.getString(key));
-        }
-        return Collections.unmodifiableMap(map);
+        return snapshot.getParameters();
     }
 
     /**
@@ -99,7 +202,7 @@ public class Configure {
      * configuration not has the parameter.
      */
     public boolean hasParameter(final String parameter) {
-        return resourceBundle.containsKey(parameter.replace('-', '.'));
+        return snapshot.hasParameter(parameter);
     }
 
     /**
@@ -108,7 +211,7 @@ public class Configure {
      * @return The value of the parameter.
      */
     public String getParameter(final String parameter) {
-        return resourceBundle.getString(parameter.replace('-', '.'));
+        return snapshot.getParameter(parameter);
     }
 
     @Override
@@ -121,7 +224,7 @@ public class Configure {
                 return false;
             }
             Configure configure = (Configure) object;
-            if (!getParameters().equals(configure.getParameters())) {
+            if (!getSnapshot().equals(configure.getSnapshot())) {
                 return false;
             }
         }
@@ -130,6 +233,6 @@ public class Configure {
 
     @Override
     public int hashCode() {
-        return this.resourceBundle.hashCode();
+        return getSnapshot().hashCode();
     }
 }
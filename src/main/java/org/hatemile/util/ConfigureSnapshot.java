@@ -0,0 +1,192 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Objects;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The ConfigureSnapshot class contains an immutable copy of the parameters of
+ * configuration of HaTeMiLe, indexed by the names used by the solutions.
+ */
+public final class ConfigureSnapshot {
+
+    /**
+     * The parameters of configuration, with the names separated by hyphens.
+     */
+    private final Map<String, String> parameters;
+
+    /**
+     * The hash code of parameters.
+     */
+    private final int hashCode;
+
+    /**
+     * The parameters grouped by prefix of name, created when requested.
+     */
+    private final ConcurrentMap<String, Map<String, String>> prefixedParameters;
+
+    /**
+     * Initializes a new snapshot with the parameters of a resource bundle.
+     * @param resourceBundle The resource bundle with the parameters.
+     */
+    public ConfigureSnapshot(final ResourceBundle resourceBundle) {
+        this(getParameters(Objects.requireNonNull(resourceBundle)));
+    }
+
+    /**
+     * Initializes a new snapshot with the parameters.
+     * @param configurationParameters The parameters of configuration, with the
+     * names separated by hyphens or dots.
+     */
+    public ConfigureSnapshot(
+            final Map<String, String> configurationParameters) {
+        Objects.requireNonNull(configurationParameters);
+        Map<String, String> map = new HashMap<String, String>();
+        for (Map.Entry<String, String> entry
+                : configurationParameters.entrySet()) {
+            map.put(entry.getKey().replace('.', '-'), entry.getValue());
+        }
+        parameters = Collections.unmodifiableMap(map);
+        hashCode = parameters.hashCode();
+        prefixedParameters =
+                new ConcurrentHashMap<String, Map<String, String>>();
+    }
+
+    /**
+     * Returns the parameters of a resource bundle.
+     * @param resourceBundle The resource bundle.
+     * @return The parameters of resource bundle, with the names separated by
+     * hyphens.
+     */
+    private static Map<String, String> getParameters(
+            final ResourceBundle resourceBundle) {
+        Enumeration<String> keys;
+        String key;
+        Map<String, String> map = new HashMap<String, String>();
+        for (keys = resourceBundle.getKeys(); keys.hasMoreElements();) {
+            key = keys.nextElement();
+            map.put(key.replace('.', '-'), resourceBundle.getString(key));
+        }
+        return map;
+    }
+
+    /**
+     * Returns the parameters of configuration.
+     * @return The parameters of configuration.
+     */
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the parameters that the name starts with a prefix, indexed by the
+     * rest of the name. The result is created once by snapshot.
+     * @param prefix The prefix of name of parameters, with the names separated
+     * by hyphens.
+     * @return The parameters indexed by the name without prefix.
+     */
+    public Map<String, String> getParametersByPrefix(final String prefix) {
+        Map<String, String> map = prefixedParameters.get(prefix);
+        if (map == null) {
+            Map<String, String> newMap = new HashMap<String, String>();
+            int length = prefix.length();
+            for (Map.Entry<String, String> entry : parameters.entrySet()) {
+                if (entry.getKey().startsWith(prefix)) {
+                    newMap.put(entry.getKey().substring(length),
+                            entry.getValue());
+                }
+            }
+            map = Collections.unmodifiableMap(newMap);
+            Map<String, String> previousMap = prefixedParameters
+                    .putIfAbsent(prefix, map);
+            if (previousMap != null) {
+                map = previousMap;
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Check that the configuration has an parameter.
+     * @param parameter The name of parameter.
+     * @return True if the configuration has the parameter or false if the
+     * configuration not has the parameter.
+     */
+    public boolean hasParameter(final String parameter) {
+        return getValue(parameter) != null;
+    }
+
+    /**
+     * Returns the value of a parameter of configuration.
+     * @param parameter The parameter.
+     * @return The value of the parameter.
+     * @throws MissingResourceException If the configuration not has the
+     * parameter.
+     */
+    public String getParameter(final String parameter) {
+        String value = getValue(parameter);
+        if (value == null) {
+            throw new MissingResourceException("Can't find parameter "
+                    + parameter, ConfigureSnapshot.class.getName(), parameter);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of a parameter. The names of parameters are separated
+     * by hyphens when the snapshot is created, so a name separated by hyphens
+     * is found by one search and only a name with dots is changed.
+     * @param parameter The name of parameter.
+     * @return The value of the parameter or null if the configuration not has
+     * the parameter.
+     */
+    private String getValue(final String parameter) {
+        String value = parameters.get(parameter);
+        if ((value == null) && (parameter.indexOf('.') != -1)) {
+            value = parameters.get(parameter.replace('.', '-'));
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this != object) {
+            if (object == null) {
+                return false;
+            }
+            if (!(object instanceof ConfigureSnapshot)) {
+                return false;
+            }
+            ConfigureSnapshot snapshot = (ConfigureSnapshot) object;
+            if ((hashCode != snapshot.hashCode)
+                    || (!parameters.equals(snapshot.parameters))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
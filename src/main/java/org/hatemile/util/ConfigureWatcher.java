@@ -0,0 +1,163 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The ConfigureWatcher class reload a configuration of HaTeMiLe when its files
+ * are modified.
+ */
+public class ConfigureWatcher implements Closeable {
+
+    /**
+     * The extension of configuration files.
+     */
+    private static final String FILE_EXTENSION = ".properties";
+
+    /**
+     * The time in milliseconds without modifications to wait before reload the
+     * configuration, so that files partially written are not read.
+     */
+    private static final long QUIET_PERIOD = 200;
+
+    /**
+     * The watched configuration.
+     */
+    protected final Configure configure;
+
+    /**
+     * The service that watch the directory of configuration.
+     */
+    private final WatchService watchService;
+
+    /**
+     * The thread that reload the configuration.
+     */
+    private final Thread thread;
+
+    /**
+     * Initializes a new object that reload the configuration when its files
+     * are modified.
+     * @param watchedConfigure The configuration loaded of a file.
+     * @throws IOException If the directory of configuration cannot be watched.
+     */
+    public ConfigureWatcher(final Configure watchedConfigure)
+            throws IOException {
+        configure = Objects.requireNonNull(watchedConfigure);
+        if (configure.file == null) {
+            throw new IllegalArgumentException(
+                    "The configuration was not loaded from a file.");
+        }
+        final String baseName = configure.file.getName();
+        Path directory = configure.file.getAbsoluteFile().getParentFile()
+                .toPath();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(new Runnable() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void run() {
+                watch(baseName);
+            }
+        }, "hatemile-configure-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Wait for modifications on configuration files and reload the
+     * configuration.
+     * @param baseName The name of configuration files, without locale and
+     * extension.
+     */
+    protected void watch(final String baseName) {
+        try {
+            WatchKey key = watchService.take();
+            while (true) {
+                boolean modified = isModified(key, baseName);
+                while (modified) {
+                    key = watchService.poll(QUIET_PERIOD,
+                            TimeUnit.MILLISECONDS);
+                    if (key == null) {
+                        try {
+                            configure.reload();
+                        } catch (RuntimeException ex) {
+                            Logger.getLogger(ConfigureWatcher.class.getName())
+                                    .log(Level.SEVERE, null, ex);
+                        }
+                        modified = false;
+                    } else {
+                        isModified(key, baseName);
+                    }
+                }
+                key = watchService.take();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            return;
+        }
+    }
+
+    /**
+     * Check that the events of a watch key modified the configuration files
+     * and reset the key.
+     * @param key The watch key.
+     * @param baseName The name of configuration files, without locale and
+     * extension.
+     * @return True if a configuration file was modified or false if not.
+     */
+    private static boolean isModified(final WatchKey key,
+            final String baseName) {
+        boolean modified = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context instanceof Path) {
+                String name = ((Path) context).getFileName().toString();
+                if ((name.startsWith(baseName))
+                        && (name.endsWith(FILE_EXTENSION))) {
+                    modified = true;
+                }
+            }
+        }
+        key.reset();
+        return modified;
+    }
+
+    /**
+     * Stop watching the configuration files.
+     * @throws IOException If the watch service cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+}
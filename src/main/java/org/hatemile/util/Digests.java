@@ -0,0 +1,110 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The Digests class contains the methods of the SHA-256 digests used by the
+ * hashes that identify contents, in which a collision would replace a content
+ * by other.
+ */
+final class Digests {
+
+    /**
+     * The algorithm of digests of contents.
+     */
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * The charset of the texts added to digests.
+     */
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * The mask of the bits of a byte.
+     */
+    private static final int BYTE_MASK = 0xff;
+
+    /**
+     * The digits of hexadecimal numbers.
+     */
+    private static final char[] HEXADECIMAL_DIGITS =
+            "0123456789abcdef".toCharArray();
+
+    /**
+     * The number of bits of a hexadecimal digit.
+     */
+    private static final int HEXADECIMAL_DIGIT_BITS = 4;
+
+    /**
+     * The mask of the bits of a hexadecimal digit.
+     */
+    private static final int HEXADECIMAL_DIGIT_MASK = 0xf;
+
+    /**
+     * The private constructor prevents that the class not can be initialized.
+     */
+    private Digests() {
+
+    }
+
+    /**
+     * Returns a new SHA-256 digest.
+     * @return The new digest.
+     */
+    static MessageDigest create() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Add a part of content to a digest, preceded by its length, so that the
+     * parts are not confused.
+     * @param digest The digest.
+     * @param text The part of content or null.
+     */
+    static void update(final MessageDigest digest, final String text) {
+        if (text == null) {
+            digest.update("-1:".getBytes(CHARSET));
+        } else {
+            digest.update((text.length() + ":").getBytes(CHARSET));
+            digest.update(text.getBytes(CHARSET));
+        }
+    }
+
+    /**
+     * Returns the hash of the parts added to a digest, in hexadecimal, and
+     * reset the digest, so that it can be used again.
+     * @param digest The digest.
+     * @return The hash of parts, in hexadecimal.
+     */
+    static String getHash(final MessageDigest digest) {
+        byte[] bytes = digest.digest();
+        char[] hexadecimal = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int value = bytes[i] & BYTE_MASK;
+            hexadecimal[i * 2] = HEXADECIMAL_DIGITS[value
+                    >>> HEXADECIMAL_DIGIT_BITS];
+            hexadecimal[(i * 2) + 1] = HEXADECIMAL_DIGITS[value
+                    & HEXADECIMAL_DIGIT_MASK];
+        }
+        return new String(hexadecimal);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMParser;
+import org.hatemile.util.html.HTMLTag;
+
+/**
+ * The FormIndex class index the elements of a document that define the form
+ * and the datalist of fields, so that the form and the datalist of each field
+ * are found without search the document again. The ids are compared in
+ * lowercase letters, as the selectors of parser.
+ */
+public class FormIndex {
+
+    /**
+     * The first element with each id, indexed by the id in lowercase letters.
+     */
+    protected final Map<String, HTMLDOMElement> elementsById;
+
+    /**
+     * The ids in lowercase letters of datalists.
+     */
+    protected final Set<String> dataListIds;
+
+    /**
+     * The outermost form that contains or is each element already checked,
+     * indexed by data of element. The elements outside of forms have null
+     * values.
+     */
+    protected final Map<Object, HTMLDOMElement> ancestorForms;
+
+    /**
+     * Initializes a new object that index the forms and the datalists of the
+     * document of parser.
+     * @param parser The HTML parser.
+     */
+    public FormIndex(final HTMLDOMParser parser) {
+        elementsById = new HashMap<String, HTMLDOMElement>();
+        dataListIds = new HashSet<String>();
+        ancestorForms = new IdentityHashMap<Object, HTMLDOMElement>();
+        for (HTMLDOMElement element : parser.find("[id]").iterateResults()) {
+            String id = element.getAttribute("id").toLowerCase();
+            if (!elementsById.containsKey(id)) {
+                elementsById.put(id, element);
+            }
+            if (element.getTag() == HTMLTag.DATALIST) {
+                dataListIds.add(id);
+            }
+        }
+    }
+
+    /**
+     * Returns the form of a field, the outermost form that contains the field
+     * or, if the field is not inside a form, the element with id equals to
+     * the form attribute of field.
+     * @param field The field.
+     * @return The form of field or null if the field not has form.
+     */
+    public HTMLDOMElement getForm(final HTMLDOMElement field) {
+        HTMLDOMElement form = getAncestorForm(field);
+        if ((form == null) && (field.hasAttribute("form"))) {
+            form = elementsById.get(field.getAttribute("form").toLowerCase());
+        }
+        return form;
+    }
+
+    /**
+     * Check that the list attribute of a field references a datalist.
+     * @param field The field.
+     * @return True if the document has a datalist with id equals to the list
+     * attribute of field or false if the field not has datalist.
+     */
+    public boolean hasDataList(final HTMLDOMElement field) {
+        return (field.hasAttribute("list")) && (dataListIds.contains(field
+                .getAttribute("list").toLowerCase()));
+    }
+
+    /**
+     * Returns the outermost form that contains an element, remembering the
+     * form of the element and of its ancestors.
+     * @param element The element.
+     * @return The outermost form that contains the element or null if the
+     * element is not inside a form.
+     */
+    protected HTMLDOMElement getAncestorForm(final HTMLDOMElement element) {
+        List<HTMLDOMElement> uncheckedElements =
+                new ArrayList<HTMLDOMElement>();
+        HTMLDOMElement form = null;
+        HTMLDOMElement parent = element.getParentElement();
+        while ((parent != null)
+                && (!ancestorForms.containsKey(parent.getData()))) {
+            uncheckedElements.add(parent);
+            parent = parent.getParentElement();
+        }
+        if (parent != null) {
+            form = ancestorForms.get(parent.getData());
+        }
+        for (int i = uncheckedElements.size() - 1; i >= 0; i--) {
+            HTMLDOMElement uncheckedElement = uncheckedElements.get(i);
+            if ((form == null)
+                    && (uncheckedElement.getTag() == HTMLTag.FORM)) {
+                form = uncheckedElement;
+            }
+            ancestorForms.put(uncheckedElement.getData(), form);
+        }
+        return form;
+    }
+}
@@ -13,12 +13,23 @@ limitations under the License.
  */
 package org.hatemile.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMNode;
+import org.hatemile.util.html.HTMLDOMParser;
 
 /**
  * The IDGenerator class generate ids for
- * {@link org.hatemile.util.html.HTMLDOMElement}.
+ * {@link org.hatemile.util.html.HTMLDOMElement}. The generator can be used by
+ * many threads at the same time.
  */
 public class IDGenerator {
 
@@ -27,6 +38,42 @@ public class IDGenerator {
      */
     public static final int MAXIMUM_RANDOM_STRING_LENGTH = 16;
 
+    /**
+     * The name of parameter of configuration that defines the mode of
+     * generators.
+     */
+    public static final String MODE_PARAMETER = "id-generator";
+
+    /**
+     * The value of mode parameter that generate the ids of the content of
+     * document and of the position of elements.
+     */
+    public static final String DOCUMENT_MODE = "document";
+
+    /**
+     * The names of parameters of configuration read by generators that are
+     * settings, not texts.
+     */
+    public static final List<String> SETTING_PARAMETERS =
+            Collections.singletonList(MODE_PARAMETER);
+
+    /**
+     * The offset basis of FNV-1a hash.
+     */
+    protected static final long HASH_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * The prime of FNV-1a hash.
+     */
+    private static final long HASH_PRIME = 0x100000001b3L;
+
+    /**
+     * The hash and the ids of each document in document mode, indexed by the
+     * native document of parser.
+     */
+    private static final Map<Object, DocumentIds> DOCUMENT_IDS =
+            new WeakHashMap<Object, DocumentIds>();
+
     /**
      * The prefix of generated ids.
      */
@@ -35,14 +82,26 @@ public class IDGenerator {
     /**
      * Count the number of ids created.
      */
-    private int count;
+    private final AtomicInteger count;
+
+    /**
+     * The hash of document, in document mode.
+     */
+    private final long documentHash;
+
+    /**
+     * The ids of document, in document mode, or null in random mode.
+     */
+    private final Set<String> ids;
 
     /**
      * Initializes a new object that generate ids for elements.
      */
     public IDGenerator() {
         prefixId = "id-hatemile-" + getRandom() + "-";
-        count = 0;
+        count = new AtomicInteger();
+        documentHash = 0;
+        ids = null;
     }
 
     /**
@@ -51,7 +110,78 @@ public class IDGenerator {
      */
     public IDGenerator(final String prefixPart) {
         prefixId = "id-hatemile-" + prefixPart + "-" + getRandom() + "-";
-        count = 0;
+        count = new AtomicInteger();
+        documentHash = 0;
+        ids = null;
+    }
+
+    /**
+     * Initializes a new object that generate ids for elements in document
+     * mode. The ids are created of a hash of document and of the position of
+     * each element, so the same document always receive the same ids, and are
+     * different of the ids that the document already has. The hash and the
+     * ids of document are computed by the first generator of the document and
+     * are shared by the next generators, so the ids generated by each
+     * generator are known by the others.
+     * @param prefixPart A part of prefix id.
+     * @param parser The HTML parser of document.
+     */
+    public IDGenerator(final String prefixPart, final HTMLDOMParser parser) {
+        DocumentIds documentIds = getDocumentIds(parser);
+        prefixId = "id-hatemile-" + prefixPart + "-";
+        count = new AtomicInteger();
+        documentHash = documentIds.hash;
+        ids = documentIds.ids;
+    }
+
+    /**
+     * Initializes a new object that generate ids for elements, with the prefix
+     * of other generator. The ids generated by the new generator only depend
+     * of the prefix part and of the order of elements, so independent parts
+     * of document can have its ids generated by different threads.
+     * @param parentGenerator The generator that have the prefix copied.
+     * @param prefixPart A part of prefix id.
+     */
+    public IDGenerator(final IDGenerator parentGenerator,
+            final String prefixPart) {
+        prefixId = parentGenerator.prefixId + prefixPart + "-";
+        count = new AtomicInteger();
+        documentHash = parentGenerator.documentHash;
+        ids = parentGenerator.ids;
+    }
+
+    /**
+     * Returns a generator of ids, in the mode defined by the configuration.
+     * @param prefixPart A part of prefix id.
+     * @param parser The HTML parser of document.
+     * @param configure The configuration of HaTeMiLe or null.
+     * @return The generator of ids.
+     */
+    public static IDGenerator getIDGenerator(final String prefixPart,
+            final HTMLDOMParser parser, final Configure configure) {
+        if ((configure != null) && (configure.hasParameter(MODE_PARAMETER))
+                && (configure.getParameter(MODE_PARAMETER)
+                    .equals(DOCUMENT_MODE))) {
+            return new IDGenerator(prefixPart, parser);
+        }
+        return new IDGenerator(prefixPart);
+    }
+
+    /**
+     * Returns the hash and the ids of the document of parser, computed when
+     * the first generator of document is created.
+     * @param parser The HTML parser of document.
+     * @return The hash and the ids of document.
+     */
+    private static DocumentIds getDocumentIds(final HTMLDOMParser parser) {
+        synchronized (DOCUMENT_IDS) {
+            DocumentIds documentIds = DOCUMENT_IDS.get(parser.getParser());
+            if (documentIds == null) {
+                documentIds = new DocumentIds(parser);
+                DOCUMENT_IDS.put(parser.getParser(), documentIds);
+            }
+            return documentIds;
+        }
     }
 
     /**
@@ -71,14 +201,97 @@ public class IDGenerator {
         return randomString;
     }
 
+    /**
+     * Returns the FNV-1a hash of a text.
+     * @param seed The initial value of hash.
+     * @param text The text.
+     * @return The hash of text.
+     */
+    protected static long hash(final long seed, final String text) {
+        long hash = seed;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            hash = (hash ^ text.charAt(i)) * HASH_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the path of a element, with the position of the element and of
+     * its ancestors.
+     * @param element The element.
+     * @return The path of element.
+     */
+    protected static String getPath(final HTMLDOMElement element) {
+        List<Integer> indexes = new ArrayList<Integer>();
+        HTMLDOMNode node = element;
+        while (node != null) {
+            indexes.add(node.getIndex());
+            node = node.getParentElement();
+        }
+        StringBuilder path = new StringBuilder();
+        for (int i = indexes.size() - 1; i >= 0; i--) {
+            path.append('/').append(indexes.get(i));
+        }
+        return path.toString();
+    }
+
+    /**
+     * Returns a new id for a element, without change the element.
+     * @param element The element.
+     * @return The new id.
+     */
+    public String createId(final HTMLDOMElement element) {
+        if (ids == null) {
+            return prefixId + Integer.toString(count.getAndIncrement());
+        }
+        String baseId = prefixId + Long.toHexString(
+                hash(documentHash, getPath(element)));
+        String id = baseId;
+        for (int i = 1; !ids.add(id); i++) {
+            id = baseId + "-" + Integer.toString(i);
+        }
+        return id;
+    }
+
     /**
      * Generate a id for a element.
      * @param element The element.
      */
     public void generateId(final HTMLDOMElement element) {
         if (!element.hasAttribute("id")) {
-            element.setAttribute("id", prefixId + Integer.toString(count));
-            count++;
+            element.setAttribute("id", createId(element));
+        }
+    }
+
+    /**
+     * The DocumentIds class keeps the hash and the ids of a document, shared
+     * by the generators of document in document mode.
+     */
+    private static final class DocumentIds {
+
+        /**
+         * The hash of document.
+         */
+        private final long hash;
+
+        /**
+         * The ids of document and the ids generated for the document.
+         */
+        private final Set<String> ids;
+
+        /**
+         * Initializes a new object with the hash and the ids of the document
+         * of parser.
+         * @param parser The HTML parser of document.
+         */
+        private DocumentIds(final HTMLDOMParser parser) {
+            hash = hash(HASH_OFFSET_BASIS, parser.getHTML());
+            ids = Collections.newSetFromMap(
+                    new ConcurrentHashMap<String, Boolean>());
+            for (HTMLDOMElement element : parser.find("[id]")
+                    .listResults()) {
+                ids.add(element.getAttribute("id"));
+            }
         }
     }
 }
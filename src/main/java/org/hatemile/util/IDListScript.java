@@ -0,0 +1,212 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The IDListScript class represents the content of a script with lists of ids
+ * of elements, used by the scripts of HaTeMiLe. The content has the
+ * declarations of lists followed by the assignments that add ids in lists,
+ * where each assignment concatenates a list with a JSON array of ids.
+ */
+public class IDListScript {
+
+    /**
+     * The radix of the hexadecimal digits of unicode escapes.
+     */
+    private static final int HEXADECIMAL_RADIX = 16;
+
+    /**
+     * The number of hexadecimal digits of an unicode escape.
+     */
+    private static final int UNICODE_ESCAPE_DIGITS = 4;
+
+    /**
+     * The declarations of lists.
+     */
+    protected final String declarations;
+
+    /**
+     * The names of lists of the assignments, in order of assignments.
+     */
+    protected final List<String> lists;
+
+    /**
+     * The ids added by the assignments, in order of assignments.
+     */
+    protected final List<List<String>> assignedIds;
+
+    /**
+     * Initializes a new content of script, without assignments.
+     * @param listDeclarations The declarations of lists.
+     */
+    public IDListScript(final String listDeclarations) {
+        declarations = listDeclarations;
+        lists = new ArrayList<String>();
+        assignedIds = new ArrayList<List<String>>();
+    }
+
+    /**
+     * Returns the assignment that adds ids in a list.
+     * @param list The name of list.
+     * @param ids The ids.
+     * @return The assignment.
+     */
+    public static String getAssignment(final String list,
+            final Collection<String> ids) {
+        return list + " = " + list + ".concat("
+                + CommonFunctions.toJSONArray(ids) + ");";
+    }
+
+    /**
+     * Returns the content of script parsed.
+     * @param content The content of script.
+     * @param listDeclarations The declarations of lists.
+     * @return The content of script parsed or null if the content not starts
+     * with the declarations or the assignments are not assignments of
+     * {@link #getAssignment(String, Collection)}.
+     */
+    public static IDListScript parse(final String content,
+            final String listDeclarations) {
+        if (!content.startsWith(listDeclarations)) {
+            return null;
+        }
+        IDListScript script = new IDListScript(listDeclarations);
+        int index = listDeclarations.length();
+        int length = content.length();
+        while (index < length) {
+            int end = content.indexOf(" = ", index);
+            if (end == -1) {
+                return null;
+            }
+            String list = content.substring(index, end);
+            String concatenation = " = " + list + ".concat([";
+            if (!content.startsWith(concatenation, end)) {
+                return null;
+            }
+            index = end + concatenation.length();
+            List<String> ids = new ArrayList<String>();
+            while ((index < length) && (content.charAt(index) != ']')) {
+                if ((!ids.isEmpty()) && (content.charAt(index++) != ',')) {
+                    return null;
+                }
+                StringBuilder id = new StringBuilder();
+                index = parseString(content, index, id);
+                if (index == -1) {
+                    return null;
+                }
+                ids.add(id.toString());
+            }
+            if (!content.startsWith("]);", index)) {
+                return null;
+            }
+            index += "]);".length();
+            script.addIds(list, ids);
+        }
+        return script;
+    }
+
+    /**
+     * Parse a JSON string of a content.
+     * @param content The content.
+     * @param index The index of the quote that starts the string.
+     * @param value The builder where the value of string is appended.
+     * @return The index after the quote that ends the string or -1 if the
+     * content not has a valid string in index.
+     */
+    private static int parseString(final String content, final int index,
+            final StringBuilder value) {
+        int length = content.length();
+        if ((index >= length) || (content.charAt(index) != '"')) {
+            return -1;
+        }
+        int i = index + 1;
+        while (i < length) {
+            char character = content.charAt(i++);
+            if (character == '"') {
+                return i;
+            } else if (character != '\\') {
+                value.append(character);
+            } else if (i >= length) {
+                return -1;
+            } else if (content.charAt(i) == 'u') {
+                if (i + UNICODE_ESCAPE_DIGITS >= length) {
+                    return -1;
+                }
+                int code = 0;
+                for (int j = 1; j <= UNICODE_ESCAPE_DIGITS; j++) {
+                    int digit = Character.digit(content.charAt(i + j),
+                            HEXADECIMAL_RADIX);
+                    if (digit == -1) {
+                        return -1;
+                    }
+                    code = (code * HEXADECIMAL_RADIX) + digit;
+                }
+                value.append((char) code);
+                i += UNICODE_ESCAPE_DIGITS + 1;
+            } else {
+                value.append(content.charAt(i++));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add an assignment that adds ids in a list.
+     * @param list The name of list.
+     * @param ids The ids.
+     */
+    public void addIds(final String list, final List<String> ids) {
+        lists.add(list);
+        assignedIds.add(new ArrayList<String>(ids));
+    }
+
+    /**
+     * Remove ids of all lists, and the assignments that not add ids after the
+     * removal.
+     * @param ids The ids removed.
+     * @return True if the content of script was changed or false if the
+     * content of script was not changed.
+     */
+    public boolean removeIds(final Collection<String> ids) {
+        boolean changed = false;
+        for (int i = assignedIds.size() - 1; i >= 0; i--) {
+            List<String> listIds = assignedIds.get(i);
+            if (listIds.removeAll(ids)) {
+                changed = true;
+                if (listIds.isEmpty()) {
+                    lists.remove(i);
+                    assignedIds.remove(i);
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the content of script.
+     * @return The content of script.
+     */
+    @Override
+    public String toString() {
+        StringBuilder content = new StringBuilder(declarations);
+        for (int i = 0, size = lists.size(); i < size; i++) {
+            content.append(getAssignment(lists.get(i), assignedIds.get(i)));
+        }
+        return content.toString();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The LRUCache class is a thread-safe cache with maximum size, that discard
+ * the least recently used entries.
+ * @param <K> The type of keys.
+ * @param <V> The type of values.
+ */
+public class LRUCache<K, V> {
+
+    /**
+     * The initial capacity of map of entries.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The load factor of map of entries.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The maximum number of entries.
+     */
+    protected final int maximumSize;
+
+    /**
+     * The entries of cache, in access order.
+     */
+    private final Map<K, V> entries;
+
+    /**
+     * Initializes a new cache.
+     * @param maximumNumberOfEntries The maximum number of entries.
+     */
+    public LRUCache(final int maximumNumberOfEntries) {
+        if (maximumNumberOfEntries < 1) {
+            throw new IllegalArgumentException(
+                    "The maximum size of cache must be positive.");
+        }
+        maximumSize = maximumNumberOfEntries;
+        entries = new LinkedHashMap<K, V>(INITIAL_CAPACITY, LOAD_FACTOR,
+                true) {
+
+            /**
+             * The serial version of map.
+             */
+            private static final long serialVersionUID = 1L;
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<K, V> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value of a key.
+     * @param key The key.
+     * @return The value of the key or null if the cache not contains the key.
+     */
+    public synchronized V get(final K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Store the value of a key, discarding the least recently used entry if
+     * the cache is full.
+     * @param key The key.
+     * @param value The value.
+     */
+    public synchronized void put(final K key, final V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Store the value of a key, if the cache not contains the key.
+     * @param key The key.
+     * @param value The value.
+     * @return The value of the key in cache or the value passed, if the cache
+     * not contained the key.
+     */
+    public synchronized V putIfAbsent(final K key, final V value) {
+        V previousValue = entries.get(key);
+        if (previousValue != null) {
+            return previousValue;
+        }
+        entries.put(key, value);
+        return value;
+    }
+
+    /**
+     * Remove the value of a key.
+     * @param key The key.
+     * @return The removed value or null if the cache not contains the key.
+     */
+    public synchronized V remove(final K key) {
+        return entries.remove(key);
+    }
+
+    /**
+     * Returns the number of entries of cache.
+     * @return The number of entries of cache.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove all entries of cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,186 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMParser;
+
+/**
+ * The LabelIndex class index the labels of the fields of a document, by the
+ * for attribute and by the fields inside the labels. Each index is created
+ * by the method that display or associate all elements and is discarded at
+ * the end of method, so that it never reflects an older document.
+ */
+public class LabelIndex {
+
+    /**
+     * The positions of labels in document, indexed by data of label.
+     */
+    protected final Map<Object, Integer> labelPositions;
+
+    /**
+     * The labels with for attribute, indexed by the for attribute in lowercase
+     * letters.
+     */
+    protected final Map<String, List<HTMLDOMElement>> labelsByFor;
+
+    /**
+     * The for attribute in lowercase letters of labels, indexed by data of
+     * label.
+     */
+    protected final Map<Object, String> labelFors;
+
+    /**
+     * The labels that contains each field, indexed by data of field.
+     */
+    protected final Map<Object, List<HTMLDOMElement>> wrappingLabels;
+
+    /**
+     * The first field inside each label, indexed by data of label.
+     */
+    protected final Map<Object, HTMLDOMElement> wrappedFields;
+
+    /**
+     * Initializes a new object that index the labels of the fields of the
+     * document of parser.
+     * @param parser The HTML parser.
+     */
+    public LabelIndex(final HTMLDOMParser parser) {
+        labelPositions = new IdentityHashMap<Object, Integer>();
+        labelsByFor = new HashMap<String, List<HTMLDOMElement>>();
+        labelFors = new IdentityHashMap<Object, String>();
+        wrappingLabels = new IdentityHashMap<Object, List<HTMLDOMElement>>();
+        wrappedFields = new IdentityHashMap<Object, HTMLDOMElement>();
+
+        Map<Object, HTMLDOMElement> labels =
+                new IdentityHashMap<Object, HTMLDOMElement>();
+        for (HTMLDOMElement label : parser.find("label").listResults()) {
+            labels.put(label.getData(), label);
+            updateLabel(label);
+        }
+
+        List<HTMLDOMElement> fields = parser.find("input,select,textarea")
+                .listResults();
+        for (HTMLDOMElement field : fields) {
+            List<HTMLDOMElement> ancestors = new ArrayList<HTMLDOMElement>();
+            HTMLDOMElement parent = field.getParentElement();
+            while (parent != null) {
+                HTMLDOMElement label = labels.get(parent.getData());
+                if (label != null) {
+                    ancestors.add(0, label);
+                    if (!wrappedFields.containsKey(label.getData())) {
+                        wrappedFields.put(label.getData(), field);
+                    }
+                }
+                parent = parent.getParentElement();
+            }
+            wrappingLabels.put(field.getData(),
+                    Collections.unmodifiableList(ancestors));
+        }
+    }
+
+    /**
+     * Index the for attribute of a label again.
+     * @param label The label.
+     */
+    public final synchronized void updateLabel(final HTMLDOMElement label) {
+        Object data = label.getData();
+        Integer position = labelPositions.get(data);
+        if (position == null) {
+            position = labelPositions.size();
+            labelPositions.put(data, position);
+        }
+
+        String previousFor = labelFors.remove(data);
+        if (previousFor != null) {
+            labelsByFor.get(previousFor).remove(label);
+        }
+        if (label.hasAttribute("for")) {
+            String labelFor = label.getAttribute("for").toLowerCase();
+            List<HTMLDOMElement> labels = labelsByFor.get(labelFor);
+            if (labels == null) {
+                labels = new ArrayList<HTMLDOMElement>();
+                labelsByFor.put(labelFor, labels);
+            }
+            int index = labels.size();
+            while ((index > 0) && (labelPositions.get(labels.get(index - 1)
+                    .getData()) > position)) {
+                index--;
+            }
+            labels.add(index, label);
+            labelFors.put(data, labelFor);
+        }
+    }
+
+    /**
+     * Check that the index has a field.
+     * @param field The field.
+     * @return True if the field was indexed or false if the field was not
+     * indexed.
+     */
+    public synchronized boolean hasField(final HTMLDOMElement field) {
+        return wrappingLabels.containsKey(field.getData());
+    }
+
+    /**
+     * Check that the index has a label.
+     * @param label The label.
+     * @return True if the label was indexed or false if the label was not
+     * indexed.
+     */
+    public synchronized boolean hasLabel(final HTMLDOMElement label) {
+        return labelPositions.containsKey(label.getData());
+    }
+
+    /**
+     * Returns the labels of a field, the labels with for attribute equals to
+     * the id of field or, if the field not has these labels, the labels that
+     * contains the field.
+     * @param field The field.
+     * @return The labels of field, in document order.
+     */
+    public synchronized List<HTMLDOMElement> getLabels(
+            final HTMLDOMElement field) {
+        if (field.hasAttribute("id")) {
+            List<HTMLDOMElement> labels = labelsByFor.get(field
+                    .getAttribute("id").toLowerCase());
+            if ((labels != null) && (!labels.isEmpty())) {
+                return Collections.unmodifiableList(
+                        new ArrayList<HTMLDOMElement>(labels));
+            }
+        }
+        List<HTMLDOMElement> labels = wrappingLabels.get(field.getData());
+        if (labels == null) {
+            return Collections.emptyList();
+        }
+        return labels;
+    }
+
+    /**
+     * Returns the first field inside a label.
+     * @param label The label.
+     * @return The first field inside the label or null if the label not
+     * contains fields.
+     */
+    public synchronized HTMLDOMElement getWrappedField(
+            final HTMLDOMElement label) {
+        return wrappedFields.get(label.getData());
+    }
+}
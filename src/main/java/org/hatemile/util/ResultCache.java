@@ -0,0 +1,650 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * The ResultCache class is an optional cache of the HTML code produced by
+ * the solutions for whole documents, indexed by a SHA-256 hash of the inputs:
+ * the HTML code, the CSS code, the configuration, the browser family, the
+ * solutions executed and the version of HaTeMiLe. The results are kept in
+ * memory and, optionally, in files of a directory, read by memory mapping, and
+ * both tiers discard the least recently used results when they exceed their
+ * maximum number of bytes. Only the files named by keys are used, so the
+ * directory can have other files. The cached
+ * result is equal to a new processing only if the ids are deterministic, with
+ * the {@link IDGenerator#DOCUMENT_MODE} of id generators. The cache can be used
+ * by many threads at the same time.
+ */
+public class ResultCache {
+
+    /**
+     * The number of bytes of each character of results kept in memory.
+     */
+    private static final int CHARACTER_BYTES = 2;
+
+    /**
+     * The maximum number of hashes of configurations kept.
+     */
+    private static final int MAXIMUM_CONFIGURATIONS = 16;
+
+    /**
+     * The initial capacity of map of files.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The load factor of map of files.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The extension of files of results.
+     */
+    private static final String FILE_EXTENSION = ".html";
+
+    /**
+     * The extension of files of results that are being written.
+     */
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    /**
+     * The pattern of the names of files of results, without extension, that
+     * are the keys returned by {@link #getKey}.
+     */
+    private static final Pattern KEY_PATTERN = Pattern.compile(
+            "[0-9a-f]{64}");
+
+    /**
+     * The pattern of the names of files of results that are being written,
+     * with the key and the id of thread that writes the file.
+     */
+    private static final Pattern TEMPORARY_FILE_PATTERN = Pattern.compile(
+            "[0-9a-f]{64}-[0-9]+\\" + TEMPORARY_FILE_EXTENSION);
+
+    /**
+     * The charset of files of results.
+     */
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * The hashes of configurations, indexed by parameters.
+     */
+    private static final LRUCache<ConfigureSnapshot, String> CONFIGURATIONS =
+            new LRUCache<ConfigureSnapshot, String>(MAXIMUM_CONFIGURATIONS);
+
+    /**
+     * The version of HaTeMiLe, that changes the results of same inputs, or
+     * null if the version is unknown.
+     */
+    private static final String VERSION = ResultCache.class.getPackage()
+            .getImplementationVersion();
+
+    /**
+     * The maximum number of bytes of results kept in memory.
+     */
+    protected final long maximumMemorySize;
+
+    /**
+     * The results kept in memory, indexed by key, in access order.
+     */
+    private final Map<String, String> memoryResults;
+
+    /**
+     * The number of bytes of results kept in memory.
+     */
+    private long memorySize;
+
+    /**
+     * The directory of files of results or null if the results are kept only
+     * in memory.
+     */
+    protected final Path directory;
+
+    /**
+     * The maximum number of bytes of files of results.
+     */
+    protected final long maximumDiskSize;
+
+    /**
+     * The size of files of results, indexed by key, in access order.
+     */
+    private final Map<String, Long> diskResults;
+
+    /**
+     * The number of bytes of files of results.
+     */
+    private long diskSize;
+
+    /**
+     * The number of results found in memory.
+     */
+    private final AtomicLong memoryHits;
+
+    /**
+     * The number of results found in files.
+     */
+    private final AtomicLong diskHits;
+
+    /**
+     * The number of results not found.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * Initializes a new cache that keeps the results in memory.
+     * @param maximumMemoryBytes The maximum number of bytes of results kept in
+     * memory.
+     */
+    public ResultCache(final long maximumMemoryBytes) {
+        if (maximumMemoryBytes < 1) {
+            throw new IllegalArgumentException(
+                    "The maximum size of memory must be positive.");
+        }
+        maximumMemorySize = maximumMemoryBytes;
+        memoryResults = new LinkedHashMap<String, String>(INITIAL_CAPACITY,
+                LOAD_FACTOR, true);
+        directory = null;
+        maximumDiskSize = 0;
+        diskResults = null;
+        memoryHits = new AtomicLong();
+        diskHits = new AtomicLong();
+        misses = new AtomicLong();
+    }
+
+    /**
+     * Initializes a new cache that keeps the results in memory and in files
+     * of a directory. The results that the directory already has are used.
+     * @param maximumMemoryBytes The maximum number of bytes of results kept in
+     * memory.
+     * @param cacheDirectory The directory of files of results.
+     * @param maximumDiskBytes The maximum number of bytes of files of results.
+     * @throws IOException If the directory cannot be created or read.
+     */
+    public ResultCache(final long maximumMemoryBytes,
+            final File cacheDirectory, final long maximumDiskBytes)
+            throws IOException {
+        if ((maximumMemoryBytes < 1) || (maximumDiskBytes < 1)) {
+            throw new IllegalArgumentException(
+                    "The maximum sizes of memory and files must be positive.");
+        }
+        maximumMemorySize = maximumMemoryBytes;
+        memoryResults = new LinkedHashMap<String, String>(INITIAL_CAPACITY,
+                LOAD_FACTOR, true);
+        directory = Files.createDirectories(cacheDirectory.toPath());
+        maximumDiskSize = maximumDiskBytes;
+        diskResults = new LinkedHashMap<String, Long>(INITIAL_CAPACITY,
+                LOAD_FACTOR, true);
+        memoryHits = new AtomicLong();
+        diskHits = new AtomicLong();
+        misses = new AtomicLong();
+        loadFiles();
+    }
+
+    /**
+     * Index the files of results that the directory has, from the least
+     * recently used, and delete the files of results that were being written.
+     * The other files of directory are ignored.
+     * @throws IOException If the directory cannot be read.
+     */
+    private void loadFiles() throws IOException {
+        File[] files = directory.toFile().listFiles();
+        if (files == null) {
+            throw new IOException("The directory " + directory
+                    + " cannot be read.");
+        }
+        List<File> resultFiles = new ArrayList<File>();
+        for (File file : files) {
+            String name = file.getName();
+            if ((name.endsWith(FILE_EXTENSION)) && (isKey(name.substring(0,
+                    name.length() - FILE_EXTENSION.length())))
+                    && (file.isFile())) {
+                resultFiles.add(file);
+            } else if ((TEMPORARY_FILE_PATTERN.matcher(name).matches())
+                    && (file.isFile())) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+        Collections.sort(resultFiles, new Comparator<File>() {
+            /** {@inheritDoc} */
+            @Override
+            public int compare(final File file1, final File file2) {
+                return Long.compare(file1.lastModified(),
+                        file2.lastModified());
+            }
+        });
+        synchronized (diskResults) {
+            for (File file : resultFiles) {
+                String name = file.getName();
+                long size = file.length();
+                diskResults.put(name.substring(0, name.length()
+                        - FILE_EXTENSION.length()), size);
+                diskSize += size;
+            }
+            discardFiles();
+        }
+    }
+
+    /**
+     * Returns the key of the result of a document.
+     * @param html The HTML code of document.
+     * @param css The CSS code of document or null.
+     * @param configure The configuration of HaTeMiLe.
+     * @param family The browser family.
+     * @param solutions The names of the solutions executed in document, in
+     * the order of execution, like the names of methods.
+     * @return The key of result, with 64 hexadecimal digits.
+     */
+    public static String getKey(final String html, final String css,
+            final Configure configure, final BrowserFamily family,
+            final Collection<String> solutions) {
+        String configurationHash = getConfigurationHash(
+                configure.getSnapshot());
+        MessageDigest digest = Digests.create();
+        Digests.update(digest, Objects.requireNonNull(html));
+        Digests.update(digest, css);
+        Digests.update(digest, configurationHash);
+        Digests.update(digest, family.name());
+        Digests.update(digest, VERSION);
+        Digests.update(digest, Integer.toString(solutions.size()));
+        for (String solution : solutions) {
+            Digests.update(digest, Objects.requireNonNull(
+                    solution));
+        }
+        return Digests.getHash(digest);
+    }
+
+    /**
+     * Returns the hash of the parameters of a configuration.
+     * @param parameters The parameters of configuration.
+     * @return The hash of parameters.
+     */
+    private static String getConfigurationHash(
+            final ConfigureSnapshot parameters) {
+        String configurationHash = CONFIGURATIONS.get(parameters);
+        if (configurationHash == null) {
+            MessageDigest digest = Digests.create();
+            for (Map.Entry<String, String> parameter : new TreeMap<String,
+                    String>(parameters.getParameters()).entrySet()) {
+                Digests.update(digest, parameter.getKey());
+                Digests.update(digest, parameter.getValue());
+            }
+            configurationHash = Digests.getHash(digest);
+            CONFIGURATIONS.put(parameters, configurationHash);
+        }
+        return configurationHash;
+    }
+
+    /**
+     * Returns the number of bytes of a result kept in memory.
+     * @param result The result.
+     * @return The number of bytes of result.
+     */
+    private static long getMemorySize(final String result) {
+        return (long) result.length() * CHARACTER_BYTES;
+    }
+
+    /**
+     * Check that a text is a key returned by {@link #getKey}, that can be
+     * the name of a file of result.
+     * @param key The text.
+     * @return True if the text is a key or false if the text is other text.
+     */
+    private static boolean isKey(final String key) {
+        return KEY_PATTERN.matcher(key).matches();
+    }
+
+    /**
+     * Returns the file of a result.
+     * @param key The key of result.
+     * @return The file of result.
+     */
+    private Path getFile(final String key) {
+        return directory.resolve(key + FILE_EXTENSION);
+    }
+
+    /**
+     * Returns a result.
+     * @param key The key of result.
+     * @return The result or null if the cache not contains the result.
+     */
+    public String get(final String key) {
+        String result;
+        synchronized (memoryResults) {
+            result = memoryResults.get(key);
+        }
+        if (result != null) {
+            memoryHits.incrementAndGet();
+            return result;
+        }
+        if (directory != null) {
+            result = readFile(key);
+            if (result != null) {
+                putMemory(key, result);
+                diskHits.incrementAndGet();
+                return result;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Returns a result read of its file, by memory mapping.
+     * @param key The key of result.
+     * @return The result or null if the result has no file.
+     */
+    private String readFile(final String key) {
+        synchronized (diskResults) {
+            if (diskResults.get(key) == null) {
+                return null;
+            }
+        }
+        Path file = getFile(key);
+        try {
+            String result;
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.READ);
+            try {
+                MappedByteBuffer buffer = channel.map(
+                        FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                result = CHARSET.decode(buffer).toString();
+            } finally {
+                channel.close();
+            }
+            Files.setLastModifiedTime(file,
+                    FileTime.fromMillis(System.currentTimeMillis()));
+            return result;
+        } catch (NoSuchFileException ex) {
+            removeFile(key, false);
+        } catch (IOException ex) {
+            Logger.getLogger(ResultCache.class.getName()).log(Level.WARNING,
+                    null, ex);
+        }
+        return null;
+    }
+
+    /**
+     * Store a result, discarding the least recently used results if the cache
+     * is full. Only the results of keys returned by {@link #getKey} are
+     * written in files, the results of other keys are kept only in memory.
+     * @param key The key of result.
+     * @param result The result.
+     */
+    public void put(final String key, final String result) {
+        putMemory(key, Objects.requireNonNull(result));
+        if ((directory != null) && (isKey(key))) {
+            writeFile(key, result);
+        }
+    }
+
+    /**
+     * Keep a result in memory, discarding the least recently used results
+     * while the results have more bytes than the maximum. A result with more
+     * bytes than the maximum is not kept.
+     * @param key The key of result.
+     * @param result The result.
+     */
+    private void putMemory(final String key, final String result) {
+        long size = getMemorySize(result);
+        synchronized (memoryResults) {
+            String previousResult = memoryResults.remove(key);
+            if (previousResult != null) {
+                memorySize -= getMemorySize(previousResult);
+            }
+            if (size > maximumMemorySize) {
+                return;
+            }
+            memoryResults.put(key, result);
+            memorySize += size;
+            Iterator<Map.Entry<String, String>> iterator = memoryResults
+                    .entrySet().iterator();
+            while (memorySize > maximumMemorySize) {
+                memorySize -= getMemorySize(iterator.next().getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove a result of memory.
+     * @param key The key of result.
+     */
+    private void removeMemory(final String key) {
+        synchronized (memoryResults) {
+            String result = memoryResults.remove(key);
+            if (result != null) {
+                memorySize -= getMemorySize(result);
+            }
+        }
+    }
+
+    /**
+     * Write the file of a result. The file is written with other name and
+     * renamed, so that partial files are never read.
+     * @param key The key of result.
+     * @param result The result.
+     */
+    private void writeFile(final String key, final String result) {
+        byte[] bytes = result.getBytes(CHARSET);
+        if (bytes.length > maximumDiskSize) {
+            return;
+        }
+        Path temporaryFile = directory.resolve(key + "-"
+                + Thread.currentThread().getId() + TEMPORARY_FILE_EXTENSION);
+        try {
+            Files.write(temporaryFile, bytes);
+            synchronized (diskResults) {
+                Files.move(temporaryFile, getFile(key),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                Long previousSize = diskResults.put(key,
+                        (long) bytes.length);
+                if (previousSize != null) {
+                    diskSize -= previousSize;
+                }
+                diskSize += bytes.length;
+                discardFiles();
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(ResultCache.class.getName()).log(Level.WARNING,
+                    null, ex);
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException deleteException) {
+                Logger.getLogger(ResultCache.class.getName()).log(
+                        Level.WARNING, null, deleteException);
+            }
+        }
+    }
+
+    /**
+     * Remove the least recently used files of results, while the files have
+     * more bytes than the maximum. The caller must hold the lock of files.
+     */
+    private void discardFiles() {
+        Iterator<Map.Entry<String, Long>> iterator = diskResults.entrySet()
+                .iterator();
+        while ((diskSize > maximumDiskSize) && (iterator.hasNext())) {
+            Map.Entry<String, Long> entry = iterator.next();
+            iterator.remove();
+            diskSize -= entry.getValue();
+            try {
+                Files.deleteIfExists(getFile(entry.getKey()));
+            } catch (IOException ex) {
+                Logger.getLogger(ResultCache.class.getName()).log(
+                        Level.WARNING, null, ex);
+            }
+        }
+    }
+
+    /**
+     * Remove the file of a result of the index and, optionally, of the
+     * directory.
+     * @param key The key of result.
+     * @param delete True if the file must be deleted or false if the file was
+     * already deleted.
+     */
+    private void removeFile(final String key, final boolean delete) {
+        synchronized (diskResults) {
+            Long size = diskResults.remove(key);
+            if (size != null) {
+                diskSize -= size;
+                if (delete) {
+                    try {
+                        Files.deleteIfExists(getFile(key));
+                    } catch (IOException ex) {
+                        Logger.getLogger(ResultCache.class.getName()).log(
+                                Level.WARNING, null, ex);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the result of a key, created by a transformation if the cache
+     * not contains the result.
+     * @param key The key of result.
+     * @param transformation The transformation that returns the result, that
+     * is executed only if the cache not contains the result.
+     * @return The result.
+     */
+    public String getResult(final String key,
+            final Supplier<String> transformation) {
+        String result = get(key);
+        if (result == null) {
+            result = transformation.get();
+            put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Remove a result.
+     * @param key The key of result.
+     */
+    public void remove(final String key) {
+        removeMemory(key);
+        if (directory != null) {
+            removeFile(key, true);
+        }
+    }
+
+    /**
+     * Remove all results, in memory and in files.
+     */
+    public void clear() {
+        synchronized (memoryResults) {
+            memoryResults.clear();
+            memorySize = 0;
+        }
+        if (directory != null) {
+            synchronized (diskResults) {
+                for (String key : new ArrayList<String>(diskResults
+                        .keySet())) {
+                    removeFile(key, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of results found in memory.
+     * @return The number of results found in memory.
+     */
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    /**
+     * Returns the number of results found in files.
+     * @return The number of results found in files.
+     */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * Returns the number of results not found.
+     * @return The number of results not found.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the rate of results found, in memory or in files.
+     * @return The rate of results found, between 0 and 1, or 0 if no result
+     * was requested.
+     */
+    public double getHitRate() {
+        long hits = memoryHits.get() + diskHits.get();
+        long requests = hits + misses.get();
+        if (requests == 0) {
+            return 0;
+        }
+        return (double) hits / requests;
+    }
+
+    /**
+     * Returns the number of bytes of results kept in memory.
+     * @return The number of bytes of results kept in memory.
+     */
+    public long getMemorySize() {
+        synchronized (memoryResults) {
+            return memorySize;
+        }
+    }
+
+    /**
+     * Returns the number of bytes of files of results.
+     * @return The number of bytes of files of results.
+     */
+    public long getDiskSize() {
+        if (directory == null) {
+            return 0;
+        }
+        synchronized (diskResults) {
+            return diskSize;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMParser;
+
+/**
+ * The ScriptResource class represents a Javascript file used by solutions,
+ * loaded once by JVM. The scripts can be included in documents inline or as
+ * references to files with the hash of content in the name, that can be
+ * cached by browsers and content delivery networks.
+ */
+public final class ScriptResource {
+
+    /**
+     * The name of parameter of configuration that defines how the scripts are
+     * included in documents.
+     */
+    public static final String MODE_PARAMETER = "script-mode";
+
+    /**
+     * The value of mode parameter that include references to the script
+     * files, instead of the content of scripts.
+     */
+    public static final String EXTERNAL_MODE = "external";
+
+    /**
+     * The name of parameter of configuration that defines the URL of
+     * directory of script files, in external mode.
+     */
+    public static final String URL_PARAMETER = "script-url";
+
+    /**
+     * The names of parameters of configuration read by scripts that are
+     * settings, not texts.
+     */
+    public static final List<String> SETTING_PARAMETERS =
+            Collections.unmodifiableList(Arrays.asList(MODE_PARAMETER,
+                URL_PARAMETER));
+
+    /**
+     * The Javascript files used by solutions.
+     */
+    public static final List<String> SCRIPT_FILES = Collections
+            .unmodifiableList(Arrays.asList("/js/common.js",
+                "/js/eventlistener.js", "/js/include.js",
+                "/js/validation.js"));
+
+    /**
+     * The number of bytes of hash used in name of files.
+     */
+    private static final int HASH_BYTES = 8;
+
+    /**
+     * The mask of a byte.
+     */
+    private static final int BYTE_MASK = 0xff;
+
+    /**
+     * The charset of script files.
+     */
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * The scripts loaded, indexed by the name of resource.
+     */
+    private static final ConcurrentMap<String, ScriptResource> SCRIPTS =
+            new ConcurrentHashMap<String, ScriptResource>();
+
+    /**
+     * The content of script.
+     */
+    private final String content;
+
+    /**
+     * The name of script file, with the hash of content.
+     */
+    private final String fileName;
+
+    /**
+     * Initializes a new script.
+     * @param resource The name of resource of script.
+     */
+    private ScriptResource(final String resource) {
+        content = readResource(resource);
+        String name = resource.substring(resource.lastIndexOf('/') + 1);
+        int extensionIndex = name.lastIndexOf('.');
+        if (extensionIndex == -1) {
+            extensionIndex = name.length();
+        }
+        fileName = name.substring(0, extensionIndex) + "." + getHash(content)
+                + name.substring(extensionIndex);
+    }
+
+    /**
+     * Returns a script, loaded in first use.
+     * @param resource The name of resource of script.
+     * @return The script.
+     */
+    public static ScriptResource getScriptResource(final String resource) {
+        ScriptResource script = SCRIPTS.get(resource);
+        if (script == null) {
+            script = new ScriptResource(resource);
+            ScriptResource previousScript = SCRIPTS.putIfAbsent(resource,
+                    script);
+            if (previousScript != null) {
+                script = previousScript;
+            }
+        }
+        return script;
+    }
+
+    /**
+     * Returns the URL of directory of script files, if the configuration
+     * defines the external mode.
+     * @param configure The configuration of HaTeMiLe or null.
+     * @return The URL of directory of script files or null if the scripts
+     * are included inline.
+     */
+    public static String getScriptURL(final Configure configure) {
+        if ((configure != null) && (configure.hasParameter(MODE_PARAMETER))
+                && (configure.getParameter(MODE_PARAMETER)
+                    .equals(EXTERNAL_MODE))) {
+            String url = "";
+            if (configure.hasParameter(URL_PARAMETER)) {
+                url = configure.getParameter(URL_PARAMETER);
+            }
+            if ((!url.isEmpty()) && (!url.endsWith("/"))) {
+                url += "/";
+            }
+            return url;
+        }
+        return null;
+    }
+
+    /**
+     * Write the files of scripts used by solutions, with the names referenced
+     * in external mode.
+     * @param directory The directory of files.
+     * @throws IOException If a file cannot be written.
+     */
+    public static void writeScriptFiles(final File directory)
+            throws IOException {
+        for (String resource : SCRIPT_FILES) {
+            ScriptResource script = getScriptResource(resource);
+            OutputStream outputStream = new FileOutputStream(new File(
+                    directory, script.getFileName()));
+            try {
+                outputStream.write(script.getContent().getBytes(CHARSET));
+            } finally {
+                outputStream.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the content of a resource, with a line break after each line.
+     * @param resource The name of resource.
+     * @return The content of resource.
+     */
+    private static String readResource(final String resource) {
+        InputStream inputStream = ScriptResource.class
+                .getResourceAsStream(resource);
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Can't find script "
+                    + resource);
+        }
+        StringBuilder stringBuilder = new StringBuilder();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    inputStream, CHARSET));
+            try {
+                String line = reader.readLine();
+                while (line != null) {
+                    stringBuilder.append(line).append("\n");
+                    line = reader.readLine();
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Returns the beginning of SHA-256 hash of a text, in hexadecimal.
+     * @param text The text.
+     * @return The hash of text.
+     */
+    private static String getHash(final String text) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(
+                    text.getBytes(CHARSET));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        StringBuilder hash = new StringBuilder();
+        for (int i = 0; i < HASH_BYTES; i++) {
+            String digit = Integer.toHexString(digest[i] & BYTE_MASK);
+            if (digit.length() == 1) {
+                hash.append('0');
+            }
+            hash.append(digit);
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Returns the content of script.
+     * @return The content of script.
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the name of script file, with the hash of content, like
+     * common.0123456789abcdef.js.
+     * @return The name of script file.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Create a script element with this script.
+     * @param parser The HTML parser.
+     * @param id The id of script element.
+     * @param scriptURL The URL of directory of script files or null to
+     * include the content of script.
+     * @return The script element.
+     */
+    public HTMLDOMElement createElement(final HTMLDOMParser parser,
+            final String id, final String scriptURL) {
+        HTMLDOMElement script = parser.createElement("script");
+        script.setAttribute("id", id);
+        script.setAttribute("type", "text/javascript");
+        if (scriptURL == null) {
+            script.appendText(content);
+        } else {
+            script.setAttribute("src", scriptURL + fileName);
+        }
+        return script;
+    }
+}
@@ -0,0 +1,328 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMNode;
+import org.hatemile.util.html.HTMLTag;
+
+/**
+ * The SourceTree class contains the hashes of an element and of each
+ * descendant of the source of a document, before the changes of HaTeMiLe, to
+ * find the elements changed between two versions of document. The hash of
+ * each element is created of its tag, its attributes and the hashes of its
+ * children, like a Merkle tree, so the unchanged subtrees are compared once.
+ */
+public final class SourceTree {
+
+    /**
+     * The name of text nodes, that starts the hashes of texts, so that the
+     * texts are not confused with elements.
+     */
+    private static final String TEXT_NODE_NAME = "#text";
+
+    /**
+     * The SourceTree.Change class contains an element of previous version
+     * of document and the element that replaces it in the current version.
+     */
+    public static final class Change {
+
+        /**
+         * The node of previous version.
+         */
+        private final SourceTree previous;
+
+        /**
+         * The node of current version.
+         */
+        private final SourceTree current;
+
+        /**
+         * Initializes a new change.
+         * @param previousNode The node of previous version.
+         * @param currentNode The node of current version.
+         */
+        private Change(final SourceTree previousNode,
+                final SourceTree currentNode) {
+            previous = previousNode;
+            current = currentNode;
+        }
+
+        /**
+         * Returns the node of previous version.
+         * @return The node of previous version.
+         */
+        public SourceTree getPrevious() {
+            return previous;
+        }
+
+        /**
+         * Returns the node of current version.
+         * @return The node of current version.
+         */
+        public SourceTree getCurrent() {
+            return current;
+        }
+    }
+
+    /**
+     * The element of node or null if the node is a text node.
+     */
+    private HTMLDOMElement element;
+
+    /**
+     * The tag of element or null if the node is a text node.
+     */
+    private final HTMLTag tag;
+
+    /**
+     * The hash of the tag and of the attributes of element or the hash of
+     * text.
+     */
+    private String ownHash;
+
+    /**
+     * The hash of node and descendants.
+     */
+    private String hash;
+
+    /**
+     * The number of elements of node and descendants.
+     */
+    private int size;
+
+    /**
+     * The children of node.
+     */
+    private final List<SourceTree> children;
+
+    /**
+     * Initializes a new tree of the source of an element and its descendants.
+     * @param root The root element.
+     */
+    public SourceTree(final HTMLDOMElement root) {
+        this(root, root.getTag());
+        MessageDigest digest = Digests.create();
+        List<SourceTree> nodes = new ArrayList<SourceTree>();
+        List<List<HTMLDOMNode>> nodeChildren =
+                new ArrayList<List<HTMLDOMNode>>();
+        nodes.add(this);
+        nodeChildren.add(root.getChildren());
+        while (!nodes.isEmpty()) {
+            int last = nodes.size() - 1;
+            SourceTree node = nodes.get(last);
+            List<HTMLDOMNode> childNodes = nodeChildren.get(last);
+            int index = node.children.size();
+            if (index < childNodes.size()) {
+                HTMLDOMNode childNode = childNodes.get(index);
+                if (childNode instanceof HTMLDOMElement) {
+                    HTMLDOMElement childElement = (HTMLDOMElement) childNode;
+                    SourceTree child = new SourceTree(childElement,
+                            childElement.getTag());
+                    node.children.add(child);
+                    nodes.add(child);
+                    nodeChildren.add(childElement.getChildren());
+                } else {
+                    SourceTree child = new SourceTree(null, null);
+                    Digests.update(digest, TEXT_NODE_NAME);
+                    Digests.update(digest,
+                            childNode.getTextContent());
+                    child.ownHash = Digests.getHash(digest);
+                    child.hash = child.ownHash;
+                    node.children.add(child);
+                }
+            } else {
+                node.finish(digest);
+                nodes.remove(last);
+                nodeChildren.remove(last);
+            }
+        }
+    }
+
+    /**
+     * Initializes a new node.
+     * @param nodeElement The element of node or null if the node is a text
+     * node.
+     * @param nodeTag The tag of element or null if the node is a text node.
+     */
+    private SourceTree(final HTMLDOMElement nodeElement,
+            final HTMLTag nodeTag) {
+        element = nodeElement;
+        tag = nodeTag;
+        size = 0;
+        children = new ArrayList<SourceTree>();
+    }
+
+    /**
+     * Create the hashes of element, after the creation of the children.
+     * @param digest The digest used by the hashes.
+     */
+    private void finish(final MessageDigest digest) {
+        Digests.update(digest, element.getTagName());
+        element.forEachAttribute(new BiConsumer<String, String>() {
+            /** {@inheritDoc} */
+            @Override
+            public void accept(final String name, final String value) {
+                Digests.update(digest, name);
+                Digests.update(digest, value);
+            }
+        });
+        ownHash = Digests.getHash(digest);
+        Digests.update(digest, ownHash);
+        size = 1;
+        for (SourceTree child : children) {
+            Digests.update(digest, child.hash);
+            size += child.size;
+        }
+        hash = Digests.getHash(digest);
+    }
+
+    /**
+     * Returns the element of node.
+     * @return The element of node or null if the node is a text node.
+     */
+    public HTMLDOMElement getElement() {
+        return element;
+    }
+
+    /**
+     * Returns the tag of element.
+     * @return The tag of element or null if the node is a text node.
+     */
+    public HTMLTag getTag() {
+        return tag;
+    }
+
+    /**
+     * Returns the hash of node and descendants.
+     * @return The hash of node and descendants, in hexadecimal.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the number of elements of node and descendants.
+     * @return The number of elements of node and descendants.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the children of node.
+     * @return The children of node, elements and text nodes.
+     */
+    public List<SourceTree> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Link the node and its descendants with an element and its descendants,
+     * like a copy of the element of node.
+     * @param newElement The element with the same source of the element of
+     * node.
+     */
+    public void bind(final HTMLDOMElement newElement) {
+        List<SourceTree> nodes = new ArrayList<SourceTree>();
+        List<HTMLDOMElement> elements = new ArrayList<HTMLDOMElement>();
+        nodes.add(this);
+        elements.add(newElement);
+        while (!nodes.isEmpty()) {
+            int last = nodes.size() - 1;
+            SourceTree node = nodes.remove(last);
+            HTMLDOMElement nodeElement = elements.remove(last);
+            node.element = nodeElement;
+            List<HTMLDOMNode> childNodes = nodeElement.getChildren();
+            for (int i = 0; i < node.children.size(); i++) {
+                if (node.children.get(i).element != null) {
+                    nodes.add(node.children.get(i));
+                    elements.add((HTMLDOMElement) childNodes.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Link the node and its descendants with the elements of a node with the
+     * same hash.
+     * @param node The node with the same hash.
+     */
+    private void bind(final SourceTree node) {
+        List<SourceTree> nodes = new ArrayList<SourceTree>();
+        List<SourceTree> previousNodes = new ArrayList<SourceTree>();
+        nodes.add(this);
+        previousNodes.add(node);
+        while (!nodes.isEmpty()) {
+            int last = nodes.size() - 1;
+            SourceTree currentNode = nodes.remove(last);
+            SourceTree previousNode = previousNodes.remove(last);
+            currentNode.element = previousNode.element;
+            nodes.addAll(currentNode.children);
+            previousNodes.addAll(previousNode.children);
+        }
+    }
+
+    /**
+     * Returns the changes between a previous version of document and this
+     * version. The unchanged elements of this tree are linked with the
+     * elements of previous tree, and each change is the outermost element
+     * that was replaced, or that has text nodes changed or children inserted
+     * or removed.
+     * @param previous The tree of previous version.
+     * @return The changes.
+     */
+    public List<Change> compare(final SourceTree previous) {
+        List<Change> changes = new ArrayList<Change>();
+        List<SourceTree> currentNodes = new ArrayList<SourceTree>();
+        List<SourceTree> previousNodes = new ArrayList<SourceTree>();
+        currentNodes.add(this);
+        previousNodes.add(previous);
+        for (int index = 0; index < currentNodes.size(); index++) {
+            SourceTree current = currentNodes.get(index);
+            SourceTree old = previousNodes.get(index);
+            if (current.hash.equals(old.hash)) {
+                current.bind(old);
+            } else if ((current.tag != old.tag)
+                    || (!current.ownHash.equals(old.ownHash))
+                    || (current.children.size() != old.children.size())) {
+                changes.add(new Change(old, current));
+            } else {
+                boolean replaced = false;
+                for (int i = 0; (!replaced) && (i < current.children.size());
+                        i++) {
+                    SourceTree currentChild = current.children.get(i);
+                    replaced = (!currentChild.hash.equals(
+                            old.children.get(i).hash))
+                            && (currentChild.tag == null);
+                }
+                if (replaced) {
+                    changes.add(new Change(old, current));
+                } else {
+                    current.element = old.element;
+                    for (int i = 0; i < current.children.size(); i++) {
+                        currentNodes.add(current.children.get(i));
+                        previousNodes.add(old.children.get(i));
+                    }
+                }
+            }
+        }
+        return changes;
+    }
+}
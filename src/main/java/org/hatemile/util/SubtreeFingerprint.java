@@ -0,0 +1,293 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMNode;
+
+/**
+ * The SubtreeFingerprint class contains a Merkle hash of an element and its
+ * descendants: the SHA-256 hash of each element is created of its tag, its
+ * attributes, the texts of its text nodes and the hashes of its children
+ * elements, so different subtrees never have the same hash in practice. The
+ * ids generated by HaTeMiLe are replaced by its order in the
+ * subtree, so the same fragment of different pages, with ids of different
+ * prefixes, has the same hash.
+ */
+public final class SubtreeFingerprint {
+
+    /**
+     * The prefix of ids generated by HaTeMiLe.
+     */
+    public static final String GENERATED_ID_PREFIX = "id-hatemile-";
+
+    /**
+     * The name of text nodes, that precedes the texts in hashes, so that the
+     * texts are not confused with the hashes of elements.
+     */
+    private static final String TEXT_NODE_NAME = "#text";
+
+    /**
+     * The character that replaces the generated ids in hashes.
+     */
+    private static final char ID_MARKER = '\u0002';
+
+    /**
+     * The hash of subtree, in hexadecimal.
+     */
+    private final String hash;
+
+    /**
+     * The descendants of root element, in the order of document.
+     */
+    private final List<HTMLDOMElement> elements;
+
+    /**
+     * The position of each descendant of root element, indexed by data of
+     * descendant.
+     */
+    private final Map<Object, Integer> positions;
+
+    /**
+     * The ids of the descendants of root element, in lowercase letters.
+     */
+    private final Set<String> ids;
+
+    /**
+     * The SubtreeFingerprint.Frame class contains an element of which the
+     * children are being hashed.
+     */
+    private static final class Frame {
+
+        /**
+         * The children of element.
+         */
+        private final List<HTMLDOMNode> children;
+
+        /**
+         * The index of next child hashed.
+         */
+        private int index;
+
+        /**
+         * The digest of element, with the tag and the attributes of element.
+         */
+        private final MessageDigest digest;
+
+        /**
+         * Initializes a new frame.
+         * @param frameElement The element.
+         * @param elementDigest The digest of tag and attributes of element.
+         */
+        private Frame(final HTMLDOMElement frameElement,
+                final MessageDigest elementDigest) {
+            children = frameElement.getChildren();
+            index = 0;
+            digest = elementDigest;
+        }
+    }
+
+    /**
+     * Initializes a new fingerprint of an element and its descendants.
+     * @param root The root element.
+     */
+    public SubtreeFingerprint(final HTMLDOMElement root) {
+        List<HTMLDOMElement> descendants = new ArrayList<HTMLDOMElement>();
+        Map<Object, Integer> descendantPositions =
+                new IdentityHashMap<Object, Integer>();
+        Set<String> descendantIds = new HashSet<String>();
+        Map<String, Integer> generatedIds = new HashMap<String, Integer>();
+        List<MessageDigest> digests = new ArrayList<MessageDigest>();
+        List<Frame> frames = new ArrayList<Frame>();
+        frames.add(new Frame(root, hashElement(root, getDigest(digests, 0),
+                generatedIds)));
+        String rootHash = null;
+        while (rootHash == null) {
+            Frame frame = frames.get(frames.size() - 1);
+            if (frame.index < frame.children.size()) {
+                HTMLDOMNode child = frame.children.get(frame.index);
+                frame.index++;
+                if (child instanceof HTMLDOMElement) {
+                    HTMLDOMElement element = (HTMLDOMElement) child;
+                    descendantPositions.put(element.getData(),
+                            descendants.size());
+                    descendants.add(element);
+                    if (element.hasAttribute("id")) {
+                        descendantIds.add(element.getAttribute("id")
+                                .toLowerCase());
+                    }
+                    frames.add(new Frame(element, hashElement(element,
+                            getDigest(digests, frames.size()),
+                            generatedIds)));
+                } else {
+                    Digests.update(frame.digest, TEXT_NODE_NAME);
+                    Digests.update(frame.digest,
+                            child.getTextContent());
+                }
+            } else {
+                frames.remove(frames.size() - 1);
+                String elementHash = Digests.getHash(frame.digest);
+                if (frames.isEmpty()) {
+                    rootHash = elementHash;
+                } else {
+                    Digests.update(frames.get(frames.size() - 1)
+                            .digest, elementHash);
+                }
+            }
+        }
+        hash = rootHash;
+        elements = Collections.unmodifiableList(descendants);
+        positions = descendantPositions;
+        ids = Collections.unmodifiableSet(descendantIds);
+    }
+
+    /**
+     * Returns the digest of a level of subtree, that is reused by the
+     * elements of the same level, because the hash of each element is
+     * finished before the next element of the level is started.
+     * @param digests The digests of levels of subtree.
+     * @param level The level of subtree.
+     * @return The digest of level.
+     */
+    private static MessageDigest getDigest(final List<MessageDigest> digests,
+            final int level) {
+        if (level == digests.size()) {
+            digests.add(Digests.create());
+        }
+        return digests.get(level);
+    }
+
+    /**
+     * Add the tag and the attributes of an element to a digest.
+     * @param element The element.
+     * @param digest The digest of element.
+     * @param generatedIds The order of generated ids found in subtree,
+     * indexed by id.
+     * @return The digest of element.
+     */
+    private static MessageDigest hashElement(final HTMLDOMElement element,
+            final MessageDigest digest,
+            final Map<String, Integer> generatedIds) {
+        Digests.update(digest, element.getTagName());
+        element.forEachAttribute(new BiConsumer<String, String>() {
+            /** {@inheritDoc} */
+            @Override
+            public void accept(final String name, final String value) {
+                Digests.update(digest, name);
+                Digests.update(digest, replaceGeneratedIds(value,
+                        generatedIds));
+            }
+        });
+        // The null part ends the attributes, so that they are not confused
+        // with the children.
+        Digests.update(digest, null);
+        return digest;
+    }
+
+    /**
+     * Replace the ids generated by HaTeMiLe of a value by its order in
+     * subtree.
+     * @param value The value of attribute.
+     * @param generatedIds The order of generated ids found in subtree,
+     * indexed by id.
+     * @return The value with the generated ids replaced.
+     */
+    private static String replaceGeneratedIds(final String value,
+            final Map<String, Integer> generatedIds) {
+        int start = value.indexOf(GENERATED_ID_PREFIX);
+        if (start == -1) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder();
+        int last = 0;
+        while (start != -1) {
+            int end = start + GENERATED_ID_PREFIX.length();
+            while ((end < value.length()) && (isIdCharacter(
+                    value.charAt(end)))) {
+                end++;
+            }
+            String id = value.substring(start, end).toLowerCase();
+            Integer order = generatedIds.get(id);
+            if (order == null) {
+                order = generatedIds.size();
+                generatedIds.put(id, order);
+            }
+            builder.append(value, last, start).append(ID_MARKER).append(order)
+                    .append(ID_MARKER);
+            last = end;
+            start = value.indexOf(GENERATED_ID_PREFIX, end);
+        }
+        return builder.append(value, last, value.length()).toString();
+    }
+
+    /**
+     * Check that a character can be part of a generated id.
+     * @param character The character.
+     * @return True if the character can be part of a generated id or false if
+     * the character ends the id.
+     */
+    private static boolean isIdCharacter(final char character) {
+        return (Character.isLetterOrDigit(character)) || (character == '-')
+                || (character == '_');
+    }
+
+    /**
+     * Returns the hash of subtree.
+     * @return The hash of subtree, in hexadecimal.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the descendants of root element.
+     * @return The descendants of root element, in the order of document.
+     */
+    public List<HTMLDOMElement> getElements() {
+        return elements;
+    }
+
+    /**
+     * Returns the position of a descendant of root element.
+     * @param element The element.
+     * @return The position of element in the descendants of root element or
+     * -1 if the element is not a descendant of root element.
+     */
+    public int getPosition(final HTMLDOMElement element) {
+        Integer position = positions.get(element.getData());
+        if (position == null) {
+            return -1;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the ids of the descendants of root element.
+     * @return The ids of the descendants of root element, in lowercase
+     * letters.
+     */
+    public Set<String> getIds() {
+        return ids;
+    }
+}
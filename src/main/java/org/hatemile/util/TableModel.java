@@ -0,0 +1,261 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLTag;
+
+/**
+ * The TableModel class represents the cells of a table header, table body or
+ * table footer, with the rowspans and colspans, as a grid of rows and columns.
+ * The spans of each cell are clamped and the grid has at most
+ * {@link #MAXIMUM_SLOTS} slots covered by spans, besides one slot by cell.
+ */
+public class TableModel {
+
+    /**
+     * The maximum value of colspan.
+     */
+    public static final int MAXIMUM_COLSPAN = 1000;
+
+    /**
+     * The maximum value of rowspan.
+     */
+    public static final int MAXIMUM_ROWSPAN = 65534;
+
+    /**
+     * The maximum number of slots covered by the spans of all cells.
+     */
+    public static final int MAXIMUM_SLOTS = 4194304;
+
+    /**
+     * The value of slots without cells.
+     */
+    protected static final int EMPTY_SLOT = -1;
+
+    /**
+     * The radix of span attributes.
+     */
+    private static final int RADIX = 10;
+
+    /**
+     * The cells of table, in the order of document.
+     */
+    protected final HTMLDOMElement[] cells;
+
+    /**
+     * The index of cell of each slot of grid, row after row, or
+     * {@link #EMPTY_SLOT} if the slot not has cell.
+     */
+    protected final int[] slots;
+
+    /**
+     * The position of first slot of each row in {@link #slots}.
+     */
+    protected final int[] rowOffsets;
+
+    /**
+     * The number of slots of each row, until the last slot with cell.
+     */
+    protected final int[] rowLengths;
+
+    /**
+     * The number of rows.
+     */
+    protected final int rowCount;
+
+    /**
+     * The number of columns of the largest row.
+     */
+    protected final int columnCount;
+
+    /**
+     * Initializes a new model of a table header, table body or table footer.
+     * @param part The table header, table body or table footer.
+     */
+    public TableModel(final HTMLDOMElement part) {
+        List<HTMLDOMElement> rows = new ArrayList<HTMLDOMElement>();
+        for (HTMLDOMElement child : part.getChildrenElements()) {
+            if (child.getTag() == HTMLTag.TR) {
+                rows.add(child);
+            }
+        }
+        rowCount = rows.size();
+        rowLengths = new int[rowCount];
+        int[][] grid = new int[rowCount][];
+        List<HTMLDOMElement> cellList = new ArrayList<HTMLDOMElement>();
+        long availableSlots = MAXIMUM_SLOTS;
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+            int columnIndex = 0;
+            for (HTMLDOMElement cell : rows.get(rowIndex)
+                    .getChildrenElements()) {
+                HTMLTag tag = cell.getTag();
+                if ((tag == HTMLTag.TD) || (tag == HTMLTag.TH)) {
+                    int cellIndex = cellList.size();
+                    cellList.add(cell);
+                    int colspan = getSpan(cell, "colspan", MAXIMUM_COLSPAN);
+                    int rowspan = Math.min(getSpan(cell, "rowspan",
+                            MAXIMUM_ROWSPAN), rowCount - rowIndex);
+                    if (((long) colspan * rowspan) > availableSlots) {
+                        rowspan = (int) Math.max(availableSlots / colspan, 1);
+                        colspan = (int) Math.min(colspan,
+                                Math.max(availableSlots / rowspan, 1));
+                    }
+                    availableSlots = Math.max(availableSlots
+                            - ((long) colspan * rowspan), 0);
+                    for (; colspan > 0; colspan--) {
+                        while (getSlot(grid, rowIndex, columnIndex)
+                                != EMPTY_SLOT) {
+                            columnIndex++;
+                        }
+                        for (int i = 0; i < rowspan; i++) {
+                            setSlot(grid, rowIndex + i, columnIndex,
+                                    cellIndex);
+                        }
+                        columnIndex++;
+                    }
+                }
+            }
+        }
+
+        int maximumLength = 0;
+        int slotCount = 0;
+        rowOffsets = new int[rowCount];
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+            rowOffsets[rowIndex] = slotCount;
+            slotCount += rowLengths[rowIndex];
+            maximumLength = Math.max(maximumLength, rowLengths[rowIndex]);
+        }
+        columnCount = maximumLength;
+        slots = new int[slotCount];
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+            if (grid[rowIndex] != null) {
+                System.arraycopy(grid[rowIndex], 0, slots,
+                        rowOffsets[rowIndex], rowLengths[rowIndex]);
+            }
+        }
+        cells = cellList.toArray(new HTMLDOMElement[cellList.size()]);
+    }
+
+    /**
+     * Returns the value of a span attribute of cell, between 1 and the maximum
+     * value.
+     * @param cell The cell.
+     * @param name The name of span attribute.
+     * @param maximum The maximum value of span.
+     * @return The value of span attribute or 1 if the attribute is not a valid
+     * span.
+     */
+    protected static int getSpan(final HTMLDOMElement cell, final String name,
+            final int maximum) {
+        if (!cell.hasAttribute(name)) {
+            return 1;
+        }
+        String value = cell.getAttribute(name).trim();
+        int span = 0;
+        for (int i = 0, length = value.length(); (i < length)
+                && (Character.isDigit(value.charAt(i))); i++) {
+            span = Math.min((span * RADIX)
+                    + Character.digit(value.charAt(i), RADIX), maximum);
+        }
+        return Math.max(span, 1);
+    }
+
+    /**
+     * Returns the slot of grid in construction.
+     * @param grid The rows of grid.
+     * @param rowIndex The index of row.
+     * @param columnIndex The index of column.
+     * @return The index of cell of slot or {@link #EMPTY_SLOT}.
+     */
+    private int getSlot(final int[][] grid, final int rowIndex,
+            final int columnIndex) {
+        if (columnIndex >= rowLengths[rowIndex]) {
+            return EMPTY_SLOT;
+        }
+        return grid[rowIndex][columnIndex];
+    }
+
+    /**
+     * Set the slot of grid in construction.
+     * @param grid The rows of grid.
+     * @param rowIndex The index of row.
+     * @param columnIndex The index of column.
+     * @param cellIndex The index of cell.
+     */
+    private void setSlot(final int[][] grid, final int rowIndex,
+            final int columnIndex, final int cellIndex) {
+        int[] row = grid[rowIndex];
+        if ((row == null) || (row.length <= columnIndex)) {
+            int capacity = columnIndex + 1;
+            int length = 0;
+            if (row != null) {
+                length = row.length;
+                capacity = Math.max(capacity, length * 2);
+                row = Arrays.copyOf(row, capacity);
+            } else {
+                row = new int[capacity];
+            }
+            Arrays.fill(row, length, capacity, EMPTY_SLOT);
+            grid[rowIndex] = row;
+        }
+        row[columnIndex] = cellIndex;
+        rowLengths[rowIndex] = Math.max(rowLengths[rowIndex], columnIndex + 1);
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return The number of rows.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns of the largest row.
+     * @return The number of columns of the largest row.
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns the number of columns of a row, until the last column with cell.
+     * @param rowIndex The index of row.
+     * @return The number of columns of row.
+     */
+    public int getRowLength(final int rowIndex) {
+        return rowLengths[rowIndex];
+    }
+
+    /**
+     * Returns the cell of a slot of table.
+     * @param rowIndex The index of row.
+     * @param columnIndex The index of column.
+     * @return The cell of slot or null if the slot not has cell.
+     */
+    public HTMLDOMElement getCell(final int rowIndex, final int columnIndex) {
+        if ((columnIndex < 0) || (columnIndex >= rowLengths[rowIndex])) {
+            return null;
+        }
+        int cellIndex = slots[rowOffsets[rowIndex] + columnIndex];
+        if (cellIndex == EMPTY_SLOT) {
+            return null;
+        }
+        return cells[cellIndex];
+    }
+}
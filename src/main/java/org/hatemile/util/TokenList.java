@@ -0,0 +1,201 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The TokenList class represents the value of an attribute that contains a
+ * list of tokens separated by whitespaces, like the class, headers and
+ * aria-labelledby attributes. The tokens added are appended to the original
+ * value only if the list not contains them.
+ */
+public class TokenList {
+
+    /**
+     * The tokens of list.
+     */
+    protected final Set<String> tokens;
+
+    /**
+     * The value of list, with the original value and the tokens added.
+     */
+    protected final StringBuilder value;
+
+    /**
+     * Initializes a new list of tokens.
+     * @param list The value of list or null.
+     */
+    public TokenList(final String list) {
+        tokens = new HashSet<String>(getTokens(list));
+        value = new StringBuilder();
+        if (list != null) {
+            value.append(list);
+        }
+    }
+
+    /**
+     * Check that a character separates the tokens of list.
+     * @param character The character.
+     * @return True if the character is a whitespace of HTML or false if the
+     * character is not a whitespace of HTML.
+     */
+    protected static boolean isWhitespace(final char character) {
+        return (character == ' ') || (character == '\n')
+                || (character == '\t') || (character == '\r')
+                || (character == '\f');
+    }
+
+    /**
+     * Returns the index of the first whitespace of a list after an index.
+     * @param list The list.
+     * @param index The index where the search starts.
+     * @return The index of first whitespace or the length of list if the list
+     * not has whitespaces after the index.
+     */
+    private static int getEndOfToken(final String list, final int index) {
+        int end = index;
+        int length = list.length();
+        while ((end < length) && (!isWhitespace(list.charAt(end)))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the index of the first character that is not a whitespace of a
+     * list after an index.
+     * @param list The list.
+     * @param index The index where the search starts.
+     * @return The index of first token or the length of list if the list not
+     * has tokens after the index.
+     */
+    private static int getStartOfToken(final String list, final int index) {
+        int start = index;
+        int length = list.length();
+        while ((start < length) && (isWhitespace(list.charAt(start)))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the tokens of a list, in order and with the repeated tokens.
+     * @param list The list or null.
+     * @return The tokens of list.
+     */
+    public static List<String> getTokens(final String list) {
+        if ((list == null) || (list.isEmpty())) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<String>();
+        int length = list.length();
+        int start = getStartOfToken(list, 0);
+        while (start < length) {
+            int end = getEndOfToken(list, start);
+            tokens.add(list.substring(start, end));
+            start = getStartOfToken(list, end);
+        }
+        return tokens;
+    }
+
+    /**
+     * Check that a list contains a token, without create the tokens of list.
+     * @param list The list or null.
+     * @param token The token.
+     * @return True if the list contains the token or false if the list not
+     * contains the token.
+     */
+    public static boolean contains(final String list, final String token) {
+        if ((list == null) || (token == null) || (token.isEmpty())) {
+            return false;
+        }
+        int length = list.length();
+        int tokenLength = token.length();
+        int start = getStartOfToken(list, 0);
+        while (start < length) {
+            int end = getEndOfToken(list, start);
+            if (((end - start) == tokenLength)
+                    && (list.regionMatches(start, token, 0, tokenLength))) {
+                return true;
+            }
+            start = getStartOfToken(list, end);
+        }
+        return false;
+    }
+
+    /**
+     * Check that the list contains a token.
+     * @param token The token.
+     * @return True if the list contains the token or false if the list not
+     * contains the token.
+     */
+    public boolean contains(final String token) {
+        return tokens.contains(token);
+    }
+
+    /**
+     * Add a token at end of list, if the list not contains the token.
+     * @param token The token or null.
+     * @return True if the token was added or false if the token is empty or
+     * the list contains the token.
+     */
+    public boolean add(final String token) {
+        if ((token == null) || (token.isEmpty()) || (!tokens.add(token))) {
+            return false;
+        }
+        if (value.length() > 0) {
+            value.append(' ');
+        }
+        value.append(token);
+        return true;
+    }
+
+    /**
+     * Add tokens at end of list, in order, if the list not contains them.
+     * @param newTokens The tokens.
+     * @return True if a token was added or false if no token was added.
+     */
+    public boolean addAll(final Iterable<String> newTokens) {
+        boolean added = false;
+        for (String token : newTokens) {
+            if (add(token)) {
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns the number of different tokens of list.
+     * @return The number of different tokens of list.
+     */
+    public int size() {
+        return tokens.size();
+    }
+
+    /**
+     * Returns the value of list.
+     * @return The original value of list followed by the tokens added,
+     * separated by spaces.
+     */
+    @Override
+    public String toString() {
+        return value.toString();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLTag;
+
+/**
+ * The ValidElementIndex class check that the elements can be manipulated by
+ * solutions, remembering the result of each element and of its ancestors, so
+ * that the elements of the same subtree are checked once.
+ */
+public class ValidElementIndex {
+
+    /**
+     * The elements already checked, indexed by data of element.
+     */
+    protected final Map<Object, Boolean> validElements;
+
+    /**
+     * Initializes a new object that check that the elements can be manipulated
+     * by solutions.
+     */
+    public ValidElementIndex() {
+        validElements = new IdentityHashMap<Object, Boolean>();
+    }
+
+    /**
+     * Check that the element can be manipulated by HaTeMiLe.
+     * @param element The element.
+     * @return True if element can be manipulated or false if element cannot be
+     * manipulated.
+     */
+    public boolean isValidElement(final HTMLDOMElement element) {
+        List<Object> uncheckedElements = new ArrayList<Object>();
+        HTMLDOMElement currentElement = element;
+        Boolean valid = null;
+        while (valid == null) {
+            Object data = currentElement.getData();
+            valid = validElements.get(data);
+            if (valid == null) {
+                uncheckedElements.add(data);
+                if (currentElement.hasAttribute(
+                        CommonFunctions.DATA_IGNORE)) {
+                    valid = Boolean.FALSE;
+                } else {
+                    currentElement = currentElement.getParentElement();
+                    if ((currentElement == null)
+                            || (isRootElement(currentElement))) {
+                        valid = Boolean.TRUE;
+                    }
+                }
+            }
+        }
+        for (Object data : uncheckedElements) {
+            validElements.put(data, valid);
+        }
+        return valid;
+    }
+
+    /**
+     * Check that the element is the body or the html element, where the check
+     * of the ancestors stops.
+     * @param element The element.
+     * @return True if the element is the body or the html element or false if
+     * the element is other element.
+     */
+    protected static boolean isRootElement(final HTMLDOMElement element) {
+        HTMLTag tag = element.getTag();
+        return (tag == HTMLTag.BODY) || (tag == HTMLTag.HTML);
+    }
+}
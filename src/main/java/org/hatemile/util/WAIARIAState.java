@@ -0,0 +1,207 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.Objects;
+
+/**
+ * The WAIARIAState class represents a state of WAI-ARIA displayed to screen
+ * readers, an attribute with a value or with any value, the texts displayed
+ * before and after the element and the attribute that links the texts with
+ * the element.
+ */
+public final class WAIARIAState {
+
+    /**
+     * The name of attribute.
+     */
+    private final String attribute;
+
+    /**
+     * The value of attribute or null if the state has any value.
+     */
+    private final String value;
+
+    /**
+     * The name of parameters of configuration with the texts of state,
+     * without the suffixes.
+     */
+    private final String parameter;
+
+    /**
+     * The name of attribute that links the texts with element.
+     */
+    private final String dataOf;
+
+    /**
+     * The text before the element or, if the state has any value, the prefix
+     * of value before the element.
+     */
+    private final String prefixBefore;
+
+    /**
+     * The suffix of value before the element, if the state has any value.
+     */
+    private final String suffixBefore;
+
+    /**
+     * The text after the element or, if the state has any value, the prefix
+     * of value after the element.
+     */
+    private final String prefixAfter;
+
+    /**
+     * The suffix of value after the element, if the state has any value.
+     */
+    private final String suffixAfter;
+
+    /**
+     * Initializes a new state, without texts.
+     * @param stateAttribute The name of attribute.
+     * @param stateValue The value of attribute or null if the state has any
+     * value, that is displayed.
+     * @param stateParameter The name of parameters of configuration with the
+     * texts of state. The parameters of a state with value end with -before
+     * and -after and the parameters of a state with any value end with
+     * -prefix-before, -suffix-before, -prefix-after and -suffix-after.
+     * @param stateDataOf The name of attribute that links the texts with
+     * element.
+     */
+    public WAIARIAState(final String stateAttribute, final String stateValue,
+            final String stateParameter, final String stateDataOf) {
+        this(stateAttribute, stateValue, stateParameter, stateDataOf, "", "",
+                "", "");
+    }
+
+    /**
+     * Initializes a new state.
+     * @param stateAttribute The name of attribute.
+     * @param stateValue The value of attribute or null if the state has any
+     * value.
+     * @param stateParameter The name of parameters of configuration with the
+     * texts of state.
+     * @param stateDataOf The name of attribute that links the texts with
+     * element.
+     * @param textPrefixBefore The text or the prefix of value before the
+     * element.
+     * @param textSuffixBefore The suffix of value before the element.
+     * @param textPrefixAfter The text or the prefix of value after the
+     * element.
+     * @param textSuffixAfter The suffix of value after the element.
+     */
+    private WAIARIAState(final String stateAttribute, final String stateValue,
+            final String stateParameter, final String stateDataOf,
+            final String textPrefixBefore, final String textSuffixBefore,
+            final String textPrefixAfter, final String textSuffixAfter) {
+        attribute = Objects.requireNonNull(stateAttribute).toLowerCase();
+        value = stateValue;
+        parameter = Objects.requireNonNull(stateParameter);
+        dataOf = Objects.requireNonNull(stateDataOf);
+        prefixBefore = textPrefixBefore;
+        suffixBefore = textSuffixBefore;
+        prefixAfter = textPrefixAfter;
+        suffixAfter = textSuffixAfter;
+    }
+
+    /**
+     * Returns a copy of state with the texts of a configuration.
+     * @param parameters The parameters of configuration of HaTeMiLe.
+     * @return The state with the texts of configuration.
+     */
+    public WAIARIAState withTexts(final ConfigureSnapshot parameters) {
+        if (value != null) {
+            return new WAIARIAState(attribute, value, parameter, dataOf,
+                    parameters.getParameter(parameter + "-before"), "",
+                    parameters.getParameter(parameter + "-after"), "");
+        }
+        return new WAIARIAState(attribute, value, parameter, dataOf,
+                parameters.getParameter(parameter + "-prefix-before"),
+                parameters.getParameter(parameter + "-suffix-before"),
+                parameters.getParameter(parameter + "-prefix-after"),
+                parameters.getParameter(parameter + "-suffix-after"));
+    }
+
+    /**
+     * Returns the name of attribute.
+     * @return The name of attribute, in lowercase letters.
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Returns the value of attribute.
+     * @return The value of attribute or null if the state has any value.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the name of attribute that links the texts with element.
+     * @return The name of attribute that links the texts with element.
+     */
+    public String getDataOf() {
+        return dataOf;
+    }
+
+    /**
+     * Check that a value of attribute has this state.
+     * @param attributeValue The value of attribute.
+     * @return True if the value has this state or false if the value not has
+     * this state.
+     */
+    public boolean matches(final String attributeValue) {
+        return (value == null) || (value.equals(attributeValue));
+    }
+
+    /**
+     * Returns the text displayed before the element.
+     * @param attributeValue The value of attribute of element.
+     * @return The text displayed before the element or a empty string if the
+     * state not displays text before the element.
+     */
+    public String getTextBefore(final String attributeValue) {
+        return getText(prefixBefore, attributeValue, suffixBefore);
+    }
+
+    /**
+     * Returns the text displayed after the element.
+     * @param attributeValue The value of attribute of element.
+     * @return The text displayed after the element or a empty string if the
+     * state not displays text after the element.
+     */
+    public String getTextAfter(final String attributeValue) {
+        return getText(prefixAfter, attributeValue, suffixAfter);
+    }
+
+    /**
+     * Returns the text displayed with the element, with the value of
+     * attribute if the state has any value.
+     * @param prefix The text or the prefix of value.
+     * @param attributeValue The value of attribute of element.
+     * @param suffix The suffix of value.
+     * @return The text displayed or a empty string if the prefix and the
+     * suffix are empty.
+     */
+    private String getText(final String prefix, final String attributeValue,
+            final String suffix) {
+        if ((prefix.isEmpty()) && (suffix.isEmpty())) {
+            return "";
+        } else if (value != null) {
+            return prefix;
+        }
+        return prefix + attributeValue + suffix;
+    }
+}
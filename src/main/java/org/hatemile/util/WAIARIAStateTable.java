@@ -0,0 +1,97 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The WAIARIAStateTable class contains the states of WAI-ARIA displayed to
+ * screen readers, with the texts of a configuration, indexed by attribute.
+ * The attributes are numbered in the order of the first state of each
+ * attribute, that is the order that the states are displayed.
+ */
+public final class WAIARIAStateTable {
+
+    /**
+     * The position of each attribute, indexed by name of attribute.
+     */
+    private final Map<String, Integer> positions;
+
+    /**
+     * The states of each attribute, by position of attribute.
+     */
+    private final List<List<WAIARIAState>> states;
+
+    /**
+     * Initializes a new table of states.
+     * @param declaredStates The states, in the order that are displayed.
+     * @param parameters The parameters of configuration of HaTeMiLe with the
+     * texts of states.
+     */
+    public WAIARIAStateTable(final Iterable<WAIARIAState> declaredStates,
+            final ConfigureSnapshot parameters) {
+        positions = new HashMap<String, Integer>();
+        states = new ArrayList<List<WAIARIAState>>();
+        for (WAIARIAState declaredState : declaredStates) {
+            Integer position = positions.get(declaredState.getAttribute());
+            if (position == null) {
+                position = states.size();
+                positions.put(declaredState.getAttribute(), position);
+                states.add(new ArrayList<WAIARIAState>());
+            }
+            states.get(position).add(declaredState.withTexts(parameters));
+        }
+    }
+
+    /**
+     * Returns the number of attributes with states.
+     * @return The number of attributes with states.
+     */
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * Returns the position of an attribute.
+     * @param attribute The name of attribute, in lowercase letters.
+     * @return The position of attribute or -1 if the attribute not has
+     * states.
+     */
+    public int getPosition(final String attribute) {
+        Integer position = positions.get(attribute);
+        if (position == null) {
+            return -1;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the state of a value of attribute.
+     * @param position The position of attribute.
+     * @param value The value of attribute.
+     * @return The first state of attribute that matches the value or null if
+     * the value not has state.
+     */
+    public WAIARIAState getState(final int position, final String value) {
+        for (WAIARIAState state : states.get(position)) {
+            if (state.matches(value)) {
+                return state;
+            }
+        }
+        return null;
+    }
+}
@@ -33,6 +33,7 @@ import org.hatemile.util.css.StyleSheetParser;
 import org.hatemile.util.css.StyleSheetRule;
 import org.hatemile.util.html.HTMLDOMElement;
 import org.hatemile.util.html.HTMLDOMParser;
+import org.hatemile.util.html.HTMLTag;
 
 /**
  * The PHCSSParser class is official implementation of
@@ -167,7 +168,7 @@ public class PHCSSParser implements StyleSheetParser {
         List<HTMLDOMElement> elements = htmlParser.find("style,"
                 + "link[rel=stylesheet]").listResults();
         for (HTMLDOMElement element : elements) {
-            if (element.getTagName().equals("STYLE")) {
+            if (element.getTag() == HTMLTag.STYLE) {
                 cssCode.append(element.getTextContent());
             } else {
                 cssCode.append(getContentFromURL(getAbsolutePath(currentURL,
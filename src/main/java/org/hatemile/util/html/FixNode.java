@@ -0,0 +1,183 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The FixNode class is an immutable copy of a node inserted by a
+ * {@link FixPlan}, with its attributes and its descendants, independent of
+ * parser.
+ */
+public final class FixNode implements Serializable {
+
+    /**
+     * The version of serialized nodes.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The FixNode.Type enum contains the types of nodes.
+     */
+    public enum Type {
+
+        /**
+         * An element, with tag name, attributes and children.
+         */
+        ELEMENT,
+
+        /**
+         * A text node.
+         */
+        TEXT,
+
+        /**
+         * A node with the content of a script or style element.
+         */
+        DATA,
+
+        /**
+         * A comment.
+         */
+        COMMENT
+    }
+
+    /**
+     * The type of node.
+     */
+    private final Type type;
+
+    /**
+     * The tag name of element or the content of other nodes.
+     */
+    private final String value;
+
+    /**
+     * The attributes of element, in order.
+     */
+    private final Map<String, String> attributes;
+
+    /**
+     * The children of element.
+     */
+    private final List<FixNode> children;
+
+    /**
+     * Initializes a new node.
+     * @param nodeType The type of node.
+     * @param nodeValue The tag name of element or the content of other nodes.
+     * @param nodeAttributes The attributes of element.
+     * @param nodeChildren The children of element.
+     */
+    private FixNode(final Type nodeType, final String nodeValue,
+            final Map<String, String> nodeAttributes,
+            final List<FixNode> nodeChildren) {
+        type = nodeType;
+        value = Objects.requireNonNull(nodeValue);
+        attributes = nodeAttributes;
+        children = nodeChildren;
+    }
+
+    /**
+     * Returns a copy of an element.
+     * @param tagName The tag name of element.
+     * @param elementAttributes The attributes of element, in order.
+     * @param elementChildren The children of element.
+     * @return The copy of element.
+     */
+    public static FixNode createElement(final String tagName,
+            final Map<String, String> elementAttributes,
+            final List<FixNode> elementChildren) {
+        return new FixNode(Type.ELEMENT, tagName, Collections.unmodifiableMap(
+                new LinkedHashMap<String, String>(elementAttributes)),
+                Collections.unmodifiableList(
+                    new ArrayList<FixNode>(elementChildren)));
+    }
+
+    /**
+     * Returns a copy of a node that is not an element.
+     * @param nodeType The type of node.
+     * @param content The content of node.
+     * @return The copy of node.
+     */
+    public static FixNode createNode(final Type nodeType,
+            final String content) {
+        if (nodeType == Type.ELEMENT) {
+            throw new IllegalArgumentException(
+                    "The elements must be created with tag and attributes");
+        }
+        return new FixNode(nodeType, content,
+                Collections.<String, String>emptyMap(),
+                Collections.<FixNode>emptyList());
+    }
+
+    /**
+     * Returns the type of node.
+     * @return The type of node.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the tag name of element or the content of other nodes.
+     * @return The tag name of element or the content of other nodes.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the attributes of element.
+     * @return The attributes of element, in order, or a empty map if the node
+     * is not an element.
+     */
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Returns the children of element.
+     * @return The children of element or a empty list if the node is not an
+     * element.
+     */
+    public List<FixNode> getChildren() {
+        return children;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this != object) {
+            if (!(object instanceof FixNode)) {
+                return false;
+            }
+            FixNode node = (FixNode) object;
+            return (type == node.type) && (value.equals(node.value))
+                    && (attributes.equals(node.attributes))
+                    && (children.equals(node.children));
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, value, attributes, children);
+    }
+}
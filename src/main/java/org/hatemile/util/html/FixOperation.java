@@ -0,0 +1,264 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The FixOperation class is an immutable change of a {@link FixPlan}. The
+ * node changed is referenced by its path, the index of the node and of each
+ * ancestor between its siblings, from the document, at the moment that the
+ * operation is applied.
+ */
+public final class FixOperation implements Serializable {
+
+    /**
+     * The version of serialized operations.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The FixOperation.Type enum contains the types of operations.
+     */
+    public enum Type {
+
+        /**
+         * Create or modify an attribute of element.
+         */
+        SET_ATTRIBUTE,
+
+        /**
+         * Remove an attribute of element.
+         */
+        REMOVE_ATTRIBUTE,
+
+        /**
+         * Replace the content of a text node.
+         */
+        SET_TEXT,
+
+        /**
+         * Insert a node in the path, moving the next siblings.
+         */
+        INSERT_NODE,
+
+        /**
+         * Remove the node of path.
+         */
+        REMOVE_NODE
+    }
+
+    /**
+     * The type of operation.
+     */
+    private final Type type;
+
+    /**
+     * The path of node.
+     */
+    private final int[] path;
+
+    /**
+     * The name of attribute or null.
+     */
+    private final String name;
+
+    /**
+     * The value of attribute, the content of text node or null.
+     */
+    private final String value;
+
+    /**
+     * The node inserted or null.
+     */
+    private final FixNode node;
+
+    /**
+     * Initializes a new operation.
+     * @param operationType The type of operation.
+     * @param nodePath The path of node.
+     * @param attributeName The name of attribute or null.
+     * @param operationValue The value of attribute, the content of text node
+     * or null.
+     * @param insertedNode The node inserted or null.
+     */
+    private FixOperation(final Type operationType, final int[] nodePath,
+            final String attributeName, final String operationValue,
+            final FixNode insertedNode) {
+        type = operationType;
+        path = nodePath.clone();
+        name = attributeName;
+        value = operationValue;
+        node = insertedNode;
+    }
+
+    /**
+     * Returns an operation that create or modify an attribute of element.
+     * @param nodePath The path of element.
+     * @param attributeName The name of attribute.
+     * @param attributeValue The value of attribute.
+     * @return The operation.
+     */
+    public static FixOperation setAttribute(final int[] nodePath,
+            final String attributeName, final String attributeValue) {
+        return new FixOperation(Type.SET_ATTRIBUTE, nodePath,
+                Objects.requireNonNull(attributeName),
+                Objects.requireNonNull(attributeValue), null);
+    }
+
+    /**
+     * Returns an operation that remove an attribute of element.
+     * @param nodePath The path of element.
+     * @param attributeName The name of attribute.
+     * @return The operation.
+     */
+    public static FixOperation removeAttribute(final int[] nodePath,
+            final String attributeName) {
+        return new FixOperation(Type.REMOVE_ATTRIBUTE, nodePath,
+                Objects.requireNonNull(attributeName), null, null);
+    }
+
+    /**
+     * Returns an operation that replace the content of a text node.
+     * @param nodePath The path of text node.
+     * @param text The new content of text node.
+     * @return The operation.
+     */
+    public static FixOperation setText(final int[] nodePath,
+            final String text) {
+        return new FixOperation(Type.SET_TEXT, nodePath, null,
+                Objects.requireNonNull(text), null);
+    }
+
+    /**
+     * Returns an operation that insert a node.
+     * @param nodePath The path of inserted node.
+     * @param insertedNode The node inserted.
+     * @return The operation.
+     */
+    public static FixOperation insertNode(final int[] nodePath,
+            final FixNode insertedNode) {
+        return new FixOperation(Type.INSERT_NODE, nodePath, null, null,
+                Objects.requireNonNull(insertedNode));
+    }
+
+    /**
+     * Returns an operation that remove a node.
+     * @param nodePath The path of node.
+     * @return The operation.
+     */
+    public static FixOperation removeNode(final int[] nodePath) {
+        return new FixOperation(Type.REMOVE_NODE, nodePath, null, null, null);
+    }
+
+    /**
+     * Returns the type of operation.
+     * @return The type of operation.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the path of node.
+     * @return A copy of the path of node.
+     */
+    public int[] getPath() {
+        return path.clone();
+    }
+
+    /**
+     * Returns the number of nodes of path.
+     * @return The number of nodes of path.
+     */
+    public int getPathLength() {
+        return path.length;
+    }
+
+    /**
+     * Returns the index of a node of path between its siblings.
+     * @param level The level of node, where 0 is a child of document.
+     * @return The index of node of path.
+     */
+    public int getPathIndex(final int level) {
+        return path[level];
+    }
+
+    /**
+     * Returns the name of attribute.
+     * @return The name of attribute or null if the operation not changes an
+     * attribute.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the value of attribute or the content of text node.
+     * @return The value of attribute, the content of text node or null.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the node inserted.
+     * @return The node inserted or null if the operation not inserts a node.
+     */
+    public FixNode getNode() {
+        return node;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this != object) {
+            if (!(object instanceof FixOperation)) {
+                return false;
+            }
+            FixOperation operation = (FixOperation) object;
+            return (type == operation.type)
+                    && (Arrays.equals(path, operation.path))
+                    && (Objects.equals(name, operation.name))
+                    && (Objects.equals(value, operation.value))
+                    && (Objects.equals(node, operation.node));
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, Arrays.hashCode(path), name, value, node);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder string = new StringBuilder(type.name());
+        for (int index : path) {
+            string.append('/').append(index);
+        }
+        if (name != null) {
+            string.append(' ').append(name);
+        }
+        if (value != null) {
+            string.append("=\"").append(value).append('"');
+        }
+        if (node != null) {
+            string.append(' ').append(node.getType().name()).append(' ')
+                    .append(node.getValue());
+        }
+        return string.toString();
+    }
+}
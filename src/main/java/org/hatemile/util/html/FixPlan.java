@@ -0,0 +1,123 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * The FixPlan class is an immutable list of the changes that the solutions
+ * make in a document: the attributes set, the nodes inserted, like the
+ * elements that display informations and the scripts, and the nodes removed.
+ * The plan is created by the analysis of a copy of document and can be
+ * applied, in order, to any parser of the same document.
+ */
+public final class FixPlan implements Serializable {
+
+    /**
+     * The version of serialized plans.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The operations of plan, in the order that are applied.
+     */
+    private final List<FixOperation> operations;
+
+    /**
+     * Initializes a new plan.
+     * @param planOperations The operations of plan, in the order that are
+     * applied.
+     */
+    public FixPlan(final Collection<FixOperation> planOperations) {
+        operations = Collections.unmodifiableList(
+                new ArrayList<FixOperation>(planOperations));
+    }
+
+    /**
+     * Returns the plan of the changes that the solutions make in a document.
+     * The solutions are executed in a copy of document, so the document of
+     * parser is not modified and many documents can be analyzed at the same
+     * time.
+     * @param parser The HTML parser of document.
+     * @param solutions The action that executes the solutions in the parser
+     * received.
+     * @return The plan of changes.
+     * @throws UnsupportedOperationException If the parser not supports copies
+     * or plans.
+     */
+    public static FixPlan analyze(final HTMLDOMParser parser,
+            final Consumer<? super HTMLDOMParser> solutions) {
+        HTMLDOMParser copyParser = parser.cloneParser();
+        copyParser.startFixPlan();
+        solutions.accept(copyParser);
+        return copyParser.finishFixPlan();
+    }
+
+    /**
+     * Returns the operations of plan.
+     * @return The operations of plan, in the order that are applied.
+     */
+    public List<FixOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Returns the number of operations of plan.
+     * @return The number of operations of plan.
+     */
+    public int size() {
+        return operations.size();
+    }
+
+    /**
+     * Check that the plan has no operations.
+     * @return True if the plan has no operations or false if the plan changes
+     * the document.
+     */
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    /**
+     * Apply the operations of plan to the document of a parser.
+     * @param parser The HTML parser of a document equal to the document
+     * analyzed.
+     * @throws UnsupportedOperationException If the parser not supports plans.
+     */
+    public void applyTo(final HTMLDOMParser parser) {
+        Objects.requireNonNull(parser).applyFixPlan(this);
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this != object) {
+            if (!(object instanceof FixPlan)) {
+                return false;
+            }
+            return operations.equals(((FixPlan) object).operations);
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return operations.hashCode();
+    }
+}
@@ -13,7 +13,11 @@ limitations under the License.
  */
 package org.hatemile.util.html;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * The HTMLDOMElement interface contains the methods for access of the HTML
@@ -27,6 +31,16 @@ public interface HTMLDOMElement extends HTMLDOMNode, Cloneable {
      */
     String getTagName();
 
+    /**
+     * Returns the tag of element. The default implementation searches the tag
+     * of {@link #getTagName()}.
+     * @return The tag of element or {@link HTMLTag#UNKNOWN} if the tag is not
+     * known.
+     */
+    default HTMLTag getTag() {
+        return HTMLTag.fromName(getTagName());
+    }
+
     /**
      * Returns the value of a attribute.
      * @param name The name of attribute.
@@ -63,6 +77,75 @@ public interface HTMLDOMElement extends HTMLDOMNode, Cloneable {
      */
     boolean hasAttributes();
 
+    /**
+     * Execute an action for each attribute of element, with the name and the
+     * value of attribute. The action must not modify the attributes of this
+     * element. The default implementation reads the names of attributes of
+     * the start tag of {@link #getOuterHTML()} and the values by
+     * {@link #getAttribute(String)}.
+     * @param action The action.
+     */
+    default void forEachAttribute(
+            final BiConsumer<? super String, ? super String> action) {
+        String html = getOuterHTML();
+        int length = html.length();
+        int i = html.indexOf('<') + 1;
+        while ((i < length) && (!Character.isWhitespace(html.charAt(i)))
+                && (html.charAt(i) != '>') && (html.charAt(i) != '/')) {
+            i++;
+        }
+        while ((i < length) && (html.charAt(i) != '>')) {
+            if ((Character.isWhitespace(html.charAt(i)))
+                    || (html.charAt(i) == '/')) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while ((i < length) && (!Character.isWhitespace(html.charAt(i)))
+                    && (html.charAt(i) != '=') && (html.charAt(i) != '>')
+                    && (html.charAt(i) != '/')) {
+                i++;
+            }
+            String name = html.substring(start, i);
+            String value = null;
+            if (hasAttribute(name)) {
+                value = getAttribute(name);
+                action.accept(name, value);
+            }
+            while ((i < length) && (Character.isWhitespace(html.charAt(i)))) {
+                i++;
+            }
+            if ((i < length) && (html.charAt(i) == '=')) {
+                i++;
+                while ((i < length)
+                        && (Character.isWhitespace(html.charAt(i)))) {
+                    i++;
+                }
+                if ((i < length) && ((html.charAt(i) == '"')
+                        || (html.charAt(i) == '\''))) {
+                    // The value can be written without escape of quotes.
+                    int end;
+                    if ((value != null) && (html.startsWith(value
+                            + html.charAt(i), i + 1))) {
+                        end = i + 1 + value.length();
+                    } else {
+                        end = html.indexOf(html.charAt(i), i + 1);
+                    }
+                    if (end == -1) {
+                        return;
+                    }
+                    i = end + 1;
+                } else {
+                    while ((i < length)
+                            && (!Character.isWhitespace(html.charAt(i)))
+                            && (html.charAt(i) != '>')) {
+                        i++;
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Append a element child.
      * @param element The element that be inserted.
@@ -77,6 +160,68 @@ public interface HTMLDOMElement extends HTMLDOMNode, Cloneable {
      */
     HTMLDOMElement prependElement(HTMLDOMElement element);
 
+    /**
+     * Insert nodes before and after the children of this element, rebuilding
+     * the children once. The default implementation inserts each node by
+     * {@link HTMLDOMNode#insertBefore(HTMLDOMNode)} and
+     * {@link HTMLDOMNode#insertAfter(HTMLDOMNode)}.
+     * @param nodesBefore The nodes to insert before each child, indexed by the
+     * data of child. The nodes indexed by the data of this element are
+     * inserted at the start of this element.
+     * @param nodesAfter The nodes to insert after each child, indexed by the
+     * data of child. The nodes indexed by the data of this element are
+     * inserted at the end of this element.
+     * @return This element.
+     */
+    default HTMLDOMElement insertNodes(
+            final Map<Object, List<HTMLDOMNode>> nodesBefore,
+            final Map<Object, List<HTMLDOMNode>> nodesAfter) {
+        List<HTMLDOMNode> children = getChildren();
+        List<HTMLDOMNode> nodesEnd = new ArrayList<HTMLDOMNode>();
+        List<HTMLDOMNode> nodesStart = nodesBefore.get(getData());
+        if (nodesStart != null) {
+            if (children.isEmpty()) {
+                nodesEnd.addAll(nodesStart);
+            } else {
+                for (HTMLDOMNode node : nodesStart) {
+                    children.get(0).insertBefore(node);
+                }
+            }
+        }
+        for (HTMLDOMNode child : children) {
+            List<HTMLDOMNode> childNodesBefore = nodesBefore.get(
+                    child.getData());
+            if (childNodesBefore != null) {
+                for (HTMLDOMNode node : childNodesBefore) {
+                    child.insertBefore(node);
+                }
+            }
+            List<HTMLDOMNode> childNodesAfter = nodesAfter.get(
+                    child.getData());
+            if (childNodesAfter != null) {
+                HTMLDOMNode previousNode = child;
+                for (HTMLDOMNode node : childNodesAfter) {
+                    previousNode.insertAfter(node);
+                    previousNode = node;
+                }
+            }
+        }
+        if (nodesAfter.containsKey(getData())) {
+            nodesEnd.addAll(nodesAfter.get(getData()));
+        }
+        for (HTMLDOMNode node : nodesEnd) {
+            HTMLDOMNode lastNode = getLastNodeChild();
+            if (lastNode != null) {
+                lastNode.insertAfter(node);
+            } else if (node instanceof HTMLDOMElement) {
+                appendElement((HTMLDOMElement) node);
+            } else {
+                appendText(node.getTextContent());
+            }
+        }
+        return this;
+    }
+
     /**
      * Returns the elements children of this element.
      * @return The elements children of this element.
@@ -89,6 +234,18 @@ public interface HTMLDOMElement extends HTMLDOMNode, Cloneable {
      */
     List<HTMLDOMNode> getChildren();
 
+    /**
+     * Execute an action for each child of this element, in the order of
+     * document. The action must not insert or remove children of this element.
+     * The default implementation iterates the list of {@link #getChildren()}.
+     * @param action The action.
+     */
+    default void forEachChild(final Consumer<? super HTMLDOMNode> action) {
+        for (HTMLDOMNode child : getChildren()) {
+            action.accept(child);
+        }
+    }
+
     /**
      * Joins adjacent Text nodes.
      * @return This element.
@@ -13,6 +13,8 @@ limitations under the License.
  */
 package org.hatemile.util.html;
 
+import java.util.List;
+
 /**
  * The HTMLDOMNode interface contains the methods for access the Node.
  */
@@ -65,6 +67,26 @@ public interface HTMLDOMNode {
      */
     HTMLDOMNode prependText(String text);
 
+    /**
+     * Returns the position of this node in the children of its parent. The
+     * default implementation searches this node in the list of
+     * {@link HTMLDOMElement#getChildren()} of {@link #getParentElement()}.
+     * @return The position of this node in the children of its parent or -1
+     * if the node not has parent.
+     */
+    default int getIndex() {
+        HTMLDOMElement parent = getParentElement();
+        if (parent != null) {
+            List<HTMLDOMNode> children = parent.getChildren();
+            for (int i = 0, length = children.size(); i < length; i++) {
+                if (children.get(i).getData() == getData()) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
     /**
      * Returns the parent element of this node.
      * @return The parent element of this node.
@@ -14,6 +14,7 @@ limitations under the License.
 package org.hatemile.util.html;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The HTMLDOMParser interface contains the methods for access a native parser.
@@ -99,6 +100,29 @@ public interface HTMLDOMParser {
      */
     List<HTMLDOMElement> listResults();
 
+    /**
+     * Returns a view of the elements found, that encapsulate each element only
+     * when the element is iterated. The view is not changed by the next
+     * searches of parser. The default implementation returns the list of
+     * {@link #listResults()}.
+     * @return The view of elements found.
+     */
+    default Iterable<HTMLDOMElement> iterateResults() {
+        return listResults();
+    }
+
+    /**
+     * Execute an action for each element found, in the order of document. The
+     * default implementation iterates the list of {@link #listResults()}.
+     * @param action The action.
+     */
+    default void forEachResult(
+            final Consumer<? super HTMLDOMElement> action) {
+        for (HTMLDOMElement element : listResults()) {
+            action.accept(element);
+        }
+    }
+
     /**
      * Create a element.
      * @param tag The tag of element.
@@ -118,6 +142,53 @@ public interface HTMLDOMParser {
      */
     Object getParser();
 
+    /**
+     * Returns a new parser with a copy of the document of this parser, so
+     * that the changes of each document not modify the other document. The
+     * default implementation not supports copies.
+     * @return The new parser.
+     * @throws UnsupportedOperationException If the parser not supports
+     * copies.
+     */
+    default HTMLDOMParser cloneParser() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Start to record the changes of document in a plan, until
+     * {@link #finishFixPlan()}. The changes of nodes that are not in the
+     * document are recorded when the nodes are inserted in the document. The
+     * default implementation not supports plans.
+     * @throws UnsupportedOperationException If the parser not supports
+     * plans.
+     */
+    default void startFixPlan() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Stop to record the changes of document. The default implementation not
+     * supports plans.
+     * @return The plan with the changes recorded since
+     * {@link #startFixPlan()}.
+     * @throws UnsupportedOperationException If the parser not supports
+     * plans.
+     */
+    default FixPlan finishFixPlan() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Apply the operations of a plan to the document, in order. The default
+     * implementation not supports plans.
+     * @param plan The plan of changes of a document equal to this document.
+     * @throws UnsupportedOperationException If the parser not supports
+     * plans.
+     */
+    default void applyFixPlan(final FixPlan plan) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Clear the memory of this object.
      */
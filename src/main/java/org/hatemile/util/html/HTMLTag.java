@@ -0,0 +1,638 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The HTMLTag enum contains the tags of HTML elements, so that the tags can be
+ * compared by identity and grouped in sets of bits.
+ */
+public enum HTMLTag {
+
+    /**
+     * The a element.
+     */
+    A,
+
+    /**
+     * The abbr element.
+     */
+    ABBR,
+
+    /**
+     * The address element.
+     */
+    ADDRESS,
+
+    /**
+     * The area element.
+     */
+    AREA,
+
+    /**
+     * The article element.
+     */
+    ARTICLE,
+
+    /**
+     * The aside element.
+     */
+    ASIDE,
+
+    /**
+     * The audio element.
+     */
+    AUDIO,
+
+    /**
+     * The b element.
+     */
+    B,
+
+    /**
+     * The base element.
+     */
+    BASE,
+
+    /**
+     * The bdi element.
+     */
+    BDI,
+
+    /**
+     * The bdo element.
+     */
+    BDO,
+
+    /**
+     * The blockquote element.
+     */
+    BLOCKQUOTE,
+
+    /**
+     * The body element.
+     */
+    BODY,
+
+    /**
+     * The br element.
+     */
+    BR,
+
+    /**
+     * The button element.
+     */
+    BUTTON,
+
+    /**
+     * The canvas element.
+     */
+    CANVAS,
+
+    /**
+     * The caption element.
+     */
+    CAPTION,
+
+    /**
+     * The cite element.
+     */
+    CITE,
+
+    /**
+     * The code element.
+     */
+    CODE,
+
+    /**
+     * The col element.
+     */
+    COL,
+
+    /**
+     * The colgroup element.
+     */
+    COLGROUP,
+
+    /**
+     * The data element.
+     */
+    DATA,
+
+    /**
+     * The datalist element.
+     */
+    DATALIST,
+
+    /**
+     * The dd element.
+     */
+    DD,
+
+    /**
+     * The del element.
+     */
+    DEL,
+
+    /**
+     * The details element.
+     */
+    DETAILS,
+
+    /**
+     * The dfn element.
+     */
+    DFN,
+
+    /**
+     * The dialog element.
+     */
+    DIALOG,
+
+    /**
+     * The div element.
+     */
+    DIV,
+
+    /**
+     * The dl element.
+     */
+    DL,
+
+    /**
+     * The dt element.
+     */
+    DT,
+
+    /**
+     * The em element.
+     */
+    EM,
+
+    /**
+     * The embed element.
+     */
+    EMBED,
+
+    /**
+     * The fieldset element.
+     */
+    FIELDSET,
+
+    /**
+     * The figcaption element.
+     */
+    FIGCAPTION,
+
+    /**
+     * The figure element.
+     */
+    FIGURE,
+
+    /**
+     * The footer element.
+     */
+    FOOTER,
+
+    /**
+     * The form element.
+     */
+    FORM,
+
+    /**
+     * The h1 element.
+     */
+    H1,
+
+    /**
+     * The h2 element.
+     */
+    H2,
+
+    /**
+     * The h3 element.
+     */
+    H3,
+
+    /**
+     * The h4 element.
+     */
+    H4,
+
+    /**
+     * The h5 element.
+     */
+    H5,
+
+    /**
+     * The h6 element.
+     */
+    H6,
+
+    /**
+     * The head element.
+     */
+    HEAD,
+
+    /**
+     * The header element.
+     */
+    HEADER,
+
+    /**
+     * The hgroup element.
+     */
+    HGROUP,
+
+    /**
+     * The hr element.
+     */
+    HR,
+
+    /**
+     * The html element.
+     */
+    HTML,
+
+    /**
+     * The i element.
+     */
+    I,
+
+    /**
+     * The iframe element.
+     */
+    IFRAME,
+
+    /**
+     * The img element.
+     */
+    IMG,
+
+    /**
+     * The input element.
+     */
+    INPUT,
+
+    /**
+     * The ins element.
+     */
+    INS,
+
+    /**
+     * The kbd element.
+     */
+    KBD,
+
+    /**
+     * The label element.
+     */
+    LABEL,
+
+    /**
+     * The legend element.
+     */
+    LEGEND,
+
+    /**
+     * The li element.
+     */
+    LI,
+
+    /**
+     * The link element.
+     */
+    LINK,
+
+    /**
+     * The main element.
+     */
+    MAIN,
+
+    /**
+     * The map element.
+     */
+    MAP,
+
+    /**
+     * The mark element.
+     */
+    MARK,
+
+    /**
+     * The menu element.
+     */
+    MENU,
+
+    /**
+     * The meta element.
+     */
+    META,
+
+    /**
+     * The meter element.
+     */
+    METER,
+
+    /**
+     * The nav element.
+     */
+    NAV,
+
+    /**
+     * The noscript element.
+     */
+    NOSCRIPT,
+
+    /**
+     * The object element.
+     */
+    OBJECT,
+
+    /**
+     * The ol element.
+     */
+    OL,
+
+    /**
+     * The optgroup element.
+     */
+    OPTGROUP,
+
+    /**
+     * The option element.
+     */
+    OPTION,
+
+    /**
+     * The output element.
+     */
+    OUTPUT,
+
+    /**
+     * The p element.
+     */
+    P,
+
+    /**
+     * The param element.
+     */
+    PARAM,
+
+    /**
+     * The picture element.
+     */
+    PICTURE,
+
+    /**
+     * The pre element.
+     */
+    PRE,
+
+    /**
+     * The progress element.
+     */
+    PROGRESS,
+
+    /**
+     * The q element.
+     */
+    Q,
+
+    /**
+     * The rp element.
+     */
+    RP,
+
+    /**
+     * The rt element.
+     */
+    RT,
+
+    /**
+     * The ruby element.
+     */
+    RUBY,
+
+    /**
+     * The s element.
+     */
+    S,
+
+    /**
+     * The samp element.
+     */
+    SAMP,
+
+    /**
+     * The script element.
+     */
+    SCRIPT,
+
+    /**
+     * The section element.
+     */
+    SECTION,
+
+    /**
+     * The select element.
+     */
+    SELECT,
+
+    /**
+     * The slot element.
+     */
+    SLOT,
+
+    /**
+     * The small element.
+     */
+    SMALL,
+
+    /**
+     * The source element.
+     */
+    SOURCE,
+
+    /**
+     * The span element.
+     */
+    SPAN,
+
+    /**
+     * The strong element.
+     */
+    STRONG,
+
+    /**
+     * The style element.
+     */
+    STYLE,
+
+    /**
+     * The sub element.
+     */
+    SUB,
+
+    /**
+     * The summary element.
+     */
+    SUMMARY,
+
+    /**
+     * The sup element.
+     */
+    SUP,
+
+    /**
+     * The table element.
+     */
+    TABLE,
+
+    /**
+     * The tbody element.
+     */
+    TBODY,
+
+    /**
+     * The td element.
+     */
+    TD,
+
+    /**
+     * The template element.
+     */
+    TEMPLATE,
+
+    /**
+     * The textarea element.
+     */
+    TEXTAREA,
+
+    /**
+     * The tfoot element.
+     */
+    TFOOT,
+
+    /**
+     * The th element.
+     */
+    TH,
+
+    /**
+     * The thead element.
+     */
+    THEAD,
+
+    /**
+     * The time element.
+     */
+    TIME,
+
+    /**
+     * The title element.
+     */
+    TITLE,
+
+    /**
+     * The tr element.
+     */
+    TR,
+
+    /**
+     * The track element.
+     */
+    TRACK,
+
+    /**
+     * The u element.
+     */
+    U,
+
+    /**
+     * The ul element.
+     */
+    UL,
+
+    /**
+     * The var element.
+     */
+    VAR,
+
+    /**
+     * The video element.
+     */
+    VIDEO,
+
+    /**
+     * The wbr element.
+     */
+    WBR,
+
+    /**
+     * The elements with other tags.
+     */
+    UNKNOWN;
+
+    /**
+     * The tags indexed by the name in lowercase letters and in uppercase
+     * letters.
+     */
+    private static final Map<String, HTMLTag> TAGS =
+            new HashMap<String, HTMLTag>();
+
+    static {
+        for (HTMLTag tag : values()) {
+            if (tag != UNKNOWN) {
+                TAGS.put(tag.name(), tag);
+                TAGS.put(tag.name().toLowerCase(), tag);
+            }
+        }
+    }
+
+    /**
+     * Returns the tag of a tag name.
+     * @param tagName The tag name, in any case.
+     * @return The tag or {@link #UNKNOWN} if the tag name is not known.
+     */
+    public static HTMLTag fromName(final String tagName) {
+        HTMLTag tag = TAGS.get(tagName);
+        if (tag == null) {
+            tag = TAGS.get(tagName.toLowerCase());
+            if (tag == null) {
+                tag = UNKNOWN;
+            }
+        }
+        return tag;
+    }
+
+    /**
+     * Returns a set of tags by names.
+     * @param tagNames The tag names, in any case.
+     * @return The set of known tags.
+     */
+    public static EnumSet<HTMLTag> setOf(final Iterable<String> tagNames) {
+        EnumSet<HTMLTag> tags = EnumSet.noneOf(HTMLTag.class);
+        for (String tagName : tagNames) {
+            HTMLTag tag = fromName(tagName);
+            if (tag != UNKNOWN) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,476 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.hatemile.implementation.AccessibleDisplayScreenReaderConfiguration;
+import org.hatemile.util.Configure;
+import org.hatemile.util.ConfigureSnapshot;
+import org.hatemile.util.IDGenerator;
+import org.hatemile.util.ScriptResource;
+
+/**
+ * The LocalizedAnalysis class executes the solutions once by document for
+ * configurations of many locales, like
+ * <code>hatemile-configure.properties</code> and
+ * <code>hatemile-configure_pt_BR.properties</code>. The solutions are executed
+ * with a configuration that has markers in place of the texts that are
+ * different between the locales and the plan of changes is localized, for
+ * each locale, replacing the markers by the texts of locale. The locales that
+ * differ in other parameters, in the empty texts or in the spaces at the
+ * start or end of texts are analyzed separately.
+ */
+public final class LocalizedAnalysis {
+
+    /**
+     * The character that starts a marker of text.
+     */
+    private static final char MARKER_START = '\uE000';
+
+    /**
+     * The character that ends a marker of text.
+     */
+    private static final char MARKER_END = '\uE001';
+
+    /**
+     * The parameters that are not texts and are never replaced by markers,
+     * exposed by the classes that read them.
+     */
+    private static final List<String> SETTING_PARAMETERS =
+            getSettingParameters(IDGenerator.SETTING_PARAMETERS,
+                ScriptResource.SETTING_PARAMETERS,
+                AccessibleDisplayScreenReaderConfiguration.SETTING_PARAMETERS);
+
+    /**
+     * The number of configurations.
+     */
+    private final int size;
+
+    /**
+     * The groups of configurations analyzed together.
+     */
+    private final List<LocaleGroup> groups;
+
+    /**
+     * The LocalizedAnalysis.LocaleGroup class contains the configurations
+     * that are analyzed together.
+     */
+    private static final class LocaleGroup {
+
+        /**
+         * The configuration used by analysis, with markers in place of texts.
+         */
+        private final Configure configure;
+
+        /**
+         * The positions of configurations of group.
+         */
+        private final List<Integer> positions;
+
+        /**
+         * The texts of markers of each configuration of group, or null if the
+         * configuration is used by analysis.
+         */
+        private final List<String[]> texts;
+
+        /**
+         * Initializes a new group of configurations.
+         * @param analysisConfigure The configuration used by analysis.
+         * @param groupPositions The positions of configurations of group.
+         * @param groupTexts The texts of markers of each configuration of
+         * group.
+         */
+        private LocaleGroup(final Configure analysisConfigure,
+                final List<Integer> groupPositions,
+                final List<String[]> groupTexts) {
+            configure = analysisConfigure;
+            positions = groupPositions;
+            texts = groupTexts;
+        }
+    }
+
+    /**
+     * Initializes a new analysis for configurations of many locales. The
+     * parameters of configurations are read once, by this constructor.
+     * @param configurations The configurations of HaTeMiLe.
+     */
+    public LocalizedAnalysis(final List<Configure> configurations) {
+        if (configurations.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "At least one configuration is required");
+        }
+        List<Map<String, String>> parameters =
+                new ArrayList<Map<String, String>>();
+        Set<String> names = new TreeSet<String>();
+        for (Configure configure : configurations) {
+            Map<String, String> configureParameters = configure.getSnapshot()
+                    .getParameters();
+            parameters.add(configureParameters);
+            names.addAll(configureParameters.keySet());
+        }
+        List<String> localizedNames = new ArrayList<String>();
+        for (String name : names) {
+            if ((!SETTING_PARAMETERS.contains(name))
+                    && (!isShared(parameters, name))) {
+                localizedNames.add(name);
+            }
+        }
+        Map<List<String>, List<Integer>> signatures =
+                new LinkedHashMap<List<String>, List<Integer>>();
+        for (int i = 0, length = parameters.size(); i < length; i++) {
+            List<String> signature = getSignature(parameters.get(i),
+                    localizedNames);
+            List<Integer> positions = signatures.get(signature);
+            if (positions == null) {
+                positions = new ArrayList<Integer>();
+                signatures.put(signature, positions);
+            }
+            positions.add(i);
+        }
+        groups = new ArrayList<LocaleGroup>();
+        for (List<Integer> positions : signatures.values()) {
+            groups.add(createGroup(configurations, parameters, localizedNames,
+                    positions));
+        }
+        size = configurations.size();
+    }
+
+    /**
+     * Returns the parameters that are not texts of the classes that read
+     * them.
+     * @param settingParameters The names of parameters that are not texts of
+     * each class.
+     * @return The names of parameters that are not texts.
+     */
+    @SafeVarargs
+    private static List<String> getSettingParameters(
+            final List<String>... settingParameters) {
+        List<String> names = new ArrayList<String>();
+        for (List<String> classSettingParameters : settingParameters) {
+            names.addAll(classSettingParameters);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Check that all configurations have the same value of a parameter.
+     * @param parameters The parameters of configurations.
+     * @param name The name of parameter.
+     * @return True if all configurations have the same value of parameter or
+     * false if the value is different in some configuration.
+     */
+    private static boolean isShared(final List<Map<String, String>> parameters,
+            final String name) {
+        String value = parameters.get(0).get(name);
+        for (Map<String, String> configureParameters : parameters) {
+            if (!Objects.equals(value, configureParameters.get(name))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first character of a text that is not a space,
+     * like {@link String#trim()}.
+     * @param value The text.
+     * @return The index of the first character that is not a space.
+     */
+    private static int getTextStart(final String value) {
+        int start = 0;
+        while ((start < value.length()) && (value.charAt(start) <= ' ')) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the index after the last character of a text that is not a
+     * space, like {@link String#trim()}.
+     * @param value The text.
+     * @return The index after the last character that is not a space.
+     */
+    private static int getTextEnd(final String value) {
+        int start = getTextStart(value);
+        int end = value.length();
+        while ((end > start) && (value.charAt(end - 1) <= ' ')) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the signature of the parameters of a configuration. The
+     * configurations with same signature can be analyzed together.
+     * @param parameters The parameters of configuration.
+     * @param localizedNames The names of parameters that are different between
+     * the configurations.
+     * @return The signature of parameters.
+     */
+    private static List<String> getSignature(
+            final Map<String, String> parameters,
+            final List<String> localizedNames) {
+        List<String> signature = new ArrayList<String>();
+        for (String name : localizedNames) {
+            String value = parameters.get(name);
+            if (value == null) {
+                signature.add(null);
+            } else {
+                int start = getTextStart(value);
+                int end = getTextEnd(value);
+                signature.add(value.substring(0, start) + MARKER_END
+                        + value.substring(end) + MARKER_END + (start == end));
+            }
+        }
+        for (String name : SETTING_PARAMETERS) {
+            signature.add(parameters.get(name));
+        }
+        return signature;
+    }
+
+    /**
+     * Returns a group of configurations analyzed together.
+     * @param configurations The configurations of HaTeMiLe.
+     * @param parameters The parameters of configurations.
+     * @param localizedNames The names of parameters that are different between
+     * the configurations.
+     * @param positions The positions of configurations of group.
+     * @return The group of configurations.
+     */
+    private static LocaleGroup createGroup(
+            final List<Configure> configurations,
+            final List<Map<String, String>> parameters,
+            final List<String> localizedNames, final List<Integer> positions) {
+        int first = positions.get(0);
+        if (positions.size() == 1) {
+            return new LocaleGroup(configurations.get(first), positions,
+                    Collections.<String[]>singletonList(null));
+        }
+        Map<String, String> analysisParameters =
+                new HashMap<String, String>(parameters.get(first));
+        List<String[]> texts = new ArrayList<String[]>();
+        for (int j = 0, length = positions.size(); j < length; j++) {
+            texts.add(new String[localizedNames.size()]);
+        }
+        for (int i = 0, length = localizedNames.size(); i < length; i++) {
+            String name = localizedNames.get(i);
+            String value = analysisParameters.get(name);
+            if (value != null) {
+                int start = getTextStart(value);
+                int end = getTextEnd(value);
+                if (start < end) {
+                    analysisParameters.put(name, value.substring(0, start)
+                            + MARKER_START + i + MARKER_END
+                            + value.substring(end));
+                    for (int j = 0; j < positions.size(); j++) {
+                        String text = parameters.get(positions.get(j))
+                                .get(name);
+                        texts.get(j)[i] = text.substring(getTextStart(text),
+                                getTextEnd(text));
+                    }
+                }
+            }
+        }
+        return new LocaleGroup(new Configure(
+                new ConfigureSnapshot(analysisParameters)), positions, texts);
+    }
+
+    /**
+     * Returns the index of a marker.
+     * @param value The text with the marker.
+     * @param start The index of start of marker.
+     * @param end The index of end of marker.
+     * @param count The number of markers.
+     * @return The index of marker or -1 if the characters are not a marker.
+     */
+    private static int getMarkerIndex(final String value, final int start,
+            final int end, final int count) {
+        if ((end - start) < 2) {
+            return -1;
+        }
+        for (int i = start + 1; i < end; i++) {
+            char digit = value.charAt(i);
+            if ((digit < '0') || (digit > '9')) {
+                return -1;
+            }
+        }
+        int index;
+        try {
+            index = Integer.parseInt(value.substring(start + 1, end));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+        if (index >= count) {
+            return -1;
+        }
+        return index;
+    }
+
+    /**
+     * Replace the markers of a text by the texts of a locale.
+     * @param value The text with markers.
+     * @param texts The texts of markers.
+     * @return The text without markers.
+     */
+    private static String localize(final String value, final String[] texts) {
+        int start = value.indexOf(MARKER_START);
+        if (start == -1) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder();
+        int last = 0;
+        while (start != -1) {
+            int end = value.indexOf(MARKER_END, start);
+            if (end == -1) {
+                break;
+            }
+            int index = getMarkerIndex(value, start, end, texts.length);
+            if ((index != -1) && (texts[index] != null)) {
+                builder.append(value, last, start).append(texts[index]);
+                last = end + 1;
+                start = value.indexOf(MARKER_START, last);
+            } else {
+                start = value.indexOf(MARKER_START, start + 1);
+            }
+        }
+        return builder.append(value, last, value.length()).toString();
+    }
+
+    /**
+     * Replace the markers of a copy of node by the texts of a locale.
+     * @param node The copy of node with markers.
+     * @param texts The texts of markers.
+     * @return The copy of node without markers.
+     */
+    private static FixNode localize(final FixNode node, final String[] texts) {
+        if (node.getType() != FixNode.Type.ELEMENT) {
+            return FixNode.createNode(node.getType(),
+                    localize(node.getValue(), texts));
+        }
+        Map<String, String> attributes = new LinkedHashMap<String, String>();
+        for (Map.Entry<String, String> attribute
+                : node.getAttributes().entrySet()) {
+            attributes.put(attribute.getKey(),
+                    localize(attribute.getValue(), texts));
+        }
+        List<FixNode> children = new ArrayList<FixNode>();
+        for (FixNode child : node.getChildren()) {
+            children.add(localize(child, texts));
+        }
+        return FixNode.createElement(node.getValue(), attributes, children);
+    }
+
+    /**
+     * Replace the markers of a plan by the texts of a locale.
+     * @param plan The plan with markers.
+     * @param texts The texts of markers or null if the plan not has markers.
+     * @return The plan without markers.
+     */
+    private static FixPlan localize(final FixPlan plan, final String[] texts) {
+        if (texts == null) {
+            return plan;
+        }
+        List<FixOperation> operations = new ArrayList<FixOperation>(
+                plan.size());
+        for (FixOperation operation : plan.getOperations()) {
+            switch (operation.getType()) {
+                case SET_ATTRIBUTE:
+                    operations.add(FixOperation.setAttribute(
+                            operation.getPath(), operation.getName(),
+                            localize(operation.getValue(), texts)));
+                    break;
+                case SET_TEXT:
+                    operations.add(FixOperation.setText(operation.getPath(),
+                            localize(operation.getValue(), texts)));
+                    break;
+                case INSERT_NODE:
+                    operations.add(FixOperation.insertNode(
+                            operation.getPath(),
+                            localize(operation.getNode(), texts)));
+                    break;
+                default:
+                    operations.add(operation);
+                    break;
+            }
+        }
+        return new FixPlan(operations);
+    }
+
+    /**
+     * Returns the plans of the changes that the solutions make in a document,
+     * for each configuration. The solutions are executed once for each group
+     * of configurations that can be analyzed together, in a copy of document.
+     * @param parser The HTML parser of document.
+     * @param solutions The action that executes the solutions in the parser
+     * received, with the configuration received.
+     * @return The plans of changes, in the order of configurations.
+     * @throws UnsupportedOperationException If the parser not supports copies
+     * or plans.
+     */
+    public List<FixPlan> analyze(final HTMLDOMParser parser,
+            final BiConsumer<? super HTMLDOMParser, ? super Configure>
+                solutions) {
+        FixPlan[] plans = new FixPlan[size];
+        for (final LocaleGroup group : groups) {
+            FixPlan plan = FixPlan.analyze(parser,
+                    new Consumer<HTMLDOMParser>() {
+                /** {@inheritDoc} */
+                @Override
+                public void accept(final HTMLDOMParser copyParser) {
+                    solutions.accept(copyParser, group.configure);
+                }
+            });
+            for (int i = 0, length = group.positions.size(); i < length;
+                    i++) {
+                plans[group.positions.get(i)] = localize(plan,
+                        group.texts.get(i));
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(plans));
+    }
+
+    /**
+     * Returns the HTML code of a document, with the changes that the
+     * solutions make, for each configuration. The document of parser is not
+     * modified.
+     * @param parser The HTML parser of document.
+     * @param solutions The action that executes the solutions in the parser
+     * received, with the configuration received.
+     * @return The HTML codes, in the order of configurations.
+     * @throws UnsupportedOperationException If the parser not supports copies
+     * or plans.
+     */
+    public List<String> render(final HTMLDOMParser parser,
+            final BiConsumer<? super HTMLDOMParser, ? super Configure>
+                solutions) {
+        List<String> codes = new ArrayList<String>(size);
+        for (FixPlan plan : analyze(parser, solutions)) {
+            HTMLDOMParser localizedParser = parser.cloneParser();
+            plan.applyTo(localizedParser);
+            codes.add(localizedParser.getHTML());
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,274 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html.jsoup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hatemile.util.html.FixNode;
+import org.hatemile.util.html.FixOperation;
+import org.hatemile.util.html.FixPlan;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Tag;
+
+/**
+ * The JsoupFixPlanRecorder class records the changes of a Jsoup document in a
+ * {@link org.hatemile.util.html.FixPlan} and applies the plans to Jsoup
+ * documents.
+ */
+public class JsoupFixPlanRecorder {
+
+    /**
+     * The Jsoup document recorded.
+     */
+    protected final Document document;
+
+    /**
+     * The operations recorded.
+     */
+    protected final List<FixOperation> operations;
+
+    /**
+     * Initializes a new object that records the changes of a Jsoup document.
+     * @param jsoupDocument The Jsoup document.
+     */
+    public JsoupFixPlanRecorder(final Document jsoupDocument) {
+        document = jsoupDocument;
+        operations = new ArrayList<FixOperation>();
+    }
+
+    /**
+     * Returns the path of a Jsoup node in document.
+     * @param node The Jsoup node.
+     * @return The path of node or null if the node is not in document.
+     */
+    protected int[] getPath(final Node node) {
+        int depth = 0;
+        Node current = node;
+        while (current != document) {
+            if (current == null) {
+                return null;
+            }
+            depth++;
+            current = current.parent();
+        }
+        int[] path = new int[depth];
+        current = node;
+        for (int i = depth - 1; i >= 0; i--) {
+            path[i] = current.siblingIndex();
+            current = current.parent();
+        }
+        return path;
+    }
+
+    /**
+     * Record that an attribute of element was created or modified.
+     * @param element The Jsoup element.
+     * @param name The name of attribute.
+     * @param value The value of attribute.
+     */
+    public synchronized void setAttribute(final Element element,
+            final String name, final String value) {
+        int[] path = getPath(element);
+        if (path != null) {
+            operations.add(FixOperation.setAttribute(path, name, value));
+        }
+    }
+
+    /**
+     * Record that an attribute of element was removed.
+     * @param element The Jsoup element.
+     * @param name The name of attribute.
+     */
+    public synchronized void removeAttribute(final Element element,
+            final String name) {
+        int[] path = getPath(element);
+        if (path != null) {
+            operations.add(FixOperation.removeAttribute(path, name));
+        }
+    }
+
+    /**
+     * Record that the content of a text node was replaced.
+     * @param textNode The Jsoup text node.
+     */
+    public synchronized void setText(final TextNode textNode) {
+        int[] path = getPath(textNode);
+        if (path != null) {
+            operations.add(FixOperation.setText(path,
+                    textNode.getWholeText()));
+        }
+    }
+
+    /**
+     * Record that a node was inserted. This method must be called after the
+     * insertion.
+     * @param node The Jsoup node.
+     */
+    public synchronized void insertNode(final Node node) {
+        int[] path = getPath(node);
+        if (path != null) {
+            operations.add(FixOperation.insertNode(path, toFixNode(node)));
+        }
+    }
+
+    /**
+     * Record that a node will be removed. This method must be called before
+     * the removal.
+     * @param node The Jsoup node.
+     */
+    public synchronized void removeNode(final Node node) {
+        int[] path = getPath(node);
+        if (path != null) {
+            operations.add(FixOperation.removeNode(path));
+        }
+    }
+
+    /**
+     * Record that the operations of a plan were applied.
+     * @param plan The plan applied.
+     */
+    public synchronized void addFixPlan(final FixPlan plan) {
+        operations.addAll(plan.getOperations());
+    }
+
+    /**
+     * Returns the plan with the operations recorded.
+     * @return The plan with the operations recorded.
+     */
+    public synchronized FixPlan getFixPlan() {
+        return new FixPlan(operations);
+    }
+
+    /**
+     * Returns a copy of a Jsoup node, independent of Jsoup.
+     * @param node The Jsoup node.
+     * @return The copy of node.
+     */
+    public static FixNode toFixNode(final Node node) {
+        if (node instanceof Element) {
+            Element element = (Element) node;
+            Map<String, String> attributes =
+                    new LinkedHashMap<String, String>();
+            for (Attribute attribute : element.attributes()) {
+                attributes.put(attribute.getKey(), attribute.getValue());
+            }
+            List<FixNode> children = new ArrayList<FixNode>();
+            for (Node child : element.childNodes()) {
+                children.add(toFixNode(child));
+            }
+            return FixNode.createElement(element.tagName(), attributes,
+                    children);
+        } else if (node instanceof TextNode) {
+            return FixNode.createNode(FixNode.Type.TEXT,
+                    ((TextNode) node).getWholeText());
+        } else if (node instanceof DataNode) {
+            return FixNode.createNode(FixNode.Type.DATA,
+                    ((DataNode) node).getWholeData());
+        } else if (node instanceof Comment) {
+            return FixNode.createNode(FixNode.Type.COMMENT,
+                    ((Comment) node).getData());
+        }
+        return FixNode.createNode(FixNode.Type.DATA, node.outerHtml());
+    }
+
+    /**
+     * Returns a Jsoup node with the content of a copy of node.
+     * @param fixNode The copy of node.
+     * @param baseUri The base URI of Jsoup document.
+     * @return The Jsoup node.
+     */
+    public static Node toJsoupNode(final FixNode fixNode,
+            final String baseUri) {
+        switch (fixNode.getType()) {
+            case ELEMENT:
+                Element element = new Element(Tag.valueOf(fixNode.getValue()),
+                        baseUri);
+                for (Map.Entry<String, String> attribute : fixNode
+                        .getAttributes().entrySet()) {
+                    element.attr(attribute.getKey(), attribute.getValue());
+                }
+                for (FixNode child : fixNode.getChildren()) {
+                    element.appendChild(toJsoupNode(child, baseUri));
+                }
+                return element;
+            case TEXT:
+                return new TextNode(fixNode.getValue(), baseUri);
+            case COMMENT:
+                return new Comment(fixNode.getValue(), baseUri);
+            default:
+                return new DataNode(fixNode.getValue(), baseUri);
+        }
+    }
+
+    /**
+     * Returns the Jsoup node of a path of operation.
+     * @param jsoupDocument The Jsoup document.
+     * @param operation The operation.
+     * @param length The number of nodes of path used.
+     * @return The Jsoup node of path.
+     */
+    protected static Node getNode(final Document jsoupDocument,
+            final FixOperation operation, final int length) {
+        Node node = jsoupDocument;
+        for (int i = 0; i < length; i++) {
+            node = node.childNode(operation.getPathIndex(i));
+        }
+        return node;
+    }
+
+    /**
+     * Apply the operations of a plan to a Jsoup document, in order.
+     * @param jsoupDocument The Jsoup document.
+     * @param plan The plan.
+     */
+    public static void applyFixPlan(final Document jsoupDocument,
+            final FixPlan plan) {
+        for (FixOperation operation : plan.getOperations()) {
+            int length = operation.getPathLength();
+            switch (operation.getType()) {
+                case SET_ATTRIBUTE:
+                    getNode(jsoupDocument, operation, length).attr(
+                            operation.getName(), operation.getValue());
+                    break;
+                case REMOVE_ATTRIBUTE:
+                    getNode(jsoupDocument, operation, length).removeAttr(
+                            operation.getName());
+                    break;
+                case SET_TEXT:
+                    ((TextNode) getNode(jsoupDocument, operation, length))
+                            .text(operation.getValue());
+                    break;
+                case INSERT_NODE:
+                    ((Element) getNode(jsoupDocument, operation, length - 1))
+                            .insertChildren(operation.getPathIndex(
+                                length - 1), Collections.singletonList(
+                                    toJsoupNode(operation.getNode(),
+                                        jsoupDocument.baseUri())));
+                    break;
+                default:
+                    getNode(jsoupDocument, operation, length).remove();
+                    break;
+            }
+        }
+    }
+}
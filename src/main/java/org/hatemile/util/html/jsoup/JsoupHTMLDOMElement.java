@@ -17,10 +17,16 @@ import org.hatemile.util.html.HTMLDOMElement;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import org.hatemile.util.html.HTMLDOMNode;
 import org.hatemile.util.html.HTMLDOMTextNode;
+import org.hatemile.util.html.HTMLTag;
 import org.jsoup.nodes.Attribute;
 import org.jsoup.nodes.Attributes;
 import org.jsoup.nodes.Comment;
@@ -50,7 +56,18 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
      * @param jsoupElement The Jsoup Element.
      */
     public JsoupHTMLDOMElement(final Element jsoupElement) {
-        super(Objects.requireNonNull(jsoupElement));
+        this(jsoupElement, null);
+    }
+
+    /**
+     * Initializes a new object that encapsulate the Jsoup Element, kept by the
+     * cache of nodes of a parser.
+     * @param jsoupElement The Jsoup Element.
+     * @param nodeCache The cache of nodes of parser or null.
+     */
+    protected JsoupHTMLDOMElement(final Element jsoupElement,
+            final JsoupHTMLDOMNodeCache nodeCache) {
+        super(Objects.requireNonNull(jsoupElement), nodeCache);
         this.element = jsoupElement;
     }
 
@@ -58,7 +75,18 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
      * {@inheritDoc}
      */
     public String getTagName() {
-        return element.tagName().toUpperCase();
+        HTMLTag tag = getTag();
+        if (tag == HTMLTag.UNKNOWN) {
+            return element.tagName().toUpperCase();
+        }
+        return tag.name();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public HTMLTag getTag() {
+        return HTMLTag.fromName(element.tagName());
     }
 
     /**
@@ -74,6 +102,10 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
     public void setAttribute(final String name, final String value) {
         element.attr(Objects.requireNonNull(name),
                 Objects.requireNonNull(value));
+        JsoupFixPlanRecorder recorder = getRecorder();
+        if (recorder != null) {
+            recorder.setAttribute(element, name, value);
+        }
     }
 
     /**
@@ -83,6 +115,10 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
         Objects.requireNonNull(name);
 
         if (hasAttribute(name)) {
+            JsoupFixPlanRecorder recorder = getRecorder();
+            if (recorder != null) {
+                recorder.removeAttribute(element, name);
+            }
             element.removeAttr(name);
         }
     }
@@ -101,11 +137,22 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
         return element.attributes().size() > 0;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void forEachAttribute(
+            final BiConsumer<? super String, ? super String> action) {
+        Objects.requireNonNull(action);
+        for (Attribute attribute : element.attributes()) {
+            action.accept(attribute.getKey(), attribute.getValue());
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     public String getTextContent() {
-        if (getTagName().equals("STYLE")) {
+        if (getTag() == HTMLTag.STYLE) {
             return element.data();
         } else {
             return element.text();
@@ -116,7 +163,9 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
      * {@inheritDoc}
      */
     public HTMLDOMElement appendElement(final HTMLDOMElement newElement) {
-        this.element.appendChild((Element) newElement.getData());
+        Node newJsoupNode = detach((Element) newElement.getData());
+        this.element.appendChild(newJsoupNode);
+        recordInsertion(newJsoupNode);
         return this;
     }
 
@@ -124,10 +173,83 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
      * {@inheritDoc}
      */
     public HTMLDOMElement prependElement(final HTMLDOMElement newElement) {
-        this.element.prependChild((Element) newElement.getData());
+        Node newJsoupNode = detach((Element) newElement.getData());
+        this.element.prependChild(newJsoupNode);
+        recordInsertion(newJsoupNode);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public HTMLDOMElement insertNodes(
+            final Map<Object, List<HTMLDOMNode>> nodesBefore,
+            final Map<Object, List<HTMLDOMNode>> nodesAfter) {
+        JsoupFixPlanRecorder recorder = getRecorder();
+        if (recorder != null) {
+            detachNodes(nodesBefore);
+            detachNodes(nodesAfter);
+        }
+        List<Node> children = new ArrayList<Node>(element.childNodes());
+        List<Node> nodes = new ArrayList<Node>();
+        addNodes(nodes, nodesBefore.get(element));
+        for (Node child : children) {
+            addNodes(nodes, nodesBefore.get(child));
+            nodes.add(child);
+            addNodes(nodes, nodesAfter.get(child));
+        }
+        addNodes(nodes, nodesAfter.get(element));
+
+        // Replacing each child detaches it without reindex the other children,
+        // so the children can be appended again in constant time.
+        for (Node child : children) {
+            child.replaceWith(new TextNode("", element.baseUri()));
+        }
+        element.empty();
+        for (Node node : nodes) {
+            element.appendChild(node);
+        }
+        if (recorder != null) {
+            Set<Node> originalChildren = Collections.newSetFromMap(
+                    new IdentityHashMap<Node, Boolean>());
+            originalChildren.addAll(children);
+            for (Node node : nodes) {
+                if (!originalChildren.contains(node)) {
+                    recorder.insertNode(node);
+                }
+            }
+        }
         return this;
     }
 
+    /**
+     * Remove the nodes of lists of nodes of their parents, recording the
+     * removal of nodes of document.
+     * @param htmlDOMNodes The lists of nodes.
+     */
+    private void detachNodes(
+            final Map<Object, List<HTMLDOMNode>> htmlDOMNodes) {
+        for (List<HTMLDOMNode> nodeList : htmlDOMNodes.values()) {
+            for (HTMLDOMNode htmlDOMNode : nodeList) {
+                detach((Node) htmlDOMNode.getData());
+            }
+        }
+    }
+
+    /**
+     * Add the Jsoup nodes of a list of nodes.
+     * @param nodes The list of Jsoup nodes.
+     * @param htmlDOMNodes The list of nodes or null.
+     */
+    private static void addNodes(final List<Node> nodes,
+            final List<HTMLDOMNode> htmlDOMNodes) {
+        if (htmlDOMNodes != null) {
+            for (HTMLDOMNode htmlDOMNode : htmlDOMNodes) {
+                nodes.add((Node) htmlDOMNode.getData());
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -135,7 +257,7 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
         List<HTMLDOMElement> elements = new ArrayList<HTMLDOMElement>();
         Elements children = element.children();
         for (Element child : children) {
-            elements.add(new JsoupHTMLDOMElement(child));
+            elements.add(wrapElement(child));
         }
         return Collections.unmodifiableList(elements);
     }
@@ -147,20 +269,32 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
         List<HTMLDOMNode> children = new ArrayList<HTMLDOMNode>();
         List<Node> childNodes = element.childNodes();
         for (Node child : childNodes) {
-            if (child instanceof Element) {
-                children.add(new JsoupHTMLDOMElement((Element) child));
-            } else if (child instanceof TextNode) {
-                children.add(new JsoupHTMLDOMTextNode((TextNode) child));
+            if ((child instanceof Element) || (child instanceof TextNode)) {
+                children.add(wrapNode(child));
             }
         }
         return Collections.unmodifiableList(children);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void forEachChild(final Consumer<? super HTMLDOMNode> action) {
+        Objects.requireNonNull(action);
+        List<Node> childNodes = element.childNodes();
+        for (Node child : childNodes) {
+            if ((child instanceof Element) || (child instanceof TextNode)) {
+                action.accept(wrapNode(child));
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     public HTMLDOMElement appendText(final String text) {
         element.appendText(Objects.requireNonNull(text));
+        recordInsertion(element.childNode(element.childNodeSize() - 1));
         return this;
     }
 
@@ -169,6 +303,7 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
      */
     public HTMLDOMElement prependText(final String text) {
         element.prependText(Objects.requireNonNull(text));
+        recordInsertion(element.childNode(0));
         return this;
     }
 
@@ -240,7 +375,7 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
      * {@inheritDoc}
      */
     public HTMLDOMElement cloneElement() {
-        return new JsoupHTMLDOMElement(element.clone());
+        return wrapElement(element.clone());
     }
 
     /**
@@ -250,7 +385,7 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
         if (!hasChildrenElements()) {
             return null;
         }
-        return new JsoupHTMLDOMElement(element.children().first());
+        return wrapElement(element.children().first());
     }
 
     /**
@@ -260,7 +395,7 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
         if (!hasChildrenElements()) {
             return null;
         }
-        return new JsoupHTMLDOMElement(element.children().last());
+        return wrapElement(element.children().last());
     }
 
     /**
@@ -269,10 +404,8 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
     public HTMLDOMNode getFirstNodeChild() {
         List<Node> childNodes = element.childNodes();
         for (Node child : childNodes) {
-            if (child instanceof Element) {
-                return new JsoupHTMLDOMElement((Element) child);
-            } else if (child instanceof TextNode) {
-                return new JsoupHTMLDOMTextNode((TextNode) child);
+            if ((child instanceof Element) || (child instanceof TextNode)) {
+                return wrapNode(child);
             }
         }
 
@@ -294,33 +427,26 @@ public class JsoupHTMLDOMElement extends JsoupHTMLDOMNode
         }
 
         if (lastNode != null) {
-            if (lastNode instanceof Element) {
-                return new JsoupHTMLDOMElement((Element) lastNode);
-            } else if (lastNode instanceof TextNode) {
-                return new JsoupHTMLDOMTextNode((TextNode) lastNode);
-            }
+            return wrapNode(lastNode);
         }
         return null;
     }
 
+    /**
+     * Returns if other object is this element. Each Jsoup element is
+     * encapsulated by only one element of parser, so the elements are equal
+     * only if they are the same object.
+     * @param object The other object.
+     * @return True if the object is this element or false if not.
+     */
     @Override
     public boolean equals(final Object object) {
-        if (this != object) {
-            if (object == null) {
-                return false;
-            }
-            if (!(object instanceof HTMLDOMElement)) {
-                return false;
-            }
-            HTMLDOMElement htmlDOMElement = (HTMLDOMElement) object;
-            return this.getData().equals(htmlDOMElement.getData());
-        }
-        return true;
+        return this == object;
     }
 
     @Override
     public int hashCode() {
-        return this.element.hashCode();
+        return System.identityHashCode(this);
     }
 
     @Override
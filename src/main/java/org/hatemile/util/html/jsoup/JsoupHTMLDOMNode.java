@@ -20,6 +20,7 @@ import org.hatemile.util.html.HTMLDOMNode;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
 
 /**
  * The JsoupHTMLDOMNode class is official implementation of
@@ -32,21 +33,109 @@ public abstract class JsoupHTMLDOMNode implements HTMLDOMNode {
      */
     protected Node node;
 
+    /**
+     * The cache of nodes of parser or null if the node was not created by a
+     * parser.
+     */
+    protected JsoupHTMLDOMNodeCache cache;
+
     /**
      * Initializes a new object that encapsulate the Jsoup Node.
      * @param jsoupNode The Jsoup Node.
      */
     protected JsoupHTMLDOMNode(final Node jsoupNode) {
+        this(jsoupNode, null);
+    }
+
+    /**
+     * Initializes a new object that encapsulate the Jsoup Node.
+     * @param jsoupNode The Jsoup Node.
+     * @param nodeCache The cache of nodes of parser or null.
+     */
+    protected JsoupHTMLDOMNode(final Node jsoupNode,
+            final JsoupHTMLDOMNodeCache nodeCache) {
         this.node = Objects.requireNonNull(jsoupNode);
+        this.cache = nodeCache;
+    }
+
+    /**
+     * Returns the element that encapsulate a Jsoup element, kept by the cache
+     * of this node.
+     * @param jsoupElement The Jsoup element.
+     * @return The element that encapsulate the Jsoup element.
+     */
+    protected JsoupHTMLDOMElement wrapElement(final Element jsoupElement) {
+        if (cache == null) {
+            return new JsoupHTMLDOMElement(jsoupElement);
+        }
+        return cache.getElement(jsoupElement);
+    }
+
+    /**
+     * Returns the node that encapsulate a Jsoup element or a Jsoup text node,
+     * kept by the cache of this node.
+     * @param jsoupNode The Jsoup node.
+     * @return The node that encapsulate the Jsoup node or null if the Jsoup
+     * node is not an element or a text node.
+     */
+    protected JsoupHTMLDOMNode wrapNode(final Node jsoupNode) {
+        if (cache != null) {
+            return cache.getNode(jsoupNode);
+        } else if (jsoupNode instanceof Element) {
+            return new JsoupHTMLDOMElement((Element) jsoupNode);
+        } else if (jsoupNode instanceof TextNode) {
+            return new JsoupHTMLDOMTextNode((TextNode) jsoupNode);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the recorder of changes of document of this node.
+     * @return The recorder of changes or null if the changes are not recorded.
+     */
+    protected JsoupFixPlanRecorder getRecorder() {
+        if (cache == null) {
+            return null;
+        }
+        return cache.getRecorder();
+    }
+
+    /**
+     * Remove a Jsoup node of its parent, before insert it in other place.
+     * @param jsoupNode The Jsoup node.
+     * @return The Jsoup node.
+     */
+    protected Node detach(final Node jsoupNode) {
+        if (jsoupNode.parent() != null) {
+            JsoupFixPlanRecorder recorder = getRecorder();
+            if (recorder != null) {
+                recorder.removeNode(jsoupNode);
+            }
+            jsoupNode.remove();
+        }
+        return jsoupNode;
+    }
+
+    /**
+     * Record that a Jsoup node was inserted, if the changes are recorded.
+     * @param jsoupNode The Jsoup node inserted.
+     */
+    protected void recordInsertion(final Node jsoupNode) {
+        JsoupFixPlanRecorder recorder = getRecorder();
+        if (recorder != null) {
+            recorder.insertNode(jsoupNode);
+        }
     }
 
     /**
      * {@inheritDoc}
      */
     public HTMLDOMNode insertBefore(final HTMLDOMNode newNode) {
+        Node newJsoupNode = detach((Node) newNode.getData());
         Element parent = (Element) node.parent();
-        int index = parent.childNodes().indexOf(node);
-        parent.insertChildren(index, Arrays.asList((Node) newNode.getData()));
+        int index = node.siblingIndex();
+        parent.insertChildren(index, Arrays.asList(newJsoupNode));
+        recordInsertion(newJsoupNode);
         return this;
     }
 
@@ -54,14 +143,15 @@ public abstract class JsoupHTMLDOMNode implements HTMLDOMNode {
      * {@inheritDoc}
      */
     public HTMLDOMNode insertAfter(final HTMLDOMNode newNode) {
+        Node newJsoupNode = detach((Node) newNode.getData());
         Element parent = (Element) node.parent();
-        int index = parent.childNodes().indexOf(node);
+        int index = node.siblingIndex();
         if (index < parent.childNodes().size()) {
-            parent.insertChildren(index + 1,
-                    Arrays.asList((Node) newNode.getData()));
+            parent.insertChildren(index + 1, Arrays.asList(newJsoupNode));
         } else {
-            parent.appendChild((Node) newNode.getData());
+            parent.appendChild(newJsoupNode);
         }
+        recordInsertion(newJsoupNode);
         return this;
     }
 
@@ -69,6 +159,10 @@ public abstract class JsoupHTMLDOMNode implements HTMLDOMNode {
      * {@inheritDoc}
      */
     public HTMLDOMNode removeNode() {
+        JsoupFixPlanRecorder recorder = getRecorder();
+        if (recorder != null) {
+            recorder.removeNode(node);
+        }
         node.remove();
         return this;
     }
@@ -77,10 +171,26 @@ public abstract class JsoupHTMLDOMNode implements HTMLDOMNode {
      * {@inheritDoc}
      */
     public HTMLDOMNode replaceNode(final HTMLDOMNode newNode) {
-        node.replaceWith((Node) newNode.getData());
+        Node newJsoupNode = detach((Node) newNode.getData());
+        JsoupFixPlanRecorder recorder = getRecorder();
+        if (recorder != null) {
+            recorder.removeNode(node);
+        }
+        node.replaceWith(newJsoupNode);
+        recordInsertion(newJsoupNode);
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public int getIndex() {
+        if (node.parent() == null) {
+            return -1;
+        }
+        return node.siblingIndex();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -89,7 +199,7 @@ public abstract class JsoupHTMLDOMNode implements HTMLDOMNode {
         if ((parent == null) || (parent instanceof Document)) {
             return null;
         }
-        return new JsoupHTMLDOMElement((Element) parent);
+        return wrapElement((Element) parent);
     }
 
     /**
@@ -103,6 +213,11 @@ public abstract class JsoupHTMLDOMNode implements HTMLDOMNode {
      * {@inheritDoc}
      */
     public void setData(final Object data) {
-        node = (Node) Objects.requireNonNull(data);
+        Objects.requireNonNull(data);
+        if (cache != null) {
+            cache.removeNode(this);
+            cache = null;
+        }
+        node = (Node) data;
     }
 }
@@ -0,0 +1,131 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html.jsoup;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+/**
+ * The JsoupHTMLDOMNodeCache class keeps the nodes that encapsulate the Jsoup
+ * nodes of a parser, so that each Jsoup node is encapsulated by only one node
+ * until the parser is cleared. So the nodes of a parser can be compared by
+ * identity. The lookup is guarded by the lock of cache, because the tables of
+ * a document can be associated in parallel. The cache also keeps the recorder
+ * of changes of the parser, that the nodes use to record the plans of
+ * {@link org.hatemile.util.html.FixPlan}.
+ */
+public class JsoupHTMLDOMNodeCache {
+
+    /**
+     * The nodes, indexed by the encapsulated Jsoup node.
+     */
+    private final Map<Node, JsoupHTMLDOMNode> nodes;
+
+    /**
+     * The recorder of changes of document or null if the changes are not
+     * recorded.
+     */
+    private volatile JsoupFixPlanRecorder recorder;
+
+    /**
+     * Initializes a new cache of nodes.
+     */
+    public JsoupHTMLDOMNodeCache() {
+        nodes = new IdentityHashMap<Node, JsoupHTMLDOMNode>();
+    }
+
+    /**
+     * Returns the element that encapsulate a Jsoup element.
+     * @param jsoupElement The Jsoup element.
+     * @return The element that encapsulate the Jsoup element.
+     */
+    public synchronized JsoupHTMLDOMElement getElement(
+            final Element jsoupElement) {
+        JsoupHTMLDOMNode node = nodes.get(jsoupElement);
+        if (!(node instanceof JsoupHTMLDOMElement)) {
+            node = new JsoupHTMLDOMElement(jsoupElement, this);
+            nodes.put(jsoupElement, node);
+        }
+        return (JsoupHTMLDOMElement) node;
+    }
+
+    /**
+     * Returns the text node that encapsulate a Jsoup text node.
+     * @param jsoupTextNode The Jsoup text node.
+     * @return The text node that encapsulate the Jsoup text node.
+     */
+    public synchronized JsoupHTMLDOMTextNode getTextNode(
+            final TextNode jsoupTextNode) {
+        JsoupHTMLDOMNode node = nodes.get(jsoupTextNode);
+        if (!(node instanceof JsoupHTMLDOMTextNode)) {
+            node = new JsoupHTMLDOMTextNode(jsoupTextNode, this);
+            nodes.put(jsoupTextNode, node);
+        }
+        return (JsoupHTMLDOMTextNode) node;
+    }
+
+    /**
+     * Returns the node that encapsulate a Jsoup node, if the Jsoup node is an
+     * element or a text node.
+     * @param jsoupNode The Jsoup node.
+     * @return The node that encapsulate the Jsoup node or null if the Jsoup
+     * node is not an element or a text node.
+     */
+    public JsoupHTMLDOMNode getNode(final Node jsoupNode) {
+        if (jsoupNode instanceof Element) {
+            return getElement((Element) jsoupNode);
+        } else if (jsoupNode instanceof TextNode) {
+            return getTextNode((TextNode) jsoupNode);
+        }
+        return null;
+    }
+
+    /**
+     * Stop keeping a node.
+     * @param node The node.
+     */
+    public synchronized void removeNode(final JsoupHTMLDOMNode node) {
+        Node jsoupNode = (Node) node.getData();
+        if (nodes.get(jsoupNode) == node) {
+            nodes.remove(jsoupNode);
+        }
+    }
+
+    /**
+     * Stop keeping all nodes.
+     */
+    public synchronized void clear() {
+        nodes.clear();
+    }
+
+    /**
+     * Returns the recorder of changes of the document of nodes.
+     * @return The recorder of changes or null if the changes are not recorded.
+     */
+    public JsoupFixPlanRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Define the recorder of changes of the document of nodes.
+     * @param fixPlanRecorder The recorder of changes or null to not record the
+     * changes.
+     */
+    public void setRecorder(final JsoupFixPlanRecorder fixPlanRecorder) {
+        recorder = fixPlanRecorder;
+    }
+}
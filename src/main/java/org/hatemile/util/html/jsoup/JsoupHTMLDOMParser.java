@@ -13,13 +13,19 @@ limitations under the License.
  */
 package org.hatemile.util.html.jsoup;
 
+import org.hatemile.util.html.FixPlan;
 import org.hatemile.util.html.HTMLDOMElement;
 import org.hatemile.util.html.HTMLDOMParser;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -42,12 +48,18 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
      */
     protected Elements results;
 
+    /**
+     * The nodes that encapsulate the Jsoup nodes of document.
+     */
+    protected final JsoupHTMLDOMNodeCache nodeCache;
+
     /**
      * Initializes a new object that encapsulate the parser of Jsoup.
      * @param jsoupDocument The root element of the parser.
      */
     public JsoupHTMLDOMParser(final Document jsoupDocument) {
         this.document = Objects.requireNonNull(jsoupDocument);
+        nodeCache = new JsoupHTMLDOMNodeCache();
     }
 
     /**
@@ -56,6 +68,7 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
      */
     public JsoupHTMLDOMParser(final String code) {
         document = Jsoup.parse(Objects.requireNonNull(code));
+        nodeCache = new JsoupHTMLDOMNodeCache();
     }
 
     /**
@@ -67,20 +80,67 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
      */
     protected Element getDescendantOf(final Element reference,
             final Element searched) {
-        if (reference.children().contains(searched)) {
-            return searched;
-        } else if (!reference.children().isEmpty()) {
-            Elements children = reference.children();
-            for (Element child : children) {
-                Element element = getDescendantOf(child, searched);
-                if (element != null) {
-                    return element;
-                }
+        Element parent = searched.parent();
+        while (parent != null) {
+            if (parent == reference) {
+                return searched;
             }
+            parent = parent.parent();
         }
         return null;
     }
 
+    /**
+     * Returns a set of elements, compared by identity.
+     * @param elements The elements.
+     * @return The set of elements.
+     */
+    protected static Set<Element> getIdentitySet(
+            final Collection<Element> elements) {
+        Set<Element> set = Collections.newSetFromMap(
+                new IdentityHashMap<Element, Boolean>());
+        set.addAll(elements);
+        return set;
+    }
+
+    /**
+     * Returns the ancestors of elements, compared by identity. The parent
+     * chain of each element is walked until an ancestor already found.
+     * @param elements The elements.
+     * @return The ancestors of elements, without the document.
+     */
+    protected static Set<Element> getAncestors(
+            final Collection<Element> elements) {
+        Set<Element> ancestors = Collections.newSetFromMap(
+                new IdentityHashMap<Element, Boolean>());
+        for (Element element : elements) {
+            Element parent = element.parent();
+            while ((parent != null) && (!(parent instanceof Document))
+                    && (ancestors.add(parent))) {
+                parent = parent.parent();
+            }
+        }
+        return ancestors;
+    }
+
+    /**
+     * Check that an element has an ancestor in a set of elements.
+     * @param element The element.
+     * @param elements The set of elements, compared by identity.
+     * @return True if an ancestor of element is in the set or false if not.
+     */
+    protected static boolean hasAncestorIn(final Element element,
+            final Set<Element> elements) {
+        Element parent = element.parent();
+        while (parent != null) {
+            if (elements.contains(parent)) {
+                return true;
+            }
+            parent = parent.parent();
+        }
+        return false;
+    }
+
     /**
      * Convert the original selector in a selector specific for Jsoup.
      * @param selector The original selector.
@@ -148,10 +208,13 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
      */
     public HTMLDOMParser findChildren(final String selector) {
         Elements elements = new Elements();
+        Set<Element> parents = getIdentitySet(results);
+        Set<Element> children = Collections.newSetFromMap(
+                new IdentityHashMap<Element, Boolean>());
         Elements descendants = results.select(getFormatedSelector(selector));
         for (Element element : descendants) {
-            if ((results.contains(element.parent()))
-                    && (!elements.contains(element))) {
+            if ((parents.contains(element.parent()))
+                    && (children.add(element))) {
                 elements.add(element);
             }
         }
@@ -164,8 +227,9 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
      */
     public HTMLDOMParser findChildren(final HTMLDOMElement child) {
         Element element = (Element) child.getData();
+        Element parent = element.parent();
         for (Element result : results) {
-            if (result.children().contains(element)) {
+            if (result == parent) {
                 results = new Elements(element);
                 break;
             }
@@ -186,12 +250,9 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
      */
     public HTMLDOMParser findDescendants(final HTMLDOMElement descendant) {
         Elements elements = new Elements();
-        for (Element resultElement : results) {
-            Element element = getDescendantOf(resultElement,
-                    (Element) descendant.getData());
-            if ((element != null) && (!elements.contains(element))) {
-                elements.add(element);
-            }
+        Element element = (Element) descendant.getData();
+        if (hasAncestorIn(element, getIdentitySet(results))) {
+            elements.add(element);
         }
         results = elements;
         return this;
@@ -203,10 +264,10 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
     public HTMLDOMParser findAncestors(final String selector) {
         Elements findedElements = document
                 .select(getFormatedSelector(selector));
+        Set<Element> ancestors = getAncestors(results);
         Elements elements = new Elements();
         for (Element element : findedElements) {
-            if ((results.parents().contains(element))
-                    && (!elements.contains(element))) {
+            if (ancestors.remove(element)) {
                 elements.add(element);
             }
         }
@@ -218,7 +279,7 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
      * {@inheritDoc}
      */
     public HTMLDOMParser findAncestors(final HTMLDOMElement element) {
-        if (results.parents().contains((Element) element.getData())) {
+        if (getAncestors(results).contains((Element) element.getData())) {
             results = new Elements((Element) element.getData());
         } else {
             results = new Elements();
@@ -233,6 +294,7 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
         results.clear();
         results = null;
         document = null;
+        nodeCache.clear();
     }
 
     /**
@@ -242,7 +304,7 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
         if (results.isEmpty()) {
             return null;
         }
-        return new JsoupHTMLDOMElement(results.first());
+        return nodeCache.getElement(results.first());
     }
 
     /**
@@ -252,7 +314,7 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
         if (results.isEmpty()) {
             return null;
         }
-        return new JsoupHTMLDOMElement(results.last());
+        return nodeCache.getElement(results.last());
     }
 
     /**
@@ -261,11 +323,64 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
     public List<HTMLDOMElement> listResults() {
         List<HTMLDOMElement> elements = new ArrayList<HTMLDOMElement>();
         for (Element element : results) {
-            elements.add(new JsoupHTMLDOMElement(element));
+            elements.add(nodeCache.getElement(element));
         }
         return Collections.unmodifiableList(elements);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public Iterable<HTMLDOMElement> iterateResults() {
+        final Elements foundElements = results;
+        return new Iterable<HTMLDOMElement>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public Iterator<HTMLDOMElement> iterator() {
+                final Iterator<Element> iterator = foundElements.iterator();
+                return new Iterator<HTMLDOMElement>() {
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public HTMLDOMElement next() {
+                        return nodeCache.getElement(iterator.next());
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void forEachResult(final Consumer<? super HTMLDOMElement> action) {
+        Objects.requireNonNull(action);
+        for (Element element : results) {
+            action.accept(nodeCache.getElement(element));
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -284,10 +399,48 @@ public class JsoupHTMLDOMParser implements HTMLDOMParser {
      * {@inheritDoc}
      */
     public HTMLDOMElement createElement(final String tag) {
-        return new JsoupHTMLDOMElement(document.createElement(Objects
+        return nodeCache.getElement(document.createElement(Objects
                 .requireNonNull(tag)));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public HTMLDOMParser cloneParser() {
+        return new JsoupHTMLDOMParser(document.clone());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void startFixPlan() {
+        nodeCache.setRecorder(new JsoupFixPlanRecorder(document));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public FixPlan finishFixPlan() {
+        JsoupFixPlanRecorder recorder = nodeCache.getRecorder();
+        if (recorder == null) {
+            throw new IllegalStateException("The changes are not recorded");
+        }
+        nodeCache.setRecorder(null);
+        return recorder.getFixPlan();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void applyFixPlan(final FixPlan plan) {
+        JsoupFixPlanRecorder.applyFixPlan(document, Objects.requireNonNull(
+                plan));
+        JsoupFixPlanRecorder recorder = nodeCache.getRecorder();
+        if (recorder != null) {
+            recorder.addFixPlan(plan);
+        }
+    }
+
     @Override
     public boolean equals(final Object object) {
         if (this != object) {
@@ -34,10 +34,32 @@ public class JsoupHTMLDOMTextNode extends JsoupHTMLDOMNode
      * @param jsoupTextNode The Jsoup TextNode.
      */
     public JsoupHTMLDOMTextNode(final TextNode jsoupTextNode) {
-        super(Objects.requireNonNull(jsoupTextNode));
+        this(jsoupTextNode, null);
+    }
+
+    /**
+     * Initializes a new object that encapsulate the Jsoup TextNode, kept by
+     * the cache of nodes of a parser.
+     * @param jsoupTextNode The Jsoup TextNode.
+     * @param nodeCache The cache of nodes of parser or null.
+     */
+    protected JsoupHTMLDOMTextNode(final TextNode jsoupTextNode,
+            final JsoupHTMLDOMNodeCache nodeCache) {
+        super(Objects.requireNonNull(jsoupTextNode), nodeCache);
         this.textNode = jsoupTextNode;
     }
 
+    /**
+     * Record that the content of this text node was replaced, if the changes
+     * are recorded.
+     */
+    protected void recordText() {
+        JsoupFixPlanRecorder recorder = getRecorder();
+        if (recorder != null) {
+            recorder.setText(textNode);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -50,6 +72,7 @@ public class JsoupHTMLDOMTextNode extends JsoupHTMLDOMNode
      */
     public void setTextContent(final String text) {
         textNode.text(Objects.requireNonNull(text));
+        recordText();
     }
 
     /**
@@ -57,6 +80,7 @@ public class JsoupHTMLDOMTextNode extends JsoupHTMLDOMNode
      */
     public HTMLDOMTextNode appendText(final String text) {
         textNode.text(textNode.text() + Objects.requireNonNull(text));
+        recordText();
         return this;
     }
 
@@ -65,6 +89,7 @@ public class JsoupHTMLDOMTextNode extends JsoupHTMLDOMNode
      */
     public HTMLDOMTextNode prependText(final String text) {
         textNode.text(Objects.requireNonNull(text) + textNode.text());
+        recordText();
         return this;
     }
 }
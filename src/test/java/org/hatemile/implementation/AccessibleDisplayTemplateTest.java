@@ -0,0 +1,307 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.implementation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.hatemile.AccessibleDisplay;
+import org.hatemile.util.BrowserFamily;
+import org.hatemile.util.Configure;
+import org.hatemile.util.ConfigureSnapshot;
+import org.hatemile.util.html.HTMLDOMParser;
+import org.hatemile.util.html.jsoup.JsoupHTMLDOMParser;
+import org.junit.Test;
+
+/**
+ * The AccessibleDisplayTemplateTest class tests that the templates of
+ * {@link AccessibleDisplayScreenReaderImplementation} make the same changes
+ * of the display methods, and that the changes that depend of elements out of
+ * the fragments are not replayed.
+ */
+public class AccessibleDisplayTemplateTest {
+
+    /**
+     * The code of a header repeated in pages.
+     */
+    private static final String HEADER = "<header><h1 title=\"Site\">Site"
+            + "</h1><a href=\"/\" accesskey=\"h\" title=\"Home page\">Home</a>"
+            + "</header>";
+
+    /**
+     * The code of a navigation repeated in pages.
+     */
+    private static final String NAVIGATION = "<nav><ul role=\"menubar\">"
+            + "<li role=\"menuitem\"><a href=\"/a\" accesskey=\"a\">About</a>"
+            + "</li><li role=\"menuitem\" aria-haspopup=\"true\" "
+            + "aria-expanded=\"false\"><a href=\"/b\" title=\"Blog\">Blog</a>"
+            + "</li><li role=\"menuitemcheckbox\" aria-checked=\"true\">"
+            + "<img src=\"a.png\" alt=\"Logo\"></li></ul></nav>";
+
+    /**
+     * The code of a form repeated in pages.
+     */
+    private static final String FORM = "<form role=\"search\"><label>Query "
+            + "<input type=\"text\" aria-required=\"true\"></label>"
+            + "<button accesskey=\"s\" title=\"Search the site\" "
+            + "aria-busy=\"true\">Search</button></form>";
+
+    /**
+     * The code of a page with two headers, navigations and forms.
+     */
+    private static final String PAGE = "<html><head><title>Page</title>"
+            + "</head><body><div id=\"intro\">Intro</div>" + HEADER
+            + NAVIGATION + FORM + "<main><p title=\"Text\" role=\"note\">"
+            + "Text</p></main>" + HEADER + NAVIGATION + FORM + "</body></html>";
+
+    /**
+     * The pattern of the ids generated by HaTeMiLe.
+     */
+    private static final Pattern GENERATED_ID_PATTERN = Pattern.compile(
+            "id-hatemile-[\\w-]+");
+
+    /**
+     * The number of templates applied by the last display.
+     */
+    private int appliedTemplates;
+
+    /**
+     * Returns a configuration with the templates enabled or disabled.
+     * @param templates True to enable the templates or false to disable the
+     * templates.
+     * @return The configuration.
+     */
+    private static Configure createConfigure(final boolean templates) {
+        Map<String, String> parameters = new HashMap<String, String>(
+                new Configure().getParameters());
+        parameters.put(AccessibleDisplayScreenReaderConfiguration
+                .TEMPLATES_PARAMETER, Boolean.toString(templates));
+        return new Configure(new ConfigureSnapshot(parameters));
+    }
+
+    /**
+     * Replace the ids generated by HaTeMiLe of a result by the order of first
+     * occurrence of each id, so that the links between elements are kept.
+     * @param result The result.
+     * @return The result with the generated ids replaced.
+     */
+    private static String normalize(final String result) {
+        Map<String, String> ids = new HashMap<String, String>();
+        Matcher matcher = GENERATED_ID_PATTERN.matcher(result);
+        StringBuffer normalized = new StringBuffer();
+        while (matcher.find()) {
+            String id = ids.get(matcher.group());
+            if (id == null) {
+                id = "id" + ids.size();
+                ids.put(matcher.group(), id);
+            }
+            matcher.appendReplacement(normalized, id);
+        }
+        matcher.appendTail(normalized);
+        return normalized.toString();
+    }
+
+    /**
+     * Returns the result of display methods in a page.
+     * @param html The code of page.
+     * @param templates True to enable the templates or false to disable the
+     * templates.
+     * @param methods The action that executes the display methods.
+     * @return The result, with the generated ids replaced.
+     */
+    private String display(final String html, final boolean templates,
+            final Consumer<AccessibleDisplay> methods) {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(html);
+        appliedTemplates = 0;
+        AccessibleDisplay display =
+                new AccessibleDisplayScreenReaderImplementation(parser,
+                    AccessibleDisplayScreenReaderConfiguration
+                        .getConfiguration(createConfigure(templates),
+                            BrowserFamily.FIREFOX)) {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            protected void applyTemplate(
+                    final AccessibleDisplayTemplate template) {
+                appliedTemplates++;
+                super.applyTemplate(template);
+            }
+        };
+        methods.accept(display);
+        return normalize(parser.getHTML());
+    }
+
+    /**
+     * Check that the display methods make the same changes in a page with the
+     * templates enabled and disabled.
+     * @param html The code of page.
+     * @param methods The action that executes the display methods.
+     * @return The number of templates applied with the templates enabled.
+     */
+    private int checkTemplates(final String html,
+            final Consumer<AccessibleDisplay> methods) {
+        String expected = display(html, false, methods);
+        assertEquals(0, appliedTemplates);
+        assertEquals(expected, display(html, true, methods));
+        return appliedTemplates;
+    }
+
+    /**
+     * Test that each display method with templates makes the same changes with
+     * the templates enabled, replaying the templates of repeated fragments.
+     */
+    @Test
+    public void testDisplayMethods() {
+        assertTrue(checkTemplates(PAGE, new Consumer<AccessibleDisplay>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final AccessibleDisplay display) {
+                display.displayAllShortcuts();
+            }
+        }) > 0);
+        assertTrue(checkTemplates(PAGE, new Consumer<AccessibleDisplay>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final AccessibleDisplay display) {
+                display.displayAllRoles();
+            }
+        }) > 0);
+        assertTrue(checkTemplates(PAGE, new Consumer<AccessibleDisplay>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final AccessibleDisplay display) {
+                display.displayAllWAIARIAStates();
+            }
+        }) > 0);
+        assertTrue(checkTemplates(PAGE, new Consumer<AccessibleDisplay>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final AccessibleDisplay display) {
+                display.displayAllTitles();
+            }
+        }) > 0);
+    }
+
+    /**
+     * Test that the display methods executed in sequence make the same
+     * changes with the templates enabled.
+     */
+    @Test
+    public void testAllDisplayMethods() {
+        assertTrue(checkTemplates(PAGE, new Consumer<AccessibleDisplay>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final AccessibleDisplay display) {
+                display.displayAllAlternativeTextImages();
+                display.displayAllRoles();
+                display.displayAllShortcuts();
+                display.displayAllTitles();
+                display.displayAllWAIARIAStates();
+                display.displayAllLinksAttributes();
+            }
+        }) > 0);
+    }
+
+    /**
+     * Test that a template is not replayed when the description of an element
+     * of fragment is an element out of fragment.
+     */
+    @Test
+    public void testOutsideLabelledBy() {
+        String header = "<header><a href=\"/\" accesskey=\"h\" "
+                + "aria-labelledby=\"home\">Home</a></header>";
+        assertEquals(0, checkTemplates("<html><body><span id=\"home\">"
+                + "Start</span>" + header + "<main>Main</main>" + header
+                + "</body></html>", new Consumer<AccessibleDisplay>() {
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void accept(final AccessibleDisplay display) {
+                        display.displayAllShortcuts();
+                    }
+                }));
+    }
+
+    /**
+     * Test that a template is not replayed when the information of a field of
+     * fragment is displayed in a label out of fragment.
+     */
+    @Test
+    public void testOutsideLabel() {
+        String form = "<form role=\"search\"><input id=\"query\" "
+                + "type=\"text\" title=\"Query\"></form>";
+        assertEquals(0, checkTemplates("<html><body><label for=\"query\">"
+                + "Query</label>" + form + "<main>Main</main>" + form
+                + "</body></html>", new Consumer<AccessibleDisplay>() {
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void accept(final AccessibleDisplay display) {
+                        display.displayAllTitles();
+                    }
+                }));
+    }
+
+    /**
+     * Test that a template is not replayed when an element of fragment has
+     * an information displayed before.
+     */
+    @Test
+    public void testExistingForceRead() {
+        String navigation = "<nav><a id=\"home\" href=\"/\" title=\"Home\">"
+                + "Home</a></nav>";
+        assertEquals(0, checkTemplates("<html><body><span class=\""
+                + AccessibleDisplayScreenReaderImplementation
+                    .CLASS_FORCE_READ_BEFORE + "\" "
+                + AccessibleDisplayScreenReaderImplementation
+                    .DATA_ATTRIBUTE_TITLE_OF + "=\"home\">Old</span>"
+                + navigation + "<main>Main</main>" + navigation
+                + "</body></html>", new Consumer<AccessibleDisplay>() {
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @Override
+                    public void accept(final AccessibleDisplay display) {
+                        display.displayAllTitles();
+                    }
+                }));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.implementation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.hatemile.AccessibleForm;
+import org.hatemile.util.Configure;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMParser;
+import org.hatemile.util.html.jsoup.JsoupHTMLDOMParser;
+import org.junit.Test;
+
+/**
+ * The AccessibleFormAutoCompleteTest class tests that the fields marked one
+ * by one by {@link AccessibleFormImplementation} have the same values of
+ * aria-autocomplete of the fields marked at once.
+ */
+public class AccessibleFormAutoCompleteTest {
+
+    /**
+     * The code of document used by tests.
+     */
+    private static final String HTML = "<html><body>"
+            + "<form id=\"Search\" autocomplete=\"on\">"
+            + "<input id=\"a\" type=\"text\"><textarea id=\"b\"></textarea>"
+            + "<input id=\"c\" type=\"text\" autocomplete=\"off\">"
+            + "<input id=\"d\" type=\"checkbox\"></form>"
+            + "<form autocomplete=\"off\"><input id=\"e\" type=\"text\">"
+            + "<input id=\"f\" type=\"text\" list=\"Colors\"></form>"
+            + "<input id=\"g\" type=\"text\" form=\"search\">"
+            + "<input id=\"h\" type=\"text\" form=\"missing\">"
+            + "<input id=\"i\" type=\"text\" list=\"colors\">"
+            + "<input id=\"j\" type=\"text\" list=\"missing\">"
+            + "<input id=\"k\" type=\"text\" list=\"Search\">"
+            + "<datalist id=\"Colors\"><option value=\"Red\"></datalist>"
+            + "</body></html>";
+
+    /**
+     * The expected values of aria-autocomplete of fields, in order of fields.
+     */
+    private static final String[] EXPECTED = {"both", "both", "none", null,
+        "none", "list", "both", null, "list", null, null};
+
+    /**
+     * Check the values of aria-autocomplete of fields of a document.
+     * @param parser The HTML parser of document.
+     */
+    private static void checkFields(final HTMLDOMParser parser) {
+        int i = 0;
+        for (HTMLDOMElement field : parser.find("input,textarea")
+                .iterateResults()) {
+            String expected = EXPECTED[i++];
+            if (expected == null) {
+                assertFalse(field.getAttribute("id"),
+                        field.hasAttribute("aria-autocomplete"));
+            } else {
+                assertEquals(field.getAttribute("id"), expected,
+                        field.getAttribute("aria-autocomplete"));
+            }
+        }
+        assertEquals(EXPECTED.length, i);
+    }
+
+    /**
+     * Test that the fields marked at once have the expected values.
+     */
+    @Test
+    public void testAllFields() {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(HTML);
+        new AccessibleFormImplementation(parser, new Configure())
+                .markAllAutoCompleteFields();
+        checkFields(parser);
+    }
+
+    /**
+     * Test that the fields marked one by one, without index of forms, have
+     * the expected values.
+     */
+    @Test
+    public void testEachField() {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(HTML);
+        AccessibleForm form = new AccessibleFormImplementation(parser,
+                new Configure());
+        for (HTMLDOMElement field : parser.find("input,textarea")
+                .iterateResults()) {
+            form.markAutoCompleteField(field);
+        }
+        checkFields(parser);
+    }
+}
@@ -0,0 +1,272 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.implementation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.hatemile.util.Configure;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMParser;
+import org.hatemile.util.html.jsoup.JsoupHTMLDOMParser;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The IncrementalProcessorTest class tests the versions of documents
+ * processed by {@link IncrementalProcessor}.
+ */
+public class IncrementalProcessorTest {
+
+    /**
+     * The code of the first version of document used by tests.
+     */
+    private static final String HTML = "<html><head><title>Page</title>"
+            + "</head><body><h1>Title</h1>"
+            + "<div><button onclick=\"a()\">Button</button>"
+            + "<span id=\"s\" onclick=\"b()\">Span</span></div>"
+            + "<div><p onmouseover=\"c()\">Hover</p>"
+            + "<div ondrag=\"d()\">Drag</div><div ondrop=\"e()\">Drop</div>"
+            + "</div><form><label>Name <input type=\"text\" required>"
+            + "</label><label>Mail <input id=\"m\" type=\"email\" required>"
+            + "</label></form></body></html>";
+
+    /**
+     * The pattern of the assignments of JSON arrays of the scripts with lists
+     * of ids.
+     */
+    private static final Pattern LIST_PATTERN = Pattern.compile(
+            "([\\w.]+) = \\1\\.concat\\(\\[([^\\]]*)\\]\\);");
+
+    /**
+     * The pattern of the ids of JSON arrays.
+     */
+    private static final Pattern ID_PATTERN = Pattern.compile("\"([^\"]*)\"");
+
+    /**
+     * The pattern of the ids generated by HaTeMiLe.
+     */
+    private static final Pattern GENERATED_ID_PATTERN = Pattern.compile(
+            "id-hatemile-[a-z0-9-]+");
+
+    /**
+     * The solutions executed in the documents.
+     */
+    private Consumer<HTMLDOMParser> solutions;
+
+    /**
+     * The processor of versions of document.
+     */
+    private IncrementalProcessor processor;
+
+    /**
+     * Initializes the processor of versions of document.
+     */
+    @Before
+    public void setUp() {
+        final Configure configure = new Configure();
+        solutions = new Consumer<HTMLDOMParser>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final HTMLDOMParser parser) {
+                AccessibleFormImplementation form =
+                        new AccessibleFormImplementation(parser, configure);
+                form.markAllRequiredFields();
+                form.markAllInvalidFields();
+                AccessibleEventImplementation event =
+                        new AccessibleEventImplementation(parser, configure);
+                event.makeAccessibleAllClickEvents();
+                event.makeAccessibleAllDragandDropEvents();
+                event.makeAccessibleAllHoverEvents();
+            }
+        };
+        processor = new IncrementalProcessor(solutions);
+    }
+
+    /**
+     * Returns the result of a version processed entirely, with the generated
+     * ids replaced.
+     * @param html The code of version.
+     * @return The result of version.
+     */
+    private String processEntirely(final String html) {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(html);
+        solutions.accept(parser);
+        return normalize(parser.getHTML());
+    }
+
+    /**
+     * Returns the result of a version processed by the processor, with the
+     * generated ids replaced.
+     * @param html The code of version.
+     * @return The result of version.
+     */
+    private String process(final String html) {
+        return normalize(processor.process(new JsoupHTMLDOMParser(html)));
+    }
+
+    /**
+     * Replace the ids generated by HaTeMiLe, that are random, of a result.
+     * @param result The result.
+     * @return The result with the generated ids replaced.
+     */
+    private static String normalize(final String result) {
+        return GENERATED_ID_PATTERN.matcher(result).replaceAll("id");
+    }
+
+    /**
+     * Returns the ids of the lists of a script with lists of ids.
+     * @param parser The HTML parser of result.
+     * @param scriptId The id of script.
+     * @return The ids of each list, indexed by name of list.
+     */
+    private static Map<String, List<String>> getListIds(
+            final HTMLDOMParser parser, final String scriptId) {
+        HTMLDOMElement script = parser.find("#" + scriptId).firstResult();
+        assertNotNull(script);
+        Map<String, List<String>> lists = new HashMap<String, List<String>>();
+        Matcher listMatcher = LIST_PATTERN.matcher(script.getInnerHTML());
+        while (listMatcher.find()) {
+            List<String> ids = lists.get(listMatcher.group(1));
+            if (ids == null) {
+                ids = new ArrayList<String>();
+                lists.put(listMatcher.group(1), ids);
+            }
+            Matcher idMatcher = ID_PATTERN.matcher(listMatcher.group(2));
+            while (idMatcher.find()) {
+                ids.add(idMatcher.group(1));
+            }
+        }
+        return lists;
+    }
+
+    /**
+     * Check that all ids of the lists of a script are ids of elements of a
+     * result and that no list has an id repeated.
+     * @param result The result.
+     * @param scriptId The id of script.
+     * @return The ids of each list, indexed by name of list.
+     */
+    private static Map<String, List<String>> checkListIds(
+            final String result, final String scriptId) {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(result);
+        Map<String, List<String>> lists = getListIds(parser, scriptId);
+        for (List<String> ids : lists.values()) {
+            for (String id : ids) {
+                assertNotNull("Missing element of id " + id, parser.find(
+                        "[id=\"" + id + "\"]").firstResult());
+                assertEquals(ids.indexOf(id), ids.lastIndexOf(id));
+            }
+        }
+        return lists;
+    }
+
+    /**
+     * Test that the ids of removed elements with events are removed of the
+     * lists of elements with events.
+     */
+    @Test
+    public void testRemovedEvents() {
+        process(HTML);
+        String edited = HTML.replace("<span id=\"s\" onclick=\"b()\">",
+                "<span id=\"s\">").replace("<div ondrop=\"e()\">", "<div>");
+        String result = processor.process(new JsoupHTMLDOMParser(edited));
+        assertEquals(1, processor.getIncrementalProcessings());
+        Map<String, List<String>> lists = checkListIds(result,
+                AccessibleEventImplementation.ID_LIST_IDS_SCRIPT);
+        assertFalse(lists.get("activeElements").contains("s"));
+        assertEquals(1, lists.get("activeElements").size());
+        assertEquals(1, lists.get("hoverElements").size());
+        assertEquals(1, lists.get("dragElements").size());
+        assertFalse(lists.containsKey("dropElements"));
+        assertEquals(processEntirely(edited), normalize(result));
+    }
+
+    /**
+     * Test that the ids of removed fields are removed of the lists of fields
+     * with validation, and that the ids of the new fields are not repeated.
+     */
+    @Test
+    public void testRemovedFields() {
+        process(HTML);
+        String edited = HTML.replace(
+                "<input type=\"text\" required>", "<input type=\"text\">")
+                .replace("<input id=\"m\" type=\"email\" required>",
+                    "<input id=\"m\" type=\"email\" required title=\"Mail\">");
+        String result = processor.process(new JsoupHTMLDOMParser(edited));
+        assertEquals(1, processor.getIncrementalProcessings());
+        Map<String, List<String>> lists = checkListIds(result,
+                AccessibleFormImplementation.ID_SCRIPT_LIST_VALIDATION_FIELDS);
+        assertEquals(1, lists.get("hatemileValidationList.required_fields")
+                .size());
+        assertTrue(lists.get("hatemileValidationList.email_fields")
+                .contains("m"));
+        assertEquals(processEntirely(edited), normalize(result));
+    }
+
+    /**
+     * Test that a change undone results in the result of the first version.
+     */
+    @Test
+    public void testUndo() {
+        String original = process(HTML);
+        String edited = HTML.replace("<p onmouseover=\"c()\">Hover</p>",
+                "<p>Hover</p><p onmouseover=\"f()\">Other</p>");
+        assertEquals(processEntirely(edited), process(edited));
+        assertEquals(original, process(HTML));
+        assertEquals(1, processor.getFullProcessings());
+        assertEquals(2, processor.getIncrementalProcessings());
+        checkListIds(processor.process(new JsoupHTMLDOMParser(HTML)),
+                AccessibleEventImplementation.ID_LIST_IDS_SCRIPT);
+    }
+
+    /**
+     * Test that a changed text is processed incrementally, and that the
+     * change undone results in the result of the first version.
+     */
+    @Test
+    public void testChangedText() {
+        String original = process(HTML);
+        String edited = HTML.replace("<h1>Title</h1>", "<h1>Other</h1>");
+        assertEquals(processEntirely(edited), process(edited));
+        assertEquals(original, process(HTML));
+        assertEquals(1, processor.getFullProcessings());
+        assertEquals(2, processor.getIncrementalProcessings());
+    }
+
+    /**
+     * Test that a change in head is processed entirely.
+     */
+    @Test
+    public void testChangedHead() {
+        process(HTML);
+        String edited = HTML.replace("<title>Page</title>",
+                "<title>Other</title>");
+        assertEquals(processEntirely(edited), process(edited));
+        assertEquals(2, processor.getFullProcessings());
+        assertEquals(0, processor.getIncrementalProcessings());
+    }
+}
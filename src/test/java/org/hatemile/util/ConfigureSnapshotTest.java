@@ -0,0 +1,62 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.MissingResourceException;
+import org.junit.Test;
+
+/**
+ * The ConfigureSnapshotTest class tests the names of parameters of
+ * {@link ConfigureSnapshot}.
+ */
+public class ConfigureSnapshotTest {
+
+    /**
+     * Test that the parameters are found by the names separated by hyphens,
+     * by dots or by both.
+     */
+    @Test
+    public void testNames() {
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put("attribute.title.prefix-before", "Title: ");
+        parameters.put("language-en", "English");
+        ConfigureSnapshot snapshot = new ConfigureSnapshot(parameters);
+        assertEquals(2, snapshot.getParameters().size());
+        assertTrue(snapshot.getParameters().containsKey(
+                "attribute-title-prefix-before"));
+        assertEquals("Title: ", snapshot.getParameter(
+                "attribute-title-prefix-before"));
+        assertEquals("Title: ", snapshot.getParameter(
+                "attribute.title.prefix.before"));
+        assertEquals("English", snapshot.getParameter("language.en"));
+        assertTrue(snapshot.hasParameter("attribute-title.prefix-before"));
+        assertFalse(snapshot.hasParameter("attribute-title"));
+        assertEquals(snapshot, new ConfigureSnapshot(snapshot.getParameters()));
+    }
+
+    /**
+     * Test that a missing parameter is not found.
+     */
+    @Test(expected = MissingResourceException.class)
+    public void testMissingParameter() {
+        new ConfigureSnapshot(new HashMap<String, String>()).getParameter(
+                "language.en");
+    }
+}
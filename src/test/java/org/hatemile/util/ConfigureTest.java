@@ -0,0 +1,52 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.Test;
+
+/**
+ * The ConfigureTest class tests the comparison of configurations of
+ * {@link Configure}.
+ */
+public class ConfigureTest {
+
+    /**
+     * Test that the configurations with equal parameters are equal, however
+     * they were created.
+     */
+    @Test
+    public void testEquality() {
+        Configure configure = new Configure(Locale.ENGLISH);
+        Configure otherConfigure = new Configure(Locale.ENGLISH);
+        Configure fixedConfigure = new Configure(configure.getSnapshot());
+        assertEquals(configure, otherConfigure);
+        assertEquals(configure.hashCode(), otherConfigure.hashCode());
+        assertEquals(configure, fixedConfigure);
+        assertEquals(configure.hashCode(), fixedConfigure.hashCode());
+        assertFalse(configure.equals(new Configure(new Locale("pt", "BR"))));
+
+        Map<String, String> parameters = new HashMap<String, String>(
+                configure.getParameters());
+        parameters.put("language-en", "Other");
+        assertFalse(configure.equals(new Configure(new ConfigureSnapshot(
+                parameters))));
+        assertFalse(configure.equals(configure.getSnapshot()));
+    }
+}
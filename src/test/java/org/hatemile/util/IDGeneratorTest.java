@@ -0,0 +1,216 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.hatemile.implementation.AccessibleAssociationImplementation;
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMParser;
+import org.hatemile.util.html.jsoup.JsoupHTMLDOMParser;
+import org.junit.Test;
+
+/**
+ * The IDGeneratorTest class tests the ids generated by {@link IDGenerator} in
+ * document mode.
+ */
+public class IDGeneratorTest {
+
+    /**
+     * The code of document used by tests.
+     */
+    private static final String HTML = "<html><body><div id=\"a\">"
+            + "<p>One</p><p id=\"b\">Two</p><p>Three</p></div><ul><li>A</li>"
+            + "<li>B</li><li id=\"c\">C</li></ul></body></html>";
+
+    /**
+     * The number of threads that generate ids at the same time.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * The number of tables of the document with tables.
+     */
+    private static final int TABLES = 12;
+
+    /**
+     * Returns the ids created for all elements of the document of parser.
+     * @param generator The generator of ids.
+     * @param parser The HTML parser.
+     * @return The ids, in order of elements.
+     */
+    private static List<String> createIds(final IDGenerator generator,
+            final HTMLDOMParser parser) {
+        List<String> ids = new ArrayList<String>();
+        for (HTMLDOMElement element : parser.find("*").iterateResults()) {
+            ids.add(generator.createId(element));
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the ids of the elements of the document of parser.
+     * @param parser The HTML parser.
+     * @return The ids of elements.
+     */
+    private static Set<String> getIds(final HTMLDOMParser parser) {
+        Set<String> ids = new HashSet<String>();
+        for (HTMLDOMElement element : parser.find("[id]").iterateResults()) {
+            ids.add(element.getAttribute("id"));
+        }
+        return ids;
+    }
+
+    /**
+     * Test that the same document receives the same ids.
+     */
+    @Test
+    public void testSameDocument() {
+        List<String> ids = createIds(new IDGenerator("test",
+                new JsoupHTMLDOMParser(HTML)), new JsoupHTMLDOMParser(HTML));
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(HTML);
+        assertEquals(ids, createIds(new IDGenerator("test", parser), parser));
+        parser = new JsoupHTMLDOMParser(HTML.replace("Two", "Four"));
+        assertFalse(ids.equals(createIds(new IDGenerator("test", parser),
+                parser)));
+    }
+
+    /**
+     * Test that the ids generated are different of the ids of document and of
+     * the ids generated by other generators of the same document.
+     */
+    @Test
+    public void testExistingIds() {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(HTML);
+        Set<String> documentIds = getIds(parser);
+        List<String> ids = createIds(new IDGenerator("test", parser), parser);
+        List<String> otherIds = createIds(new IDGenerator("test", parser),
+                parser);
+        Set<String> allIds = new HashSet<String>(documentIds);
+        allIds.addAll(ids);
+        allIds.addAll(otherIds);
+        assertEquals(documentIds.size() + ids.size() + otherIds.size(),
+                allIds.size());
+        assertEquals(ids.get(0) + "-1", otherIds.get(0));
+
+        IDGenerator generator = new IDGenerator("test", parser);
+        for (HTMLDOMElement element : parser.find("*").iterateResults()) {
+            generator.generateId(element);
+        }
+        Set<String> generatedIds = getIds(parser);
+        generatedIds.removeAll(documentIds);
+        assertEquals(parser.find("*").listResults().size(),
+                generatedIds.size() + documentIds.size());
+        for (String id : generatedIds) {
+            assertFalse(ids.contains(id));
+            assertFalse(otherIds.contains(id));
+        }
+    }
+
+    /**
+     * Test that the generators of the same document, created and used by
+     * different threads at the same time, not generate the same id.
+     * @throws Exception If a thread fails.
+     */
+    @Test
+    public void testConcurrentGenerators() throws Exception {
+        final HTMLDOMParser parser = new JsoupHTMLDOMParser(HTML);
+        List<Callable<List<String>>> tasks =
+                new ArrayList<Callable<List<String>>>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(new Callable<List<String>>() {
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public List<String> call() {
+                    return createIds(new IDGenerator("test", parser), parser);
+                }
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        Set<String> ids = new HashSet<String>();
+        int count = 0;
+        try {
+            for (Future<List<String>> result : executor.invokeAll(tasks)) {
+                ids.addAll(result.get());
+                count += result.get().size();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(THREADS * parser.find("*").listResults().size(), count);
+        assertEquals(count, ids.size());
+    }
+
+    /**
+     * Returns the code of a document with tables, with the data cells
+     * associated with the header cells in parallel.
+     * @param html The code of document.
+     * @param pool The pool that associate the cells of tables.
+     * @return The code of document changed.
+     */
+    private static String associateTables(final String html,
+            final ForkJoinPool pool) {
+        Map<String, String> parameters = new HashMap<String, String>(
+                new Configure().getParameters());
+        parameters.put(IDGenerator.MODE_PARAMETER, IDGenerator.DOCUMENT_MODE);
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(html);
+        new AccessibleAssociationImplementation(parser,
+                new Configure(new ConfigureSnapshot(parameters)), pool)
+                .associateAllDataCellsWithHeaderCells();
+        return parser.getHTML();
+    }
+
+    /**
+     * Test that the ids of the tables associated in parallel are the same in
+     * each execution.
+     */
+    @Test
+    public void testParallelTables() {
+        StringBuilder html = new StringBuilder("<html><body>");
+        for (int i = 0; i < TABLES; i++) {
+            html.append("<table><thead><tr><th>Name</th><th>Value</th></tr>"
+                    + "</thead><tbody><tr><th>Row</th><td>").append(i)
+                    .append("</td></tr></tbody></table>");
+        }
+        html.append("</body></html>");
+        ForkJoinPool pool = new ForkJoinPool(THREADS);
+        try {
+            String expected = associateTables(html.toString(), pool);
+            assertTrue(expected.contains("id-hatemile-association-table"
+                    + (TABLES - 1) + "-"));
+            for (int i = 0; i < THREADS; i++) {
+                assertEquals(expected, associateTables(html.toString(),
+                        pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+/**
+ * The IDListScriptTest class tests the contents of scripts with lists of ids
+ * of {@link IDListScript}.
+ */
+public class IDListScriptTest {
+
+    /**
+     * The declarations of lists used by tests.
+     */
+    private static final String DECLARATIONS = "var a = [];var b = [];";
+
+    /**
+     * Test that the content of script is the same after it is parsed, also
+     * with ids that are escaped in JSON arrays.
+     */
+    @Test
+    public void testParse() {
+        IDListScript script = new IDListScript(DECLARATIONS);
+        assertEquals(DECLARATIONS, script.toString());
+        script.addIds("a", Arrays.asList("x", "say \"<hi>\"", "c:\\d"));
+        script.addIds("b", Collections.singletonList("x"));
+        script.addIds("a", Collections.singletonList("y"));
+        String content = script.toString();
+        assertEquals(DECLARATIONS + "a = a.concat([\"x\",\"say \\\"\\u003chi"
+                + "\\u003e\\\"\",\"c:\\\\d\"]);b = b.concat([\"x\"]);"
+                + "a = a.concat([\"y\"]);", content);
+        assertEquals(content, IDListScript.parse(content, DECLARATIONS)
+                .toString());
+    }
+
+    /**
+     * Test that the ids are removed of all lists, without changes in other
+     * ids, and that the assignments without ids are removed.
+     */
+    @Test
+    public void testRemoveIds() {
+        IDListScript script = new IDListScript(DECLARATIONS);
+        script.addIds("a", Arrays.asList("x", "xy", "x,y"));
+        script.addIds("b", Collections.singletonList("x"));
+        assertFalse(script.removeIds(Collections.singletonList("y")));
+        assertTrue(script.removeIds(Collections.singletonList("x")));
+        assertEquals(DECLARATIONS + "a = a.concat([\"xy\",\"x,y\"]);",
+                script.toString());
+    }
+
+    /**
+     * Test that the contents that were not written by the class are not
+     * parsed.
+     */
+    @Test
+    public void testInvalidContents() {
+        assertNull(IDListScript.parse("var a = [];", DECLARATIONS));
+        assertNull(IDListScript.parse(DECLARATIONS + "a = b.concat([]);",
+                DECLARATIONS));
+        assertNull(IDListScript.parse(DECLARATIONS + "a = a.concat([\"x\"]",
+                DECLARATIONS));
+        assertNull(IDListScript.parse(DECLARATIONS
+                + "a = a.concat([\"x\" \"y\"]);", DECLARATIONS));
+        assertNull(IDListScript.parse(DECLARATIONS
+                + "a = a.concat([\"\\u00\"]);", DECLARATIONS));
+        assertNull(IDListScript.parse(DECLARATIONS + "alert(1);",
+                DECLARATIONS));
+    }
+}
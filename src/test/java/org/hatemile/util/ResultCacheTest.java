@@ -0,0 +1,206 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The ResultCacheTest class tests the keys and the tiers of
+ * {@link ResultCache}.
+ */
+public class ResultCacheTest {
+
+    /**
+     * The HTML code of document used by tests.
+     */
+    private static final String HTML = "<html><body><p>text</p></body></html>";
+
+    /**
+     * The names of solutions used by tests.
+     */
+    private static final List<String> SOLUTIONS = Arrays.asList(
+            "associateAllLabelsWithFields", "displayAllShortcuts");
+
+    /**
+     * The directory of files of results.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Returns a result of a number of characters.
+     * @param length The number of characters.
+     * @return The result.
+     */
+    private static String createResult(final int length) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            result.append('a');
+        }
+        return result.toString();
+    }
+
+    /**
+     * Test that the keys change when any input changes, including the
+     * solutions executed.
+     */
+    @Test
+    public void testKeys() {
+        Configure configure = new Configure();
+        String key = ResultCache.getKey(HTML, null, configure,
+                BrowserFamily.FIREFOX, SOLUTIONS);
+        assertEquals(64, key.length());
+        assertEquals(key, ResultCache.getKey(HTML, null, configure,
+                BrowserFamily.FIREFOX, SOLUTIONS));
+        assertFalse(key.equals(ResultCache.getKey(HTML + " ", null,
+                configure, BrowserFamily.FIREFOX, SOLUTIONS)));
+        assertFalse(key.equals(ResultCache.getKey(HTML, "", configure,
+                BrowserFamily.FIREFOX, SOLUTIONS)));
+        assertFalse(key.equals(ResultCache.getKey(HTML, null, configure,
+                BrowserFamily.OPERA, SOLUTIONS)));
+        assertFalse(key.equals(ResultCache.getKey(HTML, null, configure,
+                BrowserFamily.FIREFOX, SOLUTIONS.subList(0, 1))));
+        assertFalse(key.equals(ResultCache.getKey(HTML, null, configure,
+                BrowserFamily.FIREFOX, Collections.<String>emptyList())));
+    }
+
+    /**
+     * Test that the parts of inputs are not confused.
+     */
+    @Test
+    public void testKeyParts() {
+        Configure configure = new Configure();
+        assertFalse(ResultCache.getKey(HTML, null, configure,
+                BrowserFamily.FIREFOX, Arrays.asList("ab", "c")).equals(
+                    ResultCache.getKey(HTML, null, configure,
+                        BrowserFamily.FIREFOX, Arrays.asList("a", "bc"))));
+        assertFalse(ResultCache.getKey("a", "b", configure,
+                BrowserFamily.FIREFOX, SOLUTIONS).equals(
+                    ResultCache.getKey("ab", null, configure,
+                        BrowserFamily.FIREFOX, SOLUTIONS)));
+    }
+
+    /**
+     * Test that the results kept in memory are discarded by number of bytes,
+     * from the least recently used.
+     */
+    @Test
+    public void testMemorySize() {
+        ResultCache cache = new ResultCache(100);
+        cache.put("a", createResult(20));
+        cache.put("b", createResult(20));
+        assertEquals(80, cache.getMemorySize());
+        cache.get("a");
+        cache.put("c", createResult(20));
+        assertEquals(80, cache.getMemorySize());
+        assertNull(cache.get("b"));
+        assertEquals(createResult(20), cache.get("a"));
+        assertEquals(createResult(20), cache.get("c"));
+
+        cache.put("d", createResult(51));
+        assertNull(cache.get("d"));
+        cache.put("a", createResult(10));
+        assertEquals(60, cache.getMemorySize());
+        cache.remove("c");
+        assertEquals(20, cache.getMemorySize());
+        cache.clear();
+        assertEquals(0, cache.getMemorySize());
+    }
+
+    /**
+     * Returns the key of a document used by tests.
+     * @param html The HTML code of document.
+     * @return The key of result of document.
+     */
+    private static String getKey(final String html) {
+        return ResultCache.getKey(html, null, new Configure(),
+                BrowserFamily.FIREFOX, SOLUTIONS);
+    }
+
+    /**
+     * Test that the results are read of files by other caches of the same
+     * directory.
+     * @throws IOException If the directory cannot be used.
+     */
+    @Test
+    public void testFiles() throws IOException {
+        File directory = folder.newFolder();
+        String key = getKey(HTML);
+        ResultCache cache = new ResultCache(100, directory, 1000);
+        cache.put(key, "result");
+        assertEquals(6, cache.getDiskSize());
+
+        ResultCache otherCache = new ResultCache(100, directory, 1000);
+        assertEquals(6, otherCache.getDiskSize());
+        assertEquals("result", otherCache.get(key));
+        assertEquals(1, otherCache.getDiskHits());
+        assertEquals("result", otherCache.get(key));
+        assertEquals(1, otherCache.getMemoryHits());
+        assertNull(otherCache.get(getKey("")));
+        assertEquals(1, otherCache.getMisses());
+
+        otherCache.clear();
+        assertEquals(0, otherCache.getDiskSize());
+        assertTrue(directory.list().length == 0);
+    }
+
+    /**
+     * Test that the files of directory that are not results are not used,
+     * deleted or counted, and that the results of keys that are not returned
+     * by {@link ResultCache#getKey} are not written in files.
+     * @throws IOException If the directory cannot be used.
+     */
+    @Test
+    public void testForeignFiles() throws IOException {
+        File directory = folder.newFolder();
+        Charset charset = Charset.forName("UTF-8");
+        File page = new File(directory, "index.html");
+        File temporaryFile = new File(directory, "draft.tmp");
+        File orphanFile = new File(directory, getKey(HTML) + "-1.tmp");
+        Files.write(page.toPath(), createResult(600).getBytes(charset));
+        Files.write(temporaryFile.toPath(), "draft".getBytes(charset));
+        Files.write(orphanFile.toPath(), "partial".getBytes(charset));
+
+        ResultCache cache = new ResultCache(100, directory, 500);
+        assertEquals(0, cache.getDiskSize());
+        assertTrue(page.exists());
+        assertTrue(temporaryFile.exists());
+        assertFalse(orphanFile.exists());
+        assertNull(cache.get("index"));
+
+        cache.put("../index", "result");
+        cache.put(getKey(HTML), createResult(400));
+        cache.put(getKey(""), createResult(400));
+        assertEquals(400, cache.getDiskSize());
+        cache.clear();
+        assertEquals(2, directory.list().length);
+        assertEquals(createResult(600), new String(Files.readAllBytes(
+                page.toPath()), charset));
+        assertTrue(temporaryFile.exists());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.hatemile.util.html.HTMLDOMParser;
+import org.hatemile.util.html.jsoup.JsoupHTMLDOMParser;
+import org.junit.Test;
+
+/**
+ * The SourceTreeTest class tests the comparison of versions of documents of
+ * {@link SourceTree}.
+ */
+public class SourceTreeTest {
+
+    /**
+     * The code of the first version of document used by tests.
+     */
+    private static final String HTML = "<html><head></head><body>"
+            + "<div id=\"a\"><p id=\"b\">text</p><p id=\"c\">other</p></div>"
+            + "<div id=\"d\"><span id=\"e\">span</span></div></body></html>";
+
+    /**
+     * Returns the tree of the source of a document.
+     * @param parser The HTML parser of document.
+     * @return The tree of the source of document.
+     */
+    private static SourceTree createTree(final HTMLDOMParser parser) {
+        return new SourceTree(parser.find("html").firstResult());
+    }
+
+    /**
+     * Returns the changes between the first version of document and other
+     * version.
+     * @param html The code of other version.
+     * @return The changes.
+     */
+    private static List<SourceTree.Change> compare(final String html) {
+        SourceTree previous = createTree(new JsoupHTMLDOMParser(HTML));
+        return createTree(new JsoupHTMLDOMParser(html)).compare(previous);
+    }
+
+    /**
+     * Returns the id of the element of previous version of a change.
+     * @param change The change.
+     * @return The id of element.
+     */
+    private static String getPreviousId(final SourceTree.Change change) {
+        return change.getPrevious().getElement().getAttribute("id");
+    }
+
+    /**
+     * Test that the same source has the same hash and no changes, and that
+     * the elements of current version are linked with the elements of
+     * previous version.
+     */
+    @Test
+    public void testEqualVersions() {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(HTML);
+        SourceTree previous = createTree(parser);
+        SourceTree current = createTree(new JsoupHTMLDOMParser(HTML));
+        assertEquals(previous.getHash(), current.getHash());
+        assertTrue(current.compare(previous).isEmpty());
+        assertSame(parser.find("html").firstResult().getData(),
+                current.getElement().getData());
+        assertEquals(8, current.getSize());
+    }
+
+    /**
+     * Test that a changed attribute changes only its element.
+     */
+    @Test
+    public void testChangedAttribute() {
+        List<SourceTree.Change> changes = compare(HTML.replace(
+                "<p id=\"c\">", "<p id=\"c\" title=\"title\">"));
+        assertEquals(1, changes.size());
+        assertEquals("c", getPreviousId(changes.get(0)));
+        assertEquals("title", changes.get(0).getCurrent().getElement()
+                .getAttribute("title"));
+    }
+
+    /**
+     * Test that a changed text changes the parent of text.
+     */
+    @Test
+    public void testChangedText() {
+        List<SourceTree.Change> changes = compare(HTML.replace("span</span>",
+                "changed</span>"));
+        assertEquals(1, changes.size());
+        assertEquals("e", getPreviousId(changes.get(0)));
+    }
+
+    /**
+     * Test that the insertion or the removal of a child changes the parent of
+     * child.
+     */
+    @Test
+    public void testChangedChildren() {
+        List<SourceTree.Change> changes = compare(HTML.replace(
+                "<p id=\"c\">other</p>", ""));
+        assertEquals(1, changes.size());
+        assertEquals("a", getPreviousId(changes.get(0)));
+
+        changes = compare(HTML.replace("</span>", "</span><br>"));
+        assertEquals(1, changes.size());
+        assertEquals("d", getPreviousId(changes.get(0)));
+    }
+
+    /**
+     * Test that independent changes are returned separately.
+     */
+    @Test
+    public void testIndependentChanges() {
+        List<SourceTree.Change> changes = compare(HTML.replace("text</p>",
+                "new</p>").replace("span</span>", "new</span>"));
+        assertEquals(2, changes.size());
+        assertEquals("b", getPreviousId(changes.get(0)));
+        assertEquals("e", getPreviousId(changes.get(1)));
+    }
+
+    /**
+     * Test that a text is not confused with an element.
+     */
+    @Test
+    public void testTextAndElement() {
+        SourceTree text = createTree(new JsoupHTMLDOMParser(
+                "<html><body>br</body></html>"));
+        SourceTree element = createTree(new JsoupHTMLDOMParser(
+                "<html><body><br></body></html>"));
+        assertFalse(text.getHash().equals(element.getHash()));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.jsoup.JsoupHTMLDOMParser;
+import org.junit.Test;
+
+/**
+ * The TableModelTest class tests the grid of cells of {@link TableModel}.
+ */
+public class TableModelTest {
+
+    /**
+     * Returns the model of the body of a table.
+     * @param rows The code of rows of table body.
+     * @return The model of table body.
+     */
+    private static TableModel getModel(final String rows) {
+        JsoupHTMLDOMParser parser = new JsoupHTMLDOMParser(
+                "<html><body><table><tbody>" + rows
+                + "</tbody></table></body></html>");
+        return new TableModel(parser.find("tbody").firstResult());
+    }
+
+    /**
+     * Returns the id of cell of a slot.
+     * @param model The model of table.
+     * @param rowIndex The index of row.
+     * @param columnIndex The index of column.
+     * @return The id of cell or null if the slot not has cell.
+     */
+    private static String getId(final TableModel model, final int rowIndex,
+            final int columnIndex) {
+        HTMLDOMElement cell = model.getCell(rowIndex, columnIndex);
+        if (cell == null) {
+            return null;
+        }
+        return cell.getAttribute("id");
+    }
+
+    /**
+     * Test the slots covered by colspans and rowspans.
+     */
+    @Test
+    public void testSpans() {
+        TableModel model = getModel("<tr><td id=\"a\" rowspan=\"2\"></td>"
+                + "<td id=\"b\" colspan=\"2\"></td></tr>"
+                + "<tr><td id=\"c\"></td><td id=\"d\"></td></tr>");
+        assertEquals(2, model.getRowCount());
+        assertEquals(3, model.getColumnCount());
+        assertEquals("a", getId(model, 0, 0));
+        assertEquals("b", getId(model, 0, 1));
+        assertEquals("b", getId(model, 0, 2));
+        assertEquals("a", getId(model, 1, 0));
+        assertEquals("c", getId(model, 1, 1));
+        assertEquals("d", getId(model, 1, 2));
+    }
+
+    /**
+     * Test the rows of different lengths and the slots without cells.
+     */
+    @Test
+    public void testEmptySlots() {
+        TableModel model = getModel("<tr><td id=\"a\"></td><td id=\"b\"></td>"
+                + "<td id=\"c\"></td></tr><tr><td id=\"d\"></td></tr>");
+        assertEquals(3, model.getColumnCount());
+        assertEquals(3, model.getRowLength(0));
+        assertEquals(1, model.getRowLength(1));
+        assertEquals("d", getId(model, 1, 0));
+        assertNull(getId(model, 1, 1));
+        assertNull(getId(model, 1, -1));
+        assertNull(getId(model, 0, 3));
+    }
+
+    /**
+     * Test the spans that are not valid numbers.
+     */
+    @Test
+    public void testInvalidSpans() {
+        TableModel model = getModel("<tr><td id=\"a\" colspan=\"x\"></td>"
+                + "<td id=\"b\" colspan=\"0\" rowspan=\"-3\"></td>"
+                + "<td id=\"c\" colspan=\" 2px\"></td></tr>");
+        assertEquals(1, model.getRowCount());
+        assertEquals(4, model.getRowLength(0));
+        assertEquals("a", getId(model, 0, 0));
+        assertEquals("b", getId(model, 0, 1));
+        assertEquals("c", getId(model, 0, 2));
+        assertEquals("c", getId(model, 0, 3));
+    }
+
+    /**
+     * Test the clamp of the spans of each cell.
+     */
+    @Test
+    public void testMaximumSpans() {
+        TableModel model = getModel("<tr><td id=\"a\" colspan=\"99999999999\""
+                + " rowspan=\"99999999999\"></td></tr><tr></tr>");
+        assertEquals(2, model.getRowCount());
+        assertEquals(TableModel.MAXIMUM_COLSPAN, model.getRowLength(0));
+        assertEquals(TableModel.MAXIMUM_COLSPAN, model.getRowLength(1));
+        assertEquals("a", getId(model, 1,
+                TableModel.MAXIMUM_COLSPAN - 1));
+    }
+
+    /**
+     * Test the maximum number of slots covered by the spans of all cells.
+     */
+    @Test
+    public void testMaximumSlots() {
+        int rowCount = 5000;
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < rowCount; i++) {
+            rows.append("<tr><td colspan=\"1000\" rowspan=\"65534\"></td>")
+                    .append("</tr>");
+        }
+        TableModel model = getModel(rows.toString());
+        assertEquals(rowCount, model.getRowCount());
+        long slotCount = 0;
+        for (int i = 0; i < rowCount; i++) {
+            slotCount += model.getRowLength(i);
+        }
+        assertTrue(slotCount <= TableModel.MAXIMUM_SLOTS + rowCount);
+    }
+}
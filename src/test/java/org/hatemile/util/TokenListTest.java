@@ -0,0 +1,83 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+/**
+ * The TokenListTest class tests the lists of tokens of {@link TokenList}.
+ */
+public class TokenListTest {
+
+    /**
+     * Test the split of lists by all HTML whitespaces.
+     */
+    @Test
+    public void testGetTokens() {
+        assertEquals(Arrays.asList("a", "b", "c", "d"),
+                TokenList.getTokens(" a\tb\n\nc\r\fd "));
+        assertEquals(Collections.emptyList(), TokenList.getTokens(null));
+        assertEquals(Collections.emptyList(), TokenList.getTokens(""));
+        assertEquals(Collections.emptyList(), TokenList.getTokens(" \t "));
+    }
+
+    /**
+     * Test the search of tokens in lists, without match parts of tokens.
+     */
+    @Test
+    public void testStaticContains() {
+        assertTrue(TokenList.contains("a b\tc", "b"));
+        assertTrue(TokenList.contains("a b\tc", "c"));
+        assertFalse(TokenList.contains("abc bc", "b"));
+        assertFalse(TokenList.contains("a b", "a b"));
+        assertFalse(TokenList.contains("a b", ""));
+        assertFalse(TokenList.contains(null, "a"));
+        assertFalse(TokenList.contains("a", null));
+    }
+
+    /**
+     * Test that the tokens are appended to the original value only once.
+     */
+    @Test
+    public void testAdd() {
+        TokenList list = new TokenList("a  b");
+        assertTrue(list.contains("b"));
+        assertFalse(list.add("a"));
+        assertFalse(list.add(""));
+        assertFalse(list.add(null));
+        assertTrue(list.add("c"));
+        assertFalse(list.add("c"));
+        assertEquals("a  b c", list.toString());
+        assertEquals(3, list.size());
+    }
+
+    /**
+     * Test the add of tokens to lists without value.
+     */
+    @Test
+    public void testAddToEmptyList() {
+        TokenList list = new TokenList(null);
+        assertEquals(0, list.size());
+        assertEquals("", list.toString());
+        assertTrue(list.addAll(Arrays.asList("a", "b", "a")));
+        assertFalse(list.addAll(Arrays.asList("b")));
+        assertEquals("a b", list.toString());
+    }
+}
@@ -0,0 +1,283 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.hatemile.AccessibleDisplay;
+import org.hatemile.AccessibleNavigation;
+import org.hatemile.implementation.AccessibleDisplayScreenReaderImplementation;
+import org.hatemile.implementation.AccessibleNavigationImplementation;
+import org.hatemile.util.Configure;
+import org.hatemile.util.ConfigureSnapshot;
+import org.hatemile.util.IDGenerator;
+import org.hatemile.util.html.jsoup.JsoupHTMLDOMParser;
+import org.junit.Test;
+
+/**
+ * The FixPlanTest class tests the record, the apply and the serialization of
+ * {@link FixPlan}.
+ */
+public class FixPlanTest {
+
+    /**
+     * The code of document analyzed by tests.
+     */
+    private static final String HTML = "<html><head></head><body>"
+            + "<div id=\"a\" title=\"old\"><p id=\"b\">text</p></div>"
+            + "<div id=\"c\"></div></body></html>";
+
+    /**
+     * The code of page analyzed by the solutions of HaTeMiLe.
+     */
+    private static final String PAGE = "<html lang=\"en\"><head>"
+            + "<title>Page</title></head><body><header><h1>Site</h1><nav>"
+            + "<a href=\"/\" accesskey=\"h\" title=\"Home page\">Home</a>"
+            + "<a href=\"/a\" target=\"_blank\" download>About</a></nav>"
+            + "</header><main><h2>Title</h2><p lang=\"pt\" role=\"note\">"
+            + "Texto</p><img src=\"a.png\" alt=\"Image\" longdesc=\"a.html\">"
+            + "<table><tr><th>Name</th></tr><tr><td>A</td></tr></table>"
+            + "<h3>Subtitle</h3><ul role=\"menu\"><li role=\"menuitem\" "
+            + "aria-expanded=\"false\" aria-haspopup=\"true\">Item</li>"
+            + "</ul></main></body></html>";
+
+    /**
+     * Returns a new parser of document analyzed by tests.
+     * @return The HTML parser.
+     */
+    private static HTMLDOMParser createParser() {
+        return new JsoupHTMLDOMParser(HTML);
+    }
+
+    /**
+     * Returns the code of document after the execution of an action.
+     * @param solutions The action that changes the document.
+     * @return The code of document changed.
+     */
+    private static String execute(
+            final Consumer<? super HTMLDOMParser> solutions) {
+        HTMLDOMParser parser = createParser();
+        solutions.accept(parser);
+        return parser.getHTML();
+    }
+
+    /**
+     * Returns a copy of a plan, serialized and deserialized.
+     * @param plan The plan.
+     * @return The copy of plan.
+     * @throws IOException If the plan cannot be serialized.
+     * @throws ClassNotFoundException If the plan cannot be deserialized.
+     */
+    private static FixPlan copy(final FixPlan plan) throws IOException,
+            ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream output = new ObjectOutputStream(bytes);
+        output.writeObject(plan);
+        output.close();
+        ObjectInputStream input = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        try {
+            return (FixPlan) input.readObject();
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Test that the analysis not changes the document and that the plan
+     * applied makes the same changes of the solutions.
+     */
+    @Test
+    public void testRecordAndApply() {
+        Consumer<HTMLDOMParser> solutions = new Consumer<HTMLDOMParser>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final HTMLDOMParser parser) {
+                HTMLDOMElement div = parser.find("#a").firstResult();
+                div.setAttribute("title", "new");
+                div.setAttribute("role", "region");
+                parser.find("#b").firstResult().removeAttribute("id");
+                HTMLDOMElement span = parser.createElement("span");
+                span.setAttribute("class", "info");
+                span.appendText("information");
+                parser.find("#c").firstResult().appendElement(span);
+                div.prependText("start");
+            }
+        };
+        HTMLDOMParser parser = createParser();
+        FixPlan plan = FixPlan.analyze(parser, solutions);
+        assertEquals(createParser().getHTML(), parser.getHTML());
+        assertFalse(plan.isEmpty());
+
+        plan.applyTo(parser);
+        assertEquals(execute(solutions), parser.getHTML());
+    }
+
+    /**
+     * Test that the plan serialized is equal to the original plan and makes
+     * the same changes.
+     * @throws IOException If the plan cannot be serialized.
+     * @throws ClassNotFoundException If the plan cannot be deserialized.
+     */
+    @Test
+    public void testSerialization() throws IOException,
+            ClassNotFoundException {
+        Consumer<HTMLDOMParser> solutions = new Consumer<HTMLDOMParser>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final HTMLDOMParser parser) {
+                HTMLDOMElement script = parser.createElement("script");
+                script.appendText("var a = 1 < 2;");
+                parser.find("head").firstResult().appendElement(script);
+                parser.find("#c").firstResult().setAttribute("hidden",
+                        "hidden");
+                parser.find("#b").firstResult().removeNode();
+            }
+        };
+        FixPlan plan = FixPlan.analyze(createParser(), solutions);
+        FixPlan planCopy = copy(plan);
+        assertEquals(plan, planCopy);
+        assertEquals(plan.hashCode(), planCopy.hashCode());
+
+        HTMLDOMParser parser = createParser();
+        planCopy.applyTo(parser);
+        assertEquals(execute(solutions), parser.getHTML());
+    }
+
+    /**
+     * Test that the plan of the display and navigation solutions, applied in
+     * a new parser of page, makes the same changes of the solutions.
+     * @throws IOException If the plan cannot be serialized.
+     * @throws ClassNotFoundException If the plan cannot be deserialized.
+     */
+    @Test
+    public void testDisplayAndNavigation() throws IOException,
+            ClassNotFoundException {
+        Map<String, String> parameters = new HashMap<String, String>(
+                new Configure().getParameters());
+        parameters.put(IDGenerator.MODE_PARAMETER, IDGenerator.DOCUMENT_MODE);
+        final Configure configure = new Configure(new ConfigureSnapshot(
+                parameters));
+        Consumer<HTMLDOMParser> solutions = new Consumer<HTMLDOMParser>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final HTMLDOMParser parser) {
+                AccessibleDisplay display =
+                        new AccessibleDisplayScreenReaderImplementation(parser,
+                            configure);
+                display.displayAllShortcuts();
+                display.displayAllRoles();
+                display.displayAllCellHeaders();
+                display.displayAllWAIARIAStates();
+                display.displayAllLinksAttributes();
+                display.displayAllTitles();
+                display.displayAllLanguages();
+                display.displayAllAlternativeTextImages();
+                AccessibleNavigation navigation =
+                        new AccessibleNavigationImplementation(parser,
+                            configure);
+                navigation.provideNavigationByAllSkippers();
+                navigation.provideNavigationByAllHeadings();
+                navigation.provideNavigationToAllLongDescriptions();
+            }
+        };
+        FixPlan plan = copy(FixPlan.analyze(new JsoupHTMLDOMParser(PAGE),
+                solutions));
+        HTMLDOMParser expected = new JsoupHTMLDOMParser(PAGE);
+        solutions.accept(expected);
+        assertFalse(PAGE.equals(expected.getHTML()));
+
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(PAGE);
+        plan.applyTo(parser);
+        assertEquals(expected.getHTML(), parser.getHTML());
+    }
+
+    /**
+     * Test that the move of an element is recorded as the removal and the
+     * insertion of element.
+     */
+    @Test
+    public void testMove() {
+        Consumer<HTMLDOMParser> solutions = new Consumer<HTMLDOMParser>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final HTMLDOMParser parser) {
+                parser.find("#c").firstResult().appendElement(
+                        parser.find("#b").firstResult());
+            }
+        };
+        FixPlan plan = FixPlan.analyze(createParser(), solutions);
+        assertEquals(2, plan.size());
+        FixOperation removal = plan.getOperations().get(0);
+        FixOperation insertion = plan.getOperations().get(1);
+        assertEquals(FixOperation.Type.REMOVE_NODE, removal.getType());
+        assertEquals(FixOperation.Type.INSERT_NODE, insertion.getType());
+        assertEquals("b", insertion.getNode().getAttributes().get("id"));
+
+        HTMLDOMParser parser = createParser();
+        plan.applyTo(parser);
+        assertEquals(execute(solutions), parser.getHTML());
+        assertTrue(parser.find("#c > #b").firstResult() != null);
+        assertTrue(parser.find("#a > #b").firstResult() == null);
+    }
+
+    /**
+     * Test that a plan applied while other plan is recorded is added to the
+     * recorded plan.
+     */
+    @Test
+    public void testApplyWhileRecording() {
+        Consumer<HTMLDOMParser> solutions = new Consumer<HTMLDOMParser>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final HTMLDOMParser parser) {
+                parser.find("#a").firstResult().setAttribute("lang", "en");
+            }
+        };
+        FixPlan plan = FixPlan.analyze(createParser(), solutions);
+        HTMLDOMParser parser = createParser();
+        parser.startFixPlan();
+        plan.applyTo(parser);
+        parser.find("#c").firstResult().setAttribute("lang", "pt");
+        FixPlan recordedPlan = parser.finishFixPlan();
+        assertEquals(plan.size() + 1, recordedPlan.size());
+        assertEquals(plan.getOperations().get(0),
+                recordedPlan.getOperations().get(0));
+    }
+}
@@ -0,0 +1,200 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import org.hatemile.AccessibleDisplay;
+import org.hatemile.AccessibleForm;
+import org.hatemile.AccessibleNavigation;
+import org.hatemile.implementation.AccessibleAssociationImplementation;
+import org.hatemile.implementation.AccessibleDisplayScreenReaderConfiguration;
+import org.hatemile.implementation.AccessibleDisplayScreenReaderImplementation;
+import org.hatemile.implementation.AccessibleFormImplementation;
+import org.hatemile.implementation.AccessibleNavigationImplementation;
+import org.hatemile.util.Configure;
+import org.hatemile.util.ConfigureSnapshot;
+import org.hatemile.util.IDGenerator;
+import org.hatemile.util.html.jsoup.JsoupHTMLDOMParser;
+import org.junit.Test;
+
+/**
+ * The LocalizedAnalysisTest class tests that the solutions executed once by
+ * {@link LocalizedAnalysis} for many locales make the same changes of the
+ * solutions executed for each locale.
+ */
+public class LocalizedAnalysisTest {
+
+    /**
+     * The code of document used by tests.
+     */
+    private static final String HTML = "<html lang=\"en\"><head>"
+            + "<title>Page</title></head><body><header><h1>Site</h1>"
+            + "<nav><a href=\"/\" accesskey=\"h\" title=\"Home page\">Home</a>"
+            + "<a href=\"/a\" target=\"_blank\" aria-haspopup=\"true\">About"
+            + "</a></nav></header><main><h2>Title</h2><p lang=\"pt\" "
+            + "title=\"Text\" role=\"note\">Texto</p><img src=\"a.png\" "
+            + "alt=\"Image\" longdesc=\"a.html\"><table><tr><th>Name</th>"
+            + "<th>Age</th></tr><tr><td>A</td><td>1</td></tr></table>"
+            + "<h3>Subtitle</h3><form><label>Name <input type=\"text\" "
+            + "required aria-invalid=\"true\"></label><label>Age "
+            + "<input type=\"number\" min=\"1\" max=\"99\"></label>"
+            + "<input type=\"checkbox\" aria-checked=\"mixed\" title=\"All\">"
+            + "</form></main></body></html>";
+
+    /**
+     * The solutions executed by tests.
+     */
+    private static final BiConsumer<HTMLDOMParser, Configure> SOLUTIONS =
+            new BiConsumer<HTMLDOMParser, Configure>() {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void accept(final HTMLDOMParser parser,
+                final Configure configure) {
+            AccessibleAssociationImplementation association =
+                    new AccessibleAssociationImplementation(parser, configure);
+            association.associateAllDataCellsWithHeaderCells();
+            association.associateAllLabelsWithFields();
+            AccessibleForm form = new AccessibleFormImplementation(parser,
+                    configure);
+            form.markAllRequiredFields();
+            form.markAllRangeFields();
+            form.markAllInvalidFields();
+            AccessibleNavigation navigation =
+                    new AccessibleNavigationImplementation(parser, configure);
+            navigation.provideNavigationByAllHeadings();
+            navigation.provideNavigationToAllLongDescriptions();
+            AccessibleDisplay display =
+                    new AccessibleDisplayScreenReaderImplementation(parser,
+                        configure);
+            display.displayAllShortcuts();
+            display.displayAllRoles();
+            display.displayAllCellHeaders();
+            display.displayAllWAIARIAStates();
+            display.displayAllLinksAttributes();
+            display.displayAllTitles();
+            display.displayAllLanguages();
+            display.displayAllAlternativeTextImages();
+        }
+    };
+
+    /**
+     * Returns the configuration of a locale, with ids generated by document
+     * and other parameters changed.
+     * @param locale The locale.
+     * @param changedParameters The changed parameters.
+     * @return The configuration.
+     */
+    private static Configure createConfigure(final Locale locale,
+            final String... changedParameters) {
+        Map<String, String> parameters = new HashMap<String, String>(
+                new Configure(locale).getParameters());
+        parameters.put(IDGenerator.MODE_PARAMETER, IDGenerator.DOCUMENT_MODE);
+        for (int i = 0; i < changedParameters.length; i += 2) {
+            parameters.put(changedParameters[i], changedParameters[i + 1]);
+        }
+        return new Configure(new ConfigureSnapshot(parameters));
+    }
+
+    /**
+     * Returns the code of document changed by the solutions executed for a
+     * configuration.
+     * @param solutions The solutions.
+     * @param configure The configuration.
+     * @return The code of document changed.
+     */
+    private static String execute(
+            final BiConsumer<HTMLDOMParser, Configure> solutions,
+            final Configure configure) {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(HTML);
+        solutions.accept(parser, configure);
+        return parser.getHTML();
+    }
+
+    /**
+     * Check that the codes rendered by the analysis of configurations are the
+     * codes of solutions executed for each configuration.
+     * @param solutions The solutions.
+     * @param configurations The configurations.
+     * @return The codes rendered.
+     */
+    private static List<String> checkRender(
+            final BiConsumer<HTMLDOMParser, Configure> solutions,
+            final List<Configure> configurations) {
+        List<String> codes = new LocalizedAnalysis(configurations).render(
+                new JsoupHTMLDOMParser(HTML), solutions);
+        assertEquals(configurations.size(), codes.size());
+        for (int i = 0, length = codes.size(); i < length; i++) {
+            assertEquals(execute(solutions, configurations.get(i)),
+                    codes.get(i));
+        }
+        return codes;
+    }
+
+    /**
+     * Test that the English and the Brazilian Portuguese configurations are
+     * rendered like the solutions executed for each locale.
+     */
+    @Test
+    public void testLocales() {
+        List<String> codes = checkRender(SOLUTIONS, Arrays.asList(
+                createConfigure(Locale.ENGLISH),
+                createConfigure(new Locale("pt", "BR"))));
+        assertFalse(codes.get(0).equals(codes.get(1)));
+    }
+
+    /**
+     * Test that the settings, different between the configurations, are read
+     * by the solutions with the values of each configuration.
+     */
+    @Test
+    public void testSettings() {
+        BiConsumer<HTMLDOMParser, Configure> solutions =
+                new BiConsumer<HTMLDOMParser, Configure>() {
+
+            /**
+             * {@inheritDoc}
+             */
+            @Override
+            public void accept(final HTMLDOMParser parser,
+                    final Configure configure) {
+                SOLUTIONS.accept(parser, configure);
+                if (configure.getParameter(
+                        AccessibleDisplayScreenReaderConfiguration
+                            .TEMPLATES_PARAMETER).equals("true")) {
+                    parser.find("body").firstResult().setAttribute(
+                            "data-templates", "enabled");
+                }
+            }
+        };
+        List<String> codes = checkRender(solutions, Arrays.asList(
+                createConfigure(Locale.ENGLISH,
+                    AccessibleDisplayScreenReaderConfiguration
+                        .TEMPLATES_PARAMETER, "true"),
+                createConfigure(new Locale("pt", "BR"),
+                    AccessibleDisplayScreenReaderConfiguration
+                        .TEMPLATES_PARAMETER, "false")));
+        assertFalse(codes.get(1).contains("data-templates"));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+ */
+package org.hatemile.util.html.jsoup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.hatemile.util.html.HTMLDOMElement;
+import org.hatemile.util.html.HTMLDOMNode;
+import org.hatemile.util.html.HTMLDOMParser;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Tag;
+import org.junit.Test;
+
+/**
+ * The JsoupHTMLDOMNodeCacheTest class tests that the nodes of a parser are
+ * encapsulated once by {@link JsoupHTMLDOMNodeCache} and compared by
+ * identity.
+ */
+public class JsoupHTMLDOMNodeCacheTest {
+
+    /**
+     * The code of document used by tests.
+     */
+    private static final String HTML = "<html><head></head><body>"
+            + "<div id=\"a\"><p id=\"b\">text</p></div></body></html>";
+
+    /**
+     * Returns the identity hash code of an element, without keep a reference
+     * to the element.
+     * @param parser The HTML parser.
+     * @param selector The selector of element.
+     * @return The identity hash code of element.
+     */
+    private static int getIdentity(final HTMLDOMParser parser,
+            final String selector) {
+        return System.identityHashCode(parser.find(selector).firstResult());
+    }
+
+    /**
+     * Test that a Jsoup node is encapsulated by the same node, by any way
+     * that the node is found, even when the caller not keeps the node.
+     */
+    @Test
+    public void testSameNode() {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(HTML);
+        int identity = getIdentity(parser, "#b");
+        System.gc();
+        assertEquals(identity, getIdentity(parser, "#b"));
+
+        HTMLDOMElement div = parser.find("#a").firstResult();
+        HTMLDOMElement paragraph = parser.find("#b").firstResult();
+        assertSame(paragraph, div.getFirstElementChild());
+        assertSame(paragraph, div.getChildren().get(0));
+        assertSame(div, paragraph.getParentElement());
+        HTMLDOMNode text = paragraph.getFirstNodeChild();
+        assertSame(text, paragraph.getLastNodeChild());
+        assertSame(paragraph, text.getParentElement());
+
+        HTMLDOMElement span = parser.createElement("span");
+        div.appendElement(span);
+        assertSame(span, parser.find("#a > span").firstResult());
+    }
+
+    /**
+     * Test that the elements are equal only if they are the same object.
+     */
+    @Test
+    public void testIdentityEquality() {
+        HTMLDOMParser parser = new JsoupHTMLDOMParser(HTML);
+        HTMLDOMElement paragraph = parser.find("#b").firstResult();
+        HTMLDOMElement otherParagraph = new JsoupHTMLDOMElement(
+                (Element) paragraph.getData());
+        assertEquals(paragraph, parser.find("#b").firstResult());
+        assertFalse(paragraph.equals(otherParagraph));
+        assertFalse(otherParagraph.equals(paragraph));
+        assertFalse(paragraph.equals(parser.find("#a").firstResult()));
+        assertFalse(paragraph.equals(paragraph.cloneElement()));
+    }
+
+    /**
+     * Test that the nodes are not kept after the parser is cleared.
+     */
+    @Test
+    public void testClear() {
+        JsoupHTMLDOMNodeCache cache = new JsoupHTMLDOMNodeCache();
+        Element jsoupElement = new Element(Tag.valueOf("p"), "");
+        JsoupHTMLDOMElement element = cache.getElement(jsoupElement);
+        assertSame(element, cache.getElement(jsoupElement));
+        cache.clear();
+        assertNotSame(element, cache.getElement(jsoupElement));
+    }
+}